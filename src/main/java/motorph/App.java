@@ -1,54 +1,130 @@
 package motorph;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
 public class App {
     /**
      * The main method serves as the entry point to the application.
      *
      * <p>
-     * This method calculates the weekly salary for a series of employees by
-     * invoking
-     * the {@code calculateEmployeeWeeklySalary} method on the
-     * {@code EmployeeDatabaseService}
-     * class for each employee. The employee IDs range from 10001 to 10034, and each
-     * corresponding salary calculation is executed sequentially.
+     * This method calculates the weekly salary of every employee in the employee
+     * database using a {@link PayrollRunner}, and prints the payslips in the
+     * order of the employee list through a buffered {@link PayslipReporter}.
+     * Each result is reported, and exported if requested, as soon as it is
+     * calculated, so the results of all employees are never held at once.
+     *
+     * <p>
+     * The employees are processed in parallel. The number of workers defaults to
+     * the number of available processors and can be changed with the
+     * {@code motorph.payroll.workers} system property, e.g.
+     * {@code -Dmotorph.payroll.workers=1} for a sequential run.
+     *
+     * <p>
+     * With {@code -Dmotorph.payroll.streaming=true} the attendance file is instead
+     * streamed through a {@link StreamingPayroll}, which keeps memory use bounded
+     * for attendance files that do not fit in the heap.
+     *
+     * <p>
+     * With {@code -Dmotorph.payroll.export=<file>} the payslips are also exported
+     * through a {@link PayslipExporter}, as CSV if the file name ends in
+     * {@code .csv} and in the binary format otherwise.
+     *
+     * <p>
+     * With {@code -Dmotorph.metrics.enabled=true} the run is instrumented by
+     * {@link PayrollMetrics}, which can be watched over JMX while the run is in
+     * progress and writes a JSON summary at the end, to the file named by
+     * {@code motorph.metrics.summary} or else to standard error.
+     *
+     * <p>
+     * With {@code -Dmotorph.server.port=<port>} no payroll is run; instead a
+     * {@link PayrollServer} answers payslip, attendance and deduction queries
+     * for single employees on that port until the process is stopped. Unless
+     * {@code sun.net.httpserver.nodelay} is given, it is set to {@code true}
+     * first, as the JDK's HTTP server reads it once, when the first server is
+     * created.
      *
      * @param args the command-line arguments, which are not used in this
      *             application.
      */
     public static void main(String[] args) {
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10002);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10003);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10004);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10005);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10006);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10007);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10008);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10009);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10010);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10011);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10012);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10013);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10014);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10015);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10016);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10017);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10018);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10019);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10020);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10021);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10022);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10023);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10024);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10025);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10026);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10027);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10028);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10029);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10030);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10031);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10032);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10033);
-        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10034);
+        Integer serverPort = Integer.getInteger("motorph.server.port");
+        if (serverPort != null) {
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                // Sends each response without waiting for the client's delayed
+                // acknowledgement of its headers, see PayrollServer.
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            PayrollServer payrollServer = PayrollServer.start(serverPort);
+            System.out.println("Serving payroll queries on port " + payrollServer.getPort());
+            return;
+        }
+        if (PayrollMetrics.enabled) {
+            PayrollMetrics.registerMBean();
+        }
+        String exportFile = System.getProperty("motorph.payroll.export");
+        try (PayslipExporter payslipExporter = exportFile == null ? null : PayslipExporter.open(Path.of(exportFile))) {
+            ResultWriter resultWriter = new ResultWriter(new PayslipReporter(System.out), payslipExporter);
+            long calculationStartNanos = PayrollMetrics.startTimer();
+            if (Boolean.getBoolean("motorph.payroll.streaming")) {
+                StreamingPayroll.run(resultWriter);
+            } else {
+                int workers = Integer.getInteger("motorph.payroll.workers",
+                        Runtime.getRuntime().availableProcessors());
+                try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(workers)) {
+                    payrollRunner.run(resultWriter);
+                }
+            }
+            PayrollMetrics.recordStage(PayrollMetrics.Stage.PAYROLL_CALCULATION, calculationStartNanos);
+            resultWriter.finish();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        PayrollMetrics.writeRunSummary();
+    }
+
+    /**
+     * Reports each payroll result and, if an export was requested, exports it,
+     * timing both for {@link PayrollMetrics}.
+     */
+    private static final class ResultWriter implements Consumer<PayrollResult> {
+        private final PayslipReporter payslipReporter;
+        private final PayslipExporter payslipExporter;
+        private long reportingNanos;
+        private long exportingNanos;
+
+        ResultWriter(PayslipReporter payslipReporter, PayslipExporter payslipExporter) {
+            this.payslipReporter = payslipReporter;
+            this.payslipExporter = payslipExporter;
+        }
+
+        @Override
+        public void accept(PayrollResult payrollResult) {
+            long reportingStartNanos = PayrollMetrics.startTimer();
+            this.payslipReporter.report(payrollResult);
+            if (this.payslipExporter == null) {
+                this.reportingNanos += PayrollMetrics.startTimer() - reportingStartNanos;
+                return;
+            }
+            long exportingStartNanos = PayrollMetrics.startTimer();
+            this.payslipExporter.export(payrollResult);
+            this.reportingNanos += exportingStartNanos - reportingStartNanos;
+            this.exportingNanos += PayrollMetrics.startTimer() - exportingStartNanos;
+        }
+
+        /**
+         * Flushes the report and records the reporting and exporting times.
+         */
+        void finish() {
+            long flushStartNanos = PayrollMetrics.startTimer();
+            this.payslipReporter.flush();
+            PayrollMetrics.recordStageNanos(PayrollMetrics.Stage.REPORTING,
+                    this.reportingNanos + PayrollMetrics.startTimer() - flushStartNanos);
+            if (this.payslipExporter != null) {
+                PayrollMetrics.recordStageNanos(PayrollMetrics.Stage.EXPORTING, this.exportingNanos);
+            }
+        }
     }
 }
@@ -0,0 +1,119 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Folds a stream of attendance records into per-employee, per-week totals.
+ * <p>
+ * Each record of a payroll month is added to the {@link WeeklyAttendanceTotals}
+ * of its employee, month and week of the month as soon as it is read, after
+ * which it can be garbage collected. Records outside the payroll months, and
+ * records of employees missing from the employee details, are skipped like the
+ * in-memory calculation skips them. Memory use therefore grows with the number
+ * of employees, not with the number of rows in the attendance file or the
+ * length of its history. Each employee's hourly rate is looked up once, on
+ * the employee's first record. Records of a week must be accepted in date
+ * order for the totals to match the in-memory calculation exactly.
+ * <p>
+ * An accumulator is not thread-safe.
+ *
+ * @see EmployeeDatabaseService#forEachAttendanceRecord(Consumer)
+ * @see StreamingPayroll
+ */
+public class AttendanceAccumulator implements Consumer<AttendanceRecord> {
+
+    /**
+     * The weekly totals of one employee, with the hourly rate they are priced
+     * at, or no rate if the employee is unknown.
+     */
+    private static final class EmployeeTotals {
+        final BigDecimal hourlyRate;
+        final Map<YearMonth, SortedMap<Integer, WeeklyAttendanceTotals>> monthlyTotals = new HashMap<>();
+
+        EmployeeTotals(BigDecimal hourlyRate) {
+            this.hourlyRate = hourlyRate;
+        }
+    }
+
+    private final Map<Integer, EmployeeTotals> weeklyTotals = new LinkedHashMap<>();
+    private long acceptedRecords;
+    private long skippedRecords;
+
+    /**
+     * Adds an attendance record to the totals of its week.
+     *
+     * @param attendanceRecord the attendance record
+     */
+    @Override
+    public void accept(AttendanceRecord attendanceRecord) {
+        add(attendanceRecord);
+    }
+
+    /**
+     * Adds an attendance record to the totals of its week, unless it is skipped.
+     *
+     * @param attendanceRecord the attendance record
+     * @return whether the record was added; {@code false} if it lies outside the
+     *         payroll months or belongs to an unknown employee
+     */
+    boolean add(AttendanceRecord attendanceRecord) {
+        this.acceptedRecords++;
+        YearMonth month = YearMonth.from(attendanceRecord.date);
+        if (!EmployeeDatabaseService.isPayrollMonth(month)) {
+            this.skippedRecords++;
+            return false;
+        }
+        EmployeeTotals employeeTotals = this.weeklyTotals.computeIfAbsent(attendanceRecord.employeeId,
+                employeeId -> new EmployeeTotals(EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId)
+                        .map(employee -> employee.hourlyRate).orElse(null)));
+        if (employeeTotals.hourlyRate == null) {
+            this.skippedRecords++;
+            return false;
+        }
+        employeeTotals.monthlyTotals.computeIfAbsent(month, key -> new TreeMap<>())
+                .computeIfAbsent(AttendanceIndex.getWeekOfMonth(attendanceRecord.date),
+                        weekNumber -> new WeeklyAttendanceTotals(month))
+                .add(attendanceRecord, employeeTotals.hourlyRate);
+        return true;
+    }
+
+    /**
+     * Retrieves the weekly totals of an employee for a month.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param month      the month
+     * @return a map of week number to totals in ascending week order, empty if
+     *         the employee has no attendance in the month or the month is not a
+     *         payroll month
+     */
+    public SortedMap<Integer, WeeklyAttendanceTotals> getWeeklyTotals(int employeeId, YearMonth month) {
+        EmployeeTotals employeeTotals = this.weeklyTotals.get(employeeId);
+        if (employeeTotals == null) {
+            return new TreeMap<>();
+        }
+        return employeeTotals.monthlyTotals.getOrDefault(month, new TreeMap<>());
+    }
+
+    /**
+     * @return the number of attendance records accepted so far, including the
+     *         skipped ones
+     */
+    public long getAcceptedRecords() {
+        return this.acceptedRecords;
+    }
+
+    /**
+     * @return the number of accepted records that were outside the payroll
+     *         months or belonged to an unknown employee
+     */
+    public long getSkippedRecords() {
+        return this.skippedRecords;
+    }
+}
@@ -0,0 +1,352 @@
+package motorph;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Follows the attendance CSV file as punches are appended to it, parsing only
+ * the bytes added since the last read.
+ * <p>
+ * The follower remembers the byte offset up to which the file has been
+ * consumed. Each {@link #poll()} reads the file from that offset to its current
+ * end, parses the new lines with a {@link FastAttendanceParser} and hands the
+ * records to the consumer as one batch. A line is consumed once its line break
+ * has been written; a last line without a line break, as the attendance file
+ * ends with, is consumed once the file has stopped growing between two polls.
+ * <p>
+ * After each batch the offset is saved to a checkpoint file, together with the
+ * CRC-32C of the bytes just before it. A follower created from a checkpoint
+ * resumes at the saved offset, so a restart does not read the consumed part of
+ * the file again. If the file has been truncated or replaced, so that it no
+ * longer matches the checkpoint, it is followed from the start again and its
+ * records are delivered again. Because the checkpoint is saved after the
+ * consumer has accepted a batch, a crash in between delivers that batch again
+ * on restart.
+ * <p>
+ * {@link #start()} polls the file from a background thread whenever the
+ * directory's {@link WatchService} reports a change to it, and at least every
+ * {@value #POLL_INTERVAL_MILLIS} ms for file systems that do not report
+ * changes. {@link #close()} stops the thread by closing the watch service,
+ * which wakes it, rather than by interrupting it, as an interrupt would close
+ * the file channel of a running poll.
+ *
+ * @see EmployeeDatabaseService#followAttendanceRecords()
+ */
+public final class AttendanceFileFollower implements AutoCloseable {
+    static final int CHECKPOINT_MAGIC = 0x4D50484F;
+    static final int CHECKPOINT_SIZE = 16;
+    static final long POLL_INTERVAL_MILLIS = 1000;
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int VERIFIED_BYTES = 4096;
+
+    private final Path source;
+    private final Path checkpoint;
+    private final Consumer<? super List<AttendanceRecord>> consumer;
+    private final Consumer<? super AttendanceFileFollower> onClose;
+    private long offset;
+    private int offsetChecksum;
+    private long previousSize = -1;
+    private long followedRecords;
+    private volatile boolean closed;
+    private volatile WatchService watchService;
+    private volatile Thread watcher;
+
+    /**
+     * Creates a follower that resumes from a checkpoint file, or starts at the
+     * beginning of the attendance file if there is no valid checkpoint.
+     *
+     * @param source     the attendance CSV file
+     * @param checkpoint the file the consumed offset is saved to
+     * @param consumer   receives the records of each poll, in file order
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public AttendanceFileFollower(Path source, Path checkpoint, Consumer<? super List<AttendanceRecord>> consumer)
+            throws IOException {
+        this(source, checkpoint, consumer, follower -> {
+        });
+        readCheckpoint();
+    }
+
+    /**
+     * Creates a follower that starts at a known offset, without a checkpoint
+     * file.
+     *
+     * @param source   the attendance CSV file
+     * @param offset   the number of bytes already consumed, at a line boundary
+     * @param consumer receives the records of each poll, in file order
+     * @param onClose  receives the follower when it is closed
+     * @throws IOException if the attendance file cannot be read
+     */
+    AttendanceFileFollower(Path source, long offset, Consumer<? super List<AttendanceRecord>> consumer,
+            Consumer<? super AttendanceFileFollower> onClose) throws IOException {
+        this(source, null, consumer, onClose);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            this.offset = Math.min(offset, channel.size());
+            this.offsetChecksum = checksumBefore(channel, this.offset);
+        }
+    }
+
+    private AttendanceFileFollower(Path source, Path checkpoint, Consumer<? super List<AttendanceRecord>> consumer,
+            Consumer<? super AttendanceFileFollower> onClose) {
+        this.source = source;
+        this.checkpoint = checkpoint;
+        this.consumer = consumer;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Reads and parses the lines appended since the last poll.
+     *
+     * @return the number of records handed to the consumer
+     * @throws IOException              if the attendance file or the checkpoint
+     *                                  cannot be accessed
+     * @throws IllegalArgumentException if a new line is malformed
+     */
+    public synchronized int poll() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < this.offset || checksumBefore(channel, this.offset) != this.offsetChecksum) {
+                // Truncated or replaced: follow the new file from its start.
+                this.offset = 0;
+                this.offsetChecksum = checksumBefore(channel, 0);
+            }
+            boolean stable = size == this.previousSize;
+            this.previousSize = size;
+            if (size == this.offset) {
+                return 0;
+            }
+
+            List<AttendanceRecord> records = new ArrayList<>();
+            long end = readLines(channel, this.offset, size, stable, records::add);
+            if (end == this.offset) {
+                return 0;
+            }
+            if (!records.isEmpty()) {
+                this.consumer.accept(records);
+            }
+            this.offset = end;
+            this.offsetChecksum = checksumBefore(channel, end);
+            this.followedRecords += records.size();
+            writeCheckpoint();
+            return records.size();
+        }
+    }
+
+    /**
+     * Starts following the attendance file from a background thread.
+     *
+     * @return this follower
+     * @throws IOException           if the directory cannot be watched
+     * @throws IllegalStateException if the follower has already been started
+     */
+    public synchronized AttendanceFileFollower start() throws IOException {
+        if (this.watcher != null) {
+            throw new IllegalStateException("The attendance file is already being followed");
+        }
+        Path directory = this.source.toAbsolutePath().getParent();
+        WatchService service = directory.getFileSystem().newWatchService();
+        directory.register(service, ENTRY_CREATE, ENTRY_MODIFY);
+        this.watchService = service;
+        this.watcher = Thread.ofPlatform().daemon().name("attendance-follower").start(this::follow);
+        return this;
+    }
+
+    /**
+     * Stops following the attendance file and waits for a running poll to
+     * finish.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        WatchService service = this.watchService;
+        Thread thread = this.watcher;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ioException) {
+                // The watcher thread stops at its next poll timeout.
+            }
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.onClose.accept(this);
+    }
+
+    /**
+     * @return the number of bytes of the attendance file consumed so far
+     */
+    public synchronized long getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * @return the number of records handed to the consumer by this follower
+     */
+    public synchronized long getFollowedRecords() {
+        return this.followedRecords;
+    }
+
+    private void follow() {
+        Path fileName = this.source.getFileName();
+        try {
+            pollQuietly();
+            while (!this.closed) {
+                WatchKey key = this.watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == OVERFLOW || fileName.equals(event.context());
+                    }
+                    key.reset();
+                    if (!changed) {
+                        continue;
+                    }
+                }
+                pollQuietly();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException stopped) {
+            // Closed by close().
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (NoSuchFileException noSuchFileException) {
+            // Being replaced; the next event picks up the new file.
+        } catch (IOException | RuntimeException exception) {
+            // Keeps following; the failed lines are read again by the next poll.
+            System.err.println("Unable to follow the attendance file: " + exception);
+        }
+    }
+
+    /**
+     * Parses the attendance lines in a range of the file. The range must start
+     * at the beginning of the file or of a line.
+     *
+     * @param channel                 the attendance file
+     * @param from                    the offset of the first byte to read
+     * @param to                      the offset after the last byte to read
+     * @param includeUnterminatedLine whether a last line without a line break
+     *                                is parsed, or left for a later read
+     * @param consumer                receives each attendance record, in file
+     *                                order
+     * @return the offset after the last consumed line
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the header or a line is malformed
+     */
+    static long readLines(FileChannel channel, long from, long to, boolean includeUnterminatedLine,
+            Consumer<? super AttendanceRecord> consumer) throws IOException {
+        FastAttendanceParser parser = new FastAttendanceParser();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(1, Math.min(BLOCK_SIZE, to - from)));
+        boolean headerPending = from == 0;
+        long position = from;
+        long consumed = from;
+        while (position < to) {
+            if (!buffer.hasRemaining()) {
+                // A line longer than the buffer.
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + to - position));
+            int read = channel.read(buffer, position);
+            buffer.limit(buffer.capacity());
+            if (read < 0) {
+                break;
+            }
+            position += read;
+
+            int length = buffer.position();
+            int lineEnd = length;
+            while (lineEnd > 0 && buffer.get(lineEnd - 1) != '\n') {
+                lineEnd--;
+            }
+            if (lineEnd > 0) {
+                int start = headerPending ? parser.skipHeader(buffer, 0, lineEnd) : 0;
+                headerPending = false;
+                parser.parseLines(buffer, start, lineEnd, consumer);
+                consumed += lineEnd;
+                buffer.limit(length).position(lineEnd);
+                buffer.compact();
+            }
+        }
+        if (includeUnterminatedLine && buffer.position() > 0) {
+            int length = buffer.position();
+            int start = headerPending ? parser.skipHeader(buffer, 0, length) : 0;
+            parser.parseLines(buffer, start, length, consumer);
+            consumed += length;
+        }
+        return consumed;
+    }
+
+    /**
+     * @return the CRC-32C of up to {@value #VERIFIED_BYTES} bytes before the
+     *         offset, or of nothing if the file is shorter than the offset
+     */
+    private static int checksumBefore(FileChannel channel, long offset) throws IOException {
+        CRC32C checksum = new CRC32C();
+        long from = Math.max(0, offset - VERIFIED_BYTES);
+        if (offset <= channel.size()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (offset - from));
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer, from + buffer.position());
+            }
+            checksum.update(buffer.flip());
+        }
+        return (int) checksum.getValue();
+    }
+
+    private void readCheckpoint() throws IOException {
+        if (!Files.exists(this.checkpoint)) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.checkpoint));
+        if (buffer.remaining() == CHECKPOINT_SIZE && buffer.getInt() == CHECKPOINT_MAGIC) {
+            this.offset = buffer.getLong();
+            this.offsetChecksum = buffer.getInt();
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        if (this.checkpoint == null) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_SIZE)
+                .putInt(CHECKPOINT_MAGIC).putLong(this.offset).putInt(this.offsetChecksum);
+        Path directory = this.checkpoint.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, this.checkpoint.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(temporary, this.checkpoint, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A pre-partitioned index of attendance records by employee, month and week of
+ * the month.
+ * <p>
+ * The index is built over an {@link AttendanceStore} in a single pass. Each
+ * employee's rows are kept in one array sorted by date, and the month and week
+ * groups are arrays of row numbers into the store, so
+ * {@link EmployeeDatabaseService#getAttendanceRecordsByMonth(int)} and
+ * {@link EmployeeDatabaseService#getAttendanceRecordsByWeek(int, Month)} are
+ * plain map lookups instead of full scans of the attendance file. Payroll code
+ * can read the row groups directly from {@link #getRowsByWeek(int, Month)}; the
+ * record lists handed out to other callers are read-only views over the same
+ * rows.
+ * <p>
+ * Records on the same date keep the order in which they appear in the source
+ * list. As with the original grouping, months are keyed by {@link Month} only,
+ * so records from the same month of different years share a group.
+ * <p>
+ * An index is immutable. {@link #append(AttendanceStore)} creates the index of
+ * a store with rows appended by re-partitioning only the employees those rows
+ * belong to; the partitions of all other employees are shared with this
+ * index. The employees are spread over buckets by ID, and only the buckets of
+ * the affected employees are copied.
+ *
+ * @see EmployeeDatabaseService#getAttendanceRecordsByEmployeeId(int)
+ */
+final class AttendanceIndex {
+    /**
+     * Week numbering used for payroll weeks: weeks start on Sunday and the first
+     * week of the month may be a partial week.
+     */
+    static final WeekFields PAYROLL_WEEK_FIELDS = WeekFields.of(Locale.US);
+
+    /**
+     * The employees are spread over 2 to the power of this many buckets.
+     */
+    private static final int BUCKET_BITS = 6;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private final AttendanceStore store;
+    private final List<AttendanceRecord> source;
+    private final int sourceSize;
+    private final Bucket[] buckets;
+
+    /**
+     * The partitions of the employees whose IDs fall in one bucket.
+     */
+    private static final class Bucket {
+        final Map<Integer, EmployeeAttendance> employeeAttendance;
+
+        Bucket(Map<Integer, EmployeeAttendance> employeeAttendance) {
+            this.employeeAttendance = employeeAttendance;
+        }
+    }
+
+    /**
+     * Builds an index over the rows of the given attendance store.
+     *
+     * @param store the attendance store to index
+     */
+    AttendanceIndex(AttendanceStore store) {
+        this(store, store.asList());
+    }
+
+    /**
+     * Builds an index over the given attendance records, copying them into a new
+     * {@link AttendanceStore}.
+     *
+     * @param attendanceRecords the attendance records to index; the index must be
+     *                          rebuilt if the list is modified
+     */
+    AttendanceIndex(List<AttendanceRecord> attendanceRecords) {
+        this(AttendanceStore.of(attendanceRecords), attendanceRecords);
+    }
+
+    private AttendanceIndex(AttendanceStore store, List<AttendanceRecord> source) {
+        this.store = store;
+        this.source = source;
+        this.sourceSize = source.size();
+
+        Map<Integer, int[]> rowCounts = new HashMap<>();
+        for (int row = 0; row < store.size(); row++) {
+            rowCounts.computeIfAbsent(store.employeeId(row), employeeId -> new int[1])[0]++;
+        }
+        Map<Integer, long[]> rowsByEmployee = new HashMap<>();
+        rowCounts.forEach((employeeId, count) -> rowsByEmployee.put(employeeId, new long[count[0]]));
+        for (int row = 0; row < store.size(); row++) {
+            int employeeId = store.employeeId(row);
+            int[] filled = rowCounts.get(employeeId);
+            long[] rows = rowsByEmployee.get(employeeId);
+            // Sorting on (epoch day, row) keeps rows of the same date in source order.
+            rows[rows.length - filled[0]--] = (long) store.epochDay(row) << 32 | row;
+        }
+        this.buckets = new Bucket[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            this.buckets[bucket] = new Bucket(new HashMap<>());
+        }
+        rowsByEmployee.forEach((employeeId, rows) -> bucketOf(employeeId).employeeAttendance.put(employeeId,
+                new EmployeeAttendance(store, rows)));
+    }
+
+    private AttendanceIndex(AttendanceStore store, Bucket[] buckets) {
+        this.store = store;
+        this.source = store.asList();
+        this.sourceSize = store.size();
+        this.buckets = buckets;
+    }
+
+    /**
+     * Creates the index of a store that holds the rows of this index's store
+     * followed by new rows, such as one created by
+     * {@link AttendanceStore#append(List)}.
+     * <p>
+     * Only the employees of the new rows are re-partitioned, each from its
+     * existing date-sorted rows and its new rows. The partitions of every other
+     * employee are shared with this index, which is not changed.
+     *
+     * @param appended the store with rows appended
+     * @return the index of the appended store
+     */
+    AttendanceIndex append(AttendanceStore appended) {
+        Map<Integer, int[]> newRowCounts = new HashMap<>();
+        for (int row = this.store.size(); row < appended.size(); row++) {
+            newRowCounts.computeIfAbsent(appended.employeeId(row), employeeId -> new int[1])[0]++;
+        }
+        Map<Integer, long[]> rowsByEmployee = new HashMap<>();
+        newRowCounts.forEach((employeeId, count) -> {
+            int[] existingRows = getRows(employeeId);
+            long[] rows = new long[existingRows.length + count[0]];
+            for (int i = 0; i < existingRows.length; i++) {
+                rows[i] = (long) appended.epochDay(existingRows[i]) << 32 | existingRows[i];
+            }
+            count[0] = existingRows.length;
+            rowsByEmployee.put(employeeId, rows);
+        });
+        for (int row = this.store.size(); row < appended.size(); row++) {
+            int employeeId = appended.employeeId(row);
+            rowsByEmployee.get(employeeId)[newRowCounts.get(employeeId)[0]++] = (long) appended.epochDay(row) << 32
+                    | row;
+        }
+
+        Bucket[] appendedBuckets = this.buckets.clone();
+        rowsByEmployee.forEach((employeeId, rows) -> {
+            int bucket = bucketIndex(employeeId);
+            if (appendedBuckets[bucket] == this.buckets[bucket]) {
+                appendedBuckets[bucket] = new Bucket(new HashMap<>(this.buckets[bucket].employeeAttendance));
+            }
+            appendedBuckets[bucket].employeeAttendance.put(employeeId, new EmployeeAttendance(appended, rows));
+        });
+        return new AttendanceIndex(appended, appendedBuckets);
+    }
+
+    private Bucket bucketOf(int employeeId) {
+        return this.buckets[bucketIndex(employeeId)];
+    }
+
+    /**
+     * Picks a bucket from the high bits of the scrambled ID, leaving the low
+     * bits, which the bucket's hash map indexes by, spread within each bucket.
+     */
+    private static int bucketIndex(int employeeId) {
+        return (employeeId * 0x9E3779B9) >>> (Integer.SIZE - BUCKET_BITS);
+    }
+
+    /**
+     * Checks whether this index is up to date with the given attendance list.
+     *
+     * @param attendanceRecords the attendance list currently in use
+     * @return true if the index was built over this list and its size has not
+     *         changed since
+     */
+    boolean isIndexOf(List<AttendanceRecord> attendanceRecords) {
+        return this.source == attendanceRecords && this.sourceSize == attendanceRecords.size();
+    }
+
+    /**
+     * @return the attendance store the row numbers of this index refer to
+     */
+    AttendanceStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Retrieves all attendance records of an employee, sorted by date.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return a read-only list of the employee's records, empty if there are none
+     */
+    List<AttendanceRecord> getRecords(int employeeId) {
+        EmployeeAttendance attendance = bucketOf(employeeId).employeeAttendance.get(employeeId);
+        return attendance == null ? List.of() : attendance.allRecords;
+    }
+
+    /**
+     * Retrieves the store rows of an employee's attendance, sorted by date. The
+     * array must not be modified.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return the employee's row numbers, empty if there are none
+     */
+    int[] getRows(int employeeId) {
+        EmployeeAttendance attendance = bucketOf(employeeId).employeeAttendance.get(employeeId);
+        return attendance == null ? new int[0] : attendance.rows;
+    }
+
+    /**
+     * Retrieves an employee's attendance records grouped by month.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return a read-only map of month to the records in that month
+     */
+    Map<Month, List<AttendanceRecord>> getRecordsByMonth(int employeeId) {
+        EmployeeAttendance attendance = bucketOf(employeeId).employeeAttendance.get(employeeId);
+        return attendance == null ? Map.of() : attendance.recordsByMonth;
+    }
+
+    /**
+     * Retrieves an employee's attendance records in a month, grouped by week of
+     * the month.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param month      the month to retrieve
+     * @return a read-only map of week number to the records in that week, in
+     *         ascending week order; empty if there are no records for the month
+     */
+    Map<Integer, List<AttendanceRecord>> getRecordsByWeek(int employeeId, Month month) {
+        EmployeeAttendance attendance = bucketOf(employeeId).employeeAttendance.get(employeeId);
+        if (attendance == null) {
+            return Map.of();
+        }
+        return attendance.recordsByWeek.getOrDefault(month, Map.of());
+    }
+
+    /**
+     * Retrieves the store rows of an employee's attendance in a month, grouped by
+     * week of the month. The arrays must not be modified.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param month      the month to retrieve
+     * @return a read-only map of week number to the date-sorted row numbers of
+     *         that week, in ascending week order; empty if there are no records
+     *         for the month
+     */
+    Map<Integer, int[]> getRowsByWeek(int employeeId, Month month) {
+        EmployeeAttendance attendance = bucketOf(employeeId).employeeAttendance.get(employeeId);
+        if (attendance == null) {
+            return Map.of();
+        }
+        return attendance.rowsByWeek.getOrDefault(month, Map.of());
+    }
+
+    /**
+     * Returns the payroll week of the month that a date falls in.
+     *
+     * @param date the date
+     * @return the 1-based week of the month
+     */
+    static int getWeekOfMonth(LocalDate date) {
+        return date.get(PAYROLL_WEEK_FIELDS.weekOfMonth());
+    }
+
+    /**
+     * The date-sorted rows of a single employee together with their month and
+     * week partitions.
+     */
+    private static final class EmployeeAttendance {
+        final int[] rows;
+        final List<AttendanceRecord> allRecords;
+        final Map<Month, List<AttendanceRecord>> recordsByMonth;
+        final Map<Month, Map<Integer, List<AttendanceRecord>>> recordsByWeek;
+        final Map<Month, Map<Integer, int[]>> rowsByWeek;
+
+        EmployeeAttendance(AttendanceStore store, long[] datedRows) {
+            if (!isSorted(datedRows)) {
+                Arrays.sort(datedRows);
+            }
+            int[] rows = new int[datedRows.length];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = (int) datedRows[i];
+            }
+            this.rows = rows;
+            this.allRecords = store.asList(rows);
+
+            Map<Month, int[]> months = new EnumMap<>(Month.class);
+            Map<Month, Map<Integer, int[]>> weeks = new EnumMap<>(Month.class);
+            int monthStart = 0;
+            while (monthStart < rows.length) {
+                LocalDate firstDate = LocalDate.ofEpochDay(store.epochDay(rows[monthStart]));
+                int monthEnd = monthStart + 1;
+                int nextMonthDay = (int) firstDate.withDayOfMonth(1).plusMonths(1).toEpochDay();
+                while (monthEnd < rows.length && store.epochDay(rows[monthEnd]) < nextMonthDay) {
+                    monthEnd++;
+                }
+                appendSlice(months, firstDate.getMonth(), Arrays.copyOfRange(rows, monthStart, monthEnd));
+
+                Map<Integer, int[]> monthWeeks = weeks.computeIfAbsent(firstDate.getMonth(),
+                        month -> new TreeMap<>());
+                int weekStart = monthStart;
+                while (weekStart < monthEnd) {
+                    LocalDate weekDate = LocalDate.ofEpochDay(store.epochDay(rows[weekStart]));
+                    int weekOfMonth = getWeekOfMonth(weekDate);
+                    // The week ends when the next week starts or with the month.
+                    int nextWeekDay = (int) weekDate
+                            .with(TemporalAdjusters.next(PAYROLL_WEEK_FIELDS.getFirstDayOfWeek())).toEpochDay();
+                    int weekEnd = weekStart + 1;
+                    while (weekEnd < monthEnd && store.epochDay(rows[weekEnd]) < nextWeekDay) {
+                        weekEnd++;
+                    }
+                    appendSlice(monthWeeks, weekOfMonth, Arrays.copyOfRange(rows, weekStart, weekEnd));
+                    weekStart = weekEnd;
+                }
+                monthStart = monthEnd;
+            }
+
+            Map<Month, List<AttendanceRecord>> monthRecords = new EnumMap<>(Month.class);
+            months.forEach((month, monthRows) -> monthRecords.put(month, store.asList(monthRows)));
+            Map<Month, Map<Integer, List<AttendanceRecord>>> weekRecords = new EnumMap<>(Month.class);
+            weeks.forEach((month, monthWeeks) -> {
+                Map<Integer, List<AttendanceRecord>> recordsOfWeeks = new TreeMap<>();
+                monthWeeks.forEach((week, weekRows) -> recordsOfWeeks.put(week, store.asList(weekRows)));
+                weekRecords.put(month, Collections.unmodifiableMap(recordsOfWeeks));
+            });
+            weeks.replaceAll((month, monthWeeks) -> Collections.unmodifiableMap(monthWeeks));
+            this.recordsByMonth = Collections.unmodifiableMap(monthRecords);
+            this.recordsByWeek = weekRecords;
+            this.rowsByWeek = weeks;
+        }
+
+        private static boolean isSorted(long[] datedRows) {
+            for (int i = 1; i < datedRows.length; i++) {
+                if (datedRows[i] < datedRows[i - 1]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds a slice of rows to a group. A group normally consists of a single
+         * slice; only when the records span several years does a month or week group
+         * have to be stitched together from several slices.
+         */
+        private static <K> void appendSlice(Map<K, int[]> groups, K key, int[] slice) {
+            groups.merge(key, slice, (existing, additional) -> {
+                int[] merged = Arrays.copyOf(existing, existing.length + additional.length);
+                System.arraycopy(additional, 0, merged, existing.length, additional.length);
+                return merged;
+            });
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Collects attendance records submitted concurrently by several punch sources,
+ * such as biometric terminals exporting at the same time, and publishes them
+ * in batches.
+ * <p>
+ * Submitted records are pushed onto one of a number of lock-free stacks,
+ * picked by employee ID, so producers never take a lock and only contend when
+ * they submit punches of employees on the same stripe at the same moment. The
+ * stripe heads are spread over separate cache lines so that producers on
+ * different stripes do not slow each other down either. Each
+ * {@link #publish()} detaches every stripe with a single atomic swap and hands
+ * the detached records to the publisher as one batch, so every record is
+ * published exactly once and the records of an employee are published in the
+ * order they were submitted.
+ * <p>
+ * {@link #publish()} holds the ingestor's monitor, so a producer that needs a
+ * group of records published in the same batch, such as one export of a
+ * terminal, submits them while synchronized on the ingestor. Other producers
+ * still submit without waiting; only publishing waits for the group.
+ * <p>
+ * {@link EmployeeDatabaseService#ingestAttendanceRecords()} publishes into
+ * {@link EmployeeDatabaseService#appendAttendanceRecords(List)}, which swaps in
+ * a new read-only store holding the batch. Payroll threads keep reading the
+ * store they started with, so readers never block producers or each other and
+ * see either all or none of a batch.
+ * <p>
+ * {@link #start()} publishes from a background thread every
+ * {@value #PUBLISH_INTERVAL_MILLIS} ms. {@link #close()} stops the thread and
+ * publishes what is left; records submitted while it closes are still
+ * published. The thread is woken rather than interrupted, as an interrupt
+ * would close any file channel the publisher is writing to.
+ *
+ * @see AttendanceFileFollower
+ */
+public final class AttendanceIngestor implements AutoCloseable {
+    static final long PUBLISH_INTERVAL_MILLIS = 50;
+
+    /**
+     * Stripe heads are this many array slots apart, so that each sits on its
+     * own 64-byte cache line.
+     */
+    private static final int PADDING = 16;
+
+    /**
+     * A submitted record on a stripe, linked to the record submitted before it.
+     */
+    private static final class Node {
+        final AttendanceRecord record;
+        Node next;
+
+        Node(AttendanceRecord record) {
+            this.record = record;
+        }
+    }
+
+    private final AtomicReferenceArray<Node> heads;
+    private final int stripeMask;
+    private final Consumer<? super List<AttendanceRecord>> publisher;
+    private final LongAdder submittedRecords = new LongAdder();
+    private final LongAdder contendedSubmissions = new LongAdder();
+    private long publishedRecords;
+    private List<AttendanceRecord> failedBatch;
+    private volatile boolean closed;
+    private volatile Thread publisherThread;
+
+    /**
+     * Creates an ingestor with a stripe per four available processors' worth
+     * of producers.
+     *
+     * @param publisher receives each published batch
+     */
+    public AttendanceIngestor(Consumer<? super List<AttendanceRecord>> publisher) {
+        this(Runtime.getRuntime().availableProcessors() * 4, publisher);
+    }
+
+    /**
+     * Creates an ingestor.
+     *
+     * @param stripes   the number of stripes, rounded up to a power of two
+     * @param publisher receives each published batch, from one thread at a
+     *                  time
+     * @throws IllegalArgumentException if the number of stripes is below 1 or
+     *                                  above 2<sup>20</sup>
+     */
+    public AttendanceIngestor(int stripes, Consumer<? super List<AttendanceRecord>> publisher) {
+        if (stripes < 1 || stripes > 1 << 20) {
+            throw new IllegalArgumentException("Number of stripes out of range: " + stripes);
+        }
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.heads = new AtomicReferenceArray<>(stripeCount * PADDING);
+        this.stripeMask = stripeCount - 1;
+        this.publisher = Objects.requireNonNull(publisher);
+    }
+
+    /**
+     * Submits an attendance record, to be published by the next
+     * {@link #publish()}. Safe to call from any number of threads.
+     *
+     * @param attendanceRecord the record
+     * @throws IllegalStateException if the ingestor has been closed
+     */
+    public void submit(AttendanceRecord attendanceRecord) {
+        if (this.closed) {
+            throw new IllegalStateException("The attendance ingestor is closed");
+        }
+        Node node = new Node(Objects.requireNonNull(attendanceRecord));
+        int slot = (attendanceRecord.employeeId & this.stripeMask) * PADDING;
+        Node head = this.heads.get(slot);
+        node.next = head;
+        while (!this.heads.compareAndSet(slot, head, node)) {
+            this.contendedSubmissions.increment();
+            head = this.heads.get(slot);
+            node.next = head;
+        }
+        this.submittedRecords.increment();
+        if (this.closed) {
+            // Pushed after close() may have taken its last batch.
+            publish();
+        }
+    }
+
+    /**
+     * Submits attendance records, in order. The records may be split over
+     * several batches unless the caller holds the ingestor's monitor, see the
+     * class documentation.
+     *
+     * @param attendanceRecords the records
+     * @throws IllegalStateException if the ingestor has been closed
+     */
+    public void submitAll(List<? extends AttendanceRecord> attendanceRecords) {
+        for (AttendanceRecord attendanceRecord : attendanceRecords) {
+            submit(attendanceRecord);
+        }
+    }
+
+    /**
+     * Hands every record submitted so far and not yet published to the
+     * publisher, as one batch. Does nothing if there are none. If the publisher
+     * throws, the batch is kept and handed over again, ahead of the records
+     * submitted since, by the next publish.
+     *
+     * @return the number of records published
+     * @throws RuntimeException whatever the publisher throws
+     */
+    public synchronized int publish() {
+        List<AttendanceRecord> batch = new ArrayList<>();
+        if (this.failedBatch != null) {
+            // Its records were submitted before any still on the stripes.
+            batch.addAll(this.failedBatch);
+            this.failedBatch = null;
+        }
+        for (int slot = 0; slot < this.heads.length(); slot += PADDING) {
+            int start = batch.size();
+            for (Node node = this.heads.getAndSet(slot, null); node != null; node = node.next) {
+                batch.add(node.record);
+            }
+            Collections.reverse(batch.subList(start, batch.size()));
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            this.publisher.accept(batch);
+        } catch (RuntimeException exception) {
+            this.failedBatch = batch;
+            throw exception;
+        }
+        this.publishedRecords += batch.size();
+        return batch.size();
+    }
+
+    /**
+     * Starts publishing from a background thread.
+     *
+     * @return this ingestor
+     * @throws IllegalStateException if the ingestor has already been started
+     *                               or has been closed
+     */
+    public synchronized AttendanceIngestor start() {
+        if (this.publisherThread != null || this.closed) {
+            throw new IllegalStateException("The attendance ingestor is already started or closed");
+        }
+        this.publisherThread = Thread.ofPlatform().daemon().name("attendance-ingestor")
+                .start(this::publishPeriodically);
+        return this;
+    }
+
+    /**
+     * Stops accepting records, stops the background thread and publishes the
+     * records that are left.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        Thread thread = this.publisherThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        publish();
+    }
+
+    /**
+     * @return the number of records submitted so far
+     */
+    public long getSubmittedRecords() {
+        return this.submittedRecords.sum();
+    }
+
+    /**
+     * @return the number of records handed to the publisher so far
+     */
+    public synchronized long getPublishedRecords() {
+        return this.publishedRecords;
+    }
+
+    /**
+     * @return the number of times a submission had to retry because another
+     *         producer changed its stripe at the same moment
+     */
+    public long getContendedSubmissions() {
+        return this.contendedSubmissions.sum();
+    }
+
+    /**
+     * @return the number of stripes
+     */
+    public int getStripes() {
+        return this.stripeMask + 1;
+    }
+
+    private void publishPeriodically() {
+        while (!this.closed) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PUBLISH_INTERVAL_MILLIS);
+            for (long remaining = deadline - System.nanoTime(); remaining > 0 && !this.closed;
+                    remaining = deadline - System.nanoTime()) {
+                // Woken early by close().
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (this.closed) {
+                return;
+            }
+            try {
+                publish();
+            } catch (RuntimeException exception) {
+                System.err.println("Unable to publish attendance records: " + exception);
+            }
+        }
+    }
+}
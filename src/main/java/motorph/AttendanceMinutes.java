@@ -0,0 +1,254 @@
+package motorph;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Worked minutes, late flags and overtime hours of a set of attendance rows,
+ * calculated in one pass over their log in and log out minutes.
+ * <p>
+ * For each row, with {@code d} the minutes between log in and log out:
+ * <ul>
+ * <li>the worked minutes are {@code d - 60}, the day less the lunch break, as
+ * in {@link EmployeeDatabaseService#calculateEmployeeWorkingDuration(int, int)};</li>
+ * <li>the row is late if the employee logged in after 8:11 AM, the
+ * {@link EmployeeDatabaseService#OVERTIME_CUTOFF_MINUTE};</li>
+ * <li>the overtime hours are the whole working hours over 8 of a row that is
+ * not late, as in
+ * {@link EmployeeDatabaseService#calculateEmployeeOvertimePay(java.math.BigDecimal, int, int)},
+ * and 0 otherwise.</li>
+ * </ul>
+ * The same pass sums the worked minutes and overtime hours and counts the
+ * late rows.
+ * <p>
+ * The rows are processed either one at a time or, when
+ * {@link EmployeeDatabaseService#vectorArithmetic} is enabled and the
+ * {@code jdk.incubator.vector} module has been added to the JVM with
+ * {@code --add-modules jdk.incubator.vector}, as many at a time as the
+ * processor's vector registers hold, see {@code VectorAttendanceMinutes}. Both
+ * give the same results; without the module the scalar loop is always used.
+ * <p>
+ * {@code VectorAttendanceMinutes} is only compiled by the {@code vector} Maven
+ * profile, which also adds the module to the tests and benchmarks, so that
+ * default builds do not use the incubating module; it is looked up when this
+ * class is loaded.
+ *
+ * @see EmployeeDatabaseService#calculateAttendanceMinutes()
+ * @see EmployeeDatabaseService#calculateAttendanceMinutes(int)
+ */
+public final class AttendanceMinutes {
+    private static final MethodHandle VECTOR_CALCULATE = findVectorCalculation();
+    private static final boolean VECTOR_API_AVAILABLE = VECTOR_CALCULATE != null;
+
+    private final int[] workedMinutes;
+    private final int[] overtimeHours;
+    private final boolean[] late;
+    private long totalWorkedMinutes;
+    private long totalOvertimeHours;
+    private int lateRows;
+
+    private AttendanceMinutes(int size) {
+        this.workedMinutes = new int[size];
+        this.overtimeHours = new int[size];
+        this.late = new boolean[size];
+    }
+
+    /**
+     * Calculates the minutes of every row of a store.
+     *
+     * @param store the attendance store
+     * @return the minutes of the rows, by row number
+     */
+    public static AttendanceMinutes of(AttendanceStore store) {
+        boolean vectorized = isVectorized();
+        AttendanceMinutes minutes = new AttendanceMinutes(store.size());
+        long[] totals = new long[3];
+        for (int chunk = 0; chunk < store.chunkCount(); chunk++) {
+            minutes.calculate(store.logInMinuteChunk(chunk), store.logOutMinuteChunk(chunk),
+                    store.chunkLength(chunk), chunk * AttendanceStore.CHUNK_SIZE, vectorized, totals);
+        }
+        minutes.setTotals(totals);
+        return minutes;
+    }
+
+    /**
+     * Calculates the minutes of some rows of a store, e.g. the rows of one
+     * employee.
+     *
+     * @param store the attendance store
+     * @param rows  the row numbers
+     * @return the minutes of the rows, in the order of the row numbers
+     */
+    public static AttendanceMinutes of(AttendanceStore store, int[] rows) {
+        short[] logInMinutes = new short[rows.length];
+        short[] logOutMinutes = new short[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            logInMinutes[i] = (short) store.logInMinute(rows[i]);
+            logOutMinutes[i] = (short) store.logOutMinute(rows[i]);
+        }
+        return calculate(logInMinutes, logOutMinutes, rows.length, isVectorized());
+    }
+
+    /**
+     * @return whether the next calculation uses the Vector API
+     */
+    public static boolean isVectorized() {
+        return EmployeeDatabaseService.vectorArithmetic && VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * @return whether the {@code jdk.incubator.vector} module is available and
+     *         {@code VectorAttendanceMinutes} has been compiled
+     */
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Calculates the minutes of the first rows of two minute columns.
+     *
+     * @param logInMinutes  the log in minutes of the day, each 0 to 1439
+     * @param logOutMinutes the log out minutes of the day, each 0 to 1439
+     * @param length        the number of rows
+     * @param vectorized    whether to use the Vector API, which must be
+     *                      available
+     * @return the minutes of the rows
+     */
+    static AttendanceMinutes calculate(short[] logInMinutes, short[] logOutMinutes, int length, boolean vectorized) {
+        AttendanceMinutes minutes = new AttendanceMinutes(length);
+        long[] totals = new long[3];
+        minutes.calculate(logInMinutes, logOutMinutes, length, 0, vectorized, totals);
+        minutes.setTotals(totals);
+        return minutes;
+    }
+
+    /**
+     * Calculates the first rows of two minute columns into the rows of this
+     * object starting at an offset.
+     */
+    private void calculate(short[] logInMinutes, short[] logOutMinutes, int length, int offset, boolean vectorized,
+            long[] totals) {
+        if (vectorized) {
+            try {
+                VECTOR_CALCULATE.invokeExact(logInMinutes, logOutMinutes, length, offset, this.workedMinutes,
+                        this.overtimeHours, this.late, totals);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable exception) {
+                throw new IllegalStateException(exception);
+            }
+        } else {
+            calculateScalar(logInMinutes, logOutMinutes, 0, length, offset, this.workedMinutes, this.overtimeHours,
+                    this.late, totals);
+        }
+    }
+
+    /**
+     * Looks up {@code VectorAttendanceMinutes.calculate}, which is only loaded
+     * when the {@code jdk.incubator.vector} module is present.
+     *
+     * @return the calculation, or {@code null} if the module is missing or the
+     *         class has not been compiled
+     */
+    private static MethodHandle findVectorCalculation() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return lookup.findStatic(lookup.findClass("motorph.VectorAttendanceMinutes"), "calculate",
+                    MethodType.methodType(void.class, short[].class, short[].class, int.class, int.class,
+                            int[].class, int[].class, boolean[].class, long[].class));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private void setTotals(long[] totals) {
+        this.totalWorkedMinutes = totals[0];
+        this.totalOvertimeHours = totals[1];
+        this.lateRows = (int) totals[2];
+    }
+
+    /**
+     * Calculates a range of rows one at a time into the results shifted by an
+     * offset, adding to the totals of worked minutes, overtime hours and late
+     * rows.
+     */
+    static void calculateScalar(short[] logInMinutes, short[] logOutMinutes, int from, int to, int offset,
+            int[] workedMinutes, int[] overtimeHours, boolean[] late, long[] totals) {
+        long worked = 0;
+        long overtime = 0;
+        int lateCount = 0;
+        for (int i = from; i < to; i++) {
+            int logInMinute = logInMinutes[i];
+            int logOutMinute = logOutMinutes[i];
+            int workingHours = EmployeeDatabaseService.calculateEmployeeWorkingHours(logInMinute, logOutMinute);
+            boolean isLate = logInMinute > EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE;
+            int rowOvertimeHours = !isLate && workingHours > 8 ? workingHours - 8 : 0;
+            int rowWorkedMinutes = logOutMinute - logInMinute - 60;
+            workedMinutes[offset + i] = rowWorkedMinutes;
+            overtimeHours[offset + i] = rowOvertimeHours;
+            late[offset + i] = isLate;
+            worked += rowWorkedMinutes;
+            overtime += rowOvertimeHours;
+            lateCount += isLate ? 1 : 0;
+        }
+        totals[0] += worked;
+        totals[1] += overtime;
+        totals[2] += lateCount;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return this.workedMinutes.length;
+    }
+
+    /**
+     * @param index the index of the row among the calculated rows
+     * @return the minutes worked on the row, excluding the lunch break
+     */
+    public int workedMinutes(int index) {
+        return this.workedMinutes[index];
+    }
+
+    /**
+     * @param index the index of the row among the calculated rows
+     * @return the overtime hours of the row, 0 if it has none or is late
+     */
+    public int overtimeHours(int index) {
+        return this.overtimeHours[index];
+    }
+
+    /**
+     * @param index the index of the row among the calculated rows
+     * @return whether the employee logged in after 8:11 AM
+     */
+    public boolean isLate(int index) {
+        return this.late[index];
+    }
+
+    /**
+     * @return the minutes worked on all rows
+     */
+    public long totalWorkedMinutes() {
+        return this.totalWorkedMinutes;
+    }
+
+    /**
+     * @return the overtime hours of all rows
+     */
+    public long totalOvertimeHours() {
+        return this.totalOvertimeHours;
+    }
+
+    /**
+     * @return the number of late rows
+     */
+    public int lateRows() {
+        return this.lateRows;
+    }
+}
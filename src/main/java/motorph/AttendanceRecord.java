@@ -95,4 +95,19 @@ public class AttendanceRecord {
         this.logIn = logIn;
         this.logOut = logOut;
     }
+
+    /**
+     * Returns a string representation of the attendance record, holding every
+     * field. The format is: "employeeId, firstName lastName, yyyy-MM-dd, logIn-logOut"
+     * Where the times are formatted as HH:mm.
+     * <p>
+     * Attendance records have no value equality, as their fields are mutable;
+     * tests compare records by this representation instead.
+     *
+     * @return a string representation of the attendance record
+     */
+    @Override
+    public String toString() {
+        return String.format("%d, %s %s, %s, %s-%s", employeeId, firstName, lastName, date, logIn, logOut);
+    }
 }
@@ -0,0 +1,533 @@
+package motorph;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A column-oriented, primitive-backed store of attendance records.
+ * <p>
+ * Instead of one {@link AttendanceRecord} object per punch, with its two name
+ * strings, {@link LocalDate} and two {@link LocalTime} objects, each row is
+ * held as four primitive values in parallel arrays:
+ * <ul>
+ * <li>the employee ID,</li>
+ * <li>the date as an epoch day ({@link LocalDate#toEpochDay()}),</li>
+ * <li>the log in and log out times as minutes of the day.</li>
+ * </ul>
+ * That is 12 bytes per row. Employee names are held once per employee rather
+ * than once per row. Payroll code reads the columns directly through
+ * {@link #employeeId(int)}, {@link #epochDay(int)}, {@link #logInMinute(int)}
+ * and {@link #logOutMinute(int)} without allocating anything, while existing
+ * callers can still get {@link AttendanceRecord}s from {@link #get(int)} or the
+ * {@link #asList()} view.
+ * <p>
+ * The columns are split into chunks of {@value #CHUNK_SIZE} rows. A store
+ * with records appended, see {@link #append(List)}, shares the full chunks of
+ * the store it was appended to and only copies its last, partly filled chunk,
+ * so appending costs time in proportion to the new records rather than to the
+ * rows already held.
+ * <p>
+ * Log times are kept to the minute, which is the resolution of the attendance
+ * file; seconds of records added from elsewhere are dropped. A store is
+ * immutable once built and can be shared between threads.
+ *
+ * @see AttendanceStore.Builder
+ */
+public final class AttendanceStore {
+    private static final LocalTime[] MINUTES_OF_DAY = new LocalTime[24 * 60];
+
+    static {
+        for (int minuteOfDay = 0; minuteOfDay < MINUTES_OF_DAY.length; minuteOfDay++) {
+            MINUTES_OF_DAY[minuteOfDay] = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+    }
+
+    /**
+     * The number of rows of a chunk is 2 to the power of this.
+     */
+    private static final int CHUNK_SHIFT = 13;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int size;
+    private final int[][] employeeIds;
+    private final int[][] epochDays;
+    private final short[][] logInMinutes;
+    private final short[][] logOutMinutes;
+    private final Map<Integer, String[]> employeeNames;
+    private final List<AttendanceRecord> view = new RecordView(null);
+
+    private AttendanceStore(int size, int[][] employeeIds, int[][] epochDays, short[][] logInMinutes,
+            short[][] logOutMinutes, Map<Integer, String[]> employeeNames) {
+        this.size = size;
+        this.employeeIds = employeeIds;
+        this.epochDays = epochDays;
+        this.logInMinutes = logInMinutes;
+        this.logOutMinutes = logOutMinutes;
+        this.employeeNames = Map.copyOf(employeeNames);
+    }
+
+    /**
+     * Creates a store holding the given attendance records, in list order.
+     *
+     * @param attendanceRecords the records to store
+     * @return a new store
+     */
+    public static AttendanceStore of(List<AttendanceRecord> attendanceRecords) {
+        Builder builder = new Builder(attendanceRecords.size());
+        attendanceRecords.forEach(builder);
+        return builder.build();
+    }
+
+    /**
+     * Creates a store holding the rows of this store followed by the given
+     * records. The full chunks of this store are shared with the new store and
+     * only its last chunk is copied; this store is not changed.
+     *
+     * @param attendanceRecords the records to append, in order
+     * @return a new store
+     */
+    public AttendanceStore append(List<? extends AttendanceRecord> attendanceRecords) {
+        Builder builder = new Builder(this);
+        attendanceRecords.forEach(builder);
+        return builder.build();
+    }
+
+    /**
+     * @return the number of rows in the store
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param row the row index
+     * @return the employee ID of the row
+     */
+    public int employeeId(int row) {
+        return this.employeeIds[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * @param row the row index
+     * @return the date of the row as an epoch day
+     */
+    public int epochDay(int row) {
+        return this.epochDays[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * @param row the row index
+     * @return the log in time of the row as a minute of the day
+     */
+    public int logInMinute(int row) {
+        return this.logInMinutes[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * @param row the row index
+     * @return the log out time of the row as a minute of the day
+     */
+    public int logOutMinute(int row) {
+        return this.logOutMinutes[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * @return the number of chunks the rows are held in
+     */
+    int chunkCount() {
+        return chunkCount(this.size);
+    }
+
+    /**
+     * @param chunk the chunk index
+     * @return the number of rows in the chunk, whose first row is
+     *         {@code chunk * CHUNK_SIZE}
+     */
+    int chunkLength(int chunk) {
+        return Math.min(CHUNK_SIZE, this.size - (chunk << CHUNK_SHIFT));
+    }
+
+    /**
+     * @param chunk the chunk index
+     * @return the log in column of the chunk, at least
+     *         {@link #chunkLength(int)} long; not to be modified
+     */
+    short[] logInMinuteChunk(int chunk) {
+        return this.logInMinutes[chunk];
+    }
+
+    /**
+     * @param chunk the chunk index
+     * @return the log out column of the chunk, at least
+     *         {@link #chunkLength(int)} long; not to be modified
+     */
+    short[] logOutMinuteChunk(int chunk) {
+        return this.logOutMinutes[chunk];
+    }
+
+    private static int chunkCount(int size) {
+        return (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
+    /**
+     * Creates an {@link AttendanceRecord} holding the values of a row. Each call
+     * returns a new object; changing it does not change the store.
+     *
+     * @param row the row index
+     * @return the attendance record of the row
+     */
+    public AttendanceRecord get(int row) {
+        int employeeId = employeeId(row);
+        String[] names = this.employeeNames.get(employeeId);
+        return new AttendanceRecord(employeeId, names[0], names[1], LocalDate.ofEpochDay(epochDay(row)),
+                MINUTES_OF_DAY[logInMinute(row)], MINUTES_OF_DAY[logOutMinute(row)]);
+    }
+
+    /**
+     * Returns a read-only list view of all rows, in store order.
+     *
+     * @return the records of the store
+     */
+    public List<AttendanceRecord> asList() {
+        return this.view;
+    }
+
+    /**
+     * Returns a read-only list view of the given rows, in the given order.
+     *
+     * @param rows the row indexes; the array is not copied
+     * @return the records of the rows
+     */
+    public List<AttendanceRecord> asList(int[] rows) {
+        return new RecordView(rows);
+    }
+
+    /**
+     * Writes the columns and the name table of this store in the binary layout
+     * read by {@link #readFrom(ByteBuffer)}: the row count, each column as a
+     * block of big-endian values, then the names of each employee.
+     *
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     * @see SnapshotCache
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(this.size);
+        for (int row = 0; row < this.size; row++) {
+            out.writeInt(employeeId(row));
+        }
+        for (int row = 0; row < this.size; row++) {
+            out.writeInt(epochDay(row));
+        }
+        for (int row = 0; row < this.size; row++) {
+            out.writeShort(logInMinute(row));
+        }
+        for (int row = 0; row < this.size; row++) {
+            out.writeShort(logOutMinute(row));
+        }
+        out.writeInt(this.employeeNames.size());
+        for (Map.Entry<Integer, String[]> names : this.employeeNames.entrySet()) {
+            out.writeInt(names.getKey());
+            SnapshotCache.writeString(out, names.getValue()[0]);
+            SnapshotCache.writeString(out, names.getValue()[1]);
+        }
+    }
+
+    /**
+     * Reads a store written by {@link #writeTo(DataOutput)}. The columns are
+     * copied out of the buffer in bulk, so no object is created per row.
+     *
+     * @param buffer the buffer to read from, positioned at the start of the store
+     * @return the store
+     * @throws java.nio.BufferUnderflowException if the buffer ends early
+     */
+    static AttendanceStore readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        int chunks = chunkCount(size);
+        int[][] employeeIds = new int[chunks][];
+        int[][] epochDays = new int[chunks][];
+        short[][] logInMinutes = new short[chunks][];
+        short[][] logOutMinutes = new short[chunks][];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int length = Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+            employeeIds[chunk] = new int[length];
+            epochDays[chunk] = new int[length];
+            logInMinutes[chunk] = new short[length];
+            logOutMinutes[chunk] = new short[length];
+        }
+        readColumn(buffer, employeeIds, size);
+        readColumn(buffer, epochDays, size);
+        readColumn(buffer, logInMinutes, size);
+        readColumn(buffer, logOutMinutes, size);
+
+        int employees = buffer.getInt();
+        Map<Integer, String[]> employeeNames = new HashMap<>();
+        for (int i = 0; i < employees; i++) {
+            int employeeId = buffer.getInt();
+            employeeNames.put(employeeId, new String[] { SnapshotCache.readString(buffer), SnapshotCache.readString(buffer) });
+        }
+        return new AttendanceStore(size, employeeIds, epochDays, logInMinutes, logOutMinutes, employeeNames);
+    }
+
+    private static void readColumn(ByteBuffer buffer, int[][] chunks, int size) {
+        IntBuffer column = buffer.asIntBuffer();
+        for (int[] chunk : chunks) {
+            column.get(chunk);
+        }
+        buffer.position(buffer.position() + size * Integer.BYTES);
+    }
+
+    private static void readColumn(ByteBuffer buffer, short[][] chunks, int size) {
+        ShortBuffer column = buffer.asShortBuffer();
+        for (short[] chunk : chunks) {
+            column.get(chunk);
+        }
+        buffer.position(buffer.position() + size * Short.BYTES);
+    }
+
+    /**
+     * Converts a time to a minute of the day, dropping seconds.
+     *
+     * @param time the time
+     * @return the minute of the day, from 0 to 1439
+     */
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * A read-only list of the records of some or all rows, created on access.
+     */
+    private final class RecordView extends AbstractList<AttendanceRecord> implements RandomAccess {
+        private final int[] rows;
+
+        RecordView(int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public AttendanceRecord get(int index) {
+            if (this.rows == null) {
+                return AttendanceStore.this.get(index);
+            }
+            return AttendanceStore.this.get(this.rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return this.rows == null ? AttendanceStore.this.size : this.rows.length;
+        }
+    }
+
+    /**
+     * Collects attendance records into a new {@link AttendanceStore}. A builder
+     * can be used as the consumer of a parser or loader.
+     */
+    public static final class Builder implements Consumer<AttendanceRecord> {
+        private final int expectedRows;
+        private int size;
+        private int[][] employeeIds;
+        private int[][] epochDays;
+        private short[][] logInMinutes;
+        private short[][] logOutMinutes;
+        private final Map<Integer, String[]> inheritedNames;
+        private final Map<Integer, String[]> employeeNames = new HashMap<>();
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            this(1024);
+        }
+
+        /**
+         * Creates an empty builder with room for the given number of rows.
+         *
+         * @param expectedRows the number of rows expected
+         */
+        public Builder(int expectedRows) {
+            this.expectedRows = expectedRows;
+            int chunks = Math.max(1, chunkCount(expectedRows));
+            this.employeeIds = new int[chunks][];
+            this.epochDays = new int[chunks][];
+            this.logInMinutes = new short[chunks][];
+            this.logOutMinutes = new short[chunks][];
+            this.inheritedNames = Map.of();
+        }
+
+        /**
+         * Creates a builder holding the rows of a store, to append more rows to.
+         * The full chunks of the store are shared rather than copied.
+         *
+         * @param store the store whose rows the built store starts with
+         */
+        Builder(AttendanceStore store) {
+            this.expectedRows = store.size;
+            this.size = store.size;
+            int chunks = chunkCount(store.size) + 1;
+            this.employeeIds = Arrays.copyOf(store.employeeIds, chunks);
+            this.epochDays = Arrays.copyOf(store.epochDays, chunks);
+            this.logInMinutes = Arrays.copyOf(store.logInMinutes, chunks);
+            this.logOutMinutes = Arrays.copyOf(store.logOutMinutes, chunks);
+            this.inheritedNames = store.employeeNames;
+            int lastChunk = store.size >>> CHUNK_SHIFT;
+            int lastLength = store.size & CHUNK_MASK;
+            if (lastLength > 0) {
+                // The store's last chunk is shared with readers of the store: copy it.
+                int capacity = Math.min(CHUNK_SIZE, lastLength + Math.max(16, lastLength >> 1));
+                this.employeeIds[lastChunk] = Arrays.copyOf(this.employeeIds[lastChunk], capacity);
+                this.epochDays[lastChunk] = Arrays.copyOf(this.epochDays[lastChunk], capacity);
+                this.logInMinutes[lastChunk] = Arrays.copyOf(this.logInMinutes[lastChunk], capacity);
+                this.logOutMinutes[lastChunk] = Arrays.copyOf(this.logOutMinutes[lastChunk], capacity);
+            }
+        }
+
+        /**
+         * Appends an attendance record. The first names seen for an employee are
+         * the ones kept.
+         *
+         * @param attendanceRecord the record to append
+         */
+        @Override
+        public void accept(AttendanceRecord attendanceRecord) {
+            if (!this.inheritedNames.containsKey(attendanceRecord.employeeId)) {
+                this.employeeNames.computeIfAbsent(attendanceRecord.employeeId,
+                        employeeId -> new String[] { attendanceRecord.firstName, attendanceRecord.lastName });
+            }
+            add(attendanceRecord.employeeId, (int) attendanceRecord.date.toEpochDay(),
+                    toMinuteOfDay(attendanceRecord.logIn), toMinuteOfDay(attendanceRecord.logOut));
+        }
+
+        /**
+         * Appends a row given as column values. The first names given for an
+         * employee are the ones kept.
+         *
+         * @param employeeId   the employee ID
+         * @param firstName    the employee's first name
+         * @param lastName     the employee's last name
+         * @param epochDay     the date as an epoch day
+         * @param logInMinute  the log in time as a minute of the day
+         * @param logOutMinute the log out time as a minute of the day
+         */
+        void add(int employeeId, String firstName, String lastName, int epochDay, int logInMinute,
+                int logOutMinute) {
+            if (!this.inheritedNames.containsKey(employeeId) && !this.employeeNames.containsKey(employeeId)) {
+                this.employeeNames.put(employeeId, new String[] { firstName, lastName });
+            }
+            add(employeeId, epochDay, logInMinute, logOutMinute);
+        }
+
+        private void add(int employeeId, int epochDay, int logInMinute, int logOutMinute) {
+            room();
+            int chunk = this.size >>> CHUNK_SHIFT;
+            int offset = this.size & CHUNK_MASK;
+            this.employeeIds[chunk][offset] = employeeId;
+            this.epochDays[chunk][offset] = epochDay;
+            this.logInMinutes[chunk][offset] = (short) logInMinute;
+            this.logOutMinutes[chunk][offset] = (short) logOutMinute;
+            this.size++;
+        }
+
+        /**
+         * Appends all rows of another store, in order.
+         *
+         * @param store the store whose rows are appended
+         */
+        public void addAll(AttendanceStore store) {
+            for (int sourceChunk = 0; sourceChunk < store.chunkCount(); sourceChunk++) {
+                int length = store.chunkLength(sourceChunk);
+                int from = 0;
+                while (from < length) {
+                    int rows = Math.min(room(), length - from);
+                    int chunk = this.size >>> CHUNK_SHIFT;
+                    int offset = this.size & CHUNK_MASK;
+                    System.arraycopy(store.employeeIds[sourceChunk], from, this.employeeIds[chunk], offset, rows);
+                    System.arraycopy(store.epochDays[sourceChunk], from, this.epochDays[chunk], offset, rows);
+                    System.arraycopy(store.logInMinutes[sourceChunk], from, this.logInMinutes[chunk], offset, rows);
+                    System.arraycopy(store.logOutMinutes[sourceChunk], from, this.logOutMinutes[chunk], offset,
+                            rows);
+                    this.size += rows;
+                    from += rows;
+                }
+            }
+            store.employeeNames.forEach((employeeId, names) -> {
+                if (!this.inheritedNames.containsKey(employeeId)) {
+                    this.employeeNames.putIfAbsent(employeeId, names);
+                }
+            });
+        }
+
+        /**
+         * Makes room for at least one more row in the chunk the next row goes
+         * to, allocating or growing it as needed.
+         *
+         * @return the number of rows that fit in that chunk
+         */
+        private int room() {
+            int chunk = this.size >>> CHUNK_SHIFT;
+            int offset = this.size & CHUNK_MASK;
+            if (chunk == this.employeeIds.length) {
+                int chunks = chunk + Math.max(1, chunk >> 1);
+                this.employeeIds = Arrays.copyOf(this.employeeIds, chunks);
+                this.epochDays = Arrays.copyOf(this.epochDays, chunks);
+                this.logInMinutes = Arrays.copyOf(this.logInMinutes, chunks);
+                this.logOutMinutes = Arrays.copyOf(this.logOutMinutes, chunks);
+            }
+            int[] chunkEmployeeIds = this.employeeIds[chunk];
+            if (chunkEmployeeIds == null) {
+                int capacity = Math.min(CHUNK_SIZE, Math.max(16, this.expectedRows - this.size));
+                this.employeeIds[chunk] = new int[capacity];
+                this.epochDays[chunk] = new int[capacity];
+                this.logInMinutes[chunk] = new short[capacity];
+                this.logOutMinutes[chunk] = new short[capacity];
+            } else if (chunkEmployeeIds.length == offset) {
+                int capacity = Math.min(CHUNK_SIZE, offset + Math.max(16, offset >> 1));
+                this.employeeIds[chunk] = Arrays.copyOf(chunkEmployeeIds, capacity);
+                this.epochDays[chunk] = Arrays.copyOf(this.epochDays[chunk], capacity);
+                this.logInMinutes[chunk] = Arrays.copyOf(this.logInMinutes[chunk], capacity);
+                this.logOutMinutes[chunk] = Arrays.copyOf(this.logOutMinutes[chunk], capacity);
+            }
+            return this.employeeIds[chunk].length - offset;
+        }
+
+        /**
+         * Builds the store. The builder should not be used afterwards.
+         *
+         * @return a new store holding the appended rows
+         */
+        public AttendanceStore build() {
+            int chunks = chunkCount(this.size);
+            int[][] builtEmployeeIds = Arrays.copyOf(this.employeeIds, chunks);
+            int[][] builtEpochDays = Arrays.copyOf(this.epochDays, chunks);
+            short[][] builtLogInMinutes = Arrays.copyOf(this.logInMinutes, chunks);
+            short[][] builtLogOutMinutes = Arrays.copyOf(this.logOutMinutes, chunks);
+            int lastLength = this.size & CHUNK_MASK;
+            if (lastLength > 0 && builtEmployeeIds[chunks - 1].length != lastLength) {
+                builtEmployeeIds[chunks - 1] = Arrays.copyOf(builtEmployeeIds[chunks - 1], lastLength);
+                builtEpochDays[chunks - 1] = Arrays.copyOf(builtEpochDays[chunks - 1], lastLength);
+                builtLogInMinutes[chunks - 1] = Arrays.copyOf(builtLogInMinutes[chunks - 1], lastLength);
+                builtLogOutMinutes[chunks - 1] = Arrays.copyOf(builtLogOutMinutes[chunks - 1], lastLength);
+            }
+            Map<Integer, String[]> names = this.inheritedNames;
+            if (!this.employeeNames.isEmpty()) {
+                names = new HashMap<>(this.inheritedNames);
+                names.putAll(this.employeeNames);
+            }
+            return new AttendanceStore(this.size, builtEmployeeIds, builtEpochDays, builtLogInMinutes,
+                    builtLogOutMinutes, names);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates weekly payslips with fixed-point {@link Centavos} arithmetic
+ * instead of {@link BigDecimal}s and {@code double} hours.
+ * <p>
+ * The rules are those of {@link EmployeeDatabaseService} and
+ * {@link SalaryDeductionService}: basic pay for the minutes worked after the
+ * lunch break, overtime at 125% of the hourly rate for whole hours beyond eight
+ * when the employee logged in by 8:11, and the statutory deductions and de
+ * minimis benefits in the second to last week of the month. Per record and per
+ * week, everything is summed in exact {@code long} fractions of a centavo, so
+ * nothing is allocated until a week's totals are turned into a
+ * {@link WeeklyPayslip}.
+ * <p>
+ * Rounding is explicit and happens once per payslip amount: the gross salary,
+ * each deduction and the net salary are each rounded from their exact value to
+ * whole centavos, half away from zero. Each amount therefore equals the
+ * corresponding {@code BigDecimal} amount of the original calculation rounded
+ * to centavos. Because the net salary is rounded from its exact value, it may
+ * differ by a centavo from the sum of the rounded amounts shown above it. Hours
+ * worked are reported as the exact number of minutes divided by 60, without the
+ * accumulated {@code double} error of the original calculation.
+ *
+ * @see EmployeeDatabaseService#centavoArithmetic
+ */
+public final class CentavoPayrollEngine {
+    private static final long F = Centavos.FRACTIONS_PER_CENTAVO;
+
+    private CentavoPayrollEngine() {
+    }
+
+    /**
+     * Calculates the payslips of an employee's weeks in one month.
+     *
+     * @param employee    the employee
+     * @param month       the month of the weeks
+     * @param store       the attendance store holding the rows
+     * @param rowsByWeek  the employee's rows in the month by week number, in
+     *                    ascending week order
+     * @return the payslip of each week, in the iteration order of the map; empty
+     *         if there are no weeks
+     */
+    public static List<WeeklyPayslip> calculateWeeklyPayslips(Employee employee, YearMonth month, AttendanceStore store,
+            Map<Integer, int[]> rowsByWeek) {
+        if (rowsByWeek.isEmpty()) {
+            return List.of();
+        }
+        long hourlyRate = Centavos.fromPesos(employee.hourlyRate);
+        int deductionWeek = Collections.max(rowsByWeek.keySet()) - 1;
+        List<WeeklyPayslip> weeklyPayslips = new ArrayList<>(rowsByWeek.size());
+
+        for (Map.Entry<Integer, int[]> week : rowsByWeek.entrySet()) {
+            long minutesWorked = 0;
+            long overtimePay = 0;
+            for (int row : week.getValue()) {
+                int logInMinute = store.logInMinute(row);
+                int logOutMinute = store.logOutMinute(row);
+                minutesWorked += logOutMinute - logInMinute - 60;
+                overtimePay += overtimePay(hourlyRate, logInMinute, logOutMinute);
+            }
+            long grossWeeklySalary = basicPay(hourlyRate, minutesWorked) + overtimePay;
+            int weekNumber = week.getKey();
+            double hoursWorked = minutesWorked / 60.0;
+
+            if (weekNumber == deductionWeek) {
+                DeductionProfile deductionProfile = EmployeeDatabaseService.getDeductionProfile(employee);
+                long deMinimisBenefits = Centavos.toFractions(Centavos.fromPesos(employee.clothingAllowance)
+                        + Centavos.fromPesos(employee.riceSubsidy) + Centavos.fromPesos(employee.phoneAllowance));
+                long netWeeklySalary = grossWeeklySalary - deductionProfile.totalFractions() + deMinimisBenefits;
+
+                PayrollDeductions deductions = deductionProfile.centavoDeductions();
+                weeklyPayslips.add(new WeeklyPayslip(employee.employeeId, month, weekNumber, hoursWorked,
+                        toPesos(grossWeeklySalary), deductions, toPesos(deMinimisBenefits),
+                        toPesos(netWeeklySalary)));
+            } else {
+                weeklyPayslips.add(new WeeklyPayslip(employee.employeeId, month, weekNumber, hoursWorked,
+                        toPesos(grossWeeklySalary), null, null, null));
+            }
+        }
+        return weeklyPayslips;
+    }
+
+    /**
+     * Calculates the basic pay for a number of minutes worked.
+     *
+     * @param hourlyRate    the hourly rate in centavos
+     * @param minutesWorked the minutes worked
+     * @return the basic pay in fractions
+     */
+    public static long basicPay(long hourlyRate, long minutesWorked) {
+        return Math.multiplyExact(hourlyRate, minutesWorked) * (F / 60);
+    }
+
+    /**
+     * Calculates the overtime pay of one day, with the rules of
+     * {@link EmployeeDatabaseService#calculateEmployeeOvertimePay(BigDecimal, int, int)}.
+     *
+     * @param hourlyRate   the hourly rate in centavos
+     * @param logInMinute  the minute of the day the employee logged in
+     * @param logOutMinute the minute of the day the employee logged out
+     * @return the overtime pay in fractions, 0 if there are no overtime hours
+     */
+    public static long overtimePay(long hourlyRate, int logInMinute, int logOutMinute) {
+        int workingHours = EmployeeDatabaseService.calculateEmployeeWorkingHours(logInMinute, logOutMinute);
+        if (logInMinute > EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE || workingHours <= 8) {
+            return 0;
+        }
+        return hourlyRate * (workingHours - 8) * (F * 5 / 4);
+    }
+
+    /**
+     * Calculates the SSS contribution from the contribution schedule.
+     *
+     * @param monthlySalary the monthly basic salary in centavos
+     * @return the contribution in fractions
+     * @see SalaryDeductionService#calculateSocialSecuritySystemContribution(BigDecimal)
+     */
+    public static long socialSecuritySystemContribution(long monthlySalary) {
+        return Centavos.toFractions(
+                SalaryDeductionService.getSocialSecurityContributionTable().lookupCentavos(monthlySalary));
+    }
+
+    /**
+     * Calculates the withholding tax with the brackets of
+     * {@link SalaryDeductionService#calculateWithholdingTax(BigDecimal)}.
+     *
+     * @param monthlySalary the monthly salary in centavos
+     * @return the withholding tax in fractions
+     */
+    public static long withholdingTax(long monthlySalary) {
+        if (monthlySalary >= 66_666_700) {
+            return (monthlySalary - 66_666_700) * (F * 35 / 100) + 20_083_333 * F;
+        }
+        if (monthlySalary >= 16_666_700) {
+            return (monthlySalary - 16_666_700) * (F * 32 / 100) + 4_083_333 * F;
+        }
+        if (monthlySalary >= 6_666_700) {
+            return (monthlySalary - 6_666_700) * (F * 30 / 100) + 1_083_300 * F;
+        }
+        if (monthlySalary >= 3_333_300) {
+            return (monthlySalary - 3_333_300) * (F * 25 / 100) + 250_000 * F;
+        }
+        if (monthlySalary >= 2_083_300) {
+            return (monthlySalary - 2_083_300) * (F * 20 / 100);
+        }
+        return 0;
+    }
+
+    /**
+     * Calculates the employee's share of the PhilHealth contribution, as
+     * {@link SalaryDeductionService#calculatePhilhealthContribution(BigDecimal)}.
+     *
+     * @param monthlySalary the monthly basic salary in centavos
+     * @return the contribution in fractions
+     */
+    public static long philhealthContribution(long monthlySalary) {
+        return monthlySalary * (F * 3 / 200);
+    }
+
+    /**
+     * Calculates the Pag-IBIG contribution, as
+     * {@link SalaryDeductionService#calculatePagIbigContribution(BigDecimal)}.
+     *
+     * @param monthlySalary the monthly basic salary in centavos
+     * @return the contribution in fractions
+     */
+    public static long pagIbigContribution(long monthlySalary) {
+        long contribution = monthlySalary * (monthlySalary > 1500 * Centavos.PER_PESO ? F * 2 / 100 : F / 100);
+        return Math.min(contribution, 100 * Centavos.PER_PESO * F);
+    }
+
+    private static BigDecimal toPesos(long fractions) {
+        return Centavos.toPesos(Centavos.round(fractions));
+    }
+}
@@ -0,0 +1,91 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point peso amounts held in a {@code long} instead of a
+ * {@link BigDecimal}.
+ * <p>
+ * Two units are used:
+ * <ul>
+ * <li><b>centavos</b>, hundredths of a peso, for amounts that are paid or
+ * shown, such as a gross weekly salary or a contribution;</li>
+ * <li><b>fractions</b>, {@value #FRACTIONS_PER_CENTAVO}ths of a centavo, for
+ * amounts that are still being calculated.</li>
+ * </ul>
+ * Every rate in the payroll, whether per hour, per minute (1/60), for overtime
+ * (5/4), for tax (20%, 25%, 30%, 32% and 35%), for PhilHealth (3/200) or for
+ * Pag-IBIG (1% and 2%), turns a whole number of centavos into a whole number of
+ * fractions. Calculations in fractions are therefore exact. An amount is
+ * rounded only once, when it is converted to centavos with
+ * {@link #round(long)}, which rounds half away from zero like
+ * {@link RoundingMode#HALF_UP}.
+ * <p>
+ * All methods are static and allocation-free, except the conversions from and
+ * to {@link BigDecimal}, which are meant for the edges of a calculation.
+ *
+ * @see CentavoPayrollEngine
+ */
+public final class Centavos {
+    /**
+     * The number of centavos in a peso.
+     */
+    public static final long PER_PESO = 100;
+
+    /**
+     * The number of fractions in a centavo: the least common multiple of the
+     * denominators of the payroll rates.
+     */
+    public static final long FRACTIONS_PER_CENTAVO = 600;
+
+    private Centavos() {
+    }
+
+    /**
+     * Converts a peso amount to centavos, rounding half away from zero.
+     *
+     * @param pesos the amount in pesos
+     * @return the amount in centavos
+     * @throws ArithmeticException if the amount does not fit in a {@code long}
+     */
+    public static long fromPesos(BigDecimal pesos) {
+        return pesos.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts centavos to a peso amount with two decimal places.
+     *
+     * @param centavos the amount in centavos
+     * @return the amount in pesos
+     */
+    public static BigDecimal toPesos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Converts centavos to fractions.
+     *
+     * @param centavos the amount in centavos
+     * @return the amount in fractions
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    public static long toFractions(long centavos) {
+        return Math.multiplyExact(centavos, FRACTIONS_PER_CENTAVO);
+    }
+
+    /**
+     * Rounds fractions to the nearest centavo, rounding half away from zero.
+     *
+     * @param fractions the amount in fractions
+     * @return the amount in centavos
+     */
+    public static long round(long fractions) {
+        long centavos = fractions / FRACTIONS_PER_CENTAVO;
+        long remainder = fractions % FRACTIONS_PER_CENTAVO;
+        if (Math.abs(remainder) * 2 >= FRACTIONS_PER_CENTAVO) {
+            centavos += Long.signum(fractions);
+        }
+        return centavos;
+    }
+}
@@ -0,0 +1,179 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the attendance CSV file by memory-mapping it and parsing it in parallel.
+ * <p>
+ * The data lines after the header are split into chunks at line boundaries.
+ * Each chunk is mapped read-only and parsed by its own
+ * {@link FastAttendanceParser} on a worker thread into an
+ * {@link AttendanceStore}, and the per-chunk stores are concatenated in file
+ * order. The loaded records are therefore identical to the ones produced by a
+ * single-threaded parse of the same file.
+ * <p>
+ * A single mapping is limited to 2 GiB, so larger files are split into at least
+ * as many chunks as needed to keep each one below that size.
+ *
+ * @see EmployeeDatabaseService#attendanceLoaderThreads
+ */
+public class ChunkedAttendanceLoader {
+    private static final long MAXIMUM_CHUNK_SIZE = 1L << 30;
+    private static final int BOUNDARY_SCAN_SIZE = 8192;
+
+    /**
+     * Loads all attendance records from the given file.
+     *
+     * @param attendanceFile the attendance CSV file
+     * @param threads        the number of chunks parsed at the same time
+     * @return a read-only list of the attendance records, in file order
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the header or a line is malformed
+     */
+    public static List<AttendanceRecord> load(Path attendanceFile, int threads) throws IOException {
+        return loadStore(attendanceFile, threads).asList();
+    }
+
+    /**
+     * Loads all attendance records from the given file into a columnar store.
+     * Each chunk is parsed into its own store, and the chunk stores are copied
+     * into the result in file order.
+     *
+     * @param attendanceFile the attendance CSV file
+     * @param threads        the number of chunks parsed at the same time
+     * @return the attendance records, in file order
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the header or a line is malformed
+     */
+    public static AttendanceStore loadStore(Path attendanceFile, int threads) throws IOException {
+        try (FileChannel channel = FileChannel.open(attendanceFile, StandardOpenOption.READ)) {
+            long[] chunkBoundaries = splitIntoChunks(channel, threads);
+            int chunks = chunkBoundaries.length - 1;
+            if (chunks == 0) {
+                return new AttendanceStore.Builder().build();
+            }
+
+            List<Future<AttendanceStore>> pendingChunks = new ArrayList<>(chunks);
+            try (ExecutorService executor = new ForkJoinPool(Math.max(1, Math.min(threads, chunks)))) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    long start = chunkBoundaries[chunk];
+                    long end = chunkBoundaries[chunk + 1];
+                    pendingChunks.add(executor.submit(() -> parseChunk(channel, start, end)));
+                }
+
+                List<AttendanceStore> chunkStores = new ArrayList<>(chunks);
+                int records = 0;
+                for (Future<AttendanceStore> pendingChunk : pendingChunks) {
+                    AttendanceStore parsedChunk = awaitChunk(pendingChunk);
+                    chunkStores.add(parsedChunk);
+                    records += parsedChunk.size();
+                }
+                AttendanceStore.Builder attendanceStore = new AttendanceStore.Builder(records);
+                for (AttendanceStore parsedChunk : chunkStores) {
+                    attendanceStore.addAll(parsedChunk);
+                }
+                return attendanceStore.build();
+            }
+        }
+    }
+
+    /**
+     * Splits the data lines of the file into chunks that each start at the
+     * beginning of a line.
+     *
+     * @return the chunk boundaries: chunk {@code i} covers the bytes from
+     *         {@code boundaries[i]} up to {@code boundaries[i + 1]}
+     */
+    private static long[] splitIntoChunks(FileChannel channel, int threads) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return new long[] { 0 };
+        }
+        long dataStart = skipHeader(channel);
+        long dataSize = size - dataStart;
+        int chunks = (int) Math.max(Math.max(1, threads), (dataSize + MAXIMUM_CHUNK_SIZE - 1) / MAXIMUM_CHUNK_SIZE);
+
+        List<Long> boundaries = new ArrayList<>(chunks + 1);
+        boundaries.add(dataStart);
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long nominalBoundary = dataStart + dataSize / chunks * chunk;
+            long boundary = nextLineStart(channel, Math.max(nominalBoundary, boundaries.getLast()));
+            if (boundary > boundaries.getLast() && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        if (size > boundaries.getLast()) {
+            boundaries.add(size);
+        }
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long skipHeader(FileChannel channel) throws IOException {
+        long headerEnd = nextLineStart(channel, 0);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd);
+        return new FastAttendanceParser().skipHeader(header, 0, (int) headerEnd);
+    }
+
+    /**
+     * Finds the position just after the first line break at or after the given
+     * position, or the end of the file if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = from;
+        while (true) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static AttendanceStore parseChunk(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        AttendanceStore.Builder records = new AttendanceStore.Builder((int) ((end - start) / 40));
+        try {
+            new FastAttendanceParser().parseLines(chunk, 0, chunk.limit(), records);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            throw new IllegalArgumentException("In attendance file bytes " + start + " to " + end + ": "
+                    + illegalArgumentException.getMessage(), illegalArgumentException);
+        }
+        return records.build();
+    }
+
+    private static AttendanceStore awaitChunk(Future<AttendanceStore> pendingChunk)
+            throws IOException {
+        try {
+            return pendingChunk.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attendance loading was interrupted", interruptedException);
+        } catch (ExecutionException executionException) {
+            if (executionException.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (executionException.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Attendance loading failed", executionException.getCause());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package motorph;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * Exports weekly payslips as comma-separated values.
+ * <p>
+ * The file starts with a header line, followed by one line per payslip with
+ * the columns
+ *
+ * <pre>
+ * employee_id,year_month,week,hours_worked,gross_salary,sss_contribution,withholding_tax,
+ * philhealth_contribution,pag_ibig_contribution,de_minimis_benefits,net_salary
+ * </pre>
+ *
+ * The month is written as {@code yyyy-MM} and amounts in plain notation with
+ * their full precision. The deduction, de minimis and net salary columns are
+ * empty outside the deduction week. Lines end in CRLF, like the bundled CSV
+ * files.
+ *
+ * @see PayslipExporter#open(Path, PayslipExporter.Format)
+ */
+public final class CsvPayslipExporter extends PayslipExporter {
+    static final String HEADER = "employee_id,year_month,week,hours_worked,gross_salary,sss_contribution,"
+            + "withholding_tax,philhealth_contribution,pag_ibig_contribution,de_minimis_benefits,net_salary";
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    CsvPayslipExporter(Path file) throws IOException {
+        super(file);
+        this.line.append(HEADER).append(LINE_SEPARATOR);
+        put();
+    }
+
+    @Override
+    void write(WeeklyPayslip payslip) {
+        this.line.setLength(0);
+        this.line.append(payslip.employeeId()).append(',').append(payslip.yearMonth()).append(',')
+                .append(payslip.weekNumber()).append(',').append(payslip.hoursWorked()).append(',');
+        appendAmount(payslip.grossWeeklySalary());
+        PayrollDeductions deductions = payslip.deductions();
+        if (deductions == null) {
+            this.line.append(",,,,,,");
+        } else {
+            this.line.append(',');
+            appendAmount(deductions.socialSecuritySystemContribution());
+            this.line.append(',');
+            appendAmount(deductions.withholdingTax());
+            this.line.append(',');
+            appendAmount(deductions.philhealthContribution());
+            this.line.append(',');
+            appendAmount(deductions.pagIbigContribution());
+            this.line.append(',');
+            appendAmount(payslip.deMinimisBenefits());
+            this.line.append(',');
+            appendAmount(payslip.netWeeklySalary());
+        }
+        this.line.append(LINE_SEPARATOR);
+        put();
+    }
+
+    private void appendAmount(BigDecimal amount) {
+        this.line.append(amount.toPlainString());
+    }
+
+    /**
+     * Copies the line into the buffer. Every character of a line is ASCII, so
+     * each one is put as a single byte.
+     */
+    private void put() {
+        int length = this.line.length();
+        reserve(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer.put((byte) this.line.charAt(i));
+        }
+    }
+}
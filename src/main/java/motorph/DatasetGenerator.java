@@ -0,0 +1,396 @@
+package motorph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates employee details and attendance CSV files of any size, with the
+ * schemas of the bundled files, for sizing and load tests.
+ * <p>
+ * The output is deterministic: the same seed, headcount and date range always
+ * give byte-identical files. Every employee and every employee-day draws from
+ * its own {@link SplittableRandom} seeded from the generator's seed and its
+ * position, so the files are written line by line without holding anything but
+ * three small per-employee arrays in memory, and multi-gigabyte files take no
+ * more heap than small ones.
+ * <p>
+ * The employee details file has the bundled header and formats:
+ * {@code MM/dd/yyyy} birthdays, quoted addresses and supervisor names, and
+ * amounts with thousands separators as read by
+ * {@link Converter.DecimalConverter}. Employee {@code 10001} is the chief
+ * executive; every hundredth employee after that is a department manager,
+ * every tenth a team leader and the rest rank-and-file, each reporting to the
+ * nearest manager or team leader above them. Salaries and allowances follow the
+ * bundled pay grades, with the gross semi-monthly rate half the basic salary
+ * and the hourly rate the basic salary over 168 hours.
+ * <p>
+ * The attendance file has one punch per employee and weekday, in date order
+ * then employee order like the bundled file, with {@code H:mm} times. Both
+ * files use the bundled files' CRLF line endings and have no line break after
+ * the last line. The punches are distributed as follows:
+ * <ul>
+ * <li>3% of employee-days are absences without a punch.</li>
+ * <li>Each employee has a habitual arrival time: 60% arrive around 7:45 with
+ * little spread, 30% around 8:05 and 10% are chronic latecomers arriving
+ * between 8:20 and 9:30 with a wide spread. About one punch in five is
+ * therefore after the 8:11 overtime cutoff.</li>
+ * <li>Each employee works overtime on 5% to 35% of days; overtime is one hour
+ * on 60% of those days, two on 30% and three on 10%, plus a few minutes. On 5%
+ * of days the employee leaves up to three hours early. Otherwise the employee
+ * logs out within a quarter of an hour before and 45 minutes after nine
+ * hours, lunch included, after logging in.</li>
+ * </ul>
+ */
+public final class DatasetGenerator {
+    /**
+     * The header of the bundled employee details file.
+     */
+    static final String EMPLOYEE_DETAILS_HEADER = "Employee #,Last Name,First Name,Birthday,Address,Phone Number,"
+            + "SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,Rice Subsidy,"
+            + "Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate";
+
+    /**
+     * The first and last day of the bundled attendance file's period.
+     */
+    static final LocalDate BUNDLED_FIRST_DAY = LocalDate.of(2024, 6, 1);
+    static final LocalDate BUNDLED_LAST_DAY = LocalDate.of(2024, 12, 31);
+
+    /**
+     * The name of the employee details file written by {@link #write(Path)}.
+     */
+    static final String EMPLOYEE_DETAILS_FILE_NAME = "employee-details.csv";
+
+    /**
+     * The name of the attendance file written by {@link #write(Path)}.
+     */
+    static final String ATTENDANCE_RECORDS_FILE_NAME = "attendance-record.csv";
+
+    /**
+     * The line separator of the bundled files, used on every platform so the
+     * output does not depend on where it is generated.
+     */
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final BigDecimal HOURS_PER_MONTH = BigDecimal.valueOf(168);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private static final String[] LAST_NAMES = { "Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva",
+            "San Jose", "Romualdez", "Atienza", "Alvaro", "Salcedo", "Lopez", "Farala", "Martinez", "Mata",
+            "De Leon", "Rosario", "Bautista", "Lazaro", "Delos Santos", "Santos", "Del Rosario",
+            "Tolentino", "Gutierrez", "Manalaysay", "Villegas", "Ramos", "Maceda", "Aguilar", "Castro", "Mendoza",
+            "Cruz", "Torres", "Flores", "Navarro", "Dizon", "Pascual", "Soriano" };
+    private static final String[] FIRST_NAMES = { "Manuel III", "Antonio", "Bianca Sofia", "Isabella", "Eduard",
+            "Andrea Mae", "Brad", "Alice", "Rosie", "Roderick", "Anthony", "Josie", "Martha", "Leila", "Fredrick",
+            "Christian", "Selena", "Allison", "Cydney", "Mark", "Darlene", "Kolby", "Vella", "Tomas", "Jacklyn",
+            "Percival", "Garfield", "Lizeth", "Carol", "Emelia", "Delia", "John Rafael", "Carlos Ian", "Beatriz",
+            "Miguel", "Sofia", "Rafael", "Patricia", "Gabriel", "Angelica" };
+    private static final String[] STREETS = { "Valero Street", "Ayala Avenue", "Roxas Boulevard", "Shaw Boulevard",
+            "Ortigas Avenue", "Aurora Boulevard", "Taft Avenue", "Quezon Avenue", "Katipunan Avenue",
+            "Marcos Highway" };
+    private static final String[] CITIES = { "Makati City", "Pasig City", "Quezon City", "Taguig City",
+            "Mandaluyong City", "Manila", "Paranaque City", "Dasmarinas, Cavite", "Antipolo, Rizal",
+            "Calamba, Laguna" };
+    private static final String[] DEPARTMENTS = { "Account", "HR", "Payroll", "Sales & Marketing", "IT Operations",
+            "Supply Chain", "Customer Service" };
+
+    /**
+     * Pay grades: lowest basic salary, step, number of steps, rice subsidy,
+     * phone allowance and clothing allowance.
+     */
+    private static final int[] CHIEF_EXECUTIVE = { 90_000, 0, 0, 1_500, 2_000, 1_000 };
+    private static final int[] MANAGER = { 50_825, 25, 107, 1_500, 1_000, 1_000 };
+    private static final int[] TEAM_LEADER = { 38_475, 25, 180, 1_500, 800, 800 };
+    private static final int[] RANK_AND_FILE = { 22_500, 750, 3, 1_500, 500, 500 };
+
+    private final long seed;
+    private final int employees;
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed      the seed all values are derived from
+     * @param employees the number of employees, numbered from 10001
+     * @param firstDay  the first day of attendance
+     * @param lastDay   the last day of attendance, inclusive
+     * @throws IllegalArgumentException if the headcount is negative or the
+     *                                  date range ends before it starts
+     */
+    public DatasetGenerator(long seed, int employees, LocalDate firstDay, LocalDate lastDay) {
+        if (employees < 0) {
+            throw new IllegalArgumentException("Negative number of employees: " + employees);
+        }
+        if (lastDay.isBefore(firstDay)) {
+            throw new IllegalArgumentException("Date range ends before it starts: " + firstDay + " to " + lastDay);
+        }
+        this.seed = seed;
+        this.employees = employees;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+    }
+
+    /**
+     * Creates a generator with seed 1 over the bundled attendance period, June
+     * to December 2024, the command line's defaults.
+     *
+     * @param employees the number of employees, numbered from 10001
+     * @return the generator
+     * @throws IllegalArgumentException if the headcount is negative
+     */
+    public static DatasetGenerator ofBundledPeriod(int employees) {
+        return new DatasetGenerator(1, employees, BUNDLED_FIRST_DAY, BUNDLED_LAST_DAY);
+    }
+
+    /**
+     * Writes the employee details file.
+     *
+     * @param employeeDetailsFile the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeEmployeeDetails(Path employeeDetailsFile) throws IOException {
+        DecimalFormat pesos = new DecimalFormat("#,##0", DecimalFormatSymbols.getInstance(Locale.US));
+        DecimalFormat centavos = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.US));
+        StringBuilder line = new StringBuilder(256);
+        try (BufferedWriter writer = Files.newBufferedWriter(employeeDetailsFile, StandardCharsets.UTF_8)) {
+            writer.write(EMPLOYEE_DETAILS_HEADER);
+            for (int employee = 0; employee < this.employees; employee++) {
+                SplittableRandom random = new SplittableRandom(mix(this.seed, employee, 1));
+                line.setLength(0);
+                line.append(10001 + employee).append(',')
+                        .append(lastName(employee)).append(',')
+                        .append(firstName(employee)).append(',')
+                        .append(LocalDate.of(random.nextInt(1965, 2003), random.nextInt(1, 13),
+                                random.nextInt(1, 29)).format(DATE_FORMATTER)).append(',');
+                quoted(line, "Block " + random.nextInt(1, 100) + " Lot " + random.nextInt(1, 50) + ", "
+                        + STREETS[random.nextInt(STREETS.length)] + ", " + CITIES[random.nextInt(CITIES.length)]);
+                line.append(',').append(digits(random, 3)).append('-').append(digits(random, 3)).append('-')
+                        .append(digits(random, 3)).append(',')
+                        .append(digits(random, 2)).append('-').append(digits(random, 7)).append('-')
+                        .append(digits(random, 1)).append(',')
+                        .append(digits(random, 12)).append(',')
+                        .append(digits(random, 3)).append('-').append(digits(random, 3)).append('-')
+                        .append(digits(random, 3)).append("-000,")
+                        .append(digits(random, 12)).append(',');
+
+                int[] grade = payGrade(employee);
+                String department = DEPARTMENTS[employee / 100 % DEPARTMENTS.length];
+                line.append(grade == RANK_AND_FILE && random.nextInt(100) < 40 ? EmploymentStatus.Probationary
+                        : EmploymentStatus.Regular).append(',');
+                line.append(position(employee, department)).append(',');
+                int supervisor = supervisor(employee);
+                if (supervisor < 0) {
+                    line.append("N/A");
+                } else {
+                    quoted(line, lastName(supervisor) + ", " + firstName(supervisor));
+                }
+
+                BigDecimal basicSalary = BigDecimal.valueOf(grade[0] + grade[1] * random.nextInt(grade[2] + 1));
+                amount(line.append(','), pesos.format(basicSalary));
+                amount(line.append(','), pesos.format(grade[3]));
+                amount(line.append(','), pesos.format(grade[4]));
+                amount(line.append(','), pesos.format(grade[5]));
+                amount(line.append(','), pesos.format(basicSalary.divide(TWO, 0, RoundingMode.HALF_UP)));
+                amount(line.append(','), centavos.format(basicSalary.divide(HOURS_PER_MONTH, 2, RoundingMode.HALF_UP)));
+                writer.write(LINE_SEPARATOR);
+                writer.append(line);
+            }
+        }
+    }
+
+    /**
+     * Writes the attendance file.
+     *
+     * @param attendanceRecordsFile the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeAttendanceRecords(Path attendanceRecordsFile) throws IOException {
+        short[] arrivalMinutes = new short[this.employees];
+        byte[] arrivalSpreads = new byte[this.employees];
+        byte[] overtimePercentages = new byte[this.employees];
+        for (int employee = 0; employee < this.employees; employee++) {
+            SplittableRandom random = new SplittableRandom(mix(this.seed, employee, 2));
+            int habit = random.nextInt(100);
+            if (habit < 60) {
+                arrivalMinutes[employee] = (short) random.nextInt(7 * 60 + 35, 7 * 60 + 56);
+                arrivalSpreads[employee] = 8;
+            } else if (habit < 90) {
+                arrivalMinutes[employee] = (short) random.nextInt(7 * 60 + 55, 8 * 60 + 16);
+                arrivalSpreads[employee] = 15;
+            } else {
+                arrivalMinutes[employee] = (short) random.nextInt(8 * 60 + 20, 9 * 60 + 31);
+                arrivalSpreads[employee] = 30;
+            }
+            overtimePercentages[employee] = (byte) random.nextInt(5, 36);
+        }
+
+        StringBuilder line = new StringBuilder(64);
+        try (BufferedWriter writer = Files.newBufferedWriter(attendanceRecordsFile, StandardCharsets.UTF_8)) {
+            writer.write(FastAttendanceParser.HEADER);
+            for (LocalDate day = this.firstDay; !day.isAfter(this.lastDay); day = day.plusDays(1)) {
+                if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                String date = day.format(DATE_FORMATTER);
+                for (int employee = 0; employee < this.employees; employee++) {
+                    SplittableRandom random = new SplittableRandom(mix(this.seed, employee, day.toEpochDay() << 2 | 3));
+                    if (random.nextInt(100) < 3) {
+                        continue;
+                    }
+                    int logIn = clamp(arrivalMinutes[employee]
+                            + (int) Math.round(random.nextGaussian() * arrivalSpreads[employee]), 6 * 60, 12 * 60);
+                    int shift = 9 * 60;
+                    int kind = random.nextInt(100);
+                    if (kind < overtimePercentages[employee]) {
+                        int overtime = random.nextInt(10);
+                        shift += (overtime < 6 ? 60 : overtime < 9 ? 120 : 180) + random.nextInt(30);
+                    } else if (kind >= 95) {
+                        shift -= random.nextInt(30, 181);
+                    } else {
+                        shift += clamp((int) Math.round(random.nextGaussian() * 10 + 5), -15, 45);
+                    }
+                    int logOut = Math.min(logIn + shift, 23 * 60 + 59);
+
+                    line.setLength(0);
+                    line.append(10001 + employee).append(',')
+                            .append(lastName(employee)).append(',')
+                            .append(firstName(employee)).append(',')
+                            .append(date).append(',');
+                    time(line, logIn).append(',');
+                    time(line, logOut);
+                    writer.write(LINE_SEPARATOR);
+                    writer.append(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes {@code employee-details.csv} and {@code attendance-record.csv} to a
+     * directory.
+     *
+     * @param directory the directory, created if it does not exist
+     * @throws IOException if a file cannot be written
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeEmployeeDetails(directory.resolve(EMPLOYEE_DETAILS_FILE_NAME));
+        writeAttendanceRecords(directory.resolve(ATTENDANCE_RECORDS_FILE_NAME));
+    }
+
+    /**
+     * Generates a data set from the command line:
+     * {@code java motorph.DatasetGenerator <directory> <employees> [seed] [first day] [last day]}.
+     * The seed defaults to 1 and the dates, in ISO format, to the bundled
+     * attendance period of June to December 2024. Run the payroll on the result
+     * with {@code -Dmotorph.employees.file} and {@code -Dmotorph.attendance.file}.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println(
+                    "Usage: java motorph.DatasetGenerator <directory> <employees> [seed] [first day] [last day]");
+            System.exit(2);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        LocalDate firstDay = args.length > 3 ? LocalDate.parse(args[3]) : BUNDLED_FIRST_DAY;
+        LocalDate lastDay = args.length > 4 ? LocalDate.parse(args[4]) : BUNDLED_LAST_DAY;
+        new DatasetGenerator(seed, Integer.parseInt(args[1]), firstDay, lastDay).write(Path.of(args[0]));
+    }
+
+    private static int[] payGrade(int employee) {
+        if (employee == 0) {
+            return CHIEF_EXECUTIVE;
+        } else if (employee % 100 == 1) {
+            return MANAGER;
+        } else if (employee % 10 == 1) {
+            return TEAM_LEADER;
+        }
+        return RANK_AND_FILE;
+    }
+
+    private static String position(int employee, String department) {
+        if (employee == 0) {
+            return "Chief Executive Officer";
+        } else if (employee % 100 == 1) {
+            return department + " Manager";
+        } else if (employee % 10 == 1) {
+            return department + " Team Leader";
+        }
+        return department + " Rank and File";
+    }
+
+    /**
+     * @return the index of the employee's immediate supervisor, -1 for the chief
+     *         executive
+     */
+    private static int supervisor(int employee) {
+        if (employee == 0) {
+            return -1;
+        } else if (employee % 100 == 1) {
+            return 0;
+        } else if (employee % 10 == 1) {
+            return employee - employee % 100 + 1;
+        }
+        return employee - employee % 10 + 1;
+    }
+
+    private String lastName(int employee) {
+        return LAST_NAMES[(int) Math.floorMod(mix(this.seed, employee, 0), (long) LAST_NAMES.length)];
+    }
+
+    private String firstName(int employee) {
+        return FIRST_NAMES[(int) Math.floorMod(mix(this.seed, employee, 0) >>> 32, (long) FIRST_NAMES.length)];
+    }
+
+    private static long mix(long seed, int employee, long stream) {
+        long z = seed + 0x9E3779B97F4A7C15L * (employee + 1) + 0xC2B2AE3D27D4EB4FL * stream;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static StringBuilder time(StringBuilder line, int minuteOfDay) {
+        int minute = minuteOfDay % 60;
+        return line.append(minuteOfDay / 60).append(':').append(minute < 10 ? "0" : "").append(minute);
+    }
+
+    private static String digits(SplittableRandom random, int length) {
+        char[] digits = new char[length];
+        for (int i = 0; i < length; i++) {
+            digits[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(digits);
+    }
+
+    private static void quoted(StringBuilder line, String value) {
+        line.append('"').append(value).append('"');
+    }
+
+    private static void amount(StringBuilder line, String value) {
+        if (value.indexOf(',') >= 0) {
+            quoted(line, value);
+        } else {
+            line.append(value);
+        }
+    }
+}
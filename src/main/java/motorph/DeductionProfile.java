@@ -0,0 +1,56 @@
+package motorph;
+
+import java.math.BigDecimal;
+
+/**
+ * The statutory deductions of one monthly basic salary, worked out ahead of the
+ * payroll run.
+ * <p>
+ * SSS, withholding tax, PhilHealth and Pag-IBIG depend only on the basic
+ * salary, so they are calculated once per employee and kept in a
+ * {@link DeductionProfileCache} instead of being recalculated every month. A
+ * profile holds the deductions both as exact {@link BigDecimal}s and in the
+ * rounded form used by the {@link CentavoPayrollEngine}.
+ *
+ * @param basicSalary       the monthly basic salary the profile was calculated
+ *                          for
+ * @param deductions        the exact deductions
+ * @param centavoDeductions the deductions rounded to whole centavos
+ * @param totalFractions    the exact sum of the deductions, in
+ *                          {@link Centavos} fractions
+ */
+public record DeductionProfile(BigDecimal basicSalary, PayrollDeductions deductions,
+        PayrollDeductions centavoDeductions, long totalFractions) {
+
+    /**
+     * Calculates the deduction profile of a monthly basic salary.
+     *
+     * @param basicSalary the monthly basic salary
+     * @return the deduction profile
+     */
+    public static DeductionProfile of(BigDecimal basicSalary) {
+        long monthlySalary = Centavos.fromPesos(basicSalary);
+        long socialSecuritySystemContribution = CentavoPayrollEngine.socialSecuritySystemContribution(monthlySalary);
+        long withholdingTax = CentavoPayrollEngine.withholdingTax(monthlySalary);
+        long philhealthContribution = CentavoPayrollEngine.philhealthContribution(monthlySalary);
+        long pagIbigContribution = CentavoPayrollEngine.pagIbigContribution(monthlySalary);
+        PayrollDeductions centavoDeductions = new PayrollDeductions(
+                Centavos.toPesos(Centavos.round(socialSecuritySystemContribution)),
+                Centavos.toPesos(Centavos.round(withholdingTax)),
+                Centavos.toPesos(Centavos.round(philhealthContribution)),
+                Centavos.toPesos(Centavos.round(pagIbigContribution)));
+        return new DeductionProfile(basicSalary, PayrollDeductions.of(basicSalary), centavoDeductions,
+                socialSecuritySystemContribution + withholdingTax + philhealthContribution + pagIbigContribution);
+    }
+
+    /**
+     * Checks whether this profile is still valid for an employee.
+     *
+     * @param employee the employee
+     * @return true if the employee's basic salary is the one the profile was
+     *         calculated for
+     */
+    public boolean isProfileOf(Employee employee) {
+        return this.basicSalary.equals(employee.basicSalary);
+    }
+}
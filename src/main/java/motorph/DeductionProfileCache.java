@@ -0,0 +1,96 @@
+package motorph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link DeductionProfile} of every employee, calculated when the employee
+ * list is loaded.
+ * <p>
+ * A profile is looked up by employee ID and is only used while the employee's
+ * basic salary is the one it was calculated for; if the salary has been changed
+ * since, the profile is recalculated and replaced. Lookups that find a valid
+ * profile are counted as hits, lookups that have to calculate one as misses, so
+ * the counters show how often a payroll run recalculated deductions.
+ * <p>
+ * The cache can be read and updated by several payroll threads at the same
+ * time.
+ *
+ * @see EmployeeDatabaseService#getDeductionProfile(Employee)
+ */
+public final class DeductionProfileCache {
+    private final List<Employee> source;
+    private final Map<Integer, DeductionProfile> profiles = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding the deduction profile of every employee in the
+     * list.
+     *
+     * @param employees the employees
+     */
+    public DeductionProfileCache(List<Employee> employees) {
+        this.source = employees;
+        for (Employee employee : employees) {
+            if (employee.basicSalary != null) {
+                this.profiles.putIfAbsent(employee.employeeId, DeductionProfile.of(employee.basicSalary));
+            }
+        }
+    }
+
+    /**
+     * Checks whether this cache was built for the given employee list.
+     *
+     * @param employees the employee list currently in use
+     * @return true if the cache was built from this list
+     */
+    boolean isCacheOf(List<Employee> employees) {
+        return this.source == employees;
+    }
+
+    /**
+     * Retrieves the deduction profile of an employee, recalculating it if the
+     * employee's basic salary has changed.
+     *
+     * @param employee the employee
+     * @return the deduction profile for the employee's current basic salary
+     */
+    public DeductionProfile get(Employee employee) {
+        DeductionProfile profile = this.profiles.get(employee.employeeId);
+        if (profile != null && profile.isProfileOf(employee)) {
+            this.hits.increment();
+            return profile;
+        }
+        this.misses.increment();
+        profile = DeductionProfile.of(employee.basicSalary);
+        this.profiles.put(employee.employeeId, profile);
+        return profile;
+    }
+
+    /**
+     * Discards the profile of an employee, so that it is recalculated on the next
+     * lookup.
+     *
+     * @param employeeId the unique identifier of the employee
+     */
+    public void invalidate(int employeeId) {
+        this.profiles.remove(employeeId);
+    }
+
+    /**
+     * @return the number of lookups that found a valid profile
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to calculate a profile
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+}
@@ -1,14 +1,25 @@
 package motorph;
 
 import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.Month;
-import java.time.temporal.WeekFields;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import com.opencsv.bean.CsvToBeanBuilder;
 
@@ -49,9 +60,188 @@ public class EmployeeDatabaseService {
      * collection that can be accessed throughout the application. Each entry in the
      * list represents
      * an individual attendance record for an employee.
+     *
+     * <p>
+     * The field is volatile and loaded at most once, so the records can be safely
+     * read by several payroll threads at the same time. Once loaded from the CSV
+     * file it is a read-only view over a columnar {@link AttendanceStore}; a list
+     * assigned to it directly is copied into a new store when it is first
+     * indexed.
+     */
+    public static volatile List<AttendanceRecord> attendanceRecords;
+    public static volatile List<Employee> employees;
+
+    /**
+     * Primary-key index over {@link #employees}, rebuilt whenever a different
+     * employee list is loaded or assigned.
+     */
+    private static volatile EmployeeIndex employeeIndex;
+
+    /**
+     * Deduction profiles of {@link #employees}, rebuilt whenever a different
+     * employee list is loaded or assigned. Read directly by
+     * {@link PayrollMetrics}, which must not build it.
+     */
+    static volatile DeductionProfileCache deductionProfileCache;
+
+    /**
+     * Employee, month and week partitions of {@link #attendanceRecords}, rebuilt
+     * whenever a different attendance list is loaded or assigned.
+     */
+    private static volatile AttendanceIndex attendanceIndex;
+
+    /**
+     * The incremental payroll fed by {@link #appendAttendanceRecords(List)},
+     * {@code null} until {@link #getIncrementalPayroll()} creates it.
+     */
+    private static volatile IncrementalPayroll incrementalPayroll;
+
+    /**
+     * The number of bytes of the attendance file whose records are held in
+     * {@link #attendanceRecords}, where an {@link AttendanceFileFollower}
+     * continues reading.
+     */
+    private static volatile long attendanceRecordsLength;
+
+    /**
+     * The first month of the payroll run by
+     * {@link #calculateEmployeeWeeklySalary(int)}, {@link StreamingPayroll} and
+     * {@link IncrementalPayroll}. Defaults to the {@code motorph.payroll.firstMonth}
+     * system property in {@code yyyy-MM} form, or June 2024.
+     */
+    public static volatile YearMonth firstPayrollMonth = YearMonth
+            .parse(System.getProperty("motorph.payroll.firstMonth", "2024-06"));
+
+    /**
+     * The last month of the payroll run, inclusive. Defaults to the
+     * {@code motorph.payroll.lastMonth} system property in {@code yyyy-MM} form,
+     * or December 2024.
+     *
+     * @see #firstPayrollMonth
      */
-    public static List<AttendanceRecord> attendanceRecords;
-    public static List<Employee> employees;
+    public static volatile YearMonth lastPayrollMonth = YearMonth
+            .parse(System.getProperty("motorph.payroll.lastMonth", "2024-12"));
+
+    /**
+     * Whether the attendance file is read with the {@link FastAttendanceParser}
+     * instead of OpenCSV bean binding. Defaults to the
+     * {@code motorph.attendance.fastParser} system property.
+     */
+    public static volatile boolean fastAttendanceParsing = Boolean.getBoolean("motorph.attendance.fastParser");
+
+    /**
+     * The number of threads used to load the attendance file with the
+     * memory-mapped {@link ChunkedAttendanceLoader}, or 0 to load it on the
+     * calling thread. Defaults to the {@code motorph.attendance.loaderThreads}
+     * system property.
+     */
+    public static volatile int attendanceLoaderThreads = Integer.getInteger("motorph.attendance.loaderThreads", 0);
+
+    /**
+     * The latest log in time, as a minute of the day, that still qualifies for
+     * overtime pay (8:11 AM).
+     */
+    static final int OVERTIME_CUTOFF_MINUTE = 8 * 60 + 11;
+
+    /**
+     * Whether {@link AttendanceMinutes} are calculated with the incubating
+     * Vector API, many rows per instruction, when the build used the
+     * {@code vector} Maven profile and the JVM has been started with
+     * {@code --add-modules jdk.incubator.vector}. Defaults to the
+     * {@code motorph.attendance.vectorized} system property; without the module
+     * the scalar calculation is used either way.
+     */
+    public static volatile boolean vectorArithmetic = Boolean.getBoolean("motorph.attendance.vectorized");
+
+    /**
+     * Whether {@link #calculateEmployeeWeeklySalary(int)} uses the fixed-point
+     * {@link CentavoPayrollEngine}, which rounds every payslip amount to whole
+     * centavos, instead of exact {@link BigDecimal} arithmetic. Defaults to the
+     * {@code motorph.payroll.centavos} system property.
+     */
+    public static volatile boolean centavoArithmetic = Boolean.getBoolean("motorph.payroll.centavos");
+
+    /**
+     * Whether the parsed employee and attendance files are cached as binary
+     * snapshots in the {@link #SNAPSHOT_CACHE}, so that later starts skip parsing
+     * the CSV text. Defaults to the {@code motorph.snapshot.enabled} system
+     * property.
+     */
+    public static volatile boolean snapshotCaching = Boolean.getBoolean("motorph.snapshot.enabled");
+
+    /**
+     * The snapshot cache, kept in the directory given by the
+     * {@code motorph.snapshot.directory} system property, {@code target/snapshots}
+     * by default.
+     */
+    static final SnapshotCache SNAPSHOT_CACHE = new SnapshotCache(
+            Path.of(System.getProperty("motorph.snapshot.directory", "target/snapshots")));
+
+    /**
+     * Whether {@link #calculateEmployeeWeeklySalary(int)} keeps its results in
+     * the {@link #PAYSLIP_CACHE} and answers repeated queries from it. Enabled
+     * unless the {@code motorph.payslip.cache} system property is
+     * {@code false}.
+     */
+    public static volatile boolean payslipCaching = Boolean
+            .parseBoolean(System.getProperty("motorph.payslip.cache", "true"));
+
+    /**
+     * The payslip cache, holding the results of as many employees as the
+     * {@code motorph.payslip.cacheSize} system property, 4096 by default.
+     */
+    static final PayslipCache PAYSLIP_CACHE = new PayslipCache(Integer.getInteger("motorph.payslip.cacheSize", 4096));
+
+    static final String ATTENDANCE_RECORDS_FILE = "src/main/resources/attendance-record.csv";
+    static final String EMPLOYEE_DETAILS_FILE = "src/main/resources/employee-details.csv";
+
+    /**
+     * The attendance CSV file the records are loaded from. Defaults to the
+     * bundled file and can be changed with the {@code motorph.attendance.file}
+     * system property, e.g. to run the payroll on a larger synthetic data set.
+     * A new file is read the next time the records are loaded.
+     */
+    public static volatile Path attendanceRecordsFile = Path
+            .of(System.getProperty("motorph.attendance.file", ATTENDANCE_RECORDS_FILE));
+
+    /**
+     * The employee details CSV file the employees are loaded from. Defaults to
+     * the bundled file and can be changed with the {@code motorph.employees.file}
+     * system property. A new file is read the next time the employees are
+     * loaded.
+     */
+    public static volatile Path employeeDetailsFile = Path
+            .of(System.getProperty("motorph.employees.file", EMPLOYEE_DETAILS_FILE));
+
+    /**
+     * The storage backend employees and attendance records are read from, or
+     * {@code null} to load the CSV files into memory, which is the default.
+     * <p>
+     * With a database, employee lookups are served from the loaded employee
+     * list as usual, but attendance lookups and payroll calculations query the
+     * database for the one employee and date range they need, so the attendance
+     * records are never all in memory unless {@link #getAllAttendanceRecords()}
+     * is called. Any {@link PayrollDatabase} can be assigned here; it is not
+     * closed by the service.
+     */
+    public static volatile PayrollDatabase database;
+
+    /**
+     * The directory of a {@link FilePayrollDatabase} that is opened as the
+     * {@link #database} on first use, if none has been assigned. A new database
+     * is filled from {@link #employeeDetailsFile} and
+     * {@link #attendanceRecordsFile}. Defaults to the
+     * {@code motorph.database.directory} system property; {@code null} keeps the
+     * data in memory.
+     */
+    public static volatile Path databaseDirectory = System.getProperty("motorph.database.directory") == null ? null
+            : Path.of(System.getProperty("motorph.database.directory"));
+
+    private static final int DATABASE_IMPORT_BATCH_SIZE = 1 << 16;
+
+    private static final Object ATTENDANCE_RECORDS_LOCK = new Object();
+    private static final Object EMPLOYEE_DETAILS_LOCK = new Object();
+    private static final Object DATABASE_LOCK = new Object();
 
     /**
      * Retrieves the list of all attendance records.
@@ -59,21 +249,28 @@ public class EmployeeDatabaseService {
      * This method checks if the attendance records have been loaded. If they have
      * not been loaded yet,
      * it invokes the {@code loadAttendanceRecords()} method to load them before
-     * returning the list.
+     * returning the list. Concurrent first calls load the file only once.
      * </p>
      *
      * @return a {@code List} containing all attendance records.
      */
 
     public static List<AttendanceRecord> getAllAttendanceRecords() {
-        if (attendanceRecords == null) {
-            loadAttendanceRecords();
+        List<AttendanceRecord> records = attendanceRecords;
+        if (records == null) {
+            synchronized (ATTENDANCE_RECORDS_LOCK) {
+                if (attendanceRecords == null) {
+                    loadAttendanceRecords();
+                }
+                records = attendanceRecords;
+            }
         }
-        return attendanceRecords;
+        return records;
     }
 
     /**
-     * Loads the attendance records from the CSV file located at
+     * Loads the attendance records from the CSV file
+     * {@link #attendanceRecordsFile}, by default
      * "src/main/resources/attendance-record.csv".
      * <p>
      * This method utilizes the CsvToBeanBuilder to read and parse the CSV file into
@@ -82,94 +279,539 @@ public class EmployeeDatabaseService {
      * {@code FileNotFoundException}
      * is caught and an appropriate error message is printed.
      * </p>
+     * <p>
+     * When {@link #attendanceLoaderThreads} is set, the file is memory-mapped and
+     * parsed in parallel by the {@link ChunkedAttendanceLoader}; otherwise, when
+     * {@link #fastAttendanceParsing} is enabled, the file is parsed with the
+     * {@link FastAttendanceParser} instead.
+     * </p>
+     * <p>
+     * The records are kept in a columnar {@link AttendanceStore}, and
+     * {@link #attendanceRecords} is a read-only view over it. When
+     * {@link #snapshotCaching} is enabled, a valid binary snapshot of the file is
+     * loaded instead of parsing it, and a new snapshot is written after parsing.
+     * If punches have been appended to the file since the snapshot was written,
+     * only the appended lines are parsed.
+     * </p>
+     * <p>
+     * When a {@link #database} is in use, the records are read from it instead.
+     * </p>
      *
      * @see CsvToBeanBuilder
      * @see AttendanceRecord
      */
     private static void loadAttendanceRecords() {
+        long startNanos = PayrollMetrics.startTimer();
+        PayrollDatabase payrollDatabase = getDatabase();
+        if (payrollDatabase != null) {
+            AttendanceStore.Builder builder = new AttendanceStore.Builder(
+                    (int) Math.min(payrollDatabase.getAttendanceRecordCount(), Integer.MAX_VALUE - 8));
+            payrollDatabase.forEachAttendanceRecord(builder);
+            AttendanceStore store = builder.build();
+            PayrollMetrics.recordStage(PayrollMetrics.Stage.ATTENDANCE_LOADING, startNanos);
+            PayrollMetrics.countAttendanceRowsLoaded(store.size());
+            attendanceIndex = new AttendanceIndex(store);
+            attendanceRecords = store.asList();
+            attendanceReplaced();
+            return;
+        }
         try {
-            attendanceRecords = new CsvToBeanBuilder<AttendanceRecord>(
-                    new FileReader("src/main/resources/attendance-record.csv"))
+            Path source = attendanceRecordsFile;
+            boolean caching = snapshotCaching;
+            Optional<SnapshotCache.AttendancePrefix> snapshot = caching ? SNAPSHOT_CACHE.readAttendancePrefix(source)
+                    : Optional.empty();
+            AttendanceStore store;
+            long length;
+            if (snapshot.isPresent()) {
+                store = snapshot.get().store();
+                length = snapshot.get().source().size();
+                if (snapshot.get().length() < length) {
+                    // Punches were appended since the snapshot: parse only the new lines.
+                    AttendanceStore.Builder builder = new AttendanceStore.Builder(store);
+                    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                        AttendanceFileFollower.readLines(channel, snapshot.get().length(), length, true, builder);
+                    }
+                    store = builder.build();
+                    SNAPSHOT_CACHE.writeAttendanceStore(source, snapshot.get().source(), store);
+                }
+            } else {
+                SnapshotCache.Fingerprint fingerprint = caching ? SnapshotCache.Fingerprint.of(source) : null;
+                length = caching ? fingerprint.size() : Files.size(source);
+                store = parseAttendanceStore(source);
+                if (caching) {
+                    SNAPSHOT_CACHE.writeAttendanceStore(source, fingerprint, store);
+                }
+            }
+            PayrollMetrics.recordStage(PayrollMetrics.Stage.ATTENDANCE_LOADING, startNanos);
+            PayrollMetrics.countAttendanceRowsLoaded(store.size());
+            long indexingStartNanos = PayrollMetrics.startTimer();
+            attendanceIndex = new AttendanceIndex(store);
+            PayrollMetrics.recordStage(PayrollMetrics.Stage.ATTENDANCE_INDEXING, indexingStartNanos);
+            attendanceRecordsLength = length;
+            attendanceRecords = store.asList();
+            attendanceReplaced();
+        } catch (FileNotFoundException | NoSuchFileException fileNotFoundException) {
+            System.out.println("Attendance Records Database CSV file not found: " + fileNotFoundException);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Parses the attendance CSV file into a columnar store, with the parser
+     * selected by {@link #attendanceLoaderThreads} and
+     * {@link #fastAttendanceParsing}.
+     *
+     * @param source the attendance CSV file
+     * @return the parsed attendance records
+     * @throws IOException if the file cannot be read
+     */
+    private static AttendanceStore parseAttendanceStore(Path source) throws IOException {
+        if (attendanceLoaderThreads > 0) {
+            return ChunkedAttendanceLoader.loadStore(source, attendanceLoaderThreads);
+        } else if (fastAttendanceParsing) {
+            AttendanceStore.Builder builder = new AttendanceStore.Builder();
+            parseAttendanceRecords(source, builder);
+            return builder.build();
+        } else {
+            return AttendanceStore.of(new CsvToBeanBuilder<AttendanceRecord>(
+                    new FileReader(source.toFile()))
                     .withType(AttendanceRecord.class)
                     .build()
-                    .parse();
+                    .parse());
+        }
+    }
+
+    /**
+     * Parses the attendance CSV file with the {@link FastAttendanceParser}.
+     *
+     * @param source   the attendance CSV file
+     * @param consumer receives each attendance record, in file order
+     * @throws IOException if the file cannot be read
+     */
+    private static void parseAttendanceRecords(Path source, Consumer<? super AttendanceRecord> consumer)
+            throws IOException {
+        try (InputStream in = new FileInputStream(source.toFile())) {
+            new FastAttendanceParser().parse(in, consumer);
+        }
+    }
+
+    /**
+     * Reads the attendance records from the CSV file one at a time and hands each
+     * one to the given consumer, without keeping them in memory.
+     * <p>
+     * Unlike {@link #getAllAttendanceRecords()}, this method neither loads nor
+     * changes {@link #attendanceRecords}, so it can process attendance files that
+     * are larger than the heap. If the CSV file is not found, an error message is
+     * printed and no records are passed to the consumer.
+     *
+     * @param consumer the consumer each attendance record is passed to, in file
+     *                 order
+     * @see AttendanceAccumulator
+     */
+    public static void forEachAttendanceRecord(Consumer<? super AttendanceRecord> consumer) {
+        if (fastAttendanceParsing) {
+            try {
+                parseAttendanceRecords(attendanceRecordsFile, consumer);
+            } catch (FileNotFoundException fileNotFoundException) {
+                System.out.println("Attendance Records Database CSV file not found: " + fileNotFoundException);
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            return;
+        }
+        try (Reader reader = new FileReader(attendanceRecordsFile.toFile())) {
+            Iterator<AttendanceRecord> records = new CsvToBeanBuilder<AttendanceRecord>(reader)
+                    .withType(AttendanceRecord.class)
+                    .build()
+                    .iterator();
+            while (records.hasNext()) {
+                consumer.accept(records.next());
+            }
         } catch (FileNotFoundException fileNotFoundException) {
             System.out.println("Attendance Records Database CSV file not found: " + fileNotFoundException);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
         }
     }
 
+    /**
+     * Adds attendance records to the in-memory attendance records, e.g. punches
+     * appended to the attendance file since it was loaded.
+     * <p>
+     * The new records are appended to a new {@link AttendanceStore} that shares
+     * the chunks of the current one, and only the employees of the new records
+     * are re-indexed, so the cost is proportional to the new records and those
+     * employees' attendance rather than to all records held.
+     * {@link #attendanceRecords} and its index are replaced together, so readers
+     * see either all or none of the new records. When a {@link #database} is in
+     * use, the records are added to it, and to the in-memory records only if
+     * those have been loaded. Cached payslips of the employees and periods the
+     * records fall in are discarded once the records are visible, and the
+     * records are folded into the {@link #getIncrementalPayroll() incremental
+     * payroll} if one is kept.
+     *
+     * @param newRecords the records to add, in file order
+     */
+    public static void appendAttendanceRecords(List<? extends AttendanceRecord> newRecords) {
+        synchronized (ATTENDANCE_RECORDS_LOCK) {
+            PayrollDatabase payrollDatabase = getDatabase();
+            if (payrollDatabase != null) {
+                payrollDatabase.addAttendanceRecords(newRecords);
+                if (attendanceRecords == null) {
+                    attendanceAppended(newRecords);
+                    return;
+                }
+            }
+            AttendanceIndex index = getAttendanceIndex();
+            AttendanceStore appended = index.getStore().append(newRecords);
+            attendanceIndex = index.append(appended);
+            attendanceRecords = appended.asList();
+            attendanceAppended(newRecords);
+        }
+    }
+
+    private static void attendanceAppended(List<? extends AttendanceRecord> newRecords) {
+        invalidatePayslips(newRecords);
+        IncrementalPayroll payroll = incrementalPayroll;
+        if (payroll != null) {
+            payroll.appendAll(newRecords);
+        }
+    }
+
+    /**
+     * Forgets everything derived from the attendance records, after they have
+     * been loaded or replaced as a whole.
+     */
+    private static void attendanceReplaced() {
+        PAYSLIP_CACHE.clear();
+        incrementalPayroll = null;
+    }
+
+    /**
+     * Retrieves the incremental payroll of the attendance records, creating it
+     * from the loaded records on first use. From then on, every
+     * {@link #appendAttendanceRecords(List)}, and so every
+     * {@link AttendanceFileFollower} and {@link AttendanceIngestor} started by
+     * this class, folds its records into it, so that only the payslips of the
+     * weeks they touch are recalculated. It is discarded and created anew when
+     * the attendance records are reloaded or replaced.
+     *
+     * @return the incremental payroll kept up to date with the attendance
+     *         records
+     */
+    public static IncrementalPayroll getIncrementalPayroll() {
+        synchronized (ATTENDANCE_RECORDS_LOCK) {
+            if (getDatabase() == null) {
+                // Discards an incremental payroll of records assigned since.
+                getAttendanceIndex();
+            }
+            IncrementalPayroll payroll = incrementalPayroll;
+            if (payroll == null) {
+                payroll = IncrementalPayroll.ofLoadedAttendance();
+                incrementalPayroll = payroll;
+            }
+            return payroll;
+        }
+    }
+
+    private static void invalidatePayslips(List<? extends AttendanceRecord> changedRecords) {
+        for (AttendanceRecord attendanceRecord : changedRecords) {
+            PAYSLIP_CACHE.invalidate(attendanceRecord.employeeId, attendanceRecord.date);
+        }
+    }
+
+    /**
+     * Follows the attendance file for appended punches and adds them to the
+     * in-memory attendance records as they arrive.
+     * <p>
+     * The follower continues from the end of the part of the file that has been
+     * loaded, so the records are never parsed twice. When it is closed and
+     * {@link #snapshotCaching} is enabled, a snapshot of the records followed so
+     * far is written, and the next start loads it and parses only the punches
+     * appended after it. When a {@link #database} is in use, the follower starts
+     * at the end of the file, whose punches the database is assumed to hold,
+     * and adds the new punches to the database.
+     *
+     * @return the started follower, to be closed when following should stop
+     * @throws UncheckedIOException if the attendance file cannot be watched
+     * @see #appendAttendanceRecords(List)
+     */
+    public static AttendanceFileFollower followAttendanceRecords() {
+        boolean inMemory = getDatabase() == null;
+        if (inMemory) {
+            getAllAttendanceRecords();
+        }
+        Path source = attendanceRecordsFile;
+        try {
+            return new AttendanceFileFollower(source, attendanceRecordsLength,
+                    EmployeeDatabaseService::appendAttendanceRecords, follower -> {
+                        attendanceRecordsLength = follower.getOffset();
+                        if (snapshotCaching && inMemory) {
+                            writeAttendanceSnapshot(source, follower.getOffset());
+                        }
+                    }).start();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Starts collecting attendance records submitted concurrently by several
+     * punch sources, and adds them to the attendance records in batches.
+     * <p>
+     * Producers submit records without taking a lock, and each batch is added
+     * with {@link #appendAttendanceRecords(List)}, so payroll threads keep
+     * reading a consistent set of records while punches are being ingested.
+     *
+     * @return the started ingestor, to be closed when ingestion should stop
+     * @see AttendanceIngestor
+     */
+    public static AttendanceIngestor ingestAttendanceRecords() {
+        if (getDatabase() == null) {
+            getAllAttendanceRecords();
+        }
+        return new AttendanceIngestor(EmployeeDatabaseService::appendAttendanceRecords).start();
+    }
+
+    /**
+     * Writes a snapshot of the in-memory attendance records, which hold the
+     * records of the first bytes of the attendance file.
+     *
+     * @param source the attendance CSV file
+     * @param length the number of bytes of the file the records were read from
+     */
+    private static void writeAttendanceSnapshot(Path source, long length) {
+        try {
+            SNAPSHOT_CACHE.writeAttendanceStore(source, SnapshotCache.Fingerprint.of(source, length),
+                    getAttendanceIndex().getStore());
+        } catch (IOException ioException) {
+            System.err.println("Unable to write snapshot of " + source + ": " + ioException);
+        }
+    }
+
+    /**
+     * Lists the months of the payroll run.
+     *
+     * @return the months from {@link #firstPayrollMonth} to
+     *         {@link #lastPayrollMonth}, in order
+     */
+    static List<YearMonth> getPayrollMonths() {
+        List<YearMonth> payrollMonths = new ArrayList<>();
+        for (YearMonth month = firstPayrollMonth; !month.isAfter(lastPayrollMonth); month = month.plusMonths(1)) {
+            payrollMonths.add(month);
+        }
+        return payrollMonths;
+    }
+
+    /**
+     * Checks whether a month is part of the payroll run.
+     *
+     * @param month the month
+     * @return true if the month is between {@link #firstPayrollMonth} and
+     *         {@link #lastPayrollMonth}, inclusive
+     */
+    static boolean isPayrollMonth(YearMonth month) {
+        return !month.isBefore(firstPayrollMonth) && !month.isAfter(lastPayrollMonth);
+    }
+
+    /**
+     * Retrieves the employee, month and week index over the attendance records,
+     * building it if the records have not been indexed yet or the list has been
+     * replaced or resized.
+     *
+     * @return the index used by every attendance lookup
+     */
+    static AttendanceIndex getAttendanceIndex() {
+        List<AttendanceRecord> allAttendanceRecords = getAllAttendanceRecords();
+        AttendanceIndex index = attendanceIndex;
+        if (index == null || !index.isIndexOf(allAttendanceRecords)) {
+            // Records being appended replace the index and the list one after
+            // the other; under the lock both are seen together.
+            synchronized (ATTENDANCE_RECORDS_LOCK) {
+                allAttendanceRecords = getAllAttendanceRecords();
+                index = attendanceIndex;
+                if (index == null || !index.isIndexOf(allAttendanceRecords)) {
+                    index = new AttendanceIndex(allAttendanceRecords);
+                    attendanceIndex = index;
+                    attendanceReplaced();
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves an index that covers an employee's attendance between two
+     * dates: the index over all records, or, when a {@link #database} is in
+     * use, an index over the records the database returns for the employee and
+     * date range.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param from       the first date needed
+     * @param to         the last date needed, inclusive
+     * @return an index holding at least the employee's records in the range
+     */
+    static AttendanceIndex getAttendanceIndex(int employeeId, LocalDate from, LocalDate to) {
+        PayrollDatabase payrollDatabase = getDatabase();
+        if (payrollDatabase == null) {
+            return getAttendanceIndex();
+        }
+        return new AttendanceIndex(payrollDatabase.findAttendanceRecords(employeeId, from, to));
+    }
+
+    /**
+     * Retrieves the {@link #database}, opening the database in
+     * {@link #databaseDirectory} if none has been assigned.
+     *
+     * @return the database in use, or {@code null} if the data is kept in memory
+     * @throws UncheckedIOException if the database cannot be opened or filled
+     */
+    static PayrollDatabase getDatabase() {
+        PayrollDatabase payrollDatabase = database;
+        if (payrollDatabase == null && databaseDirectory != null) {
+            synchronized (DATABASE_LOCK) {
+                if (database == null && databaseDirectory != null) {
+                    database = openDatabase(databaseDirectory);
+                }
+                payrollDatabase = database;
+            }
+        }
+        return payrollDatabase;
+    }
+
+    /**
+     * Opens a {@link FilePayrollDatabase} and, if it is empty, fills it from the
+     * CSV files, streaming the attendance file in batches.
+     *
+     * @param directory the database directory
+     * @return the opened database
+     * @throws UncheckedIOException if the database cannot be opened or filled
+     */
+    private static PayrollDatabase openDatabase(Path directory) {
+        try {
+            FilePayrollDatabase payrollDatabase = FilePayrollDatabase.open(directory);
+            if (payrollDatabase.getAllEmployees().isEmpty()) {
+                payrollDatabase.addEmployees(parseEmployeeDetails(employeeDetailsFile));
+            }
+            if (payrollDatabase.getAttendanceRecordCount() == 0) {
+                List<AttendanceRecord> batch = new ArrayList<>(DATABASE_IMPORT_BATCH_SIZE);
+                forEachAttendanceRecord(attendanceRecord -> {
+                    batch.add(attendanceRecord);
+                    if (batch.size() == DATABASE_IMPORT_BATCH_SIZE) {
+                        payrollDatabase.addAttendanceRecords(batch);
+                        batch.clear();
+                    }
+                });
+                payrollDatabase.addAttendanceRecords(batch);
+            }
+            payrollDatabase.checkpoint();
+            Path source = attendanceRecordsFile;
+            attendanceRecordsLength = Files.exists(source) ? Files.size(source) : 0;
+            attendanceReplaced();
+            return payrollDatabase;
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Retrieves the attendance records of an employee between two dates.
+     * <p>
+     * The records are found by a binary search of the employee's date-sorted
+     * records in the attendance index, or by a range query when a
+     * {@link #database} is in use.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param from       the first date, inclusive
+     * @param to         the last date, inclusive
+     * @return a read-only list of the employee's records in the range, sorted by
+     *         date
+     */
+    public static List<AttendanceRecord> getAttendanceRecords(int employeeId, LocalDate from, LocalDate to) {
+        PayrollMetrics.countAttendanceLookup();
+        PayrollDatabase payrollDatabase = getDatabase();
+        if (payrollDatabase != null) {
+            return payrollDatabase.findAttendanceRecords(employeeId, from, to).asList();
+        }
+        AttendanceIndex index = getAttendanceIndex();
+        AttendanceStore store = index.getStore();
+        int[] rows = index.getRows(employeeId);
+        int first = PayPeriodEngine.firstRowOnOrAfter(store, rows, from.toEpochDay());
+        int end = Math.max(first, PayPeriodEngine.firstRowOnOrAfter(store, rows, to.toEpochDay() + 1));
+        return store.asList(Arrays.copyOfRange(rows, first, end));
+    }
+
     /**
      * Retrieves attendance records for a specific employee.
      * 
-     * This method filters the attendance records from the database to only include
-     * those belonging to the specified employee ID.
+     * The records are served from the attendance index and are sorted by date.
+     * When a {@link #database} is in use, the employee's whole history is read
+     * from it.
      *
      * @param employeeId The unique identifier of the employee
-     * @return A list of AttendanceRecord objects associated with the employee
+     * @return A read-only list of AttendanceRecord objects associated with the
+     *         employee
      */
     public static List<AttendanceRecord> getAttendanceRecordsByEmployeeId(int employeeId) {
-        return getAllAttendanceRecords().stream()
-                .filter(record -> record.employeeId == employeeId)
-                .collect(Collectors.toList());
+        PayrollMetrics.countAttendanceLookup();
+        return getAttendanceIndex(employeeId, LocalDate.MIN, LocalDate.MAX).getRecords(employeeId);
     }
 
     /**
      * Groups attendance records of a specific employee by month.
      * 
-     * This method retrieves all attendance records for the given employee ID and
-     * organizes them into a map where each key represents a month and the value
-     * is a list of attendance records occurring in that month.
+     * This method returns the month partition of the given employee's attendance
+     * records, where each key represents a month and the value is a list of
+     * attendance records occurring in that month.
+     *
+     * When a {@link #database} is in use, only the records of the payroll run
+     * are read from it.
      *
      * @param employeeId The unique identifier of the employee whose attendance
      *                   records are being grouped
-     * @return A map with Month as the key and a list of AttendanceRecord objects as
-     *         the value
+     * @return A read-only map with Month as the key and a list of AttendanceRecord
+     *         objects as the value
      */
     public static Map<Month, List<AttendanceRecord>> getAttendanceRecordsByMonth(int employeeId) {
-        Map<Month, List<AttendanceRecord>> map = new HashMap<>();
-        for (AttendanceRecord record : getAttendanceRecordsByEmployeeId(employeeId)) {
-            map.computeIfAbsent(record.date.getMonth(), k -> new ArrayList<>()).add(record);
-        }
-        return map;
+        PayrollMetrics.countAttendanceLookup();
+        return getAttendanceIndex(employeeId, firstPayrollMonth.atDay(1), lastPayrollMonth.atEndOfMonth())
+                .getRecordsByMonth(employeeId);
     }
 
     /**
      * Retrieves attendance records for a specific employee, grouped by week for a
      * given month.
      * 
-     * This method first retrieves all attendance records for the employee for the
-     * specified month,
-     * then organizes them into a map where the key is the week number within the
-     * month (1-based),
-     * and the value is a list of attendance records for that week.
+     * This method returns the week partition of the employee's attendance records
+     * for the specified month, where the key is the week number within the month
+     * (1-based, weeks starting on Sunday), and the value is a list of attendance
+     * records for that week. When a {@link #database} is in use, only the
+     * records of that month, in the years of the payroll run, are read from it.
      * 
      * @param employeeId The unique identifier for the employee whose attendance
      *                   records are being retrieved
      * @param month      The month for which to retrieve attendance records
-     * @return A Map with week numbers as keys and lists of AttendanceRecord objects
-     *         as values.
+     * @return A read-only Map with week numbers as keys, in ascending order, and
+     *         lists of AttendanceRecord objects as values.
      *         Returns an empty map if no records exist for the specified month.
      */
     public static Map<Integer, List<AttendanceRecord>> getAttendanceRecordsByWeek(int employeeId, Month month) {
-        // Get the attendance records for the specified month
-        List<AttendanceRecord> monthRecords = getAttendanceRecordsByMonth(employeeId).get(month);
-
-        if (monthRecords == null) {
-            return new HashMap<>(); // Return empty map if no records for this month
-        }
-
-        // Group records by week of month
-        WeekFields weekFields = WeekFields.of(Locale.US);
-        return monthRecords.stream()
-                .collect(Collectors.groupingBy(record -> record.date.get(weekFields.weekOfMonth())));
+        PayrollMetrics.countAttendanceLookup();
+        LocalDate from = firstPayrollMonth.with(month).atDay(1);
+        LocalDate to = lastPayrollMonth.with(month).atEndOfMonth();
+        return getAttendanceIndex(employeeId, from, to).getRecordsByWeek(employeeId, month);
     }
 
     /**
      * Loads employee details from a CSV file into the employees list.
      * 
-     * This method reads the employee-details.csv file from the resources directory
-     * and parses it into a list of Employee objects using the CsvToBean builder.
+     * This method reads the {@link #employeeDetailsFile}, by default the
+     * employee-details.csv file from the resources directory, and parses it into a list of Employee objects using the CsvToBean builder.
      * If the file is not found, an error message is printed to the console.
+     * When {@link #snapshotCaching} is enabled, a valid binary snapshot of the
+     * file is loaded instead of parsing it. When a {@link #database} is in use,
+     * the employees are read from it instead.
      * 
      * The CSV file should match the structure of the Employee class fields.
      * 
@@ -177,14 +819,51 @@ public class EmployeeDatabaseService {
      *                               found
      */
     private static void loadEmployeeDetails() {
+        long startNanos = PayrollMetrics.startTimer();
         try {
-            employees = new CsvToBeanBuilder<Employee>(
-                    new FileReader("src/main/resources/employee-details.csv"))
+            Path source = employeeDetailsFile;
+            boolean caching = snapshotCaching;
+            PayrollDatabase payrollDatabase = getDatabase();
+            Optional<List<Employee>> snapshot = caching && payrollDatabase == null
+                    ? SNAPSHOT_CACHE.readEmployees(source)
+                    : Optional.empty();
+            List<Employee> employeeDetails;
+            if (payrollDatabase != null) {
+                employeeDetails = payrollDatabase.getAllEmployees();
+            } else if (snapshot.isPresent()) {
+                employeeDetails = snapshot.get();
+            } else {
+                SnapshotCache.Fingerprint fingerprint = caching ? SnapshotCache.Fingerprint.of(source) : null;
+                employeeDetails = parseEmployeeDetails(source);
+                if (caching) {
+                    SNAPSHOT_CACHE.writeEmployees(source, fingerprint, employeeDetails);
+                }
+            }
+            employeeIndex = new EmployeeIndex(employeeDetails);
+            deductionProfileCache = new DeductionProfileCache(employeeDetails);
+            employees = employeeDetails;
+            PayrollMetrics.recordStage(PayrollMetrics.Stage.EMPLOYEE_LOADING, startNanos);
+            PayrollMetrics.countEmployeesLoaded(employeeDetails.size());
+        } catch (FileNotFoundException | NoSuchFileException fileNotFoundException) {
+            System.out.println("Employee Details Database CSV file not found: " + fileNotFoundException);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Parses the employee details CSV file.
+     *
+     * @param source the employee details CSV file
+     * @return the employees, in file order
+     * @throws IOException if the file cannot be read
+     */
+    private static List<Employee> parseEmployeeDetails(Path source) throws IOException {
+        try (Reader reader = new FileReader(source.toFile())) {
+            return new CsvToBeanBuilder<Employee>(reader)
                     .withType(Employee.class)
                     .build()
                     .parse();
-        } catch (FileNotFoundException fileNotFoundException) {
-            System.out.println("Employee Details Database CSV file not found: " + fileNotFoundException);
         }
     }
 
@@ -192,15 +871,22 @@ public class EmployeeDatabaseService {
      * Retrieves a list of all employee details from the database.
      * 
      * If the employees list hasn't been loaded yet, this method will call
-     * loadEmployeeDetails() to populate the list before returning it.
+     * loadEmployeeDetails() to populate the list before returning it. Concurrent
+     * first calls load the file only once.
      * 
      * @return List<Employee> A list containing all employee records
      */
     public static List<Employee> getAllEmployeeDetails() {
-        if (employees == null) {
-            loadEmployeeDetails();
+        List<Employee> employeeDetails = employees;
+        if (employeeDetails == null) {
+            synchronized (EMPLOYEE_DETAILS_LOCK) {
+                if (employees == null) {
+                    loadEmployeeDetails();
+                }
+                employeeDetails = employees;
+            }
         }
-        return employees;
+        return employeeDetails;
     }
 
     /**
@@ -211,8 +897,51 @@ public class EmployeeDatabaseService {
      *         no employee with the given ID exists
      */
     public static Optional<Employee> getEmployeeDetailsByEmployeeId(int employeeId) {
-        return getAllEmployeeDetails().stream()
-                .filter(employeeDetails -> employeeDetails.employeeId == employeeId).findFirst();
+        PayrollMetrics.countEmployeeLookup();
+        return getEmployeeIndex().find(employeeId);
+    }
+
+    /**
+     * Retrieves the primary-key index over the employee list, building it if the
+     * employees have not been indexed yet or the list has been replaced.
+     *
+     * @return the index used by every employee lookup
+     */
+    private static EmployeeIndex getEmployeeIndex() {
+        List<Employee> allEmployees = getAllEmployeeDetails();
+        EmployeeIndex index = employeeIndex;
+        if (index == null || !index.isIndexOf(allEmployees)) {
+            index = new EmployeeIndex(allEmployees);
+            employeeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves the deduction profile cache of the employee list, building it if
+     * the employees have not been profiled yet or the list has been replaced.
+     *
+     * @return the cache used by every deduction profile lookup
+     */
+    public static DeductionProfileCache getDeductionProfileCache() {
+        List<Employee> allEmployees = getAllEmployeeDetails();
+        DeductionProfileCache cache = deductionProfileCache;
+        if (cache == null || !cache.isCacheOf(allEmployees)) {
+            cache = new DeductionProfileCache(allEmployees);
+            deductionProfileCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Retrieves the statutory deductions of an employee, as calculated when the
+     * employee list was loaded or when the employee's basic salary last changed.
+     *
+     * @param employee the employee
+     * @return the employee's deduction profile
+     */
+    public static DeductionProfile getDeductionProfile(Employee employee) {
+        return getDeductionProfileCache().get(employee);
     }
 
     /**
@@ -264,6 +993,65 @@ public class EmployeeDatabaseService {
         return totalMinutes / 60.0;
     }
 
+    /**
+     * Calculates the total working hours for an employee from log in and log out
+     * times given as minutes of the day, as stored in an {@link AttendanceStore}.
+     * Gives the same result as {@link #calculateEmployeeWorkingHours(LocalTime, LocalTime)}.
+     *
+     * @param logInMinute  the minute of the day the employee logged in
+     * @param logOutMinute the minute of the day the employee logged out
+     * @return the number of working hours excluding lunch break
+     */
+    public static int calculateEmployeeWorkingHours(int logInMinute, int logOutMinute) {
+        return (logOutMinute - logInMinute) / 60 % 24 - 1;
+    }
+
+    /**
+     * Calculates the working duration of an employee in hours from log in and log
+     * out times given as minutes of the day. Gives the same result as
+     * {@link #calculateEmployeeWorkingDuration(LocalTime, LocalTime)}.
+     *
+     * @param logInMinute  the minute of the day the employee logged in
+     * @param logOutMinute the minute of the day the employee logged out
+     * @return The total working duration in hours (as a decimal value)
+     */
+    public static double calculateEmployeeWorkingDuration(int logInMinute, int logOutMinute) {
+        return (logOutMinute - logInMinute - 60) / 60.0;
+    }
+
+    /**
+     * Calculates the worked minutes, late flags and overtime hours of every
+     * attendance record of the company.
+     *
+     * @return the minutes of each record, in the order of
+     *         {@link #getAllAttendanceRecords()}, and their totals
+     * @see #vectorArithmetic
+     */
+    public static AttendanceMinutes calculateAttendanceMinutes() {
+        return AttendanceMinutes.of(getAttendanceIndex().getStore());
+    }
+
+    /**
+     * Calculates the worked minutes, late flags and overtime hours of an
+     * employee's attendance records from {@link #firstPayrollMonth} to
+     * {@link #lastPayrollMonth}.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return the minutes of each of the employee's records in the payroll
+     *         months, in date order, and their totals
+     * @see #vectorArithmetic
+     */
+    public static AttendanceMinutes calculateAttendanceMinutes(int employeeId) {
+        LocalDate from = firstPayrollMonth.atDay(1);
+        LocalDate to = lastPayrollMonth.atEndOfMonth();
+        AttendanceIndex index = getAttendanceIndex(employeeId, from, to);
+        AttendanceStore store = index.getStore();
+        int[] rows = index.getRows(employeeId);
+        int first = PayPeriodEngine.firstRowOnOrAfter(store, rows, from.toEpochDay());
+        int end = PayPeriodEngine.firstRowOnOrAfter(store, rows, to.toEpochDay() + 1);
+        return AttendanceMinutes.of(store, Arrays.copyOfRange(rows, first, end));
+    }
+
     /**
      * Calculates the daily basic pay for an employee based on their hourly rate and
      * working duration.
@@ -302,9 +1090,6 @@ public class EmployeeDatabaseService {
      * for an employee identified by their employee ID, then calculates and returns
      * the sum of these benefits.
      * 
-     * Note: This method prints the individual benefit amounts to the console for
-     * debugging purposes.
-     * 
      * @param employeeId The unique identifier of the employee whose benefits are
      *                   being calculated
      * @return The sum of the employee's clothing allowance, rice subsidy, and phone
@@ -312,20 +1097,18 @@ public class EmployeeDatabaseService {
      * @throws NoSuchElementException If no employee with the given ID exists
      */
     public static BigDecimal calculateEmployeeDeminimisBenefits(int employeeId) {
-        System.out.println("Clothing Allowance  is "
-                + EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId).get().clothingAllowance);
-        System.out.println("Rice Subsidy is "
-                + EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId).get().riceSubsidy);
-        BigDecimal clothingAllowance = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId)
-                .get().clothingAllowance;
-        BigDecimal riceSubsidy = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId)
-                .get().riceSubsidy;
-        System.out.println("Phone Allowance is "
-                + EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId).get().phoneAllowance);
-        BigDecimal phoneAllowance = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId)
-                .get().phoneAllowance;
+        return calculateEmployeeDeminimisBenefits(getEmployeeDetailsByEmployeeId(employeeId).get());
+    }
 
-        return clothingAllowance.add(riceSubsidy).add(phoneAllowance);
+    /**
+     * Calculates the total De Minimis Benefits of an employee: the sum of the
+     * clothing allowance, rice subsidy and phone allowance.
+     * 
+     * @param employee The employee whose benefits are being calculated
+     * @return The sum of the employee's de minimis benefits as a BigDecimal
+     */
+    public static BigDecimal calculateEmployeeDeminimisBenefits(Employee employee) {
+        return employee.clothingAllowance.add(employee.riceSubsidy).add(employee.phoneAllowance);
     }
 
     /**
@@ -345,7 +1128,20 @@ public class EmployeeDatabaseService {
     public static BigDecimal calculateEmployeeOvertimePay(AttendanceRecord attendanceRecord) {
         BigDecimal hourlyRate = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(attendanceRecord.employeeId)
                 .get().hourlyRate;
+        return calculateEmployeeOvertimePay(attendanceRecord, hourlyRate);
+    }
 
+    /**
+     * Calculates the overtime pay of an attendance record. Gives the same result
+     * as {@link #calculateEmployeeOvertimePay(AttendanceRecord)} without looking
+     * up the employee.
+     *
+     * @param attendanceRecord The attendance record
+     * @param hourlyRate       the hourly rate of the record's employee
+     * @return The calculated overtime pay amount, or 0 if there are no overtime
+     *         hours
+     */
+    public static BigDecimal calculateEmployeeOvertimePay(AttendanceRecord attendanceRecord, BigDecimal hourlyRate) {
         if (attendanceRecord.hasOvertimeHours()) {
             int workingHours = EmployeeDatabaseService.calculateEmployeeWorkingHours(attendanceRecord.logIn,
                     attendanceRecord.logOut);
@@ -358,48 +1154,108 @@ public class EmployeeDatabaseService {
         }
     }
 
+    /**
+     * Calculates the overtime pay of one day from log in and log out times given
+     * as minutes of the day. Gives the same result as
+     * {@link #calculateEmployeeOvertimePay(AttendanceRecord)} without looking up
+     * the employee.
+     *
+     * @param hourlyRate   the hourly rate of the employee
+     * @param logInMinute  the minute of the day the employee logged in
+     * @param logOutMinute the minute of the day the employee logged out
+     * @return The calculated overtime pay amount, or 0 if there are no overtime
+     *         hours
+     */
+    public static BigDecimal calculateEmployeeOvertimePay(BigDecimal hourlyRate, int logInMinute, int logOutMinute) {
+        int workingHours = calculateEmployeeWorkingHours(logInMinute, logOutMinute);
+        if (logInMinute <= OVERTIME_CUTOFF_MINUTE && workingHours > 8) {
+            int overtimeHours = workingHours - 8;
+            BigDecimal overtimeRate = BigDecimal.valueOf(1.25);
+            return hourlyRate.multiply(BigDecimal.valueOf(overtimeHours).multiply(overtimeRate)).stripTrailingZeros();
+        } else {
+            return BigDecimal.valueOf(0.0);
+        }
+    }
+
     /**
      * Calculates weekly salary for an employee for multiple months.
      * 
-     * This method retrieves attendance records for an employee from June to
-     * December,
-     * organized by week, and calculates the weekly salary for each week in these
-     * months.
+     * This method divides the employee's attendance from
+     * {@link #firstPayrollMonth} to {@link #lastPayrollMonth} into weeks with the
+     * {@link PayPeriodEngine}, in a single pass over the employee's date-sorted
+     * records, and calculates the weekly salary for each week in these months.
+     * The weekly totals are summed straight from the columns of the
+     * {@link AttendanceStore}, without creating an {@link AttendanceRecord} per
+     * row; when a {@link #database} is in use, only the employee's records of the
+     * payroll months are read from it. When {@link #centavoArithmetic} is
+     * enabled, the weeks are calculated by the {@link CentavoPayrollEngine}
+     * instead. Nothing is printed; use a {@link PayslipReporter} to render the
+     * result.
+     * <p>
+     * When {@link #payslipCaching} is enabled, the result is kept in the
+     * {@link #PAYSLIP_CACHE} and returned again until the employee's rates, the
+     * employee's attendance in the payroll months or the payroll months
+     * themselves change. Attendance records added through
+     * {@link #appendAttendanceRecords(List)} or replaced by loading or assigning
+     * a new list are noticed; records added to a {@link #database} directly are
+     * not.
      * 
      * @param employeeId The unique identifier of the employee for whom to calculate
      *                   weekly salary
+     * @return The employee's weekly payslips of the payroll months
      * @throws NoSuchElementException If no employee is found with the given ID
      * @see #getEmployeeDetailsByEmployeeId(int)
-     * @see #getAttendanceRecordsByWeek(int, Month)
+     * @see PaySchedule#WEEKLY
      * @see #calculateEmployeeWeeklySalary(Employee, Map)
      */
-    public static void calculateEmployeeWeeklySalary(int employeeId) {
-
+    public static PayrollResult calculateEmployeeWeeklySalary(int employeeId) {
+        long startNanos = PayrollMetrics.startTimer();
         Employee employee = getEmployeeDetailsByEmployeeId(employeeId).get();
-        Map<Integer, List<AttendanceRecord>> juneWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.JUNE);
-        Map<Integer, List<AttendanceRecord>> julyWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.JULY);
-        Map<Integer, List<AttendanceRecord>> augustWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.AUGUST);
-        Map<Integer, List<AttendanceRecord>> septemberWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.SEPTEMBER);
-        Map<Integer, List<AttendanceRecord>> octoberWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.OCTOBER);
-        Map<Integer, List<AttendanceRecord>> novemberWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.NOVEMBER);
-        Map<Integer, List<AttendanceRecord>> decemberWeeklyAttendanceRecords = getAttendanceRecordsByWeek(employeeId,
-                Month.DECEMBER);
-
-        calculateEmployeeWeeklySalary(employee, juneWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, julyWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, augustWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, septemberWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, octoberWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, novemberWeeklyAttendanceRecords);
-        calculateEmployeeWeeklySalary(employee, decemberWeeklyAttendanceRecords);
-        System.out.println(
-                "--------------------------------------------------------------------------------------------------");
+        YearMonth firstMonth = firstPayrollMonth;
+        YearMonth lastMonth = lastPayrollMonth;
+        boolean centavos = centavoArithmetic;
+        boolean caching = payslipCaching;
+        long cacheVersion = 0;
+        if (caching) {
+            if (getDatabase() == null) {
+                // Notices a replaced attendance list, which clears the cache.
+                getAttendanceIndex();
+            }
+            cacheVersion = PAYSLIP_CACHE.version(employeeId);
+            PayrollResult cached = PAYSLIP_CACHE.get(employee, firstMonth, lastMonth, centavos);
+            if (cached != null) {
+                PayrollMetrics.recordEmployeeCalculation(startNanos, cached.weeklyPayslips().size());
+                return cached;
+            }
+        }
+        AttendanceIndex index = getAttendanceIndex(employeeId, firstMonth.atDay(1), lastMonth.atEndOfMonth());
+        AttendanceStore store = index.getStore();
+        List<WeeklyPayslip> weeklyPayslips = new ArrayList<>();
+        PayPeriodEngine.forEachMonth(store, index.getRows(employeeId), PaySchedule.WEEKLY,
+                firstMonth.atDay(1), lastMonth.atEndOfMonth(), (month, weeks) -> {
+                    Map<Integer, int[]> rowsByWeek = new LinkedHashMap<>();
+                    for (PayPeriodEngine.PeriodRows week : weeks) {
+                        rowsByWeek.put(week.period().number(), week.rows());
+                    }
+                    if (centavos) {
+                        weeklyPayslips.addAll(CentavoPayrollEngine.calculateWeeklyPayslips(employee, month, store,
+                                rowsByWeek));
+                        return;
+                    }
+                    Map<Integer, WeeklyAttendanceTotals> weeklyTotals = new LinkedHashMap<>();
+                    for (Map.Entry<Integer, int[]> week : rowsByWeek.entrySet()) {
+                        WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(month);
+                        totals.addAll(store, week.getValue(), employee.hourlyRate);
+                        weeklyTotals.put(week.getKey(), totals);
+                    }
+                    weeklyPayslips.addAll(calculateWeeklyPayslips(employee, weeklyTotals));
+                });
+        PayrollMetrics.recordEmployeeCalculation(startNanos, weeklyPayslips.size());
+        PayrollResult payrollResult = new PayrollResult(employee, weeklyPayslips);
+        if (caching) {
+            PAYSLIP_CACHE.put(employee, firstMonth, lastMonth, centavos, payrollResult, cacheVersion);
+        }
+        return payrollResult;
     }
 
     /**
@@ -416,57 +1272,91 @@ public class EmployeeDatabaseService {
      * - For the last week, it also adds de minimis benefits to calculate the net
      * weekly salary
      * 
-     * The method prints detailed information about all calculations to the console.
-     * 
      * @param employee                The employee for whom to calculate the weekly
      *                                salary
      * @param weeklyAttendanceRecords Map of week numbers to their corresponding
      *                                attendance records
+     * @return The payslip of each week, in the iteration order of the map; empty
+     *         if there are no attendance records
      */
-    public static void calculateEmployeeWeeklySalary(Employee employee,
+    public static List<WeeklyPayslip> calculateEmployeeWeeklySalary(Employee employee,
             Map<Integer, List<AttendanceRecord>> weeklyAttendanceRecords) {
-        System.out.println(
-                employee.employeeId + ", " + employee.firstName + " " + employee.lastName + ", " + employee.birthday);
-        Integer lastWeekNumber = Collections.max(weeklyAttendanceRecords.keySet()) - 1;
-
-        for (Integer weekNumber : weeklyAttendanceRecords.keySet()) {
-            BigDecimal employeeGrossWeeklySalary = BigDecimal.ZERO;
-            double employeeWorkingDuration = 0.0;
-            List<AttendanceRecord> weekRecords = weeklyAttendanceRecords.get(weekNumber);
-            for (AttendanceRecord record : weekRecords) {
-                employeeWorkingDuration += calculateEmployeeWorkingDuration(record.logIn, record.logOut);
-                employeeGrossWeeklySalary = employeeGrossWeeklySalary.add(calculateEmployeeOvertimePay(record));
-            }
-            employeeGrossWeeklySalary = employeeGrossWeeklySalary
-                    .add(calculateEmployeeDailyBasicPay(employee.employeeId, employeeWorkingDuration));
-            System.out.println("Number of hours for Week " + weekNumber + " of "
-                    + weeklyAttendanceRecords.get(2).getFirst().getMonth() + " 2024 " + ": " + employeeWorkingDuration);
-            System.out.println("Gross Weekly Salary " + "for Week " + weekNumber + " of "
-                    + weeklyAttendanceRecords.get(2).getFirst().getMonth() + " 2024 " + ": "
-                    + employeeGrossWeeklySalary);
-            if (weekNumber.equals(lastWeekNumber)) {
-                System.out.println("Social Security Contribution deduction is: "
-                        + SalaryDeductionService.calculateSocialSecuritySystemContribution(employee.basicSalary));
-                employeeGrossWeeklySalary = employeeGrossWeeklySalary.subtract(
-                        SalaryDeductionService.calculateSocialSecuritySystemContribution(employee.basicSalary));
-                System.out.println("Withholding Tax deduction is: "
-                        + SalaryDeductionService.calculateWithholdingTax(employee.basicSalary));
-                employeeGrossWeeklySalary = employeeGrossWeeklySalary
-                        .subtract(SalaryDeductionService.calculateWithholdingTax(employee.basicSalary));
-                System.out.println("Philhealth Contribution deduction is: "
-                        + SalaryDeductionService.calculatePhilhealthContribution(employee.basicSalary));
-                employeeGrossWeeklySalary = employeeGrossWeeklySalary
-                        .subtract(SalaryDeductionService.calculatePhilhealthContribution(employee.basicSalary));
-                System.out.println("Pag-Ibig Contribution deduction is: "
-                        + SalaryDeductionService.calculatePagIbigContribution(employee.basicSalary));
-                BigDecimal employeeNetWeeklySalary = employeeGrossWeeklySalary
-                        .subtract(SalaryDeductionService.calculatePagIbigContribution(employee.basicSalary));
-                employeeNetWeeklySalary = employeeNetWeeklySalary
-                        .add(calculateEmployeeDeminimisBenefits(employee.employeeId));
-                System.out.println("Net Weekly Salary " + "in Week " + weekNumber + " of "
-                        + weeklyAttendanceRecords.get(2).getFirst().getMonth() + " 2024 " + ": "
-                        + employeeNetWeeklySalary);
+        Map<Integer, WeeklyAttendanceTotals> weeklyTotals = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<AttendanceRecord>> week : weeklyAttendanceRecords.entrySet()) {
+            WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(
+                    YearMonth.from(week.getValue().getFirst().date));
+            for (AttendanceRecord record : week.getValue()) {
+                totals.add(record);
             }
+            weeklyTotals.put(week.getKey(), totals);
+        }
+        return calculateWeeklyPayslips(employee, weeklyTotals);
+    }
+
+    /**
+     * Calculates the weekly salary for an employee from weekly attendance totals.
+     * 
+     * The gross weekly salary is the basic pay for the hours worked plus the
+     * overtime pay. In the second to last week of the month the statutory
+     * deductions from the employee's {@link DeductionProfile} are subtracted and
+     * the de minimis benefits added to give the net weekly salary.
+     * 
+     * @param employee     The employee for whom to calculate the weekly salary
+     * @param weeklyTotals Map of week numbers to the employee's attendance totals
+     *                     for that week
+     * @return The payslip of each week, in the iteration order of the map; empty
+     *         if there are no totals
+     * @see AttendanceAccumulator
+     */
+    public static List<WeeklyPayslip> calculateWeeklyPayslips(Employee employee,
+            Map<Integer, WeeklyAttendanceTotals> weeklyTotals) {
+        if (weeklyTotals.isEmpty()) {
+            return List.of();
+        }
+        Integer lastWeekNumber = Collections.max(weeklyTotals.keySet()) - 1;
+        List<WeeklyPayslip> weeklyPayslips = new ArrayList<>(weeklyTotals.size());
+
+        for (Map.Entry<Integer, WeeklyAttendanceTotals> week : weeklyTotals.entrySet()) {
+            Integer weekNumber = week.getKey();
+            weeklyPayslips.add(calculateWeeklyPayslip(employee, weekNumber, week.getValue(),
+                    weekNumber.equals(lastWeekNumber)));
+        }
+        return weeklyPayslips;
+    }
+
+    /**
+     * Calculates the payslip of one week from its attendance totals.
+     * 
+     * The gross weekly salary is the basic pay for the hours worked plus the
+     * overtime pay. In the deduction week the statutory deductions are subtracted
+     * and the de minimis benefits added to give the net weekly salary.
+     * 
+     * @param employee      The employee for whom to calculate the payslip
+     * @param weekNumber    The week of the month
+     * @param totals        The employee's attendance totals for the week
+     * @param deductionWeek Whether the monthly deductions are applied in this week
+     * @return The payslip of the week
+     * @see #calculateWeeklyPayslips(Employee, Map)
+     */
+    public static WeeklyPayslip calculateWeeklyPayslip(Employee employee, int weekNumber,
+            WeeklyAttendanceTotals totals, boolean deductionWeek) {
+        double employeeWorkingDuration = totals.hoursWorked();
+        BigDecimal employeeGrossWeeklySalary = totals.overtimePay()
+                .add(calculateEmployeeDailyBasicPay(employee.employeeId, employeeWorkingDuration));
+
+        if (!deductionWeek) {
+            return new WeeklyPayslip(employee.employeeId, totals.yearMonth(), weekNumber, employeeWorkingDuration,
+                    employeeGrossWeeklySalary, null, null, null);
         }
+        PayrollDeductions deductions = getDeductionProfile(employee).deductions();
+        BigDecimal deMinimisBenefits = calculateEmployeeDeminimisBenefits(employee);
+        BigDecimal employeeNetWeeklySalary = employeeGrossWeeklySalary
+                .subtract(deductions.socialSecuritySystemContribution())
+                .subtract(deductions.withholdingTax())
+                .subtract(deductions.philhealthContribution())
+                .subtract(deductions.pagIbigContribution())
+                .add(deMinimisBenefits);
+        return new WeeklyPayslip(employee.employeeId, totals.yearMonth(), weekNumber, employeeWorkingDuration,
+                employeeGrossWeeklySalary, deductions, deMinimisBenefits, employeeNetWeeklySalary);
     }
 }
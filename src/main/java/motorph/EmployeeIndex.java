@@ -0,0 +1,136 @@
+package motorph;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A primary-key index over a list of {@link Employee} records, keyed by
+ * {@code employeeId}.
+ * <p>
+ * The index is built once when the employee list is loaded and answers every
+ * lookup in constant time, no matter how many employees are on file. Two layouts
+ * are used depending on how the employee numbers are distributed:
+ * <ul>
+ * <li>Dense - when the IDs form a (mostly) contiguous block, such as
+ * 10001 to 10034, employees are stored in an array at position
+ * {@code employeeId - baseEmployeeId}.</li>
+ * <li>Sparse - otherwise, employees are stored in an open-addressing hash table
+ * keyed by the primitive {@code int} employee ID, so no {@code Integer} boxing
+ * happens on lookup.</li>
+ * </ul>
+ * When the same employee ID appears more than once, the first occurrence wins,
+ * matching the behaviour of a linear {@code findFirst()} scan.
+ *
+ * @see EmployeeDatabaseService#getEmployeeDetailsByEmployeeId(int)
+ */
+final class EmployeeIndex {
+    /**
+     * The dense layout is used as long as the ID range is at most this many times
+     * larger than the number of employees.
+     */
+    private static final int MAXIMUM_DENSE_SPREAD = 4;
+
+    private final List<Employee> source;
+    private final int baseEmployeeId;
+    private final Employee[] denseTable;
+    private final int[] hashedEmployeeIds;
+    private final Employee[] hashedEmployees;
+    private final int hashMask;
+
+    /**
+     * Builds an index over the given employees.
+     *
+     * @param employees the employees to index; the list is not copied, and the
+     *                  index must be rebuilt if it is modified
+     */
+    EmployeeIndex(List<Employee> employees) {
+        this.source = employees;
+
+        int minimumEmployeeId = Integer.MAX_VALUE;
+        int maximumEmployeeId = Integer.MIN_VALUE;
+        for (Employee employee : employees) {
+            minimumEmployeeId = Math.min(minimumEmployeeId, employee.employeeId);
+            maximumEmployeeId = Math.max(maximumEmployeeId, employee.employeeId);
+        }
+        long spread = employees.isEmpty() ? 0 : (long) maximumEmployeeId - minimumEmployeeId + 1;
+
+        if (spread <= (long) employees.size() * MAXIMUM_DENSE_SPREAD) {
+            this.baseEmployeeId = minimumEmployeeId;
+            this.denseTable = new Employee[(int) spread];
+            for (Employee employee : employees) {
+                int slot = employee.employeeId - minimumEmployeeId;
+                if (this.denseTable[slot] == null) {
+                    this.denseTable[slot] = employee;
+                }
+            }
+            this.hashedEmployeeIds = null;
+            this.hashedEmployees = null;
+            this.hashMask = 0;
+        } else {
+            int capacity = Integer.highestOneBit(Math.max(2, employees.size() * 2 - 1)) << 1;
+            this.baseEmployeeId = 0;
+            this.denseTable = null;
+            this.hashedEmployeeIds = new int[capacity];
+            this.hashedEmployees = new Employee[capacity];
+            this.hashMask = capacity - 1;
+            for (Employee employee : employees) {
+                int slot = hash(employee.employeeId) & this.hashMask;
+                while (this.hashedEmployees[slot] != null
+                        && this.hashedEmployeeIds[slot] != employee.employeeId) {
+                    slot = (slot + 1) & this.hashMask;
+                }
+                if (this.hashedEmployees[slot] == null) {
+                    this.hashedEmployeeIds[slot] = employee.employeeId;
+                    this.hashedEmployees[slot] = employee;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether this index was built over the given list instance.
+     *
+     * @param employees the employee list currently in use
+     * @return true if the index can be used to look up employees in the list
+     */
+    boolean isIndexOf(List<Employee> employees) {
+        return this.source == employees;
+    }
+
+    /**
+     * Finds the employee with the given ID.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return the employee, or {@code null} if no employee has the given ID
+     */
+    Employee get(int employeeId) {
+        if (this.denseTable != null) {
+            long slot = (long) employeeId - this.baseEmployeeId;
+            return slot >= 0 && slot < this.denseTable.length ? this.denseTable[(int) slot] : null;
+        }
+        int slot = hash(employeeId) & this.hashMask;
+        while (this.hashedEmployees[slot] != null) {
+            if (this.hashedEmployeeIds[slot] == employeeId) {
+                return this.hashedEmployees[slot];
+            }
+            slot = (slot + 1) & this.hashMask;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the employee with the given ID.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return an Optional containing the employee, or an empty Optional if no
+     *         employee has the given ID
+     */
+    Optional<Employee> find(int employeeId) {
+        return Optional.ofNullable(get(employeeId));
+    }
+
+    private static int hash(int employeeId) {
+        int hash = employeeId * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
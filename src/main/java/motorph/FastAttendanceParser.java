@@ -0,0 +1,380 @@
+package motorph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A specialised parser for the attendance CSV file that scans the raw bytes
+ * directly instead of going through OpenCSV's reflective bean binding.
+ * <p>
+ * The parser only understands the fixed attendance schema:
+ *
+ * <pre>
+ * Employee #,Last Name,First Name,Date,Log In,Log Out
+ * 10001,Garcia,Manuel III,06/03/2024,8:59,18:31
+ * </pre>
+ *
+ * Dates ({@code MM/dd/yyyy}) and times ({@code H:mm} or {@code HH:mm}) are
+ * parsed digit by digit, without {@link java.time.format.DateTimeFormatter}
+ * and without using exceptions for control flow. Names may be quoted, as
+ * written by spreadsheet exports. Lines may end in {@code \n} or {@code \r\n},
+ * and the last line does not need a line break.
+ * <p>
+ * To save memory, records share their {@link LocalTime} and {@link LocalDate}
+ * instances, and an employee's names are kept as one {@code String} instance
+ * each, however many rows the employee has. A parser is not thread-safe; use
+ * one parser per thread.
+ *
+ * @see Converter.DateConverter
+ * @see Converter.TimeConverter
+ * @see EmployeeDatabaseService#fastAttendanceParsing
+ */
+public class FastAttendanceParser {
+    /**
+     * The header line the parser expects at the top of the attendance file.
+     */
+    public static final String HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out";
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final LocalTime[] MINUTES_OF_DAY = new LocalTime[24 * 60];
+
+    static {
+        for (int minuteOfDay = 0; minuteOfDay < MINUTES_OF_DAY.length; minuteOfDay++) {
+            MINUTES_OF_DAY[minuteOfDay] = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+    }
+
+    private final Map<Integer, String[]> employeeNames = new HashMap<>();
+    private byte[] field = new byte[64];
+    private int fieldLength;
+    private int lastYear;
+    private int lastMonth;
+    private int lastDay;
+    private LocalDate lastDate;
+    private long lineNumber;
+
+    /**
+     * Parses a whole attendance CSV stream, header included, reading it in large
+     * blocks so that the stream can be arbitrarily large.
+     *
+     * @param in       the attendance CSV; it is not closed
+     * @param consumer receives each attendance record, in file order
+     * @throws IOException              if the stream cannot be read
+     * @throws IllegalArgumentException if the header or a line is malformed
+     */
+    public void parse(InputStream in, Consumer<? super AttendanceRecord> consumer) throws IOException {
+        byte[] block = new byte[BLOCK_SIZE];
+        int length = 0;
+        boolean headerSkipped = false;
+        int read;
+        while ((read = in.read(block, length, block.length - length)) >= 0) {
+            length += read;
+            int end = lastLineBreak(block, length);
+            if (end < 0) {
+                if (length == block.length) {
+                    block = Arrays.copyOf(block, block.length * 2);
+                }
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(block, 0, end + 1);
+            int start = 0;
+            if (!headerSkipped) {
+                start = skipHeader(buffer, 0, end + 1);
+                headerSkipped = true;
+            }
+            parseLines(buffer, start, end + 1, consumer);
+            length -= end + 1;
+            System.arraycopy(block, end + 1, block, 0, length);
+        }
+        if (length == 0 && !headerSkipped) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(block, 0, length);
+        int start = headerSkipped ? 0 : skipHeader(buffer, 0, length);
+        parseLines(buffer, start, length, consumer);
+    }
+
+    /**
+     * Checks that the region starts with the attendance header and returns the
+     * position just after it.
+     *
+     * @param buffer the bytes of the attendance file
+     * @param from   the position of the first byte of the header
+     * @param to     the position after the last byte that may be read
+     * @return the position of the first data line
+     * @throws IllegalArgumentException if the header does not match
+     *                                  {@link #HEADER}
+     */
+    public int skipHeader(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        if (to - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+                && buffer.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+        int lineEnd = position;
+        while (lineEnd < to && buffer.get(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        int headerEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+        byte[] header = new byte[headerEnd - position];
+        buffer.get(position, header);
+        if (!HEADER.equals(new String(header, StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Unexpected attendance header: " + new String(header,
+                    StandardCharsets.UTF_8));
+        }
+        this.lineNumber++;
+        return Math.min(lineEnd + 1, to);
+    }
+
+    /**
+     * Parses the data lines in a region of the attendance file. The region must
+     * start at the beginning of a line; a last line without a line break is
+     * parsed up to the end of the region.
+     *
+     * @param buffer   the bytes of the attendance file
+     * @param from     the position of the first byte of the first line
+     * @param to       the position after the last byte of the region
+     * @param consumer receives each attendance record, in file order
+     * @return the number of records parsed
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public long parseLines(ByteBuffer buffer, int from, int to, Consumer<? super AttendanceRecord> consumer) {
+        long records = 0;
+        int position = from;
+        while (position < to) {
+            this.lineNumber++;
+            int lineEnd = position;
+            while (lineEnd < to && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > position) {
+                consumer.accept(parseLine(buffer, position, contentEnd));
+                records++;
+            }
+            position = lineEnd + 1;
+        }
+        return records;
+    }
+
+    private AttendanceRecord parseLine(ByteBuffer buffer, int from, int to) {
+        int position = from;
+
+        int employeeId = 0;
+        int digits = 0;
+        while (position < to && isDigit(buffer.get(position))) {
+            employeeId = employeeId * 10 + (buffer.get(position++) - '0');
+            digits++;
+        }
+        position = expect(buffer, position, to, ',', digits > 0 && digits <= 9);
+
+        position = readField(buffer, position, to, 0);
+        int lastNameLength = this.fieldLength;
+        position = expect(buffer, position, to, ',', true);
+        position = readField(buffer, position, to, lastNameLength);
+        int firstNameLength = this.fieldLength - lastNameLength;
+        position = expect(buffer, position, to, ',', true);
+        String[] names = employeeNames(employeeId, lastNameLength, firstNameLength);
+
+        int month = 0;
+        int day = 0;
+        int year = 0;
+        int start = position;
+        while (position < to && isDigit(buffer.get(position))) {
+            month = month * 10 + (buffer.get(position++) - '0');
+        }
+        position = expect(buffer, position, to, '/', position - start == 2);
+        start = position;
+        while (position < to && isDigit(buffer.get(position))) {
+            day = day * 10 + (buffer.get(position++) - '0');
+        }
+        position = expect(buffer, position, to, '/', position - start == 2);
+        start = position;
+        while (position < to && isDigit(buffer.get(position))) {
+            year = year * 10 + (buffer.get(position++) - '0');
+        }
+        position = expect(buffer, position, to, ',', position - start == 4);
+        LocalDate date = date(year, month, day, buffer, from, to);
+
+        start = position;
+        position = skipTime(buffer, position, to);
+        int logIn = minuteOfDay(buffer, start, position);
+        position = expect(buffer, position, to, ',', logIn >= 0);
+        start = position;
+        position = skipTime(buffer, position, to);
+        int logOut = minuteOfDay(buffer, start, position);
+        if (position != to || logOut < 0) {
+            throw malformedLine(buffer, from, to);
+        }
+
+        return new AttendanceRecord(employeeId, names[0], names[1], date, MINUTES_OF_DAY[logIn],
+                MINUTES_OF_DAY[logOut]);
+    }
+
+    /**
+     * Reads a possibly quoted field into {@link #field}, after the first
+     * {@code offset} bytes already in it.
+     */
+    private int readField(ByteBuffer buffer, int from, int to, int offset) {
+        this.fieldLength = offset;
+        int position = from;
+        if (position < to && buffer.get(position) == '"') {
+            position++;
+            while (position < to) {
+                byte value = buffer.get(position++);
+                if (value == '"') {
+                    if (position < to && buffer.get(position) == '"') {
+                        position++;
+                    } else {
+                        return position;
+                    }
+                }
+                appendToField(value);
+            }
+            throw malformedLine(buffer, from, to);
+        }
+        while (position < to && buffer.get(position) != ',') {
+            appendToField(buffer.get(position++));
+        }
+        return position;
+    }
+
+    private void appendToField(byte value) {
+        if (this.fieldLength == this.field.length) {
+            this.field = Arrays.copyOf(this.field, this.field.length * 2);
+        }
+        this.field[this.fieldLength++] = value;
+    }
+
+    /**
+     * Returns the cached first and last name of an employee, replacing them only
+     * if the names just read into {@link #field} (last name first) differ from
+     * the cached ones.
+     */
+    private String[] employeeNames(int employeeId, int lastNameLength, int firstNameLength) {
+        String[] names = this.employeeNames.get(employeeId);
+        if (names == null || !matches(names[1], 0, lastNameLength)
+                || !matches(names[0], lastNameLength, firstNameLength)) {
+            names = new String[] {
+                    new String(this.field, lastNameLength, firstNameLength, StandardCharsets.UTF_8),
+                    new String(this.field, 0, lastNameLength, StandardCharsets.UTF_8) };
+            this.employeeNames.put(employeeId, names);
+        }
+        return names;
+    }
+
+    private boolean matches(String name, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != (this.field[start + i] & 0xFF) || this.field[start + i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the date, reusing the last one if it is the same.
+     *
+     * @throws IllegalArgumentException if the date does not exist, such as
+     *                                  February 30
+     */
+    private LocalDate date(int year, int month, int day, ByteBuffer buffer, int from, int to) {
+        if (year != this.lastYear || month != this.lastMonth || day != this.lastDay) {
+            try {
+                this.lastDate = LocalDate.of(year, month, day);
+            } catch (DateTimeException dateTimeException) {
+                IllegalArgumentException malformedLine = malformedLine(buffer, from, to);
+                malformedLine.initCause(dateTimeException);
+                throw malformedLine;
+            }
+            this.lastYear = year;
+            this.lastMonth = month;
+            this.lastDay = day;
+        }
+        return this.lastDate;
+    }
+
+    private static int skipTime(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        while (position < to && buffer.get(position) != ',') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Parses {@code H:mm} or {@code HH:mm}, returning the minute of the day or -1
+     * if the time is malformed.
+     */
+    private static int minuteOfDay(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length != 4 && length != 5 || buffer.get(to - 3) != ':') {
+            return -1;
+        }
+        int hour = 0;
+        for (int position = from; position < to - 3; position++) {
+            byte value = buffer.get(position);
+            if (!isDigit(value)) {
+                return -1;
+            }
+            hour = hour * 10 + (value - '0');
+        }
+        byte minuteTens = buffer.get(to - 2);
+        byte minuteUnits = buffer.get(to - 1);
+        if (!isDigit(minuteTens) || !isDigit(minuteUnits)) {
+            return -1;
+        }
+        int minute = (minuteTens - '0') * 10 + (minuteUnits - '0');
+        if (hour > 23 || minute > 59) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    private int expect(ByteBuffer buffer, int position, int to, char separator, boolean valid) {
+        if (!valid || position >= to || buffer.get(position) != separator) {
+            int lineStart = position;
+            while (lineStart > 0 && buffer.get(lineStart - 1) != '\n') {
+                lineStart--;
+            }
+            int lineEnd = position;
+            while (lineEnd < to && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            throw malformedLine(buffer, lineStart, lineEnd);
+        }
+        return position + 1;
+    }
+
+    private IllegalArgumentException malformedLine(ByteBuffer buffer, int from, int to) {
+        byte[] line = new byte[to - from];
+        buffer.get(from, line);
+        return new IllegalArgumentException("Unable to parse attendance line " + this.lineNumber + ": "
+                + new String(line, StandardCharsets.UTF_8));
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static int lastLineBreak(byte[] block, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (block[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,777 @@
+package motorph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link PayrollDatabase} kept in a directory of append-only files, using
+ * nothing beyond the JDK.
+ * <p>
+ * Each file starts with a 16-byte header: the magic number {@code MPDB}, a
+ * two-byte format version, the kind of file, a reserved byte and, for the
+ * index, its row count. The files are:
+ *
+ * <pre>
+ * employees.log     every version of every employee, each entry its length
+ *                   followed by the employee in the snapshot encoding
+ * attendance.log    one 12-byte row per attendance record, in the order they
+ *                   were added: employee ID, epoch day, log in and log out
+ *                   minutes of the day
+ * attendance.names  the first and last name of each employee in the log
+ * attendance.index  the rows of the log up to the last checkpoint, sorted by
+ *                   employee ID and date, followed by the first key of each
+ *                   block of 512 rows
+ * </pre>
+ *
+ * The logs are only ever appended to, so a crash can at most leave an
+ * incomplete last entry, which is cut off on the next open. The index is a
+ * two-level B+-tree: its leaves are the sorted rows themselves, in blocks of
+ * 512, and its root is the list of the first key of every block, which is held
+ * in memory at 8 bytes per 512 rows. A range query binary-searches the block
+ * keys and reads the blocks it covers, one positional read each. Since the
+ * index holds whole rows, queries never touch the log.
+ * <p>
+ * Rows added since the last checkpoint are also kept in memory, chained per
+ * employee, and merged into the query results. When there are more than the
+ * configured maximum of them, or on {@link #checkpoint()} and
+ * {@link #close()}, they are sorted and merged with the index into a new index
+ * file in one sequential pass, which then replaces the old one atomically.
+ * Opening a database reads the employee offsets, the names, the block keys and
+ * the rows added after the last checkpoint, so its memory use does not grow
+ * with the number of indexed attendance records.
+ * <p>
+ * Queries may run concurrently with each other and with additions.
+ */
+public final class FilePayrollDatabase implements PayrollDatabase {
+    static final int MAGIC = 0x4D504442;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ROW_SIZE = 12;
+    static final int BLOCK_ROWS = 512;
+    static final int DEFAULT_MAXIMUM_TAIL_ROWS = 1 << 20;
+
+    static final String EMPLOYEES_FILE = "employees.log";
+    static final String ATTENDANCE_FILE = "attendance.log";
+    static final String NAMES_FILE = "attendance.names";
+    static final String INDEX_FILE = "attendance.index";
+
+    private static final byte EMPLOYEES = 1;
+    private static final byte ATTENDANCE = 2;
+    private static final byte NAMES = 3;
+    private static final byte INDEX = 4;
+    private static final int BUFFER_ROWS = 1 << 16;
+    private static final int BUFFER_SIZE = BUFFER_ROWS * ROW_SIZE;
+
+    private final Path directory;
+    private final int maximumTailRows;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> employeeOffsets = new LinkedHashMap<>();
+    private final Map<Integer, String[]> attendanceNames = new ConcurrentHashMap<>();
+    private final TailRows tail = new TailRows();
+    private FileChannel employeesLog;
+    private FileChannel attendanceLog;
+    private FileChannel namesLog;
+    private FileChannel index;
+    private long[] blockKeys = new long[0];
+    private long indexedRows;
+    private volatile long attendanceRows;
+
+    private FilePayrollDatabase(Path directory, int maximumTailRows) {
+        this.directory = directory;
+        this.maximumTailRows = maximumTailRows;
+    }
+
+    /**
+     * Opens the database in a directory, creating it if it does not exist.
+     *
+     * @param directory the database directory
+     * @return the opened database, to be closed when no longer needed
+     * @throws IOException if the files cannot be read or written, or are not
+     *                     database files
+     */
+    public static FilePayrollDatabase open(Path directory) throws IOException {
+        return open(directory, DEFAULT_MAXIMUM_TAIL_ROWS);
+    }
+
+    /**
+     * Opens the database in a directory, creating it if it does not exist.
+     *
+     * @param directory       the database directory
+     * @param maximumTailRows the number of attendance rows kept in memory before
+     *                        they are merged into the index
+     * @return the opened database, to be closed when no longer needed
+     * @throws IOException if the files cannot be read or written, or are not
+     *                     database files
+     */
+    public static FilePayrollDatabase open(Path directory, int maximumTailRows) throws IOException {
+        if (maximumTailRows < 1) {
+            throw new IllegalArgumentException("Maximum tail rows must be positive: " + maximumTailRows);
+        }
+        Files.createDirectories(directory);
+        FilePayrollDatabase database = new FilePayrollDatabase(directory, maximumTailRows);
+        try {
+            database.load();
+        } catch (IOException | RuntimeException exception) {
+            database.closeChannels();
+            throw exception;
+        }
+        return database;
+    }
+
+    private void load() throws IOException {
+        this.employeesLog = openLog(this.directory.resolve(EMPLOYEES_FILE), EMPLOYEES);
+        this.namesLog = openLog(this.directory.resolve(NAMES_FILE), NAMES);
+        this.attendanceLog = openLog(this.directory.resolve(ATTENDANCE_FILE), ATTENDANCE);
+
+        readEntries(this.employeesLog, (offset, entry) -> this.employeeOffsets.put(entry.getInt(0), offset));
+        readEntries(this.namesLog, (offset, entry) -> this.attendanceNames.put(entry.getInt(),
+                new String[] { SnapshotCache.readString(entry), SnapshotCache.readString(entry) }));
+        long rows = (this.attendanceLog.size() - HEADER_SIZE) / ROW_SIZE;
+        this.attendanceLog.truncate(HEADER_SIZE + rows * ROW_SIZE);
+        this.attendanceRows = rows;
+
+        openIndex(rows);
+        LogReader reader = new LogReader(this.attendanceLog, HEADER_SIZE + this.indexedRows * ROW_SIZE);
+        for (long row = this.indexedRows; row < rows; row++) {
+            reader.require(ROW_SIZE);
+            ByteBuffer buffer = reader.buffer;
+            this.tail.add(buffer.getInt(), buffer.getInt(), buffer.getShort(), buffer.getShort());
+            if (this.tail.size >= this.maximumTailRows) {
+                mergeTail();
+            }
+        }
+    }
+
+    /**
+     * Opens the index file if it is complete and covers no more rows than the
+     * log holds; otherwise the whole log is indexed again.
+     */
+    private void openIndex(long logRows) throws IOException {
+        Path indexFile = this.directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() >= HEADER_SIZE) {
+            readFully(channel, header, 0);
+        }
+        long rows = header.getLong(8);
+        long blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        if (!isHeader(header.clear(), INDEX) || rows < 0 || rows > logRows
+                || channel.size() != HEADER_SIZE + rows * ROW_SIZE + blocks * Long.BYTES) {
+            // A stale or damaged index is rebuilt from the log.
+            channel.close();
+            return;
+        }
+        long[] keys = new long[(int) blocks];
+        ByteBuffer footer = ByteBuffer.allocate(keys.length * Long.BYTES);
+        long position = HEADER_SIZE + rows * ROW_SIZE;
+        while (footer.hasRemaining()) {
+            if (channel.read(footer, position + footer.position()) < 0) {
+                throw new IOException("Truncated index: " + indexFile);
+            }
+        }
+        footer.flip().asLongBuffer().get(keys);
+        this.index = channel;
+        this.indexedRows = rows;
+        this.blockKeys = keys;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        this.lock.readLock().lock();
+        try {
+            List<Employee> employees = new ArrayList<>(this.employeeOffsets.size());
+            for (long offset : this.employeeOffsets.values()) {
+                employees.add(readEmployee(offset));
+            }
+            return employees;
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Employee> findEmployee(int employeeId) {
+        this.lock.readLock().lock();
+        try {
+            Long offset = this.employeeOffsets.get(employeeId);
+            return offset == null ? Optional.empty() : Optional.of(readEmployee(offset));
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Employee readEmployee(long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(this.employeesLog, length, offset);
+        ByteBuffer entry = ByteBuffer.allocate(length.getInt(0));
+        readFully(this.employeesLog, entry, offset + Integer.BYTES);
+        return SnapshotCache.readEmployee(entry.flip());
+    }
+
+    @Override
+    public void addEmployees(List<Employee> employees) {
+        this.lock.writeLock().lock();
+        try {
+            ByteArrayOutputStream entries = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(entries);
+            long offset = this.employeesLog.size();
+            Map<Integer, Long> offsets = new LinkedHashMap<>();
+            for (Employee employee : employees) {
+                offsets.put(employee.employeeId, offset + out.size());
+                writeEntry(out, entry -> SnapshotCache.writeEmployee(entry, employee));
+            }
+            writeFully(this.employeesLog, ByteBuffer.wrap(entries.toByteArray()), offset);
+            this.employeeOffsets.putAll(offsets);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getAttendanceRecordCount() {
+        return this.attendanceRows;
+    }
+
+    @Override
+    public AttendanceStore findAttendanceRecords(int employeeId, LocalDate from, LocalDate to) {
+        int fromDay = toEpochDay(from);
+        int toDay = toEpochDay(to);
+        AttendanceStore.Builder builder = new AttendanceStore.Builder(64);
+        String[] names = this.attendanceNames.get(employeeId);
+        if (names == null || fromDay > toDay) {
+            return builder.build();
+        }
+        this.lock.readLock().lock();
+        try {
+            int[] tailRows = this.tail.rowsOf(employeeId, fromDay, toDay);
+            int nextTailRow = 0;
+            long fromKey = key(employeeId, fromDay);
+            long toKey = key(employeeId, toDay);
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_ROWS * ROW_SIZE);
+            scan: for (int blockNumber = firstBlock(fromKey); blockNumber < this.blockKeys.length; blockNumber++) {
+                if (this.blockKeys[blockNumber] > toKey) {
+                    break;
+                }
+                long firstRow = (long) blockNumber * BLOCK_ROWS;
+                block.clear().limit((int) Math.min(BLOCK_ROWS, this.indexedRows - firstRow) * ROW_SIZE);
+                readFully(this.index, block, HEADER_SIZE + firstRow * ROW_SIZE);
+                block.flip();
+                while (block.hasRemaining()) {
+                    int rowEmployeeId = block.getInt();
+                    int epochDay = block.getInt();
+                    int logInMinute = block.getShort();
+                    int logOutMinute = block.getShort();
+                    long rowKey = key(rowEmployeeId, epochDay);
+                    if (rowKey < fromKey) {
+                        continue;
+                    }
+                    if (rowKey > toKey) {
+                        break scan;
+                    }
+                    // Rows added after the checkpoint come after indexed rows of the same date.
+                    while (nextTailRow < tailRows.length && this.tail.epochDays[tailRows[nextTailRow]] < epochDay) {
+                        addTailRow(builder, names, tailRows[nextTailRow++]);
+                    }
+                    builder.add(employeeId, names[0], names[1], epochDay, logInMinute, logOutMinute);
+                }
+            }
+            while (nextTailRow < tailRows.length) {
+                addTailRow(builder, names, tailRows[nextTailRow++]);
+            }
+            return builder.build();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void addTailRow(AttendanceStore.Builder builder, String[] names, int row) {
+        builder.add(this.tail.employeeIds[row], names[0], names[1], this.tail.epochDays[row],
+                this.tail.logInMinutes[row], this.tail.logOutMinutes[row]);
+    }
+
+    /**
+     * Finds the block a range starting at the given key begins in: the last
+     * block whose first key is less than it, since rows equal to the key may
+     * end the block before a block that starts with it.
+     */
+    private int firstBlock(long fromKey) {
+        int block = Arrays.binarySearch(this.blockKeys, fromKey);
+        if (block < 0) {
+            block = -block - 1;
+        }
+        while (block > 0 && this.blockKeys[block - 1] >= fromKey) {
+            block--;
+        }
+        return Math.max(0, block - 1);
+    }
+
+    @Override
+    public void forEachAttendanceRecord(Consumer<? super AttendanceRecord> consumer) {
+        long rows = this.attendanceRows;
+        try {
+            LogReader reader = new LogReader(this.attendanceLog, HEADER_SIZE);
+            for (long row = 0; row < rows; row++) {
+                reader.require(ROW_SIZE);
+                ByteBuffer buffer = reader.buffer;
+                int employeeId = buffer.getInt();
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+                int logInMinute = buffer.getShort();
+                int logOutMinute = buffer.getShort();
+                String[] names = this.attendanceNames.get(employeeId);
+                consumer.accept(new AttendanceRecord(employeeId, names[0], names[1], date,
+                        LocalTime.of(logInMinute / 60, logInMinute % 60),
+                        LocalTime.of(logOutMinute / 60, logOutMinute % 60)));
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    @Override
+    public void addAttendanceRecords(List<? extends AttendanceRecord> attendanceRecords) {
+        this.lock.writeLock().lock();
+        try {
+            ByteArrayOutputStream nameEntries = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(nameEntries);
+            Map<Integer, String[]> newNames = new HashMap<>();
+            for (AttendanceRecord attendanceRecord : attendanceRecords) {
+                int employeeId = attendanceRecord.employeeId;
+                if (!this.attendanceNames.containsKey(employeeId) && !newNames.containsKey(employeeId)) {
+                    newNames.put(employeeId, new String[] { attendanceRecord.firstName, attendanceRecord.lastName });
+                    writeEntry(out, entry -> {
+                        entry.writeInt(employeeId);
+                        SnapshotCache.writeString(entry, attendanceRecord.firstName);
+                        SnapshotCache.writeString(entry, attendanceRecord.lastName);
+                    });
+                }
+            }
+            if (!newNames.isEmpty()) {
+                writeFully(this.namesLog, ByteBuffer.wrap(nameEntries.toByteArray()), this.namesLog.size());
+                this.attendanceNames.putAll(newNames);
+            }
+
+            ByteBuffer rows = ByteBuffer.allocate(Math.min(attendanceRecords.size(), BUFFER_ROWS) * ROW_SIZE);
+            long position = HEADER_SIZE + this.attendanceRows * ROW_SIZE;
+            for (AttendanceRecord attendanceRecord : attendanceRecords) {
+                if (!rows.hasRemaining()) {
+                    position += writeFully(this.attendanceLog, rows.flip(), position);
+                    rows.clear();
+                }
+                rows.putInt(attendanceRecord.employeeId).putInt((int) attendanceRecord.date.toEpochDay())
+                        .putShort((short) AttendanceStore.toMinuteOfDay(attendanceRecord.logIn))
+                        .putShort((short) AttendanceStore.toMinuteOfDay(attendanceRecord.logOut));
+            }
+            writeFully(this.attendanceLog, rows.flip(), position);
+            this.attendanceRows += attendanceRecords.size();
+
+            for (AttendanceRecord attendanceRecord : attendanceRecords) {
+                this.tail.add(attendanceRecord.employeeId, (int) attendanceRecord.date.toEpochDay(),
+                        AttendanceStore.toMinuteOfDay(attendanceRecord.logIn),
+                        AttendanceStore.toMinuteOfDay(attendanceRecord.logOut));
+                if (this.tail.size >= this.maximumTailRows) {
+                    mergeTail();
+                }
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint() {
+        this.lock.writeLock().lock();
+        try {
+            if (this.tail.size > 0) {
+                mergeTail();
+            }
+            this.employeesLog.force(false);
+            this.namesLog.force(false);
+            this.attendanceLog.force(false);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checkpoints the database and closes its files.
+     *
+     * @throws IOException if the files could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            checkpoint();
+        } catch (UncheckedIOException uncheckedIOException) {
+            closeChannels();
+            throw uncheckedIOException.getCause();
+        }
+        closeChannels();
+    }
+
+    private void closeChannels() throws IOException {
+        for (FileChannel channel : new FileChannel[] { this.employeesLog, this.namesLog, this.attendanceLog,
+                this.index }) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Merges the rows added since the last checkpoint into a new index file.
+     * The old index is read and the new one written sequentially; only the
+     * sorted row numbers of one employee's new rows are held at a time.
+     */
+    private void mergeTail() throws IOException {
+        // The attendance rows must be on disk before an index claims to cover them.
+        this.attendanceLog.force(false);
+        Path indexFile = this.directory.resolve(INDEX_FILE);
+        Path temporary = Files.createTempFile(this.directory, INDEX_FILE, ".tmp");
+        try {
+            IndexWriter writer;
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                writer = new IndexWriter(out);
+                LogReader oldRows = this.index == null ? null : new LogReader(this.index, HEADER_SIZE);
+                long remainingOldRows = this.indexedRows;
+                int[] employeeIds = this.tail.chains.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                for (int employeeId : employeeIds) {
+                    for (int row : this.tail.rowsOf(employeeId, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                        long rowKey = key(employeeId, this.tail.epochDays[row]);
+                        while (remainingOldRows > 0 && oldRows.require(ROW_SIZE)
+                                && oldRows.peekKey() <= rowKey) {
+                            writer.copyRow(oldRows.buffer);
+                            remainingOldRows--;
+                        }
+                        writer.write(employeeId, this.tail.epochDays[row], this.tail.logInMinutes[row],
+                                this.tail.logOutMinutes[row]);
+                    }
+                }
+                while (remainingOldRows > 0 && oldRows.require(ROW_SIZE)) {
+                    writer.copyRow(oldRows.buffer);
+                    remainingOldRows--;
+                }
+                writer.finish();
+                out.force(true);
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel oldIndex = this.index;
+            this.index = FileChannel.open(indexFile, StandardOpenOption.READ);
+            if (oldIndex != null) {
+                oldIndex.close();
+            }
+            this.indexedRows = writer.rows;
+            this.blockKeys = Arrays.copyOf(writer.blockKeys, writer.blocks);
+            this.tail.clear();
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Orders rows by employee ID, then by date.
+     */
+    static long key(int employeeId, int epochDay) {
+        return (long) employeeId << 32 | Integer.toUnsignedLong(epochDay ^ Integer.MIN_VALUE);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return Math.clamp(date.toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static FileChannel openLog(Path file, byte kind) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).put(kind);
+                writeFully(channel, header.clear(), 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (channel.size() < HEADER_SIZE || !isHeader(readFully(channel, header, 0).flip(), kind)) {
+                    throw new IOException("Not a payroll database file: " + file);
+                }
+            }
+        } catch (IOException ioException) {
+            channel.close();
+            throw ioException;
+        }
+        return channel;
+    }
+
+    private static boolean isHeader(ByteBuffer header, byte kind) {
+        return header.remaining() == HEADER_SIZE && header.getInt(0) == MAGIC && header.getShort(4) == VERSION
+                && header.get(6) == kind;
+    }
+
+    /**
+     * Reads the length-prefixed entries of a log and cuts off an incomplete
+     * last entry.
+     */
+    private static void readEntries(FileChannel channel, EntryReader entryReader) throws IOException {
+        LogReader reader = new LogReader(channel, HEADER_SIZE);
+        while (reader.require(Integer.BYTES)) {
+            long offset = reader.position();
+            int length = reader.buffer.getInt(reader.buffer.position());
+            if (length < 0 || length > BUFFER_SIZE - Integer.BYTES || !reader.require(Integer.BYTES + length)) {
+                break;
+            }
+            ByteBuffer entry = reader.buffer.slice(reader.buffer.position() + Integer.BYTES, length);
+            entryReader.read(offset, entry);
+            reader.buffer.position(reader.buffer.position() + Integer.BYTES + length);
+        }
+        channel.truncate(reader.position());
+    }
+
+    private static void writeEntry(DataOutputStream out, EntryWriter entryWriter) throws IOException {
+        ByteArrayOutputStream entry = new ByteArrayOutputStream(256);
+        entryWriter.write(new DataOutputStream(entry));
+        out.writeInt(entry.size());
+        entry.writeTo(out);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int length = buffer.remaining();
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+        return length;
+    }
+
+    @FunctionalInterface
+    private interface EntryReader {
+        void read(long offset, ByteBuffer entry) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads a file sequentially from a position through a buffer that is
+     * refilled whenever the next entry is not wholly in it.
+     */
+    private static final class LogReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private long readPosition;
+
+        LogReader(FileChannel channel, long position) {
+            this.channel = channel;
+            this.readPosition = position;
+        }
+
+        /**
+         * @return the file position of the next unread byte
+         */
+        long position() {
+            return this.readPosition - this.buffer.remaining();
+        }
+
+        /**
+         * Refills the buffer if it holds fewer than the given number of bytes.
+         *
+         * @return false if the file ends before that many bytes
+         */
+        boolean require(int bytes) throws IOException {
+            if (this.buffer.remaining() >= bytes) {
+                return true;
+            }
+            this.buffer.compact();
+            while (this.buffer.position() < bytes) {
+                int read = this.channel.read(this.buffer, this.readPosition);
+                if (read < 0) {
+                    break;
+                }
+                this.readPosition += read;
+            }
+            this.buffer.flip();
+            return this.buffer.remaining() >= bytes;
+        }
+
+        long peekKey() {
+            int position = this.buffer.position();
+            return key(this.buffer.getInt(position), this.buffer.getInt(position + Integer.BYTES));
+        }
+    }
+
+    /**
+     * Writes sorted rows to a new index file and collects the first key of
+     * each block.
+     */
+    private static final class IndexWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long position = HEADER_SIZE;
+        private long rows;
+        private long[] blockKeys = new long[1024];
+        private int blocks;
+
+        IndexWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(int employeeId, int epochDay, int logInMinute, int logOutMinute) throws IOException {
+            startRow(employeeId, epochDay);
+            this.buffer.putInt(employeeId).putInt(epochDay).putShort((short) logInMinute)
+                    .putShort((short) logOutMinute);
+        }
+
+        void copyRow(ByteBuffer source) throws IOException {
+            int position = source.position();
+            startRow(source.getInt(position), source.getInt(position + Integer.BYTES));
+            this.buffer.put(source.slice(position, ROW_SIZE));
+            source.position(position + ROW_SIZE);
+        }
+
+        private void startRow(int employeeId, int epochDay) throws IOException {
+            if (this.rows % BLOCK_ROWS == 0) {
+                if (this.blocks == this.blockKeys.length) {
+                    this.blockKeys = Arrays.copyOf(this.blockKeys, this.blocks * 2);
+                }
+                this.blockKeys[this.blocks++] = key(employeeId, epochDay);
+            }
+            if (!this.buffer.hasRemaining()) {
+                drain();
+            }
+            this.rows++;
+        }
+
+        void finish() throws IOException {
+            for (int block = 0; block < this.blocks; block++) {
+                if (this.buffer.remaining() < Long.BYTES) {
+                    drain();
+                }
+                this.buffer.putLong(this.blockKeys[block]);
+            }
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).put(INDEX)
+                    .put((byte) 0).putLong(this.rows);
+            writeFully(this.channel, header.flip(), 0);
+        }
+
+        private void drain() throws IOException {
+            this.position += writeFully(this.channel, this.buffer.flip(), this.position);
+            this.buffer.clear();
+        }
+    }
+
+    /**
+     * The rows added since the last checkpoint, in parallel arrays, with the
+     * rows of each employee chained in the order they were added.
+     */
+    private static final class TailRows {
+        private int size;
+        private int[] employeeIds = new int[1024];
+        private int[] epochDays = new int[1024];
+        private short[] logInMinutes = new short[1024];
+        private short[] logOutMinutes = new short[1024];
+        private int[] next = new int[1024];
+        /** The first and last row of each employee's chain. */
+        private final Map<Integer, int[]> chains = new HashMap<>();
+
+        void add(int employeeId, int epochDay, int logInMinute, int logOutMinute) {
+            if (this.size == this.employeeIds.length) {
+                int capacity = this.size * 2;
+                this.employeeIds = Arrays.copyOf(this.employeeIds, capacity);
+                this.epochDays = Arrays.copyOf(this.epochDays, capacity);
+                this.logInMinutes = Arrays.copyOf(this.logInMinutes, capacity);
+                this.logOutMinutes = Arrays.copyOf(this.logOutMinutes, capacity);
+                this.next = Arrays.copyOf(this.next, capacity);
+            }
+            int row = this.size++;
+            this.employeeIds[row] = employeeId;
+            this.epochDays[row] = epochDay;
+            this.logInMinutes[row] = (short) logInMinute;
+            this.logOutMinutes[row] = (short) logOutMinute;
+            this.next[row] = -1;
+            int[] chain = this.chains.get(employeeId);
+            if (chain == null) {
+                this.chains.put(employeeId, new int[] { row, row });
+            } else {
+                this.next[chain[1]] = row;
+                chain[1] = row;
+            }
+        }
+
+        /**
+         * Lists an employee's rows between two dates, sorted by date and then
+         * by the order they were added.
+         */
+        int[] rowsOf(int employeeId, int fromDay, int toDay) {
+            int[] chain = this.chains.get(employeeId);
+            if (chain == null) {
+                return new int[0];
+            }
+            long[] sortKeys = new long[16];
+            int count = 0;
+            for (int row = chain[0]; row >= 0; row = this.next[row]) {
+                int epochDay = this.epochDays[row];
+                if (epochDay >= fromDay && epochDay <= toDay) {
+                    if (count == sortKeys.length) {
+                        sortKeys = Arrays.copyOf(sortKeys, count * 2);
+                    }
+                    sortKeys[count++] = Integer.toUnsignedLong(epochDay ^ Integer.MIN_VALUE) << 32 | row;
+                }
+            }
+            Arrays.sort(sortKeys, 0, count);
+            int[] rows = new int[count];
+            for (int i = 0; i < count; i++) {
+                rows[i] = (int) sortKeys[i];
+            }
+            return rows;
+        }
+
+        void clear() {
+            this.size = 0;
+            this.chains.clear();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package motorph;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the weekly payroll up to date as attendance records are appended,
+ * recalculating only the payslips the new records affect.
+ * <p>
+ * Every appended record is folded into the {@link WeeklyAttendanceTotals} of
+ * its employee, month and week, and that week's payslip is marked dirty. When a
+ * payroll result is requested, only the dirty payslips are recalculated from
+ * their totals; all other payslips are returned as calculated before. The cost
+ * of bringing the payroll up to date is therefore proportional to the number
+ * of weeks touched since the last recalculation, not to the length of the
+ * attendance history.
+ * <p>
+ * The deductions of a month are applied in its second to last week, so a
+ * record that starts a new week moves the deduction week: the payslips of the
+ * previous and the new deduction week are then recalculated as well. A change
+ * to an employee's details, such as the basic salary, is not seen by the
+ * attendance totals and has to be signalled with {@link #markDirty(int)}.
+ * <p>
+ * Records outside the payroll months and records of unknown employees are
+ * skipped, as in the full calculation. The payslips equal those of
+ * {@link EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)} as long as
+ * the records of a week are appended in date order, as they are in the
+ * attendance file. All methods are synchronized, so records can be appended by
+ * one thread while payroll results are read by another.
+ * <p>
+ * {@link EmployeeDatabaseService#getIncrementalPayroll()} keeps one up to date
+ * with every batch added by
+ * {@link EmployeeDatabaseService#appendAttendanceRecords(List)}.
+ *
+ * @see AttendanceAccumulator
+ */
+public final class IncrementalPayroll {
+    private final AttendanceAccumulator attendanceAccumulator = new AttendanceAccumulator();
+    private final Map<Integer, Map<YearMonth, MonthlyPayslips>> payslips = new HashMap<>();
+    private final Map<Integer, Map<YearMonth, Set<Integer>>> dirtyWeeks = new LinkedHashMap<>();
+    private long recalculatedPayslips;
+
+    /**
+     * The calculated payslips of one employee's month, by week number.
+     */
+    private static final class MonthlyPayslips {
+        final SortedMap<Integer, WeeklyPayslip> weeklyPayslips = new TreeMap<>();
+        int deductionWeek = -1;
+    }
+
+    /**
+     * Creates an incremental payroll holding the attendance records currently
+     * loaded by {@link EmployeeDatabaseService}, with all their payslips dirty.
+     *
+     * @return the incremental payroll
+     */
+    public static IncrementalPayroll ofLoadedAttendance() {
+        IncrementalPayroll incrementalPayroll = new IncrementalPayroll();
+        incrementalPayroll.appendAll(EmployeeDatabaseService.getAllAttendanceRecords());
+        return incrementalPayroll;
+    }
+
+    /**
+     * Adds an attendance record to the totals of its week and marks the week's
+     * payslip dirty, unless the record is outside the payroll months or belongs
+     * to an unknown employee.
+     *
+     * @param attendanceRecord the new attendance record
+     */
+    public synchronized void append(AttendanceRecord attendanceRecord) {
+        if (this.attendanceAccumulator.add(attendanceRecord)) {
+            this.dirtyWeeks.computeIfAbsent(attendanceRecord.employeeId, employeeId -> new TreeMap<>())
+                    .computeIfAbsent(YearMonth.from(attendanceRecord.date), key -> new TreeSet<>())
+                    .add(AttendanceIndex.getWeekOfMonth(attendanceRecord.date));
+        }
+    }
+
+    /**
+     * Appends attendance records in order.
+     *
+     * @param attendanceRecords the new attendance records
+     * @see #append(AttendanceRecord)
+     */
+    public synchronized void appendAll(Iterable<? extends AttendanceRecord> attendanceRecords) {
+        for (AttendanceRecord attendanceRecord : attendanceRecords) {
+            append(attendanceRecord);
+        }
+    }
+
+    /**
+     * Marks every payslip of an employee dirty, e.g. after the employee's salary
+     * or allowances have changed.
+     *
+     * @param employeeId the unique identifier of the employee
+     */
+    public synchronized void markDirty(int employeeId) {
+        for (YearMonth month : EmployeeDatabaseService.getPayrollMonths()) {
+            Set<Integer> weekNumbers = this.attendanceAccumulator.getWeeklyTotals(employeeId, month).keySet();
+            if (!weekNumbers.isEmpty()) {
+                this.dirtyWeeks.computeIfAbsent(employeeId, key -> new TreeMap<>())
+                        .computeIfAbsent(month, key -> new TreeSet<>())
+                        .addAll(weekNumbers);
+            }
+        }
+    }
+
+    /**
+     * @return the employees with at least one dirty payslip, in the order they
+     *         were first marked dirty
+     */
+    public synchronized Set<Integer> getDirtyEmployeeIds() {
+        return new LinkedHashSet<>(this.dirtyWeeks.keySet());
+    }
+
+    /**
+     * Retrieves the payroll result of an employee, first recalculating any of
+     * the employee's dirty payslips.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @return the employee's weekly payslips of the payroll months
+     * @throws java.util.NoSuchElementException if no employee is found with the
+     *                                          given ID
+     */
+    public synchronized PayrollResult getPayrollResult(int employeeId) {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId).get();
+        recalculate(employee);
+
+        Map<YearMonth, MonthlyPayslips> monthlyPayslips = this.payslips.getOrDefault(employeeId, Map.of());
+        List<WeeklyPayslip> weeklyPayslips = new ArrayList<>();
+        for (YearMonth month : EmployeeDatabaseService.getPayrollMonths()) {
+            MonthlyPayslips monthPayslips = monthlyPayslips.get(month);
+            if (monthPayslips != null) {
+                weeklyPayslips.addAll(monthPayslips.weeklyPayslips.values());
+            }
+        }
+        return new PayrollResult(employee, weeklyPayslips);
+    }
+
+    /**
+     * Recalculates every dirty payslip.
+     *
+     * @return the up-to-date payroll result of each employee that had dirty
+     *         payslips, in the order they were first marked dirty
+     */
+    public synchronized List<PayrollResult> recalculate() {
+        List<PayrollResult> payrollResults = new ArrayList<>(this.dirtyWeeks.size());
+        for (int employeeId : getDirtyEmployeeIds()) {
+            payrollResults.add(getPayrollResult(employeeId));
+        }
+        return payrollResults;
+    }
+
+    /**
+     * @return the number of weekly payslips calculated so far
+     */
+    public synchronized long getRecalculatedPayslips() {
+        return this.recalculatedPayslips;
+    }
+
+    /**
+     * @return the number of attendance records appended so far
+     */
+    public synchronized long getAppendedRecords() {
+        return this.attendanceAccumulator.getAcceptedRecords();
+    }
+
+    private void recalculate(Employee employee) {
+        Map<YearMonth, Set<Integer>> dirtyMonths = this.dirtyWeeks.remove(employee.employeeId);
+        if (dirtyMonths == null) {
+            return;
+        }
+        Map<YearMonth, MonthlyPayslips> monthlyPayslips = this.payslips.computeIfAbsent(employee.employeeId,
+                employeeId -> new TreeMap<>());
+        for (Map.Entry<YearMonth, Set<Integer>> dirtyMonth : dirtyMonths.entrySet()) {
+            SortedMap<Integer, WeeklyAttendanceTotals> weeklyTotals = this.attendanceAccumulator
+                    .getWeeklyTotals(employee.employeeId, dirtyMonth.getKey());
+            MonthlyPayslips monthPayslips = monthlyPayslips.computeIfAbsent(dirtyMonth.getKey(),
+                    month -> new MonthlyPayslips());
+
+            Set<Integer> weekNumbers = dirtyMonth.getValue();
+            int deductionWeek = weeklyTotals.lastKey() - 1;
+            if (deductionWeek != monthPayslips.deductionWeek) {
+                weekNumbers.add(monthPayslips.deductionWeek);
+                weekNumbers.add(deductionWeek);
+                monthPayslips.deductionWeek = deductionWeek;
+            }
+            for (int weekNumber : weekNumbers) {
+                WeeklyAttendanceTotals totals = weeklyTotals.get(weekNumber);
+                if (totals != null) {
+                    monthPayslips.weeklyPayslips.put(weekNumber, EmployeeDatabaseService
+                            .calculateWeeklyPayslip(employee, weekNumber, totals, weekNumber == deductionWeek));
+                    this.recalculatedPayslips++;
+                }
+            }
+        }
+    }
+}
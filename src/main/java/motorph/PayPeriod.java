@@ -0,0 +1,59 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * A span of consecutive days that is paid on one payslip.
+ *
+ * @param start  the first day of the period
+ * @param end    the last day of the period, inclusive
+ * @param number the 1-based number of the period within its month, e.g. the
+ *               week of the month for weekly periods
+ * @see PaySchedule
+ */
+public record PayPeriod(LocalDate start, LocalDate end, int number) {
+
+    public PayPeriod {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Pay period ends before it starts: " + start + " to " + end);
+        }
+    }
+
+    /**
+     * Checks whether a date falls in this period.
+     *
+     * @param date the date
+     * @return true if the date is between the start and end of the period,
+     *         inclusive
+     */
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(this.start) && !date.isAfter(this.end);
+    }
+
+    /**
+     * Limits this period to a date range.
+     *
+     * @param from the first day of the range
+     * @param to   the last day of the range, inclusive
+     * @return the part of this period within the range, with the same number
+     * @throws IllegalArgumentException if the period and the range do not
+     *                                  overlap
+     */
+    public PayPeriod clip(LocalDate from, LocalDate to) {
+        LocalDate clippedStart = this.start.isBefore(from) ? from : this.start;
+        LocalDate clippedEnd = this.end.isAfter(to) ? to : this.end;
+        if (clippedStart.equals(this.start) && clippedEnd.equals(this.end)) {
+            return this;
+        }
+        return new PayPeriod(clippedStart, clippedEnd, this.number);
+    }
+
+    /**
+     * @return the month the period starts in, which is the month whose
+     *         deductions it may carry
+     */
+    public YearMonth yearMonth() {
+        return YearMonth.from(this.start);
+    }
+}
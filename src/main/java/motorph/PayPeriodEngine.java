@@ -0,0 +1,202 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Calculates payslips for the pay periods of a {@link PaySchedule} within a
+ * date range.
+ * <p>
+ * An employee's attendance rows are kept sorted by date in the
+ * {@link AttendanceIndex}, so the rows of a date range are found with a binary
+ * search and divided into periods in a single pass: each row either belongs to
+ * the current period or starts the next one. Only the requested periods are
+ * calculated, whatever the date range, and ranges may span months and years.
+ * Periods in which the employee has no attendance are not paid.
+ * <p>
+ * Per period, the hours worked and overtime pay are summed as in
+ * {@link WeeklyAttendanceTotals}, and the basic pay is determined by the
+ * schedule. The statutory deductions of the employee's
+ * {@link DeductionProfile} and the de minimis benefits are applied once per
+ * month, in the period chosen by {@link PaySchedule#deductionPeriodNumber(int)}
+ * among the periods of the whole month, whatever part of it is requested. They
+ * are applied by the range that holds the last day of that period, so a month
+ * split over several ranges is deducted exactly once, and in the same period
+ * as when it is requested whole. Periods cut short by the range are paid a
+ * share of a salaried schedule's rate, see
+ * {@link PaySchedule#basicPay(Employee, double, PayPeriod)}. For the
+ * {@link PaySchedule#WEEKLY} schedule the payslips equal those of
+ * {@link EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)}.
+ *
+ * <pre>
+ * {@code
+ * List<PeriodPayslip> payslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.SEMI_MONTHLY,
+ *         LocalDate.of(2024, 6, 1), LocalDate.of(2025, 5, 31));
+ * }
+ * </pre>
+ */
+public final class PayPeriodEngine {
+
+    /**
+     * The store rows of one pay period.
+     *
+     * @param period the pay period, clipped to the requested date range
+     * @param rows   the date-sorted row numbers of the period
+     */
+    record PeriodRows(PayPeriod period, int[] rows) {
+    }
+
+    private PayPeriodEngine() {
+    }
+
+    /**
+     * Calculates an employee's payslips for the pay periods of a date range.
+     *
+     * @param employee the employee
+     * @param schedule the pay schedule
+     * @param from     the first day of the range
+     * @param to       the last day of the range, inclusive
+     * @return the payslip of every period with attendance, in date order
+     * @throws IllegalArgumentException if the range ends before it starts
+     */
+    public static List<PeriodPayslip> calculatePayslips(Employee employee, PaySchedule schedule, LocalDate from,
+            LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Date range ends before it starts: " + from + " to " + to);
+        }
+        // The whole months, to find the period carrying each month's deductions.
+        AttendanceIndex index = EmployeeDatabaseService.getAttendanceIndex(employee.employeeId,
+                from.withDayOfMonth(1), to.with(TemporalAdjusters.lastDayOfMonth()));
+        AttendanceStore store = index.getStore();
+        int[] rows = index.getRows(employee.employeeId);
+        List<PeriodPayslip> payslips = new ArrayList<>();
+        forEachMonth(store, rows, schedule, from, to, (month, periods) -> {
+            int deductionPeriod = schedule.deductionPeriodNumber(lastPeriodNumber(store, rows, schedule, month));
+            for (PeriodRows periodRows : periods) {
+                PayPeriod period = periodRows.period();
+                // A date range is its own period; other periods may extend beyond the range.
+                LocalDate periodEnd = schedule == PaySchedule.DATE_RANGE ? period.end()
+                        : schedule.periodOf(period.start()).end();
+                WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(month);
+                totals.addAll(store, periodRows.rows(), employee.hourlyRate);
+                payslips.add(calculatePayslip(employee, schedule, period, totals,
+                        period.number() == deductionPeriod && !periodEnd.isAfter(to)));
+            }
+        });
+        return payslips;
+    }
+
+    /**
+     * @return the number of the last period of a month in which the employee
+     *         has attendance, or of the single period of a
+     *         {@link PaySchedule#DATE_RANGE}
+     */
+    private static int lastPeriodNumber(AttendanceStore store, int[] rows, PaySchedule schedule, YearMonth month) {
+        if (schedule == PaySchedule.DATE_RANGE) {
+            return 1;
+        }
+        int last = firstRowOnOrAfter(store, rows, month.plusMonths(1).atDay(1).toEpochDay()) - 1;
+        return schedule.periodOf(LocalDate.ofEpochDay(store.epochDay(rows[last]))).number();
+    }
+
+    /**
+     * Divides the rows of a date range into pay periods, grouped by the month
+     * the periods start in.
+     *
+     * @param store    the attendance store
+     * @param rows     an employee's row numbers, sorted by date
+     * @param schedule the pay schedule
+     * @param from     the first day of the range
+     * @param to       the last day of the range, inclusive
+     * @param consumer receives each month with attendance and its periods, in
+     *                 date order
+     * @throws IllegalArgumentException if the range ends before it starts
+     */
+    static void forEachMonth(AttendanceStore store, int[] rows, PaySchedule schedule, LocalDate from,
+            LocalDate to, BiConsumer<YearMonth, List<PeriodRows>> consumer) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Date range ends before it starts: " + from + " to " + to);
+        }
+        long lastDay = to.toEpochDay();
+        int first = firstRowOnOrAfter(store, rows, from.toEpochDay());
+        YearMonth month = null;
+        List<PeriodRows> periods = new ArrayList<>();
+        int periodStart = first;
+        while (periodStart < rows.length && store.epochDay(rows[periodStart]) <= lastDay) {
+            PayPeriod period = schedule.periodOf(LocalDate.ofEpochDay(store.epochDay(rows[periodStart])))
+                    .clip(from, to);
+            long periodEnd = period.end().toEpochDay();
+            int next = periodStart + 1;
+            while (next < rows.length && store.epochDay(rows[next]) <= periodEnd) {
+                next++;
+            }
+            if (!period.yearMonth().equals(month)) {
+                if (month != null) {
+                    consumer.accept(month, periods);
+                    periods = new ArrayList<>();
+                }
+                month = period.yearMonth();
+            }
+            periods.add(new PeriodRows(period, Arrays.copyOfRange(rows, periodStart, next)));
+            periodStart = next;
+        }
+        if (month != null) {
+            consumer.accept(month, periods);
+        }
+    }
+
+    /**
+     * Calculates the payslip of one pay period from its attendance totals.
+     *
+     * @param employee        the employee
+     * @param schedule        the pay schedule
+     * @param period          the pay period
+     * @param totals          the employee's attendance totals for the period
+     * @param deductionPeriod whether the monthly deductions are applied in this
+     *                        period
+     * @return the payslip of the period
+     */
+    static PeriodPayslip calculatePayslip(Employee employee, PaySchedule schedule, PayPeriod period,
+            WeeklyAttendanceTotals totals, boolean deductionPeriod) {
+        double hoursWorked = totals.hoursWorked();
+        BigDecimal grossSalary = totals.overtimePay().add(schedule.basicPay(employee, hoursWorked, period));
+        if (!deductionPeriod) {
+            return new PeriodPayslip(employee.employeeId, schedule, period, hoursWorked, grossSalary, null, null,
+                    null);
+        }
+        PayrollDeductions deductions = EmployeeDatabaseService.getDeductionProfile(employee).deductions();
+        BigDecimal deMinimisBenefits = EmployeeDatabaseService.calculateEmployeeDeminimisBenefits(employee);
+        BigDecimal netSalary = grossSalary
+                .subtract(deductions.socialSecuritySystemContribution())
+                .subtract(deductions.withholdingTax())
+                .subtract(deductions.philhealthContribution())
+                .subtract(deductions.pagIbigContribution())
+                .add(deMinimisBenefits);
+        return new PeriodPayslip(employee.employeeId, schedule, period, hoursWorked, grossSalary, deductions,
+                deMinimisBenefits, netSalary);
+    }
+
+    /**
+     * @return the index of the first row on or after the given day, or the
+     *         number of rows if there is none
+     */
+    static int firstRowOnOrAfter(AttendanceStore store, int[] rows, long epochDay) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (store.epochDay(rows[middle]) < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,140 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * How a date range is divided into pay periods, and how the basic pay of a
+ * period is determined.
+ * <p>
+ * Statutory deductions and de minimis benefits are monthly amounts; each
+ * schedule applies them once a month, in the period chosen by
+ * {@link #deductionPeriodNumber(int)} among the periods of the month in which
+ * the employee has attendance.
+ * <p>
+ * A period cut short by the requested date range is paid by the hour as usual,
+ * or, on a salaried schedule, the share of the period's rate that its days are
+ * of the whole period's days.
+ *
+ * @see PayPeriodEngine
+ */
+public enum PaySchedule {
+    /**
+     * Weeks from Sunday to Saturday, split at month boundaries, paid by the hour.
+     * Deductions are applied in the second to last week of the month, as in
+     * {@link EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)}.
+     */
+    WEEKLY {
+        @Override
+        public PayPeriod periodOf(LocalDate date) {
+            LocalDate weekStart = date.with(TemporalAdjusters.previousOrSame(
+                    AttendanceIndex.PAYROLL_WEEK_FIELDS.getFirstDayOfWeek()));
+            LocalDate firstOfMonth = date.withDayOfMonth(1);
+            LocalDate lastOfMonth = date.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDate start = weekStart.isBefore(firstOfMonth) ? firstOfMonth : weekStart;
+            LocalDate end = weekStart.plusDays(6).isAfter(lastOfMonth) ? lastOfMonth : weekStart.plusDays(6);
+            return new PayPeriod(start, end, AttendanceIndex.getWeekOfMonth(date));
+        }
+
+        @Override
+        public int deductionPeriodNumber(int lastPeriodNumber) {
+            return lastPeriodNumber - 1;
+        }
+    },
+
+    /**
+     * The 1st to the 15th and the 16th to the end of each month, each paid the
+     * employee's gross semi-monthly rate. Deductions are applied in the last half
+     * of the month.
+     */
+    SEMI_MONTHLY {
+        @Override
+        public PayPeriod periodOf(LocalDate date) {
+            if (date.getDayOfMonth() <= 15) {
+                return new PayPeriod(date.withDayOfMonth(1), date.withDayOfMonth(15), 1);
+            }
+            return new PayPeriod(date.withDayOfMonth(16), date.with(TemporalAdjusters.lastDayOfMonth()), 2);
+        }
+
+        @Override
+        public BigDecimal basicPay(Employee employee, double hoursWorked, PayPeriod period) {
+            return prorate(employee.grossSemimonthlyRate, period, periodOf(period.start()));
+        }
+    },
+
+    /**
+     * Calendar months, each paid the employee's monthly basic salary.
+     */
+    MONTHLY {
+        @Override
+        public PayPeriod periodOf(LocalDate date) {
+            return new PayPeriod(date.withDayOfMonth(1), date.with(TemporalAdjusters.lastDayOfMonth()), 1);
+        }
+
+        @Override
+        public BigDecimal basicPay(Employee employee, double hoursWorked, PayPeriod period) {
+            return prorate(employee.basicSalary, period, periodOf(period.start()));
+        }
+    },
+
+    /**
+     * The whole requested date range as a single period, paid by the hour, with
+     * the deductions of one month. The range may span months and years.
+     */
+    DATE_RANGE {
+        @Override
+        public PayPeriod periodOf(LocalDate date) {
+            return new PayPeriod(LocalDate.MIN, LocalDate.MAX, 1);
+        }
+    };
+
+    /**
+     * Returns the period a date falls in. The period may extend beyond the
+     * requested date range, and is clipped to it by the caller.
+     *
+     * @param date the date
+     * @return the pay period of the date
+     */
+    public abstract PayPeriod periodOf(LocalDate date);
+
+    /**
+     * Determines the basic pay of a period.
+     *
+     * @param employee    the employee
+     * @param hoursWorked the hours worked in the period, excluding lunch breaks
+     * @param period      the period, possibly cut short by the requested date
+     *                    range
+     * @return the basic pay, without overtime pay
+     */
+    public BigDecimal basicPay(Employee employee, double hoursWorked, PayPeriod period) {
+        return employee.hourlyRate.multiply(BigDecimal.valueOf(hoursWorked));
+    }
+
+    /**
+     * Chooses the period of a month that carries the month's deductions.
+     *
+     * @param lastPeriodNumber the number of the month's last period with
+     *                         attendance
+     * @return the number of the deduction period; if the month has no period
+     *         with that number, no deductions are applied
+     */
+    public int deductionPeriodNumber(int lastPeriodNumber) {
+        return lastPeriodNumber;
+    }
+
+    /**
+     * @return the rate of a whole period, or its share for the days of a
+     *         clipped part of it, rounded to centavos
+     */
+    private static BigDecimal prorate(BigDecimal rate, PayPeriod period, PayPeriod wholePeriod) {
+        if (period.equals(wholePeriod)) {
+            return rate;
+        }
+        long days = ChronoUnit.DAYS.between(period.start(), period.end()) + 1;
+        long wholeDays = ChronoUnit.DAYS.between(wholePeriod.start(), wholePeriod.end()) + 1;
+        return rate.multiply(BigDecimal.valueOf(days)).divide(BigDecimal.valueOf(wholeDays), 2, RoundingMode.HALF_UP);
+    }
+}
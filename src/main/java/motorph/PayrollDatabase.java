@@ -0,0 +1,88 @@
+package motorph;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A storage backend for employees and their attendance records that answers
+ * queries by employee and date range without holding the attendance records
+ * in memory.
+ * <p>
+ * When {@link EmployeeDatabaseService#database} is set, the service reads
+ * employees and attendance from it instead of from the in-memory lists loaded
+ * from the CSV files, and the payroll of each employee is calculated from a
+ * range query over the payroll months. {@link FilePayrollDatabase} is the
+ * bundled implementation; any other store can be plugged in by implementing
+ * this interface.
+ * <p>
+ * Implementations must be safe for concurrent queries from the payroll
+ * workers. Failures to read or write the underlying storage are reported as
+ * {@link UncheckedIOException}s, like the loading methods of the service.
+ *
+ * @see EmployeeDatabaseService#getAttendanceRecords(int, LocalDate, LocalDate)
+ */
+public interface PayrollDatabase extends Closeable {
+
+    /**
+     * Lists all employees, in the order they were first added.
+     *
+     * @return the latest version of every employee
+     */
+    List<Employee> getAllEmployees();
+
+    /**
+     * Finds the latest version of an employee.
+     *
+     * @param employeeId the employee ID
+     * @return the employee, or an empty optional if there is none with the ID
+     */
+    Optional<Employee> findEmployee(int employeeId);
+
+    /**
+     * Adds employees, replacing any stored employee with the same ID.
+     *
+     * @param employees the employees to add
+     */
+    void addEmployees(List<Employee> employees);
+
+    /**
+     * @return the number of attendance records stored
+     */
+    long getAttendanceRecordCount();
+
+    /**
+     * Finds the attendance records of an employee between two dates.
+     *
+     * @param employeeId the employee ID
+     * @param from       the first date, inclusive
+     * @param to         the last date, inclusive
+     * @return the records, sorted by date; records of the same date are in the
+     *         order they were added
+     */
+    AttendanceStore findAttendanceRecords(int employeeId, LocalDate from, LocalDate to);
+
+    /**
+     * Hands every attendance record to the consumer, in the order they were
+     * added, without keeping them in memory.
+     *
+     * @param consumer receives each attendance record
+     */
+    void forEachAttendanceRecord(Consumer<? super AttendanceRecord> consumer);
+
+    /**
+     * Adds attendance records.
+     *
+     * @param attendanceRecords the records to add
+     */
+    void addAttendanceRecords(List<? extends AttendanceRecord> attendanceRecords);
+
+    /**
+     * Makes everything added so far durable and fast to query on the next
+     * open.
+     */
+    void checkpoint();
+}
@@ -0,0 +1,41 @@
+package motorph;
+
+import java.math.BigDecimal;
+
+/**
+ * The statutory deductions taken from an employee's salary once a month.
+ *
+ * @param socialSecuritySystemContribution the employee's SSS contribution
+ * @param withholdingTax                   the withholding tax
+ * @param philhealthContribution           the employee's share of the PhilHealth
+ *                                         contribution
+ * @param pagIbigContribution              the Pag-IBIG Fund contribution
+ * @see SalaryDeductionService
+ */
+public record PayrollDeductions(BigDecimal socialSecuritySystemContribution, BigDecimal withholdingTax,
+        BigDecimal philhealthContribution, BigDecimal pagIbigContribution) {
+
+    /**
+     * Calculates the deductions for a monthly basic salary.
+     *
+     * @param monthlyBasicSalary the employee's monthly basic salary
+     * @return the deductions for the salary
+     */
+    public static PayrollDeductions of(BigDecimal monthlyBasicSalary) {
+        return new PayrollDeductions(
+                SalaryDeductionService.calculateSocialSecuritySystemContribution(monthlyBasicSalary),
+                SalaryDeductionService.calculateWithholdingTax(monthlyBasicSalary),
+                SalaryDeductionService.calculatePhilhealthContribution(monthlyBasicSalary),
+                SalaryDeductionService.calculatePagIbigContribution(monthlyBasicSalary));
+    }
+
+    /**
+     * Returns the sum of all deductions.
+     *
+     * @return the total amount deducted
+     */
+    public BigDecimal total() {
+        return socialSecuritySystemContribution.add(withholdingTax).add(philhealthContribution)
+                .add(pagIbigContribution);
+    }
+}
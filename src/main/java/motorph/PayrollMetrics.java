@@ -0,0 +1,477 @@
+package motorph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters, latency histograms and stage timings of the payroll pipeline.
+ * <p>
+ * {@link EmployeeDatabaseService}, {@link SalaryDeductionService} and
+ * {@link App} report what they do through the static methods of this class:
+ * rows loaded, lookups, deductions calculated, the time to calculate each
+ * employee's payroll and the wall time of each {@link Stage}. All counters are
+ * {@link LongAdder}s and the latencies go into a {@link LatencyHistogram}, so
+ * recording from many payroll threads at once neither locks nor allocates.
+ * <p>
+ * Recording is off unless the {@code motorph.metrics.enabled} system property
+ * is {@code true}. When it is off, every recording method returns after a
+ * single flag check, and no clock is read. The values can be read through the
+ * {@link PayrollMetricsMXBean} registered by {@link #registerMBean()}, or as
+ * JSON with {@link #writeSummary(Appendable)}.
+ */
+public final class PayrollMetrics implements PayrollMetricsMXBean {
+    /**
+     * The name the metrics are registered under with the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "motorph:type=PayrollMetrics";
+
+    /**
+     * Whether metrics are recorded. Set from the {@code motorph.metrics.enabled}
+     * system property and can be changed at any time, including through JMX.
+     */
+    public static volatile boolean enabled = Boolean.getBoolean("motorph.metrics.enabled");
+
+    /**
+     * The timed stages of a payroll run. Loading and indexing happen inside the
+     * payroll calculation stage when the data has not been loaded before it, and
+     * reporting and exporting happen inside it as the results are calculated, so
+     * stage times can overlap.
+     */
+    public enum Stage {
+        EMPLOYEE_LOADING("employeeLoading"),
+        ATTENDANCE_LOADING("attendanceLoading"),
+        ATTENDANCE_INDEXING("attendanceIndexing"),
+        PAYROLL_CALCULATION("payrollCalculation"),
+        REPORTING("reporting"),
+        EXPORTING("exporting");
+
+        private final String key;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        Stage(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * The statutory deductions of {@link SalaryDeductionService}.
+     */
+    public enum Deduction {
+        SOCIAL_SECURITY_SYSTEM("socialSecuritySystem"),
+        WITHHOLDING_TAX("withholdingTax"),
+        PHILHEALTH("philhealth"),
+        PAG_IBIG("pagIbig");
+
+        private final String key;
+        private final LongAdder calculations = new LongAdder();
+
+        Deduction(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final PayrollMetrics INSTANCE = new PayrollMetrics();
+
+    private static final LongAdder EMPLOYEES_LOADED = new LongAdder();
+    private static final LongAdder ATTENDANCE_ROWS_LOADED = new LongAdder();
+    private static final LongAdder EMPLOYEE_LOOKUPS = new LongAdder();
+    private static final LongAdder ATTENDANCE_LOOKUPS = new LongAdder();
+    private static final LongAdder PAYSLIPS_CALCULATED = new LongAdder();
+    private static final LatencyHistogram EMPLOYEE_CALCULATION = new LatencyHistogram();
+
+    private PayrollMetrics() {
+    }
+
+    /**
+     * @return the metrics as a {@link PayrollMetricsMXBean}
+     */
+    public static PayrollMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under
+     * {@link #OBJECT_NAME}, unless they already are.
+     *
+     * @throws IllegalStateException if the MBean cannot be registered
+     */
+    public static void registerMBean() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException instanceAlreadyExistsException) {
+            // Registered by an earlier run in this JVM.
+        } catch (JMException jmException) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, jmException);
+        }
+    }
+
+    /**
+     * Starts timing a stage or calculation.
+     *
+     * @return the current {@link System#nanoTime()}, or 0 without reading the
+     *         clock if metrics are off
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the wall time of a stage.
+     *
+     * @param stage      the stage
+     * @param startNanos the value returned by {@link #startTimer()} when the
+     *                   stage started; 0 if metrics were off then
+     */
+    public static void recordStage(Stage stage, long startNanos) {
+        if (enabled && startNanos != 0) {
+            stage.runs.increment();
+            stage.nanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records the wall time of a stage that ran in pieces, interleaved with
+     * another stage, such as reporting each result as soon as it is calculated.
+     *
+     * @param stage the stage
+     * @param nanos the wall time of all its pieces together
+     */
+    public static void recordStageNanos(Stage stage, long nanos) {
+        if (enabled) {
+            stage.runs.increment();
+            stage.nanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records the calculation of one employee's payroll.
+     *
+     * @param startNanos the value returned by {@link #startTimer()} when the
+     *                   calculation started; 0 if metrics were off then
+     * @param payslips   the number of payslips calculated
+     */
+    public static void recordEmployeeCalculation(long startNanos, int payslips) {
+        if (enabled && startNanos != 0) {
+            EMPLOYEE_CALCULATION.record(System.nanoTime() - startNanos);
+            PAYSLIPS_CALCULATED.add(payslips);
+        }
+    }
+
+    /**
+     * Counts loaded employees.
+     *
+     * @param employees the number of employees loaded
+     */
+    public static void countEmployeesLoaded(int employees) {
+        if (enabled) {
+            EMPLOYEES_LOADED.add(employees);
+        }
+    }
+
+    /**
+     * Counts loaded attendance rows.
+     *
+     * @param rows the number of rows loaded
+     */
+    public static void countAttendanceRowsLoaded(long rows) {
+        if (enabled) {
+            ATTENDANCE_ROWS_LOADED.add(rows);
+        }
+    }
+
+    /**
+     * Counts an employee lookup by employee ID.
+     */
+    public static void countEmployeeLookup() {
+        if (enabled) {
+            EMPLOYEE_LOOKUPS.increment();
+        }
+    }
+
+    /**
+     * Counts an attendance lookup by employee, month or week.
+     */
+    public static void countAttendanceLookup() {
+        if (enabled) {
+            ATTENDANCE_LOOKUPS.increment();
+        }
+    }
+
+    /**
+     * Counts the calculation of a statutory deduction.
+     *
+     * @param deduction the deduction
+     */
+    public static void countDeduction(Deduction deduction) {
+        if (enabled) {
+            deduction.calculations.increment();
+        }
+    }
+
+    /**
+     * Writes a summary of all metrics as a JSON object.
+     *
+     * @param out where to write the summary
+     * @throws IOException if the summary cannot be written
+     */
+    public static void writeSummary(Appendable out) throws IOException {
+        PayrollMetrics metrics = INSTANCE;
+        out.append("{\n");
+        out.append("  \"enabled\": ").append(Boolean.toString(enabled)).append(",\n");
+        out.append("  \"stages\": {");
+        String separator = "\n";
+        for (Stage stage : Stage.values()) {
+            out.append(separator).append("    \"").append(stage.key).append("\": {\"runs\": ")
+                    .append(Long.toString(stage.runs.sum())).append(", \"millis\": ")
+                    .append(decimal(stage.nanos.sum() / 1e6)).append('}');
+            separator = ",\n";
+        }
+        out.append("\n  },\n");
+        out.append("  \"employeesLoaded\": ").append(Long.toString(metrics.getEmployeesLoaded())).append(",\n");
+        out.append("  \"attendanceRowsLoaded\": ").append(Long.toString(metrics.getAttendanceRowsLoaded()))
+                .append(",\n");
+        out.append("  \"attendanceRowsPerSecond\": ").append(decimal(metrics.getAttendanceRowsPerSecond()))
+                .append(",\n");
+        out.append("  \"employeeLookups\": ").append(Long.toString(metrics.getEmployeeLookups())).append(",\n");
+        out.append("  \"attendanceLookups\": ").append(Long.toString(metrics.getAttendanceLookups())).append(",\n");
+        out.append("  \"deductionCalculations\": {");
+        separator = "";
+        for (Deduction deduction : Deduction.values()) {
+            out.append(separator).append('"').append(deduction.key).append("\": ")
+                    .append(Long.toString(deduction.calculations.sum()));
+            separator = ", ";
+        }
+        out.append("},\n");
+        out.append("  \"deductionProfileHits\": ").append(Long.toString(metrics.getDeductionProfileHits()))
+                .append(",\n");
+        out.append("  \"deductionProfileMisses\": ").append(Long.toString(metrics.getDeductionProfileMisses()))
+                .append(",\n");
+        out.append("  \"payslipCache\": {\"hits\": ").append(Long.toString(metrics.getPayslipCacheHits()))
+                .append(", \"misses\": ").append(Long.toString(metrics.getPayslipCacheMisses()))
+                .append(", \"hitRate\": ").append(decimal(metrics.getPayslipCacheHitRate()))
+                .append(", \"evictions\": ").append(Long.toString(metrics.getPayslipCacheEvictions()))
+                .append(", \"invalidations\": ").append(Long.toString(metrics.getPayslipCacheInvalidations()))
+                .append("},\n");
+        out.append("  \"employeesCalculated\": ").append(Long.toString(metrics.getEmployeesCalculated()))
+                .append(",\n");
+        out.append("  \"payslipsCalculated\": ").append(Long.toString(metrics.getPayslipsCalculated()))
+                .append(",\n");
+        out.append("  \"employeeCalculationMicros\": {\"mean\": ")
+                .append(decimal(metrics.getEmployeeCalculationMeanMicros()))
+                .append(", \"p50\": ").append(decimal(metrics.getEmployeeCalculationP50Micros()))
+                .append(", \"p90\": ").append(decimal(EMPLOYEE_CALCULATION.percentile(90) / 1e3))
+                .append(", \"p99\": ").append(decimal(metrics.getEmployeeCalculationP99Micros()))
+                .append(", \"max\": ").append(decimal(metrics.getEmployeeCalculationMaxMicros())).append("}\n");
+        out.append("}\n");
+    }
+
+    /**
+     * Writes the summary at the end of a run when metrics are on: to the file
+     * named by the {@code motorph.metrics.summary} system property if it is set,
+     * otherwise to standard error, so the payslips on standard output are not
+     * mixed with it.
+     *
+     * @throws UncheckedIOException if the summary file cannot be written
+     */
+    public static void writeRunSummary() {
+        if (!enabled) {
+            return;
+        }
+        String summaryFile = System.getProperty("motorph.metrics.summary");
+        try {
+            if (summaryFile == null) {
+                StringBuilder summary = new StringBuilder();
+                writeSummary(summary);
+                System.err.print(summary);
+                System.err.flush();
+            } else {
+                try (Writer writer = Files.newBufferedWriter(Path.of(summaryFile), StandardCharsets.UTF_8)) {
+                    writeSummary(writer);
+                }
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public static void resetAll() {
+        for (Stage stage : Stage.values()) {
+            stage.runs.reset();
+            stage.nanos.reset();
+        }
+        for (Deduction deduction : Deduction.values()) {
+            deduction.calculations.reset();
+        }
+        EMPLOYEES_LOADED.reset();
+        ATTENDANCE_ROWS_LOADED.reset();
+        EMPLOYEE_LOOKUPS.reset();
+        ATTENDANCE_LOOKUPS.reset();
+        PAYSLIPS_CALCULATED.reset();
+        EMPLOYEE_CALCULATION.reset();
+    }
+
+    /**
+     * @param stage the stage
+     * @return the total wall time recorded for the stage, in nanoseconds
+     */
+    public static long getStageNanos(Stage stage) {
+        return stage.nanos.sum();
+    }
+
+    /**
+     * @param deduction the deduction
+     * @return the number of times the deduction has been calculated
+     */
+    public static long getDeductionCalculations(Deduction deduction) {
+        return deduction.calculations.sum();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        PayrollMetrics.enabled = enabled;
+    }
+
+    @Override
+    public long getEmployeesLoaded() {
+        return EMPLOYEES_LOADED.sum();
+    }
+
+    @Override
+    public long getAttendanceRowsLoaded() {
+        return ATTENDANCE_ROWS_LOADED.sum();
+    }
+
+    @Override
+    public double getAttendanceRowsPerSecond() {
+        long nanos = Stage.ATTENDANCE_LOADING.nanos.sum();
+        return nanos == 0 ? 0 : ATTENDANCE_ROWS_LOADED.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public long getEmployeeLookups() {
+        return EMPLOYEE_LOOKUPS.sum();
+    }
+
+    @Override
+    public long getAttendanceLookups() {
+        return ATTENDANCE_LOOKUPS.sum();
+    }
+
+    @Override
+    public Map<String, Long> getDeductionCalculations() {
+        Map<String, Long> calculations = new LinkedHashMap<>();
+        for (Deduction deduction : Deduction.values()) {
+            calculations.put(deduction.key, deduction.calculations.sum());
+        }
+        return calculations;
+    }
+
+    @Override
+    public long getDeductionProfileHits() {
+        DeductionProfileCache cache = EmployeeDatabaseService.deductionProfileCache;
+        return cache == null ? 0 : cache.hits();
+    }
+
+    @Override
+    public long getDeductionProfileMisses() {
+        DeductionProfileCache cache = EmployeeDatabaseService.deductionProfileCache;
+        return cache == null ? 0 : cache.misses();
+    }
+
+    @Override
+    public long getPayslipCacheHits() {
+        return EmployeeDatabaseService.PAYSLIP_CACHE.hits();
+    }
+
+    @Override
+    public long getPayslipCacheMisses() {
+        return EmployeeDatabaseService.PAYSLIP_CACHE.misses();
+    }
+
+    @Override
+    public double getPayslipCacheHitRate() {
+        return EmployeeDatabaseService.PAYSLIP_CACHE.hitRate();
+    }
+
+    @Override
+    public long getPayslipCacheEvictions() {
+        return EmployeeDatabaseService.PAYSLIP_CACHE.evictions();
+    }
+
+    @Override
+    public long getPayslipCacheInvalidations() {
+        return EmployeeDatabaseService.PAYSLIP_CACHE.invalidations();
+    }
+
+    @Override
+    public long getEmployeesCalculated() {
+        return EMPLOYEE_CALCULATION.count();
+    }
+
+    @Override
+    public long getPayslipsCalculated() {
+        return PAYSLIPS_CALCULATED.sum();
+    }
+
+    @Override
+    public double getEmployeeCalculationMeanMicros() {
+        return EMPLOYEE_CALCULATION.mean() / 1e3;
+    }
+
+    @Override
+    public double getEmployeeCalculationP50Micros() {
+        return EMPLOYEE_CALCULATION.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getEmployeeCalculationP99Micros() {
+        return EMPLOYEE_CALCULATION.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getEmployeeCalculationMaxMicros() {
+        return EMPLOYEE_CALCULATION.max() / 1e3;
+    }
+
+    @Override
+    public Map<String, Double> getStageMillis() {
+        Map<String, Double> stageMillis = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            stageMillis.put(stage.key, stage.nanos.sum() / 1e6);
+        }
+        return stageMillis;
+    }
+
+    @Override
+    public void reset() {
+        resetAll();
+    }
+
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,137 @@
+package motorph;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link PayrollMetrics}, registered with the
+ * platform MBean server as {@value PayrollMetrics#OBJECT_NAME}.
+ */
+public interface PayrollMetricsMXBean {
+
+    /**
+     * @return whether metrics are being recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns recording on or off. Turning it off keeps the values recorded so
+     * far.
+     *
+     * @param enabled whether to record metrics
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return the number of employees loaded from the employee details file
+     */
+    long getEmployeesLoaded();
+
+    /**
+     * @return the number of attendance rows loaded from the attendance file or
+     *         its snapshot
+     */
+    long getAttendanceRowsLoaded();
+
+    /**
+     * @return the attendance rows loaded per second of attendance loading
+     */
+    double getAttendanceRowsPerSecond();
+
+    /**
+     * @return the number of employee lookups by employee ID
+     */
+    long getEmployeeLookups();
+
+    /**
+     * @return the number of attendance lookups by employee, month or week
+     */
+    long getAttendanceLookups();
+
+    /**
+     * @return the number of calculations of each statutory deduction
+     */
+    Map<String, Long> getDeductionCalculations();
+
+    /**
+     * @return the number of deduction profile lookups that found a valid
+     *         profile
+     */
+    long getDeductionProfileHits();
+
+    /**
+     * @return the number of deduction profile lookups that had to calculate the
+     *         profile
+     */
+    long getDeductionProfileMisses();
+
+    /**
+     * @return the number of payroll results found in the payslip cache
+     */
+    long getPayslipCacheHits();
+
+    /**
+     * @return the number of payroll results that were not in the payslip cache
+     */
+    long getPayslipCacheMisses();
+
+    /**
+     * @return the share of payslip cache lookups that found a result, between 0
+     *         and 1
+     */
+    double getPayslipCacheHitRate();
+
+    /**
+     * @return the number of results evicted from the full payslip cache
+     */
+    long getPayslipCacheEvictions();
+
+    /**
+     * @return the number of cached results discarded because the employee or
+     *         the attendance records changed
+     */
+    long getPayslipCacheInvalidations();
+
+    /**
+     * @return the number of employees whose payroll has been calculated
+     */
+    long getEmployeesCalculated();
+
+    /**
+     * @return the number of payslips calculated
+     */
+    long getPayslipsCalculated();
+
+    /**
+     * @return the mean time to calculate one employee's payroll, in
+     *         microseconds
+     */
+    double getEmployeeCalculationMeanMicros();
+
+    /**
+     * @return the median time to calculate one employee's payroll, in
+     *         microseconds
+     */
+    double getEmployeeCalculationP50Micros();
+
+    /**
+     * @return the 99th percentile of the time to calculate one employee's
+     *         payroll, in microseconds
+     */
+    double getEmployeeCalculationP99Micros();
+
+    /**
+     * @return the longest time to calculate one employee's payroll, in
+     *         microseconds
+     */
+    double getEmployeeCalculationMaxMicros();
+
+    /**
+     * @return the wall time spent in each stage of the run, in milliseconds
+     */
+    Map<String, Double> getStageMillis();
+
+    /**
+     * Clears all recorded values.
+     */
+    void reset();
+}
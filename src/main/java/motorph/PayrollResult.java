@@ -0,0 +1,18 @@
+package motorph;
+
+import java.util.List;
+
+/**
+ * The weekly payslips of one employee for a payroll run.
+ *
+ * @param employee       the employee the payslips belong to
+ * @param weeklyPayslips the weekly payslips, ordered by month and week
+ * @see EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)
+ * @see PayslipReporter
+ */
+public record PayrollResult(Employee employee, List<WeeklyPayslip> weeklyPayslips) {
+
+    public PayrollResult {
+        weeklyPayslips = List.copyOf(weeklyPayslips);
+    }
+}
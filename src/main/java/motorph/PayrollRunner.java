@@ -0,0 +1,146 @@
+package motorph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs the weekly payroll for every employee of the company, spreading the
+ * per-employee calculations across an executor.
+ * <p>
+ * Employees are discovered from {@link EmployeeDatabaseService#getAllEmployeeDetails()}
+ * and each one is processed as an independent task. Payslips are collected in
+ * the same order as the employee list, so the result of a run does not depend on
+ * the number of workers or on which worker finishes first. The runner only
+ * calculates; rendering is left to a {@link PayslipReporter}.
+ * <p>
+ * A runner owns its executor and shuts it down when closed:
+ *
+ * <pre>
+ * {@code
+ * try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(8)) {
+ *     List<PayrollResult> payrollResults = payrollRunner.run();
+ * }
+ * }
+ * </pre>
+ *
+ * @see EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)
+ */
+public class PayrollRunner implements AutoCloseable {
+    private static final int MAXIMUM_PENDING_RESULTS = 4096;
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates a payroll runner that processes employees on the given executor.
+     *
+     * @param executor the executor the per-employee calculations are submitted
+     *                 to; it is shut down when the runner is closed
+     */
+    public PayrollRunner(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a payroll runner backed by a fork-join pool with the given number of
+     * worker threads.
+     *
+     * @param workers the number of employees processed at the same time
+     * @return a new payroll runner
+     */
+    public static PayrollRunner withWorkers(int workers) {
+        return new PayrollRunner(new ForkJoinPool(workers));
+    }
+
+    /**
+     * Creates a payroll runner that processes each employee on its own virtual
+     * thread.
+     *
+     * @return a new payroll runner
+     */
+    public static PayrollRunner withVirtualThreads() {
+        return new PayrollRunner(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Runs the weekly payroll for all employees.
+     * <p>
+     * Employee details and attendance records are loaded before any work is
+     * submitted, so the workers only ever read shared data. When a
+     * {@link EmployeeDatabaseService#database} is in use, the attendance records
+     * are not loaded; each worker queries the ones of its employee.
+     *
+     * @return the payroll result of every employee, in the order of the employee
+     *         list
+     * @throws RuntimeException if the payroll of any employee could not be
+     *                          calculated
+     */
+    public List<PayrollResult> run() {
+        List<PayrollResult> payrollResults = new ArrayList<>(EmployeeDatabaseService.getAllEmployeeDetails().size());
+        run(payrollResults::add);
+        return payrollResults;
+    }
+
+    /**
+     * Runs the weekly payroll for all employees, handing each result to the
+     * consumer as soon as it and the results of all employees before it are
+     * ready.
+     * <p>
+     * Only a bounded number of employees are in flight at any time, so the
+     * results that have not been consumed yet take a fixed amount of memory
+     * however many employees there are. The consumer is called from the thread
+     * that called this method, one result at a time.
+     *
+     * @param consumer receives the payroll result of every employee, in the order
+     *                 of the employee list
+     * @throws RuntimeException if the payroll of any employee could not be
+     *                          calculated, or the consumer failed
+     */
+    public void run(Consumer<? super PayrollResult> consumer) {
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        if (EmployeeDatabaseService.getDatabase() == null) {
+            EmployeeDatabaseService.getAllAttendanceRecords();
+        }
+
+        Queue<Future<PayrollResult>> pendingResults = new ArrayDeque<>(MAXIMUM_PENDING_RESULTS);
+        for (Employee employee : employees) {
+            if (pendingResults.size() == MAXIMUM_PENDING_RESULTS) {
+                consumer.accept(awaitResult(pendingResults.remove()));
+            }
+            pendingResults.add(this.executor.submit(
+                    () -> EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId)));
+        }
+        while (!pendingResults.isEmpty()) {
+            consumer.accept(awaitResult(pendingResults.remove()));
+        }
+    }
+
+    /**
+     * Shuts down the executor, waiting for running calculations to finish.
+     */
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+
+    private static PayrollResult awaitResult(Future<PayrollResult> pendingResult) {
+        try {
+            return pendingResult.get();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll run was interrupted", interruptedException);
+        } catch (ExecutionException executionException) {
+            if (executionException.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Payroll calculation failed", executionException.getCause());
+        }
+    }
+}
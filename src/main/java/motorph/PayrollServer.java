@@ -0,0 +1,303 @@
+package motorph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Answers payslip, attendance and deduction queries for single employees over
+ * HTTP, for HR self-service.
+ * <p>
+ * The server is the JDK's built-in {@link HttpServer}, with every exchange
+ * handled on its own virtual thread, so thousands of concurrent requests do
+ * not need thousands of platform threads. Requests are answered from the
+ * in-memory indexes of {@link EmployeeDatabaseService}, or from its
+ * {@link EmployeeDatabaseService#database} when one is in use, which are
+ * loaded before the server starts listening. All responses are JSON:
+ *
+ * <pre>
+ * GET /employees/{id}/payslips[?month=yyyy-MM[&amp;week=n]]
+ *     the weekly payslips of the payroll months, or of one month or week
+ * GET /employees/{id}/attendance[?from=yyyy-MM-dd&amp;to=yyyy-MM-dd]
+ *     the attendance records between two dates, by default of the payroll
+ *     months
+ * GET /employees/{id}/deductions
+ *     the monthly statutory deductions and de minimis benefits
+ * </pre>
+ *
+ * Unknown employees and paths are answered with 404, malformed parameters
+ * with 400, methods other than GET with 405 and unexpected failures, which are
+ * logged to standard error, with 500; every error body is a JSON object with
+ * an {@code error} message. Amounts are written in plain notation
+ * with their full precision.
+ * <p>
+ * The server writes the headers and the body of a response separately; with
+ * Nagle's algorithm the body then waits for the client's delayed
+ * acknowledgement, adding some 40 ms to every request on a kept-alive
+ * connection. The JVM should therefore run with
+ * {@code -Dsun.net.httpserver.nodelay=true}, which {@link App#main(String[])}
+ * sets unless it is given.
+ *
+ * @see App#main(String[])
+ */
+public final class PayrollServer implements AutoCloseable {
+    static final String EMPLOYEES_PATH = "/employees/";
+
+    /**
+     * The number of connections the operating system queues before they are
+     * accepted, large enough for bursts of thousands of clients.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PayrollServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the employees and attendance records and starts serving queries.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @return the started server, to be closed when it should stop
+     * @throws UncheckedIOException if the port cannot be bound or the data
+     *                              cannot be loaded
+     */
+    public static PayrollServer start(int port) {
+        return start(new InetSocketAddress(port));
+    }
+
+    /**
+     * Loads the employees and attendance records and starts serving queries.
+     *
+     * @param address the address to listen on
+     * @return the started server, to be closed when it should stop
+     * @throws UncheckedIOException if the address cannot be bound or the data
+     *                              cannot be loaded
+     */
+    public static PayrollServer start(InetSocketAddress address) {
+        EmployeeDatabaseService.getAllEmployeeDetails();
+        if (EmployeeDatabaseService.getDatabase() == null) {
+            EmployeeDatabaseService.getAttendanceIndex();
+        }
+        EmployeeDatabaseService.getDeductionProfileCache();
+        HttpServer server;
+        try {
+            server = HttpServer.create(address, BACKLOG);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(EMPLOYEES_PATH, PayrollServer::handle);
+        server.start();
+        return new PayrollServer(server, executor);
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits for the requests in progress to be
+     * answered and stops the server.
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.close();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                status = 405;
+                body = error("Only GET is supported");
+            } else {
+                body = respond(exchange.getRequestURI().getRawPath(),
+                        parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (NoSuchElementException noSuchElementException) {
+            status = 404;
+            body = error(noSuchElementException.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException invalidRequest) {
+            status = 400;
+            body = error(invalidRequest.getMessage());
+        } catch (RuntimeException exception) {
+            // The details go to the server's log, not to the client.
+            System.err.println("Unable to answer " + exchange.getRequestURI() + ":");
+            exception.printStackTrace();
+            status = 500;
+            body = error("Internal server error");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    /**
+     * Answers a query.
+     *
+     * @param path  the raw request path
+     * @param query the decoded query parameters
+     * @return the JSON response body
+     * @throws NoSuchElementException   if the path or employee does not exist
+     * @throws IllegalArgumentException if a parameter is malformed
+     */
+    static String respond(String path, Map<String, String> query) {
+        String[] segments = path.substring(EMPLOYEES_PATH.length()).split("/");
+        if (segments.length != 2) {
+            throw new NoSuchElementException("Not found: " + path);
+        }
+        int employeeId;
+        try {
+            employeeId = Integer.parseInt(segments[0]);
+        } catch (NumberFormatException numberFormatException) {
+            throw new NoSuchElementException("Not found: " + path);
+        }
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employeeId)
+                .orElseThrow(() -> new NoSuchElementException("No employee with ID " + employeeId));
+        return switch (segments[1]) {
+            case "payslips" -> payslips(employee, query);
+            case "attendance" -> attendance(employee, query);
+            case "deductions" -> deductions(employee);
+            default -> throw new NoSuchElementException("Not found: " + path);
+        };
+    }
+
+    private static String payslips(Employee employee, Map<String, String> query) {
+        YearMonth month = query.containsKey("month") ? YearMonth.parse(query.get("month")) : null;
+        Integer week = query.containsKey("week") ? Integer.valueOf(query.get("week")) : null;
+        if (week != null && month == null) {
+            throw new IllegalArgumentException("A week needs a month");
+        }
+        PayrollResult payrollResult = EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId);
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"employeeId\":").append(employee.employeeId).append(",\"payslips\":[");
+        String separator = "";
+        for (WeeklyPayslip payslip : payrollResult.weeklyPayslips()) {
+            if ((month != null && !month.equals(payslip.yearMonth()))
+                    || (week != null && week != payslip.weekNumber())) {
+                continue;
+            }
+            json.append(separator).append("{\"month\":\"").append(payslip.yearMonth())
+                    .append("\",\"week\":").append(payslip.weekNumber())
+                    .append(",\"hoursWorked\":").append(payslip.hoursWorked());
+            appendAmount(json, "grossSalary", payslip.grossWeeklySalary());
+            PayrollDeductions deductions = payslip.deductions();
+            if (deductions != null) {
+                appendDeductions(json, deductions);
+                appendAmount(json, "deMinimisBenefits", payslip.deMinimisBenefits());
+                appendAmount(json, "netSalary", payslip.netWeeklySalary());
+            }
+            json.append('}');
+            separator = ",";
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String attendance(Employee employee, Map<String, String> query) {
+        LocalDate from = query.containsKey("from") ? LocalDate.parse(query.get("from"))
+                : EmployeeDatabaseService.firstPayrollMonth.atDay(1);
+        LocalDate to = query.containsKey("to") ? LocalDate.parse(query.get("to"))
+                : EmployeeDatabaseService.lastPayrollMonth.atEndOfMonth();
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAttendanceRecords(employee.employeeId,
+                from, to);
+        StringBuilder json = new StringBuilder(64 + attendanceRecords.size() * 56);
+        json.append("{\"employeeId\":").append(employee.employeeId).append(",\"attendance\":[");
+        String separator = "";
+        for (AttendanceRecord attendanceRecord : attendanceRecords) {
+            json.append(separator).append("{\"date\":\"").append(attendanceRecord.date)
+                    .append("\",\"logIn\":\"").append(attendanceRecord.logIn)
+                    .append("\",\"logOut\":\"").append(attendanceRecord.logOut).append("\"}");
+            separator = ",";
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String deductions(Employee employee) {
+        PayrollDeductions deductions = EmployeeDatabaseService.getDeductionProfile(employee).deductions();
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"employeeId\":").append(employee.employeeId);
+        appendAmount(json, "basicSalary", employee.basicSalary);
+        appendDeductions(json, deductions);
+        appendAmount(json, "totalDeductions", deductions.total());
+        appendAmount(json, "deMinimisBenefits", EmployeeDatabaseService.calculateEmployeeDeminimisBenefits(employee));
+        return json.append('}').toString();
+    }
+
+    private static void appendDeductions(StringBuilder json, PayrollDeductions deductions) {
+        appendAmount(json, "sssContribution", deductions.socialSecuritySystemContribution());
+        appendAmount(json, "withholdingTax", deductions.withholdingTax());
+        appendAmount(json, "philhealthContribution", deductions.philhealthContribution());
+        appendAmount(json, "pagIbigContribution", deductions.pagIbigContribution());
+    }
+
+    private static void appendAmount(StringBuilder json, String name, BigDecimal amount) {
+        json.append(",\"").append(name).append("\":").append(amount.toPlainString());
+    }
+
+    private static String error(String message) {
+        message = String.valueOf(message);
+        StringBuilder json = new StringBuilder("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append("\"}").toString();
+    }
+
+    /**
+     * Decodes a query string into its parameters. A parameter given more than
+     * once keeps its last value.
+     *
+     * @param rawQuery the raw query string, or {@code null}
+     * @return the parameter values by name
+     */
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
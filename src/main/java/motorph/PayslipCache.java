@@ -0,0 +1,313 @@
+package motorph;
+
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The computed payroll results of recently queried employees, so that asking
+ * for the same employee's payslips again does not recalculate every month.
+ * <p>
+ * A result is cached per employee and payroll period, that is the first and
+ * last payroll month and whether it was calculated in centavos. The cache
+ * holds at most a fixed number of results and evicts the least recently used
+ * one when it is full. It is split into segments by employee ID, each with its
+ * own lock, so lookups from many threads rarely wait for each other.
+ * <p>
+ * A cached result is only used while it is still what a recalculation would
+ * return:
+ * <ul>
+ * <li>it remembers the employee's rates and allowances it was calculated
+ * with, and is discarded on lookup if any of them has changed;</li>
+ * <li>{@link #invalidate(int, LocalDate)} discards the results of an employee
+ * whose period covers a changed attendance date, leaving the employee's other
+ * periods and all other employees cached;</li>
+ * <li>{@link #clear()} discards everything, for when the attendance records
+ * are replaced as a whole.</li>
+ * </ul>
+ * A result calculated while the employee's data changed is not stored, see
+ * {@link #put(Employee, YearMonth, YearMonth, boolean, PayrollResult, long)}.
+ * Changes are tracked by a version per stripe of employees, so that appending
+ * one employee's attendance does not keep the results of all other employees
+ * out of the cache.
+ * Hits, misses, evictions and invalidations are counted and reported by
+ * {@link PayrollMetrics}.
+ *
+ * @see EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)
+ */
+public final class PayslipCache {
+    private static final int SEGMENTS = 16;
+    private static final int VERSION_STRIPES = 64;
+
+    /**
+     * A payroll period, the part of a cache key shared by all employees.
+     */
+    private record Period(YearMonth firstMonth, YearMonth lastMonth, boolean centavos) {
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(this.firstMonth.atDay(1)) && !date.isAfter(this.lastMonth.atEndOfMonth());
+        }
+    }
+
+    private record Key(int employeeId, Period period) {
+    }
+
+    /**
+     * The employee fields a payroll result depends on.
+     */
+    private record Rates(BigDecimal hourlyRate, BigDecimal basicSalary, BigDecimal riceSubsidy,
+            BigDecimal phoneAllowance, BigDecimal clothingAllowance) {
+
+        static Rates of(Employee employee) {
+            return new Rates(employee.hourlyRate, employee.basicSalary, employee.riceSubsidy, employee.phoneAllowance,
+                    employee.clothingAllowance);
+        }
+    }
+
+    private record Entry(PayrollResult payrollResult, Rates rates) {
+    }
+
+    /**
+     * A least-recently-used map of one segment, guarded by its own monitor.
+     */
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= this.capacity) {
+                return false;
+            }
+            PayslipCache.this.evictions.increment();
+            return true;
+        }
+    }
+
+    private final int capacity;
+    private final Segment[] segments;
+    private final Set<Period> periods = ConcurrentHashMap.newKeySet();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the most results held at once, rounded up to a multiple
+     *                 of the number of segments; 0 caches nothing
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public PayslipCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative payslip cache capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        int segmentCount = capacity < SEGMENTS * SEGMENTS ? 1 : SEGMENTS;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment((capacity + segmentCount - 1) / segmentCount);
+        }
+    }
+
+    /**
+     * Looks up an employee's payroll result of a period.
+     *
+     * @param employee   the employee, whose rates must be those the result was
+     *                   calculated with
+     * @param firstMonth the first payroll month
+     * @param lastMonth  the last payroll month
+     * @param centavos   whether the result was calculated in centavos
+     * @return the cached result for the given employee, or {@code null} if there
+     *         is none or it is out of date
+     */
+    public PayrollResult get(Employee employee, YearMonth firstMonth, YearMonth lastMonth, boolean centavos) {
+        Key key = new Key(employee.employeeId, new Period(firstMonth, lastMonth, centavos));
+        Segment segment = segmentOf(employee.employeeId);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && !entry.rates().equals(Rates.of(employee))) {
+                segment.remove(key);
+                this.invalidations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        PayrollResult payrollResult = entry.payrollResult();
+        // An equal employee may have been reloaded since; results carry the current one.
+        return payrollResult.employee() == employee ? payrollResult
+                : new PayrollResult(employee, payrollResult.weeklyPayslips());
+    }
+
+    /**
+     * Stores an employee's payroll result of a period, unless the employee's
+     * results have been invalidated since the given version was read. Reading
+     * the version before the attendance records the result is calculated from
+     * ensures that a result calculated from records that have changed in the
+     * meantime is never stored.
+     *
+     * @param employee      the employee the result was calculated for
+     * @param firstMonth    the first payroll month
+     * @param lastMonth     the last payroll month
+     * @param centavos      whether the result was calculated in centavos
+     * @param payrollResult the result
+     * @param version       the {@link #version(int)} of the employee read before
+     *                      the calculation started
+     */
+    public void put(Employee employee, YearMonth firstMonth, YearMonth lastMonth, boolean centavos,
+            PayrollResult payrollResult, long version) {
+        if (this.capacity == 0) {
+            return;
+        }
+        Period period = new Period(firstMonth, lastMonth, centavos);
+        this.periods.add(period);
+        Segment segment = segmentOf(employee.employeeId);
+        synchronized (segment) {
+            if (this.versions.get(versionStripeOf(employee.employeeId)) == version) {
+                segment.put(new Key(employee.employeeId, period), new Entry(payrollResult, Rates.of(employee)));
+            }
+        }
+    }
+
+    /**
+     * Discards the results of an employee whose period covers a date, because
+     * attendance records of that date have been added or changed.
+     *
+     * @param employeeId the unique identifier of the employee
+     * @param date       the date of the changed attendance records
+     */
+    public void invalidate(int employeeId, LocalDate date) {
+        this.versions.incrementAndGet(versionStripeOf(employeeId));
+        Segment segment = segmentOf(employeeId);
+        synchronized (segment) {
+            for (Period period : this.periods) {
+                if (period.covers(date) && segment.remove(new Key(employeeId, period)) != null) {
+                    this.invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all results of an employee, e.g. because the employee's details
+     * have been replaced.
+     *
+     * @param employeeId the unique identifier of the employee
+     */
+    public void invalidate(int employeeId) {
+        this.versions.incrementAndGet(versionStripeOf(employeeId));
+        Segment segment = segmentOf(employeeId);
+        synchronized (segment) {
+            for (Period period : this.periods) {
+                if (segment.remove(new Key(employeeId, period)) != null) {
+                    this.invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all results.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < VERSION_STRIPES; stripe++) {
+            this.versions.incrementAndGet(stripe);
+        }
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                this.invalidations.add(segment.size());
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @param employeeId the unique identifier of the employee
+     * @return a number that changes whenever the employee's results are
+     *         invalidated, to be passed to
+     *         {@link #put(Employee, YearMonth, YearMonth, boolean, PayrollResult, long)}
+     */
+    public long version(int employeeId) {
+        return this.versions.get(versionStripeOf(employeeId));
+    }
+
+    /**
+     * @return the number of results held
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of lookups that found a valid result
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that found no valid result
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return the share of lookups that found a valid result, between 0 and 1
+     */
+    public double hitRate() {
+        long hitCount = this.hits.sum();
+        long lookups = hitCount + this.misses.sum();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * @return the number of results evicted to make room for newer ones
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return the number of results discarded because the data they were
+     *         calculated from changed
+     */
+    public long invalidations() {
+        return this.invalidations.sum();
+    }
+
+    private Segment segmentOf(int employeeId) {
+        return this.segments[employeeId & (this.segments.length - 1)];
+    }
+
+    private static int versionStripeOf(int employeeId) {
+        return employeeId & (VERSION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,185 @@
+package motorph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Exports payroll results to a file, one record per weekly payslip.
+ * <p>
+ * Where {@link PayslipReporter} renders the human-readable report, an exporter
+ * writes a file meant to be read by other programs. Records are encoded into a
+ * large direct buffer which is written to a {@link FileChannel} whenever it
+ * fills up, so an export costs a handful of system calls per megabyte and its
+ * memory use does not grow with the number of employees. Results can be
+ * exported as they are calculated by passing the exporter to
+ * {@link PayrollRunner#run(Consumer)}:
+ *
+ * <pre>
+ * {@code
+ * try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(8);
+ *         PayslipExporter payslipExporter = PayslipExporter.open(Path.of("payslips.csv"))) {
+ *     payrollRunner.run(payslipExporter);
+ * }
+ * }
+ * </pre>
+ *
+ * An exporter is not thread-safe; results must be exported from one thread at
+ * a time.
+ *
+ * @see CsvPayslipExporter
+ * @see BinaryPayslipExporter
+ */
+public abstract class PayslipExporter implements Consumer<PayrollResult>, Closeable {
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The file formats an exporter can write.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with a header line, see {@link CsvPayslipExporter}.
+         */
+        CSV,
+        /**
+         * Fixed-layout binary records, see {@link BinaryPayslipExporter}.
+         */
+        BINARY;
+
+        /**
+         * Picks the format from a file name: {@code .csv} files are exported as
+         * CSV and any other file in the binary format.
+         *
+         * @param file the file to export to
+         * @return the format of the file
+         */
+        public static Format of(Path file) {
+            String fileName = file.getFileName().toString();
+            return fileName.regionMatches(true, fileName.length() - 4, ".csv", 0, 4) ? CSV : BINARY;
+        }
+    }
+
+    private final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long payslipsExported;
+
+    /**
+     * Creates an exporter that replaces the contents of the given file.
+     *
+     * @param file the file to export to
+     * @throws IOException if the file cannot be opened
+     */
+    PayslipExporter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Opens an exporter in the format given by the file name.
+     *
+     * @param file the file to export to
+     * @return a new exporter
+     * @throws IOException if the file cannot be opened
+     * @see Format#of(Path)
+     */
+    public static PayslipExporter open(Path file) throws IOException {
+        return open(file, Format.of(file));
+    }
+
+    /**
+     * Opens an exporter in the given format.
+     *
+     * @param file   the file to export to
+     * @param format the format of the file
+     * @return a new exporter
+     * @throws IOException if the file cannot be opened
+     */
+    public static PayslipExporter open(Path file, Format format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvPayslipExporter(file);
+            case BINARY -> new BinaryPayslipExporter(file);
+        };
+    }
+
+    /**
+     * Writes the weekly payslips of one employee.
+     *
+     * @param payrollResult the employee's payroll result
+     * @throws UncheckedIOException if the file could not be written
+     */
+    public void export(PayrollResult payrollResult) {
+        for (WeeklyPayslip payslip : payrollResult.weeklyPayslips()) {
+            write(payslip);
+        }
+        this.payslipsExported += payrollResult.weeklyPayslips().size();
+    }
+
+    /**
+     * Same as {@link #export(PayrollResult)}, so an exporter can be handed to
+     * anything that produces payroll results.
+     *
+     * @param payrollResult the employee's payroll result
+     */
+    @Override
+    public void accept(PayrollResult payrollResult) {
+        export(payrollResult);
+    }
+
+    /**
+     * @return the number of weekly payslips exported so far
+     */
+    public long getPayslipsExported() {
+        return this.payslipsExported;
+    }
+
+    /**
+     * Writes what is left in the buffer and closes the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Encodes one payslip into the buffer.
+     *
+     * @param payslip the payslip
+     */
+    abstract void write(WeeklyPayslip payslip);
+
+    /**
+     * Makes room for at least the given number of bytes in the buffer, writing
+     * out its contents if needed.
+     *
+     * @param bytes the number of bytes about to be put, at most the buffer size
+     * @throws UncheckedIOException if the file could not be written
+     */
+    final void reserve(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            try {
+                drain();
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package motorph;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+/**
+ * Renders payroll results as the plain-text payslip report.
+ * <p>
+ * Rendering is kept out of the payroll calculation so that the calculation
+ * itself does no I/O. Each result is formatted into a reusable buffer and
+ * handed to the underlying writer in one piece; call {@link #flush()} once all
+ * results have been reported.
+ *
+ * <pre>
+ * {@code
+ * PayslipReporter payslipReporter = new PayslipReporter(System.out);
+ * payslipReporter.report(EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001));
+ * payslipReporter.flush();
+ * }
+ * </pre>
+ *
+ * @see PayrollResult
+ */
+public class PayslipReporter implements Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String SEPARATOR = "-".repeat(98);
+
+    private final Writer writer;
+    private final StringBuilder report = new StringBuilder(4096);
+
+    /**
+     * Creates a reporter that writes to the given writer.
+     *
+     * @param writer the destination of the report
+     */
+    public PayslipReporter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a reporter that writes to the given stream through a large buffer.
+     *
+     * @param out the destination of the report; it is flushed but never closed by
+     *            the reporter
+     */
+    public PayslipReporter(OutputStream out) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * Writes the report of one employee.
+     *
+     * @param payrollResult the employee's payroll result
+     * @throws UncheckedIOException if the report could not be written
+     */
+    public void report(PayrollResult payrollResult) {
+        this.report.setLength(0);
+        format(payrollResult, this.report);
+        try {
+            this.writer.append(this.report);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Flushes the reports written so far to the underlying destination.
+     *
+     * @throws UncheckedIOException if the report could not be written
+     */
+    @Override
+    public void flush() {
+        try {
+            this.writer.flush();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Formats the report of one employee: a header for every month followed by
+     * the hours and gross salary of each week, and the deductions, de minimis
+     * benefits and net salary in the deduction week.
+     *
+     * @param payrollResult the employee's payroll result
+     * @param report        the buffer the report is appended to
+     */
+    static void format(PayrollResult payrollResult, StringBuilder report) {
+        Employee employee = payrollResult.employee();
+        YearMonth currentMonth = null;
+        for (WeeklyPayslip payslip : payrollResult.weeklyPayslips()) {
+            if (!payslip.yearMonth().equals(currentMonth)) {
+                currentMonth = payslip.yearMonth();
+                report.append(employee.employeeId).append(", ").append(employee.firstName).append(' ')
+                        .append(employee.lastName).append(", ").append(employee.birthday).append('\n');
+            }
+            int year = payslip.yearMonth().getYear();
+            report.append("Number of hours for Week ").append(payslip.weekNumber()).append(" of ")
+                    .append(payslip.month()).append(' ').append(year).append(" : ").append(payslip.hoursWorked())
+                    .append('\n');
+            report.append("Gross Weekly Salary for Week ").append(payslip.weekNumber()).append(" of ")
+                    .append(payslip.month()).append(' ').append(year).append(" : ")
+                    .append(payslip.grossWeeklySalary()).append('\n');
+            if (payslip.isDeductionWeek()) {
+                PayrollDeductions deductions = payslip.deductions();
+                report.append("Social Security Contribution deduction is: ")
+                        .append(deductions.socialSecuritySystemContribution()).append('\n');
+                report.append("Withholding Tax deduction is: ").append(deductions.withholdingTax()).append('\n');
+                report.append("Philhealth Contribution deduction is: ")
+                        .append(deductions.philhealthContribution()).append('\n');
+                report.append("Pag-Ibig Contribution deduction is: ").append(deductions.pagIbigContribution())
+                        .append('\n');
+                report.append("Clothing Allowance  is ").append(employee.clothingAllowance).append('\n');
+                report.append("Rice Subsidy is ").append(employee.riceSubsidy).append('\n');
+                report.append("Phone Allowance is ").append(employee.phoneAllowance).append('\n');
+                report.append("Net Weekly Salary in Week ").append(payslip.weekNumber()).append(" of ")
+                        .append(payslip.month()).append(' ').append(year).append(" : ")
+                        .append(payslip.netWeeklySalary()).append('\n');
+            }
+        }
+        report.append(SEPARATOR).append('\n');
+    }
+}
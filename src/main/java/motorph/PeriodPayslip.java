@@ -0,0 +1,39 @@
+package motorph;
+
+import java.math.BigDecimal;
+
+/**
+ * The payroll result of one employee for one pay period.
+ * <p>
+ * Deductions and de minimis benefits are applied once a month, in the period
+ * chosen by the {@link PaySchedule}. For the other periods
+ * {@link #deductions()}, {@link #deMinimisBenefits()} and {@link #netSalary()}
+ * are {@code null}.
+ *
+ * @param employeeId        the unique identifier of the employee
+ * @param schedule          the schedule the period belongs to
+ * @param period            the pay period
+ * @param hoursWorked       the hours worked in the period, excluding lunch
+ *                          breaks
+ * @param grossSalary       the basic pay plus overtime pay for the period
+ * @param deductions        the statutory deductions, or {@code null} if this is
+ *                          not the deduction period
+ * @param deMinimisBenefits the de minimis benefits added to the net salary, or
+ *                          {@code null} if this is not the deduction period
+ * @param netSalary         the gross salary less deductions plus de minimis
+ *                          benefits, or {@code null} if this is not the
+ *                          deduction period
+ * @see PayPeriodEngine
+ */
+public record PeriodPayslip(int employeeId, PaySchedule schedule, PayPeriod period, double hoursWorked,
+        BigDecimal grossSalary, PayrollDeductions deductions, BigDecimal deMinimisBenefits, BigDecimal netSalary) {
+
+    /**
+     * Checks whether the monthly deductions were applied in this period.
+     *
+     * @return true if this is the deduction period of the month
+     */
+    public boolean isDeductionPeriod() {
+        return deductions != null;
+    }
+}
@@ -1,18 +1,36 @@
 package motorph;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 
 public class SalaryDeductionService {
 
+    static final String SOCIAL_SECURITY_CONTRIBUTION_SCHEDULE_FILE = "src/main/resources/sss-contribution-schedule.csv";
+
+    /**
+     * The SSS contribution for compensations below the minimum bracket.
+     */
+    private static final BigDecimal MINIMUM_SOCIAL_SECURITY_CONTRIBUTION = BigDecimal.valueOf(135.00);
+
+    /**
+     * The SSS contribution brackets, loaded from
+     * {@link #SOCIAL_SECURITY_CONTRIBUTION_SCHEDULE_FILE} on first use.
+     */
+    private static volatile SocialSecurityContributionTable socialSecurityContributionTable;
+
+    private static final Object SOCIAL_SECURITY_CONTRIBUTION_LOCK = new Object();
+
     /**
      * Calculates the Social Security System (SSS) contribution based on the
      * employee's compensation.
      * 
-     * This method determines the appropriate SSS contribution amount by comparing
-     * the employee's
-     * compensation against predefined compensation brackets. Each bracket has a
-     * specific
-     * contribution amount associated with it.
+     * This method determines the appropriate SSS contribution amount by looking up
+     * the employee's compensation in the contribution brackets of the SSS
+     * contribution schedule file. Each bracket has a specific contribution amount
+     * associated with it. The schedule is loaded once into a sorted
+     * {@link SocialSecurityContributionTable} and searched with a binary search.
      * 
      * For compensations below the minimum bracket (3250), a default contribution of
      * 135.00 is returned.
@@ -23,61 +41,52 @@ public class SalaryDeductionService {
      * 
      * @param compensation The employee's compensation amount
      * @return The SSS contribution amount based on the compensation bracket
+     * @throws java.io.UncheckedIOException if the schedule file cannot be read
+     * @see #reloadSocialSecurityContributionSchedule()
      */
     public static BigDecimal calculateSocialSecuritySystemContribution(BigDecimal compensation) {
-        BigDecimal[][] brackets = {
-                { BigDecimal.valueOf(3250), BigDecimal.valueOf(3749.99), BigDecimal.valueOf(157.50) },
-                { BigDecimal.valueOf(3750), BigDecimal.valueOf(4249.99), BigDecimal.valueOf(180.00) },
-                { BigDecimal.valueOf(4250), BigDecimal.valueOf(4749.99), BigDecimal.valueOf(202.50) },
-                { BigDecimal.valueOf(4750), BigDecimal.valueOf(5249.99), BigDecimal.valueOf(225.00) },
-                { BigDecimal.valueOf(5250), BigDecimal.valueOf(5749.99), BigDecimal.valueOf(247.50) },
-                { BigDecimal.valueOf(5750), BigDecimal.valueOf(6249.99), BigDecimal.valueOf(270.00) },
-                { BigDecimal.valueOf(6250), BigDecimal.valueOf(6749.99), BigDecimal.valueOf(292.50) },
-                { BigDecimal.valueOf(6750), BigDecimal.valueOf(7249.99), BigDecimal.valueOf(315.00) },
-                { BigDecimal.valueOf(7250), BigDecimal.valueOf(7749.99), BigDecimal.valueOf(337.50) },
-                { BigDecimal.valueOf(7750), BigDecimal.valueOf(8249.99), BigDecimal.valueOf(360.00) },
-                { BigDecimal.valueOf(8250), BigDecimal.valueOf(8749.99), BigDecimal.valueOf(382.50) },
-                { BigDecimal.valueOf(8750), BigDecimal.valueOf(9249.99), BigDecimal.valueOf(405.00) },
-                { BigDecimal.valueOf(9250), BigDecimal.valueOf(9749.99), BigDecimal.valueOf(427.50) },
-                { BigDecimal.valueOf(9750), BigDecimal.valueOf(10249.99), BigDecimal.valueOf(450.00) },
-                { BigDecimal.valueOf(10250), BigDecimal.valueOf(10749.99), BigDecimal.valueOf(472.50) },
-                { BigDecimal.valueOf(10750), BigDecimal.valueOf(11249.99), BigDecimal.valueOf(495.00) },
-                { BigDecimal.valueOf(11250), BigDecimal.valueOf(11749.99), BigDecimal.valueOf(517.50) },
-                { BigDecimal.valueOf(11750), BigDecimal.valueOf(12249.99), BigDecimal.valueOf(540.00) },
-                { BigDecimal.valueOf(12250), BigDecimal.valueOf(12749.99), BigDecimal.valueOf(562.50) },
-                { BigDecimal.valueOf(12750), BigDecimal.valueOf(13249.99), BigDecimal.valueOf(585.00) },
-                { BigDecimal.valueOf(13250), BigDecimal.valueOf(13749.99), BigDecimal.valueOf(607.50) },
-                { BigDecimal.valueOf(13750), BigDecimal.valueOf(14249.99), BigDecimal.valueOf(630.00) },
-                { BigDecimal.valueOf(14250), BigDecimal.valueOf(14749.99), BigDecimal.valueOf(652.50) },
-                { BigDecimal.valueOf(14750), BigDecimal.valueOf(15249.99), BigDecimal.valueOf(675.00) },
-                { BigDecimal.valueOf(15250), BigDecimal.valueOf(15749.99), BigDecimal.valueOf(697.50) },
-                { BigDecimal.valueOf(15750), BigDecimal.valueOf(16249.99), BigDecimal.valueOf(720.00) },
-                { BigDecimal.valueOf(16250), BigDecimal.valueOf(16749.99), BigDecimal.valueOf(742.50) },
-                { BigDecimal.valueOf(16750), BigDecimal.valueOf(17249.99), BigDecimal.valueOf(765.00) },
-                { BigDecimal.valueOf(17250), BigDecimal.valueOf(17749.99), BigDecimal.valueOf(787.50) },
-                { BigDecimal.valueOf(17750), BigDecimal.valueOf(18249.99), BigDecimal.valueOf(810.00) },
-                { BigDecimal.valueOf(18250), BigDecimal.valueOf(18749.99), BigDecimal.valueOf(832.50) },
-                { BigDecimal.valueOf(18750), BigDecimal.valueOf(19249.99), BigDecimal.valueOf(855.00) },
-                { BigDecimal.valueOf(19250), BigDecimal.valueOf(19749.99), BigDecimal.valueOf(877.50) },
-                { BigDecimal.valueOf(19750), BigDecimal.valueOf(20249.99), BigDecimal.valueOf(900.00) },
-                { BigDecimal.valueOf(20250), BigDecimal.valueOf(20749.99), BigDecimal.valueOf(922.50) },
-                { BigDecimal.valueOf(20750), BigDecimal.valueOf(21249.99), BigDecimal.valueOf(945.00) },
-                { BigDecimal.valueOf(21250), BigDecimal.valueOf(21749.99), BigDecimal.valueOf(967.50) },
-                { BigDecimal.valueOf(21750), BigDecimal.valueOf(22249.99), BigDecimal.valueOf(990.00) },
-                { BigDecimal.valueOf(22250), BigDecimal.valueOf(22749.99), BigDecimal.valueOf(1012.50) },
-                { BigDecimal.valueOf(22750), BigDecimal.valueOf(23249.99), BigDecimal.valueOf(1035.00) },
-                { BigDecimal.valueOf(23250), BigDecimal.valueOf(23749.99), BigDecimal.valueOf(1057.50) },
-                { BigDecimal.valueOf(23750), BigDecimal.valueOf(24249.99), BigDecimal.valueOf(1080.00) },
-                { BigDecimal.valueOf(24250), BigDecimal.valueOf(24749.99), BigDecimal.valueOf(1102.50) },
-                { BigDecimal.valueOf(24750), BigDecimal.valueOf(Double.MAX_VALUE), BigDecimal.valueOf(1125.00) }
-        };
+        PayrollMetrics.countDeduction(PayrollMetrics.Deduction.SOCIAL_SECURITY_SYSTEM);
+        return getSocialSecurityContributionTable().lookup(compensation);
+    }
+
+    /**
+     * Reloads the SSS contribution schedule file, so that later calculations use
+     * the brackets it now contains. Calculations running at the same time use
+     * either the old or the new brackets, never a mix of both.
+     *
+     * @throws java.io.UncheckedIOException if the schedule file cannot be read
+     * @throws IllegalArgumentException     if the schedule is malformed; the
+     *                                      previous brackets stay in use
+     */
+    public static void reloadSocialSecurityContributionSchedule() {
+        synchronized (SOCIAL_SECURITY_CONTRIBUTION_LOCK) {
+            socialSecurityContributionTable = loadSocialSecurityContributionTable();
+        }
+    }
 
-        for (BigDecimal[] bracket : brackets) {
-            if (compensation.compareTo(bracket[0]) >= 0 && compensation.compareTo(bracket[1]) <= 0) {
-                return bracket[2];
+    /**
+     * @return the SSS contribution brackets, loading them on first use
+     */
+    static SocialSecurityContributionTable getSocialSecurityContributionTable() {
+        SocialSecurityContributionTable table = socialSecurityContributionTable;
+        if (table == null) {
+            synchronized (SOCIAL_SECURITY_CONTRIBUTION_LOCK) {
+                if (socialSecurityContributionTable == null) {
+                    socialSecurityContributionTable = loadSocialSecurityContributionTable();
+                }
+                table = socialSecurityContributionTable;
             }
         }
-        return BigDecimal.valueOf(135.00);
+        return table;
+    }
+
+    private static SocialSecurityContributionTable loadSocialSecurityContributionTable() {
+        try {
+            return SocialSecurityContributionTable.load(Path.of(SOCIAL_SECURITY_CONTRIBUTION_SCHEDULE_FILE),
+                    MINIMUM_SOCIAL_SECURITY_CONTRIBUTION);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
     }
 
     /**
@@ -95,6 +104,7 @@ public class SalaryDeductionService {
      *         ₱100.00
      */
     public static BigDecimal calculatePagIbigContribution(BigDecimal monthlyBasicSalary) {
+        PayrollMetrics.countDeduction(PayrollMetrics.Deduction.PAG_IBIG);
         BigDecimal contributionRate = (monthlyBasicSalary.compareTo(BigDecimal.valueOf(1500)) > 0)
                 ? BigDecimal.valueOf(0.02)
                 : BigDecimal.valueOf(0.01);
@@ -110,6 +120,7 @@ public class SalaryDeductionService {
      * @return The employee's PhilHealth contribution amount
      */
     public static BigDecimal calculatePhilhealthContribution(BigDecimal monthlyBasicSalary) {
+        PayrollMetrics.countDeduction(PayrollMetrics.Deduction.PHILHEALTH);
         return monthlyBasicSalary.multiply(BigDecimal.valueOf(0.03)).divide(BigDecimal.valueOf(2));
     } // made the division step explicit
 
@@ -128,6 +139,7 @@ public class SalaryDeductionService {
      * @return the calculated withholding tax amount as a BigDecimal
      */
     public static BigDecimal calculateWithholdingTax(BigDecimal monthlySalary) {
+        PayrollMetrics.countDeduction(PayrollMetrics.Deduction.WITHHOLDING_TAX);
         BigDecimal withholdingTax = BigDecimal.valueOf(0);
         if (monthlySalary.compareTo(BigDecimal.valueOf(0)) > 0
                 && monthlySalary.compareTo(BigDecimal.valueOf(20832)) <= 0) {
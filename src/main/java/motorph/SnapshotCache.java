@@ -0,0 +1,493 @@
+package motorph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A cache of the parsed employee and attendance files in a compact binary
+ * form, so that later starts can skip parsing the CSV text.
+ * <p>
+ * Each source file has its own snapshot file in the cache directory, named
+ * after the source file with a {@code .snapshot} suffix. A snapshot starts with
+ * a fixed header:
+ *
+ * <pre>
+ * int   magic number "MPHS"
+ * short format version
+ * byte  content kind (employees or attendance)
+ * byte  reserved
+ * long  source file size
+ * long  source file last modified time, in milliseconds
+ * int   CRC-32C of the source file
+ * int   CRC-32C of the payload
+ * long  payload length
+ * </pre>
+ *
+ * followed by the payload. A snapshot is used only if its version and kind
+ * match, its payload checksum is intact, and it was written from the current
+ * source file: the size must match, and either the modification time matches
+ * or, if the file has been touched without being changed (e.g. by a fresh
+ * checkout), its checksum does. Any other snapshot is treated as stale and the
+ * caller falls back to the CSV file.
+ * <p>
+ * An attendance file only grows as punches are appended, so an attendance
+ * snapshot can also be used for the start of a longer file, if the CRC-32C of
+ * that start still matches; see {@link #readAttendancePrefix(Path)}.
+ * <p>
+ * Attendance snapshots are memory-mapped and the {@link AttendanceStore}
+ * columns are copied out of the mapping in bulk, so loading does not create an
+ * object per row. Snapshots are written to a temporary file and moved into
+ * place, so a reader never sees a partially written snapshot.
+ *
+ * @see EmployeeDatabaseService#snapshotCaching
+ */
+public final class SnapshotCache {
+    static final int MAGIC = 0x4D504853;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 40;
+
+    private static final byte EMPLOYEES = 1;
+    private static final byte ATTENDANCE = 2;
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    /**
+     * Creates a snapshot cache that keeps its files in the given directory. The
+     * directory is created when the first snapshot is written.
+     *
+     * @param directory the directory holding the snapshot files
+     */
+    public SnapshotCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The identity of a source file at the time it was parsed.
+     *
+     * @param size         the file size in bytes
+     * @param lastModified the last modified time in milliseconds
+     * @param checksum     the CRC-32C of the file contents
+     */
+    public record Fingerprint(long size, long lastModified, int checksum) {
+        /**
+         * Takes the fingerprint of a file. This should be done before the file is
+         * parsed, so that a change made while parsing makes the snapshot stale.
+         *
+         * @param source the source file
+         * @return the fingerprint of the file
+         * @throws IOException if the file cannot be read
+         */
+        public static Fingerprint of(Path source) throws IOException {
+            long size = Files.size(source);
+            long lastModified = Files.getLastModifiedTime(source).toMillis();
+            return new Fingerprint(size, lastModified, SnapshotCache.checksum(source));
+        }
+
+        /**
+         * Takes the fingerprint of the first bytes of a file, for a snapshot of
+         * only that part of it. The modification time is only recorded if the
+         * file has no further bytes.
+         *
+         * @param source the source file
+         * @param length the number of bytes the snapshot covers
+         * @return the fingerprint of the start of the file
+         * @throws IOException if the file cannot be read
+         */
+        public static Fingerprint of(Path source, long length) throws IOException {
+            long lastModified = Files.size(source) == length ? Files.getLastModifiedTime(source).toMillis() : -1;
+            CRC32C checksum = new CRC32C();
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            try (InputStream in = Files.newInputStream(source)) {
+                for (long remaining = length; remaining > 0;) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("File is shorter than " + length + " bytes: " + source);
+                    }
+                    checksum.update(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+            return new Fingerprint(length, lastModified, (int) checksum.getValue());
+        }
+    }
+
+    /**
+     * Reads the attendance snapshot of a source file.
+     *
+     * @param source the attendance CSV file
+     * @return the attendance store, or empty if there is no valid snapshot for
+     *         the current contents of the source file
+     */
+    public Optional<AttendanceStore> readAttendanceStore(Path source) {
+        return readPayload(source, ATTENDANCE, (size, lastModified, checksum) -> isSnapshotOf(source, size,
+                lastModified, checksum), AttendanceStore::readFrom);
+    }
+
+    /**
+     * An attendance snapshot that covers the start of its source file, which
+     * may have grown since the snapshot was written.
+     *
+     * @param store  the attendance records of the covered bytes
+     * @param length the number of bytes of the source file the snapshot covers
+     * @param source the fingerprint of the whole source file, taken while
+     *               checking the snapshot
+     */
+    public record AttendancePrefix(AttendanceStore store, long length, Fingerprint source) {
+    }
+
+    /**
+     * Reads the attendance snapshot of a source file that has only been appended
+     * to since the snapshot was written, such as an attendance file that
+     * receives new punches. The snapshot is used if the source file still starts
+     * with the bytes it was written from, which is verified with the CRC-32C of
+     * that prefix; the caller then only needs to parse the bytes after
+     * {@link AttendancePrefix#length()}.
+     *
+     * @param source the attendance CSV file
+     * @return the snapshot and the length of the prefix it covers, or empty if
+     *         there is no valid snapshot for the start of the source file
+     */
+    public Optional<AttendancePrefix> readAttendancePrefix(Path source) {
+        long[] length = new long[1];
+        Fingerprint[] current = new Fingerprint[1];
+        return readPayload(source, ATTENDANCE, (size, lastModified, checksum) -> {
+            length[0] = size;
+            current[0] = fingerprintIfPrefix(source, size, lastModified, checksum);
+            return current[0] != null;
+        }, AttendanceStore::readFrom).map(store -> new AttendancePrefix(store, length[0], current[0]));
+    }
+
+    /**
+     * Writes the attendance snapshot of a source file. Failing to write a
+     * snapshot is reported on standard error but is not an error; the next
+     * start simply parses the CSV file again.
+     *
+     * @param source      the attendance CSV file
+     * @param fingerprint the fingerprint of the source file taken before it was
+     *                    parsed
+     * @param store       the parsed attendance records
+     */
+    public void writeAttendanceStore(Path source, Fingerprint fingerprint, AttendanceStore store) {
+        writePayload(source, fingerprint, ATTENDANCE, store::writeTo);
+    }
+
+    /**
+     * Reads the employee snapshot of a source file.
+     *
+     * @param source the employee details CSV file
+     * @return a mutable list of the employees, or empty if there is no valid
+     *         snapshot for the current contents of the source file
+     */
+    public Optional<List<Employee>> readEmployees(Path source) {
+        return readPayload(source, EMPLOYEES, (size, lastModified, checksum) -> isSnapshotOf(source, size,
+                lastModified, checksum), SnapshotCache::readEmployees);
+    }
+
+    /**
+     * Writes the employee snapshot of a source file. Failing to write a snapshot
+     * is reported on standard error but is not an error; the next start simply
+     * parses the CSV file again.
+     *
+     * @param source      the employee details CSV file
+     * @param fingerprint the fingerprint of the source file taken before it was
+     *                    parsed
+     * @param employees   the parsed employees
+     */
+    public void writeEmployees(Path source, Fingerprint fingerprint, List<Employee> employees) {
+        writePayload(source, fingerprint, EMPLOYEES, out -> writeEmployees(out, employees));
+    }
+
+    /**
+     * Returns the snapshot file of a source file.
+     *
+     * @param source the source CSV file
+     * @return the path of its snapshot in the cache directory
+     */
+    Path snapshotOf(Path source) {
+        return this.directory.resolve(source.getFileName() + ".snapshot");
+    }
+
+    private <T> Optional<T> readPayload(Path source, byte kind, SourceCheck sourceCheck,
+            Function<ByteBuffer, T> payloadReader) {
+        Path snapshot = snapshotOf(source);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapping.getInt(0) != MAGIC || mapping.getShort(4) != VERSION || mapping.get(6) != kind) {
+                return Optional.empty();
+            }
+            long payloadLength = mapping.getLong(32);
+            if (payloadLength != channel.size() - HEADER_SIZE
+                    || !sourceCheck.matches(mapping.getLong(8), mapping.getLong(16), mapping.getInt(24))) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = mapping.slice(HEADER_SIZE, (int) payloadLength);
+            CRC32C payloadChecksum = new CRC32C();
+            payloadChecksum.update(payload.duplicate());
+            if ((int) payloadChecksum.getValue() != mapping.getInt(28)) {
+                return Optional.empty();
+            }
+            return Optional.of(payloadReader.apply(payload));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException exception) {
+            // Unreadable or stale snapshots are ignored; the caller parses the CSV file.
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isSnapshotOf(Path source, long size, long lastModified, int checksum)
+            throws IOException {
+        if (Files.size(source) != size) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(source).toMillis() == lastModified) {
+            return true;
+        }
+        return checksum(source) == checksum;
+    }
+
+    /**
+     * Checks whether a source file starts with the bytes a snapshot was written
+     * from, and takes its fingerprint in the same pass.
+     *
+     * @return the fingerprint of the whole source file, or {@code null} if the
+     *         file does not start with the snapshot's source
+     */
+    private static Fingerprint fingerprintIfPrefix(Path source, long size, long lastModified, int checksum)
+            throws IOException {
+        long currentSize = Files.size(source);
+        long currentLastModified = Files.getLastModifiedTime(source).toMillis();
+        if (currentSize < size) {
+            return null;
+        }
+        if (currentSize == size && currentLastModified == lastModified) {
+            return new Fingerprint(size, lastModified, checksum);
+        }
+        CRC32C crc = new CRC32C();
+        int prefixChecksum = size == 0 ? (int) crc.getValue() : 0;
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(source)) {
+            long position = 0;
+            while (position < currentSize) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, currentSize - position));
+                if (read < 0) {
+                    return null;
+                }
+                if (position < size && position + read >= size) {
+                    int prefixBytes = (int) (size - position);
+                    crc.update(buffer, 0, prefixBytes);
+                    prefixChecksum = (int) crc.getValue();
+                    crc.update(buffer, prefixBytes, read - prefixBytes);
+                } else {
+                    crc.update(buffer, 0, read);
+                }
+                position += read;
+            }
+        }
+        if (prefixChecksum != checksum) {
+            return null;
+        }
+        return new Fingerprint(currentSize, currentLastModified, (int) crc.getValue());
+    }
+
+    private void writePayload(Path source, Fingerprint fingerprint, byte kind, PayloadWriter payloadWriter) {
+        Path snapshot = snapshotOf(source);
+        Path temporary = null;
+        try {
+            Files.createDirectories(this.directory);
+            temporary = Files.createTempFile(this.directory, snapshot.getFileName().toString(), ".tmp");
+            CRC32C payloadChecksum = new CRC32C();
+            long payloadLength;
+            try (OutputStream file = Files.newOutputStream(temporary)) {
+                file.write(new byte[HEADER_SIZE]);
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(file, STREAM_BUFFER_SIZE), payloadChecksum));
+                payloadWriter.write(out);
+                out.flush();
+                payloadLength = out.size();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).put(kind).put((byte) 0)
+                    .putLong(fingerprint.size()).putLong(fingerprint.lastModified()).putInt(fingerprint.checksum())
+                    .putInt((int) payloadChecksum.getValue()).putLong(payloadLength).flip();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioException) {
+            // A missing snapshot only costs a CSV parse on the next start.
+            System.err.println("Unable to write snapshot " + snapshot + ": " + ioException);
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ioException) {
+                    // Left for the next write to replace.
+                }
+            }
+        }
+    }
+
+    private static int checksum(Path source) throws IOException {
+        CRC32C checksum = new CRC32C();
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(source)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                checksum.update(buffer, 0, read);
+            }
+        }
+        return (int) checksum.getValue();
+    }
+
+    private static void writeEmployees(DataOutput out, List<Employee> employees) throws IOException {
+        out.writeInt(employees.size());
+        for (Employee employee : employees) {
+            writeEmployee(out, employee);
+        }
+    }
+
+    private static List<Employee> readEmployees(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(readEmployee(buffer));
+        }
+        return employees;
+    }
+
+    /**
+     * Writes every field of an employee, in declaration order.
+     *
+     * @see FilePayrollDatabase
+     */
+    static void writeEmployee(DataOutput out, Employee employee) throws IOException {
+        out.writeInt(employee.employeeId);
+        writeString(out, employee.lastName);
+        writeString(out, employee.firstName);
+        out.writeLong(employee.birthday == null ? Long.MIN_VALUE : employee.birthday.toEpochDay());
+        writeString(out, employee.address);
+        writeString(out, employee.phoneNumber);
+        writeString(out, employee.socialSecurityId);
+        writeString(out, employee.philhealthId);
+        writeString(out, employee.taxpayerId);
+        writeString(out, employee.pagIbigId);
+        writeString(out, employee.employmentStatus == null ? null : employee.employmentStatus.name());
+        writeString(out, employee.position);
+        writeString(out, employee.immediateSupervisor);
+        writeDecimal(out, employee.basicSalary);
+        writeDecimal(out, employee.riceSubsidy);
+        writeDecimal(out, employee.phoneAllowance);
+        writeDecimal(out, employee.clothingAllowance);
+        writeDecimal(out, employee.grossSemimonthlyRate);
+        writeDecimal(out, employee.hourlyRate);
+    }
+
+    /**
+     * Reads an employee written by {@link #writeEmployee(DataOutput, Employee)}.
+     */
+    static Employee readEmployee(ByteBuffer buffer) {
+        Employee employee = new Employee();
+        employee.employeeId = buffer.getInt();
+        employee.lastName = readString(buffer);
+        employee.firstName = readString(buffer);
+        long birthday = buffer.getLong();
+        employee.birthday = birthday == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(birthday);
+        employee.address = readString(buffer);
+        employee.phoneNumber = readString(buffer);
+        employee.socialSecurityId = readString(buffer);
+        employee.philhealthId = readString(buffer);
+        employee.taxpayerId = readString(buffer);
+        employee.pagIbigId = readString(buffer);
+        String employmentStatus = readString(buffer);
+        employee.employmentStatus = employmentStatus == null ? null : EmploymentStatus.valueOf(employmentStatus);
+        employee.position = readString(buffer);
+        employee.immediateSupervisor = readString(buffer);
+        employee.basicSalary = readDecimal(buffer);
+        employee.riceSubsidy = readDecimal(buffer);
+        employee.phoneAllowance = readDecimal(buffer);
+        employee.clothingAllowance = readDecimal(buffer);
+        employee.grossSemimonthlyRate = readDecimal(buffer);
+        employee.hourlyRate = readDecimal(buffer);
+        return employee;
+    }
+
+    /**
+     * Writes a string as its UTF-8 byte count followed by the bytes, or a count
+     * of -1 for null.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     */
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decimals are written in their string form, which keeps the exact scale.
+     */
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        writeString(out, value == null ? null : value.toString());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer buffer) {
+        String value = readString(buffer);
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Decides from the source fields of a snapshot header whether the snapshot
+     * may be used.
+     */
+    @FunctionalInterface
+    private interface SourceCheck {
+        boolean matches(long size, long lastModified, int checksum) throws IOException;
+    }
+}
@@ -0,0 +1,217 @@
+package motorph;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+
+/**
+ * An immutable, sorted table of Social Security System (SSS) contribution
+ * brackets, loaded from the contribution schedule CSV file.
+ * <p>
+ * Each row of the schedule gives a minimum compensation, a maximum compensation
+ * and the contribution for compensations in that range. A bracket covers the
+ * compensations from its minimum up to, but not including, its maximum, so the
+ * schedule's shared boundaries (e.g. 3,750 ending one bracket and starting the
+ * next) belong to the higher bracket. The last bracket has no upper limit.
+ * <p>
+ * Bracket bounds are held as {@code long} centavos in a sorted array and a
+ * compensation is looked up with a binary search, taking {@code O(log n)}
+ * comparisons; a lookup by centavos allocates nothing. Compensations are
+ * truncated to whole centavos before the lookup.
+ *
+ * @see SalaryDeductionService#calculateSocialSecuritySystemContribution(BigDecimal)
+ */
+public final class SocialSecurityContributionTable {
+    private final long[] minimumCentavos;
+    /**
+     * The exclusive upper bound of each bracket; unused for the last bracket,
+     * which is open-ended.
+     */
+    private final long[] maximumCentavos;
+    private final BigDecimal[] contributions;
+    private final long[] contributionCentavos;
+    private final BigDecimal defaultContribution;
+    private final long defaultContributionCentavos;
+
+    private SocialSecurityContributionTable(long[] minimumCentavos, long[] maximumCentavos,
+            BigDecimal[] contributions, BigDecimal defaultContribution) {
+        this.minimumCentavos = minimumCentavos;
+        this.maximumCentavos = maximumCentavos;
+        this.contributions = contributions;
+        this.contributionCentavos = new long[contributions.length];
+        for (int i = 0; i < contributions.length; i++) {
+            this.contributionCentavos[i] = Centavos.fromPesos(contributions[i]);
+        }
+        this.defaultContribution = defaultContribution;
+        this.defaultContributionCentavos = Centavos.fromPesos(defaultContribution);
+    }
+
+    /**
+     * Loads a contribution schedule with the columns {@code MinCompensation},
+     * {@code MaxCompensation} and {@code Contribution}. Amounts may use commas
+     * as thousand separators.
+     *
+     * @param schedule            the schedule CSV file
+     * @param defaultContribution the contribution for compensations below the
+     *                            first bracket
+     * @return the contribution table
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the schedule is empty, malformed or
+     *                                  has overlapping brackets
+     */
+    public static SocialSecurityContributionTable load(Path schedule, BigDecimal defaultContribution)
+            throws IOException {
+        try (Reader reader = Files.newBufferedReader(schedule, StandardCharsets.UTF_8);
+                CSVReader csvReader = new CSVReader(reader)) {
+            List<String[]> rows = csvReader.readAll();
+            return of(rows.subList(Math.min(1, rows.size()), rows.size()), defaultContribution);
+        } catch (CsvException csvException) {
+            throw new IllegalArgumentException("Unable to read SSS contribution schedule " + schedule,
+                    csvException);
+        }
+    }
+
+    /**
+     * Builds a contribution table from schedule rows of minimum compensation,
+     * maximum compensation and contribution.
+     *
+     * @param rows                the schedule rows, without the header
+     * @param defaultContribution the contribution for compensations below the
+     *                            first bracket
+     * @return the contribution table
+     * @throws IllegalArgumentException if there are no rows, or a row is
+     *                                  malformed or overlaps another
+     */
+    static SocialSecurityContributionTable of(List<String[]> rows, BigDecimal defaultContribution) {
+        List<long[]> brackets = new ArrayList<>(rows.size());
+        List<BigDecimal> contributionOfBracket = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            if (row.length < 3) {
+                throw new IllegalArgumentException("Malformed SSS contribution bracket: " + Arrays.toString(row));
+            }
+            long minimum = toCentavos(parseAmount(row[0]));
+            long maximum = toCentavos(parseAmount(row[1]));
+            if (maximum <= minimum) {
+                throw new IllegalArgumentException("Empty SSS contribution bracket: " + Arrays.toString(row));
+            }
+            brackets.add(new long[] { minimum, maximum, brackets.size() });
+            // The same form as the contributions of the hard-coded table this replaces,
+            // e.g. 157.5 and 180.0, so payslips print unchanged.
+            contributionOfBracket.add(BigDecimal.valueOf(parseAmount(row[2]).doubleValue()));
+        }
+        if (brackets.isEmpty()) {
+            throw new IllegalArgumentException("The SSS contribution schedule has no brackets");
+        }
+        brackets.sort((first, second) -> Long.compare(first[0], second[0]));
+
+        int size = brackets.size();
+        long[] minimumCentavos = new long[size];
+        long[] maximumCentavos = new long[size];
+        BigDecimal[] contributions = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            long[] bracket = brackets.get(i);
+            if (i > 0 && bracket[0] < maximumCentavos[i - 1]) {
+                throw new IllegalArgumentException("Overlapping SSS contribution brackets at " + bracket[0] / 100);
+            }
+            minimumCentavos[i] = bracket[0];
+            maximumCentavos[i] = bracket[1];
+            contributions[i] = contributionOfBracket.get((int) bracket[2]);
+        }
+        return new SocialSecurityContributionTable(minimumCentavos, maximumCentavos, contributions,
+                defaultContribution);
+    }
+
+    /**
+     * Looks up the contribution for a compensation.
+     *
+     * @param compensation the employee's compensation
+     * @return the contribution of the bracket the compensation falls in, or the
+     *         default contribution if it is below the first bracket or between
+     *         brackets
+     */
+    public BigDecimal lookup(BigDecimal compensation) {
+        return lookup(toCentavos(compensation));
+    }
+
+    /**
+     * Looks up the contribution for a compensation given in centavos.
+     *
+     * @param compensationCentavos the employee's compensation in centavos
+     * @return the contribution of the bracket the compensation falls in, or the
+     *         default contribution if it is below the first bracket or between
+     *         brackets
+     */
+    public BigDecimal lookup(long compensationCentavos) {
+        int bracket = findBracket(compensationCentavos);
+        return bracket < 0 ? this.defaultContribution : this.contributions[bracket];
+    }
+
+    /**
+     * Looks up the contribution for a compensation, both in centavos.
+     *
+     * @param compensationCentavos the employee's compensation in centavos
+     * @return the contribution in centavos
+     * @see #lookup(long)
+     */
+    public long lookupCentavos(long compensationCentavos) {
+        int bracket = findBracket(compensationCentavos);
+        return bracket < 0 ? this.defaultContributionCentavos : this.contributionCentavos[bracket];
+    }
+
+    /**
+     * @return the index of the bracket the compensation falls in, or -1 if it is
+     *         below the first bracket or between brackets
+     */
+    private int findBracket(long compensationCentavos) {
+        int bracket = Arrays.binarySearch(this.minimumCentavos, compensationCentavos);
+        if (bracket < 0) {
+            // The bracket with the greatest minimum below the compensation.
+            bracket = -bracket - 2;
+        }
+        if (bracket < 0 || bracket < this.maximumCentavos.length - 1
+                && compensationCentavos >= this.maximumCentavos[bracket]) {
+            return -1;
+        }
+        return bracket;
+    }
+
+    /**
+     * @return the number of brackets in the table
+     */
+    public int size() {
+        return this.minimumCentavos.length;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return new BigDecimal(value.replace(",", "").trim());
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException("Malformed SSS contribution amount: " + value, numberFormatException);
+        }
+    }
+
+    /**
+     * Converts an amount to whole centavos, truncating towards negative infinity
+     * and saturating at the range of {@code long}.
+     */
+    private static long toCentavos(BigDecimal amount) {
+        BigDecimal centavos = amount.movePointRight(2).setScale(0, RoundingMode.FLOOR);
+        if (centavos.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (centavos.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return centavos.longValue();
+    }
+}
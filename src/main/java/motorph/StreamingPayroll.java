@@ -0,0 +1,63 @@
+package motorph;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Runs the weekly payroll for every employee in a single streaming pass over
+ * the attendance file.
+ * <p>
+ * Unlike {@link PayrollRunner}, which works from the fully loaded attendance
+ * list, this mode never holds more than one attendance record at a time: the
+ * records are folded into an {@link AttendanceAccumulator} as they are read, and
+ * the payslips are calculated from the accumulated weekly totals. Peak memory is
+ * proportional to the number of employees, which makes it suitable for
+ * attendance files that do not fit in the heap. The results are the same as
+ * those of {@link EmployeeDatabaseService#calculateEmployeeWeeklySalary(int)}.
+ *
+ * @see EmployeeDatabaseService#forEachAttendanceRecord(java.util.function.Consumer)
+ */
+public class StreamingPayroll {
+
+    /**
+     * Streams the attendance file and calculates the weekly payroll of all
+     * employees in the payroll months.
+     *
+     * @return the payroll result of every employee, in the order of the employee
+     *         list
+     */
+    public static List<PayrollResult> run() {
+        List<PayrollResult> payrollResults = new ArrayList<>(EmployeeDatabaseService.getAllEmployeeDetails().size());
+        run(payrollResults::add);
+        return payrollResults;
+    }
+
+    /**
+     * Streams the attendance file and calculates the weekly payroll of all
+     * employees in the payroll months, handing each result to the consumer as
+     * soon as it is calculated instead of collecting them.
+     *
+     * @param consumer receives the payroll result of every employee, in the order
+     *                 of the employee list
+     */
+    public static void run(Consumer<? super PayrollResult> consumer) {
+        long loadingStartNanos = PayrollMetrics.startTimer();
+        AttendanceAccumulator attendanceAccumulator = new AttendanceAccumulator();
+        EmployeeDatabaseService.forEachAttendanceRecord(attendanceAccumulator);
+        PayrollMetrics.recordStage(PayrollMetrics.Stage.ATTENDANCE_LOADING, loadingStartNanos);
+        PayrollMetrics.countAttendanceRowsLoaded(attendanceAccumulator.getAcceptedRecords());
+
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            long startNanos = PayrollMetrics.startTimer();
+            List<WeeklyPayslip> weeklyPayslips = new ArrayList<>();
+            for (YearMonth month : EmployeeDatabaseService.getPayrollMonths()) {
+                weeklyPayslips.addAll(EmployeeDatabaseService.calculateWeeklyPayslips(employee,
+                        attendanceAccumulator.getWeeklyTotals(employee.employeeId, month)));
+            }
+            PayrollMetrics.recordEmployeeCalculation(startNanos, weeklyPayslips.size());
+            consumer.accept(new PayrollResult(employee, weeklyPayslips));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package motorph;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API implementation of {@link AttendanceMinutes}, which processes
+ * as many rows at a time as the preferred int vector has lanes: 16 with
+ * AVX-512, 8 with AVX2.
+ * <p>
+ * The minute columns are loaded as short vectors of half the width and
+ * widened to ints. The whole working hours need a division by 60, which has
+ * no vector instruction; since the minutes between log in and log out are at
+ * most 1439 either way, the quotient is taken as a multiplication by
+ * 1093/65536 instead, which gives the exact truncated quotient over that
+ * range. Rows left over at the end are handed to the scalar loop.
+ * <p>
+ * This class uses the incubating {@code jdk.incubator.vector} module and must
+ * only be loaded when the module is present, see
+ * {@link AttendanceMinutes#isVectorApiAvailable()}. It is only compiled by the
+ * {@code vector} Maven profile, and {@link AttendanceMinutes} calls it through
+ * a method handle.
+ */
+final class VectorAttendanceMinutes {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORTS = VectorSpecies.of(short.class,
+            VectorShape.forBitSize(INTS.vectorBitSize() / 2));
+
+    private static final int DIVIDE_BY_60_MULTIPLIER = 1093;
+    private static final int DIVIDE_BY_60_SHIFT = 16;
+
+    /**
+     * Lane sums are added to the totals after this many vectors, long before an
+     * int lane could overflow.
+     */
+    private static final int VECTORS_PER_FLUSH = 1 << 16;
+
+    private VectorAttendanceMinutes() {
+    }
+
+    /**
+     * Calculates the first rows of two minute columns into the results shifted
+     * by an offset, adding to the totals of worked minutes, overtime hours and
+     * late rows.
+     */
+    static void calculate(short[] logInMinutes, short[] logOutMinutes, int length, int offset, int[] workedMinutes,
+            int[] overtimeHours, boolean[] late, long[] totals) {
+        int lanes = INTS.length();
+        int vectorLength = INTS.loopBound(length);
+        IntVector cutoff = IntVector.broadcast(INTS, EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE);
+        IntVector worked = IntVector.zero(INTS);
+        IntVector overtime = IntVector.zero(INTS);
+        long lateCount = 0;
+        int vectors = 0;
+        for (int i = 0; i < vectorLength; i += lanes) {
+            IntVector logIn = (IntVector) ShortVector.fromArray(SHORTS, logInMinutes, i)
+                    .convertShape(VectorOperators.S2I, INTS, 0);
+            IntVector logOut = (IntVector) ShortVector.fromArray(SHORTS, logOutMinutes, i)
+                    .convertShape(VectorOperators.S2I, INTS, 0);
+            IntVector minutes = logOut.sub(logIn);
+            IntVector rowWorked = minutes.sub(60);
+
+            // (minutes / 60 % 24) - 1 with Java's truncating division.
+            IntVector quotient = minutes.abs().mul(DIVIDE_BY_60_MULTIPLIER)
+                    .lanewise(VectorOperators.LSHR, DIVIDE_BY_60_SHIFT);
+            quotient = quotient.blend(quotient.neg(), minutes.compare(VectorOperators.LT, 0));
+            IntVector workingHours = quotient.sub(1);
+
+            VectorMask<Integer> isLate = logIn.compare(VectorOperators.GT, cutoff);
+            VectorMask<Integer> hasOvertime = workingHours.compare(VectorOperators.GT, 8).andNot(isLate);
+            IntVector rowOvertime = IntVector.zero(INTS).blend(workingHours.sub(8), hasOvertime);
+
+            rowWorked.intoArray(workedMinutes, offset + i);
+            rowOvertime.intoArray(overtimeHours, offset + i);
+            isLate.intoArray(late, offset + i);
+            worked = worked.add(rowWorked);
+            overtime = overtime.add(rowOvertime);
+            lateCount += isLate.trueCount();
+            if (++vectors == VECTORS_PER_FLUSH) {
+                totals[0] += worked.reduceLanesToLong(VectorOperators.ADD);
+                totals[1] += overtime.reduceLanesToLong(VectorOperators.ADD);
+                worked = IntVector.zero(INTS);
+                overtime = IntVector.zero(INTS);
+                vectors = 0;
+            }
+        }
+        totals[0] += worked.reduceLanesToLong(VectorOperators.ADD);
+        totals[1] += overtime.reduceLanesToLong(VectorOperators.ADD);
+        totals[2] += lateCount;
+        AttendanceMinutes.calculateScalar(logInMinutes, logOutMinutes, vectorLength, length, offset, workedMinutes,
+                overtimeHours, late, totals);
+    }
+}
@@ -0,0 +1,179 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.YearMonth;
+
+/**
+ * Running totals of one employee's attendance in one week of a month: the
+ * hours worked and the overtime pay earned.
+ * <p>
+ * The totals are all the weekly salary calculation needs, so they can be built
+ * up one attendance record at a time and the records themselves discarded.
+ *
+ * @see AttendanceAccumulator
+ * @see EmployeeDatabaseService#calculateWeeklyPayslips(Employee, java.util.Map)
+ */
+public final class WeeklyAttendanceTotals {
+    /**
+     * The most working hours a row can have: a shift just short of 24 hours less
+     * the lunch break.
+     */
+    private static final int MAXIMUM_WORKING_HOURS = 22;
+
+    /**
+     * The overtime pay of a day without overtime, with the scale the original
+     * calculation gives it.
+     */
+    private static final BigDecimal NO_OVERTIME_PAY = BigDecimal.valueOf(0.0);
+
+    private final YearMonth yearMonth;
+    private double hoursWorked;
+    private BigDecimal overtimePay = BigDecimal.ZERO;
+
+    /**
+     * Creates empty totals for a week of the given month.
+     *
+     * @param yearMonth the month the week belongs to
+     */
+    public WeeklyAttendanceTotals(YearMonth yearMonth) {
+        this.yearMonth = yearMonth;
+    }
+
+    /**
+     * Adds the working duration and overtime pay of an attendance record,
+     * looking up the hourly rate of its employee.
+     *
+     * @param attendanceRecord an attendance record of the week
+     * @throws java.util.NoSuchElementException if the record belongs to an unknown
+     *                                          employee
+     * @see #add(AttendanceRecord, BigDecimal)
+     */
+    public void add(AttendanceRecord attendanceRecord) {
+        add(attendanceRecord, EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(attendanceRecord.employeeId)
+                .get().hourlyRate);
+    }
+
+    /**
+     * Adds the working duration and overtime pay of an attendance record.
+     * <p>
+     * Log in and log out times in whole minutes, as read from the attendance
+     * file, are added through their minutes of the day like a store row; other
+     * times fall back to the {@link java.time.Duration} based calculation.
+     *
+     * @param attendanceRecord an attendance record of the week
+     * @param hourlyRate       the hourly rate of the record's employee
+     */
+    public void add(AttendanceRecord attendanceRecord, BigDecimal hourlyRate) {
+        if (isWholeMinute(attendanceRecord.logIn) && isWholeMinute(attendanceRecord.logOut)) {
+            add(AttendanceStore.toMinuteOfDay(attendanceRecord.logIn),
+                    AttendanceStore.toMinuteOfDay(attendanceRecord.logOut), hourlyRate);
+            return;
+        }
+        this.hoursWorked += EmployeeDatabaseService.calculateEmployeeWorkingDuration(attendanceRecord.logIn,
+                attendanceRecord.logOut);
+        this.overtimePay = this.overtimePay
+                .add(EmployeeDatabaseService.calculateEmployeeOvertimePay(attendanceRecord, hourlyRate));
+    }
+
+    /**
+     * Adds the working duration and overtime pay of a row of an attendance store,
+     * reading its columns directly.
+     *
+     * @param store      the attendance store
+     * @param row        a row of the week
+     * @param hourlyRate the hourly rate of the row's employee
+     */
+    public void add(AttendanceStore store, int row, BigDecimal hourlyRate) {
+        add(store.logInMinute(row), store.logOutMinute(row), hourlyRate);
+    }
+
+    /**
+     * Adds the working duration and overtime pay of all rows of the week in a
+     * single pass over the store columns.
+     * <p>
+     * Worked minutes, overtime eligibility and overtime hours are worked out per
+     * row from the minutes of the day with integer arithmetic only. The overtime
+     * pay is not added row by row: the rows are counted by their number of
+     * overtime hours, and each distinct number of hours is priced once with
+     * {@link EmployeeDatabaseService#calculateEmployeeOvertimePay(BigDecimal, int, int)}'s
+     * formula and multiplied by its count. The totals, including the scale of
+     * the overtime pay, are the same as adding the rows one at a time with
+     * {@link #add(AttendanceStore, int, BigDecimal)}.
+     *
+     * @param store      the attendance store
+     * @param rows       the rows of the week, in date order
+     * @param hourlyRate the hourly rate of the rows' employee
+     */
+    public void addAll(AttendanceStore store, int[] rows, BigDecimal hourlyRate) {
+        int[] rowsByOvertimeHours = new int[MAXIMUM_WORKING_HOURS + 1];
+        boolean withoutOvertime = false;
+        double hours = this.hoursWorked;
+        for (int row : rows) {
+            int logInMinute = store.logInMinute(row);
+            int logOutMinute = store.logOutMinute(row);
+            hours += (logOutMinute - logInMinute - 60) / 60.0;
+            int workingHours = (logOutMinute - logInMinute) / 60 % 24 - 1;
+            if (logInMinute <= EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE && workingHours > 8) {
+                rowsByOvertimeHours[workingHours - 8]++;
+            } else {
+                withoutOvertime = true;
+            }
+        }
+        this.hoursWorked = hours;
+
+        BigDecimal pay = this.overtimePay;
+        if (withoutOvertime) {
+            pay = pay.add(NO_OVERTIME_PAY);
+        }
+        for (int overtimeHours = 1; overtimeHours < rowsByOvertimeHours.length; overtimeHours++) {
+            int count = rowsByOvertimeHours[overtimeHours];
+            if (count > 0) {
+                BigDecimal dailyOvertimePay = EmployeeDatabaseService.calculateEmployeeOvertimePay(hourlyRate,
+                        EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE,
+                        EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE + (overtimeHours + 9) * 60);
+                pay = pay.add(count == 1 ? dailyOvertimePay : dailyOvertimePay.multiply(BigDecimal.valueOf(count)));
+            }
+        }
+        this.overtimePay = pay;
+    }
+
+    private void add(int logInMinute, int logOutMinute, BigDecimal hourlyRate) {
+        this.hoursWorked += EmployeeDatabaseService.calculateEmployeeWorkingDuration(logInMinute, logOutMinute);
+        this.overtimePay = this.overtimePay
+                .add(EmployeeDatabaseService.calculateEmployeeOvertimePay(hourlyRate, logInMinute, logOutMinute));
+    }
+
+    private static boolean isWholeMinute(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    /**
+     * @return the month the week belongs to
+     */
+    public YearMonth yearMonth() {
+        return this.yearMonth;
+    }
+
+    /**
+     * @return the month of the year the week belongs to
+     */
+    public Month month() {
+        return this.yearMonth.getMonth();
+    }
+
+    /**
+     * @return the hours worked in the week, excluding lunch breaks
+     */
+    public double hoursWorked() {
+        return this.hoursWorked;
+    }
+
+    /**
+     * @return the overtime pay earned in the week
+     */
+    public BigDecimal overtimePay() {
+        return this.overtimePay;
+    }
+}
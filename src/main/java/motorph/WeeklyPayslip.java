@@ -0,0 +1,47 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.Month;
+import java.time.YearMonth;
+
+/**
+ * The payroll result of one employee for one week of a month.
+ * <p>
+ * Deductions and de minimis benefits are applied once a month, in the
+ * deduction week. For the other weeks {@link #deductions()},
+ * {@link #deMinimisBenefits()} and {@link #netWeeklySalary()} are {@code null}.
+ *
+ * @param employeeId        the unique identifier of the employee
+ * @param yearMonth         the month the week belongs to
+ * @param weekNumber        the 1-based week of the month
+ * @param hoursWorked       the hours worked in the week, excluding lunch breaks
+ * @param grossWeeklySalary the basic pay plus overtime pay for the week
+ * @param deductions        the statutory deductions, or {@code null} if this is
+ *                          not the deduction week
+ * @param deMinimisBenefits the de minimis benefits added to the net salary, or
+ *                          {@code null} if this is not the deduction week
+ * @param netWeeklySalary   the gross salary less deductions plus de minimis
+ *                          benefits, or {@code null} if this is not the
+ *                          deduction week
+ * @see EmployeeDatabaseService#calculateEmployeeWeeklySalary(Employee, java.util.Map)
+ */
+public record WeeklyPayslip(int employeeId, YearMonth yearMonth, int weekNumber, double hoursWorked,
+        BigDecimal grossWeeklySalary, PayrollDeductions deductions, BigDecimal deMinimisBenefits,
+        BigDecimal netWeeklySalary) {
+
+    /**
+     * @return the month of the year the week belongs to
+     */
+    public Month month() {
+        return yearMonth.getMonth();
+    }
+
+    /**
+     * Checks whether the monthly deductions were applied in this week.
+     *
+     * @return true if this is the deduction week of the month
+     */
+    public boolean isDeductionWeek() {
+        return deductions != null;
+    }
+}
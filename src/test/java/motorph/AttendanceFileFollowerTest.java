@@ -0,0 +1,143 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AttendanceFileFollowerTest {
+    private static final String NEW_PUNCH = "\n10001,Garcia,Manuel III,12/31/2024,8:00,17:00";
+
+    @TempDir
+    Path directory;
+
+    Path attendanceFile;
+    Path checkpoint;
+    List<AttendanceRecord> followedRecords = new ArrayList<>();
+
+    @BeforeEach
+    public void copyAttendanceFile() throws IOException {
+        attendanceFile = Files.copy(Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE),
+                directory.resolve("attendance-record.csv"));
+        checkpoint = directory.resolve("attendance-record.csv.offset");
+    }
+
+    @Test
+    public void pollParsesOnlyAppendedLines() throws IOException {
+        AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, checkpoint,
+                followedRecords::addAll);
+        follower.poll();
+        // The file ends without a line break; its last line is read once the file stops growing.
+        follower.poll();
+        assertEquals(ChunkedAttendanceLoader.load(attendanceFile, 1).toString(), followedRecords.toString());
+        assertEquals(Files.size(attendanceFile), follower.getOffset());
+
+        Files.writeString(attendanceFile, NEW_PUNCH + "\n", StandardOpenOption.APPEND);
+        assertEquals(1, follower.poll());
+        assertEquals(0, follower.poll());
+        assertEquals(12, followedRecords.getLast().date.getMonthValue());
+    }
+
+    @Test
+    public void restartResumesFromTheCheckpoint() throws IOException {
+        AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, checkpoint,
+                followedRecords::addAll);
+        follower.poll();
+        follower.poll();
+        Files.writeString(attendanceFile, NEW_PUNCH + "\n", StandardOpenOption.APPEND);
+
+        List<AttendanceRecord> resumedRecords = new ArrayList<>();
+        AttendanceFileFollower resumed = new AttendanceFileFollower(attendanceFile, checkpoint,
+                resumedRecords::addAll);
+        assertEquals(follower.getOffset(), resumed.getOffset());
+        assertEquals(1, resumed.poll());
+        assertEquals(10001, resumedRecords.getFirst().employeeId);
+    }
+
+    @Test
+    public void replacedFileIsFollowedFromTheStart() throws IOException {
+        AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, checkpoint,
+                followedRecords::addAll);
+        follower.poll();
+        Files.writeString(attendanceFile, FastAttendanceParser.HEADER + NEW_PUNCH + "\n");
+        followedRecords.clear();
+
+        assertEquals(1, follower.poll());
+        assertEquals(1, followedRecords.size());
+    }
+
+    @Test
+    public void watcherDeliversAppendedPunches() throws IOException, InterruptedException {
+        long length = Files.size(attendanceFile);
+        CountDownLatch delivered = new CountDownLatch(1);
+        try (AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, length, records -> {
+            followedRecords.addAll(records);
+            delivered.countDown();
+        }, closed -> {
+        }).start()) {
+            Files.writeString(attendanceFile, NEW_PUNCH + "\n", StandardOpenOption.APPEND);
+
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, followedRecords.size());
+    }
+
+    @Test
+    public void watcherSurvivesAFailingConsumer() throws IOException, InterruptedException {
+        long length = Files.size(attendanceFile);
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        try (AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, length, records -> {
+            if (failed.getCount() > 0) {
+                failed.countDown();
+                throw new IllegalStateException("Database unavailable");
+            }
+            followedRecords.addAll(records);
+            delivered.countDown();
+        }, closed -> {
+        }).start()) {
+            Files.writeString(attendanceFile, NEW_PUNCH + "\n", StandardOpenOption.APPEND);
+            assertTrue(failed.await(10, TimeUnit.SECONDS));
+
+            // Read again by the next periodic poll.
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, followedRecords.size());
+    }
+
+    @Test
+    public void closeLetsARunningPollFinish() throws IOException, InterruptedException {
+        long length = Files.size(attendanceFile);
+        CountDownLatch delivering = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AttendanceFileFollower follower = new AttendanceFileFollower(attendanceFile, length, records -> {
+            delivering.countDown();
+            try {
+                // Long enough for close() to reach the watcher thread.
+                Thread.sleep(100);
+            } catch (InterruptedException interruptedException) {
+                interrupted.set(true);
+            }
+        }, closed -> {
+        }).start();
+        Files.writeString(attendanceFile, NEW_PUNCH + "\n", StandardOpenOption.APPEND);
+        assertTrue(delivering.await(10, TimeUnit.SECONDS));
+        follower.close();
+
+        assertFalse(interrupted.get());
+        assertEquals(Files.size(attendanceFile), follower.getOffset());
+    }
+}
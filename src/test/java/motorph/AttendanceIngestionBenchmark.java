@@ -0,0 +1,81 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many punches 16 concurrent producers can submit to an
+ * {@link AttendanceIngestor} with a single stripe, where every producer
+ * contends for the same stack head, against several stripes. The batches are
+ * published every {@value AttendanceIngestor#PUBLISH_INTERVAL_MILLIS} ms and
+ * dropped, so only ingestion is measured. The share of submissions that had
+ * to retry is printed after each trial.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AttendanceIngestionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class AttendanceIngestionBenchmark {
+    private static final AttendanceRecord[] PUNCHES = new AttendanceRecord[1024];
+
+    static {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < PUNCHES.length; i++) {
+            PUNCHES[i] = new AttendanceRecord(10001 + random.nextInt(34), "Manuel III", "Garcia",
+                    LocalDate.of(2024, 6, 3).plusDays(random.nextInt(180)), LocalTime.of(8, 0), LocalTime.of(17, 0));
+        }
+    }
+
+    @Param({ "1", "16", "64" })
+    public int stripes;
+
+    private final LongAdder publishedRecords = new LongAdder();
+    private AttendanceIngestor ingestor;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        int next = (int) Thread.currentThread().threadId();
+    }
+
+    @Setup(Level.Trial)
+    public void startIngestor() {
+        ingestor = new AttendanceIngestor(stripes, batch -> publishedRecords.add(batch.size())).start();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeIngestor() {
+        ingestor.close();
+        System.out.printf("%n%d of %d submissions contended, %d published%n", ingestor.getContendedSubmissions(),
+                ingestor.getSubmittedRecords(), publishedRecords.sum());
+    }
+
+    @Benchmark
+    public void submit(Producer producer) {
+        ingestor.submit(PUNCHES[producer.next++ & (PUNCHES.length - 1)]);
+    }
+}
@@ -0,0 +1,186 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class AttendanceIngestorTest {
+    private static final int PRODUCERS = 16;
+    private static final int RECORDS_PER_PRODUCER = 20_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 6, 3);
+
+    /**
+     * A punch of producer {@code producer}, whose sequence number is encoded in
+     * the date so the order of a producer's punches can be checked.
+     */
+    private static AttendanceRecord punch(int employeeId, int producer, int sequence) {
+        return new AttendanceRecord(employeeId, "Producer", Integer.toString(producer),
+                FIRST_DAY.plusDays(sequence), LocalTime.of(8, 0), LocalTime.of(17, 0));
+    }
+
+    private static void runProducers(AttendanceIngestor ingestor, int employees) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS)) {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int producer = 0; producer < PRODUCERS; producer++) {
+                int producerNumber = producer;
+                producers.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int sequence = 0; sequence < RECORDS_PER_PRODUCER; sequence++) {
+                        ingestor.submit(punch(10001 + sequence % employees, producerNumber, sequence));
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+        }
+    }
+
+    @Test
+    public void publishesEveryRecordOnceAndInSubmissionOrderPerEmployee() throws Exception {
+        List<List<AttendanceRecord>> batches = new ArrayList<>();
+        AttendanceIngestor ingestor = new AttendanceIngestor(8, batches::add).start();
+        runProducers(ingestor, 34);
+        ingestor.close();
+
+        long total = PRODUCERS * (long) RECORDS_PER_PRODUCER;
+        assertEquals(total, ingestor.getSubmittedRecords());
+        assertEquals(total, ingestor.getPublishedRecords());
+        assertEquals(total, batches.stream().mapToLong(List::size).sum());
+
+        Map<String, LocalDate> lastDates = new HashMap<>();
+        for (List<AttendanceRecord> batch : batches) {
+            for (AttendanceRecord attendanceRecord : batch) {
+                LocalDate previous = lastDates.put(attendanceRecord.employeeId + "/" + attendanceRecord.lastName,
+                        attendanceRecord.date);
+                assertTrue(previous == null || previous.isBefore(attendanceRecord.date),
+                        "Out of order: " + attendanceRecord);
+            }
+        }
+        assertEquals(34 * PRODUCERS, lastDates.size());
+    }
+
+    @Test
+    public void readersSeeWholeBatchesWhileProducersSubmit() throws Exception {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.attendanceRecords;
+        int loadedRecords = EmployeeDatabaseService.getAllAttendanceRecords().size();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        List<String> inconsistencies = new ArrayList<>();
+        try (AttendanceIngestor ingestor = EmployeeDatabaseService.ingestAttendanceRecords()) {
+            Thread reader = Thread.ofPlatform().start(() -> {
+                int previousSize = loadedRecords;
+                while (producing.get()) {
+                    AttendanceIndex index = EmployeeDatabaseService.getAttendanceIndex();
+                    List<AttendanceRecord> records = index.getStore().asList();
+                    int size = records.size();
+                    // Every batch holds a multiple of 34 punches, one per employee.
+                    if (size < previousSize || (size - loadedRecords) % 34 != 0
+                            || index.getRecords(10001).size() != records.stream()
+                                    .filter(attendanceRecord -> attendanceRecord.employeeId == 10001).count()) {
+                        inconsistencies.add("Inconsistent snapshot of " + size + " records");
+                    }
+                    previousSize = size;
+                }
+            });
+            List<AttendanceRecord> round = new ArrayList<>();
+            for (int sequence = 0; sequence < 200; sequence++) {
+                round.clear();
+                for (int employeeId = 10001; employeeId <= 10034; employeeId++) {
+                    round.add(punch(employeeId, 0, sequence));
+                }
+                // Publishes the round in one batch, as documented by AttendanceIngestor.
+                synchronized (ingestor) {
+                    ingestor.submitAll(round);
+                }
+            }
+            ingestor.close();
+            producing.set(false);
+            reader.join();
+            assertEquals(loadedRecords + 200 * 34, EmployeeDatabaseService.getAllAttendanceRecords().size());
+        } finally {
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+        assertEquals(List.of(), inconsistencies);
+    }
+
+    @Test
+    public void closeWakesThePublisherThreadWithoutInterruptingIt() throws Exception {
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch closing = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AttendanceIngestor ingestor = new AttendanceIngestor(1, batch -> {
+            if (publishing.getCount() > 0) {
+                publishing.countDown();
+                try {
+                    closing.await();
+                    // Long enough for close() to reach the thread.
+                    Thread.sleep(100);
+                } catch (InterruptedException interruptedException) {
+                    interrupted.set(true);
+                }
+            }
+        }).start();
+        ingestor.submit(punch(10001, 0, 0));
+        publishing.await();
+        ingestor.submit(punch(10001, 0, 1));
+        closing.countDown();
+        ingestor.close();
+
+        assertFalse(interrupted.get());
+        assertEquals(2, ingestor.getPublishedRecords());
+    }
+
+    @Test
+    public void retriesABatchThePublisherFailedOn() {
+        List<AttendanceRecord> published = new ArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AttendanceIngestor ingestor = new AttendanceIngestor(1, batch -> {
+            if (failing.get()) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            published.addAll(batch);
+        });
+        ingestor.submit(punch(10001, 0, 0));
+        assertThrows(IllegalStateException.class, ingestor::publish);
+        ingestor.submit(punch(10001, 0, 1));
+        assertThrows(IllegalStateException.class, ingestor::publish);
+        assertEquals(0, ingestor.getPublishedRecords());
+
+        failing.set(false);
+        ingestor.submit(punch(10001, 0, 2));
+        assertEquals(3, ingestor.publish());
+        assertEquals(List.of(punch(10001, 0, 0), punch(10001, 0, 1), punch(10001, 0, 2)).toString(),
+                published.toString());
+        assertEquals(0, ingestor.publish());
+    }
+
+    @Test
+    public void rejectsSubmissionsOnceClosed() {
+        List<AttendanceRecord> published = new ArrayList<>();
+        AttendanceIngestor ingestor = new AttendanceIngestor(3, published::addAll);
+        assertEquals(4, ingestor.getStripes());
+        ingestor.submit(punch(10001, 0, 0));
+        ingestor.close();
+        assertEquals(1, published.size());
+        assertThrows(IllegalStateException.class, () -> ingestor.submit(punch(10001, 0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new AttendanceIngestor(0, published::addAll));
+    }
+}
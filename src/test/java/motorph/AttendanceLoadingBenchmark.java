@@ -0,0 +1,60 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how loading a large attendance file with the memory-mapped
+ * {@link ChunkedAttendanceLoader} scales with the number of threads, on about
+ * four million punches of 27,000 employees written by {@link DatasetGenerator}.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AttendanceLoadingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class AttendanceLoadingBenchmark {
+    @Param({ "27000" })
+    public int employees;
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int threads;
+
+    private Path attendanceFile;
+
+    @Setup
+    public void writeAttendanceFile() throws IOException {
+        attendanceFile = Files.createTempFile("attendance-record", ".csv");
+        DatasetGenerator.ofBundledPeriod(employees).writeAttendanceRecords(attendanceFile);
+    }
+
+    @TearDown
+    public void deleteAttendanceFile() throws IOException {
+        Files.deleteIfExists(attendanceFile);
+    }
+
+    @Benchmark
+    public AttendanceStore mappedChunkedLoad() throws IOException {
+        return ChunkedAttendanceLoader.loadStore(attendanceFile, threads);
+    }
+}
@@ -0,0 +1,61 @@
+package motorph;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link AttendanceMinutes} calculation of a million attendance
+ * rows one at a time and with the Vector API. Log ins are spread around the
+ * 8:11 AM cutoff and log outs around 5 PM, so rows with and without overtime
+ * and late rows are mixed.
+ *
+ * <pre>
+ * mvn -Pvector,benchmark test-compile exec:exec -Dbenchmark=AttendanceMinutesBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceMinutesBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    @Param({ "false", "true" })
+    public boolean vectorized;
+
+    private short[] logInMinutes;
+    private short[] logOutMinutes;
+
+    @Setup
+    public void generateRows() {
+        if (vectorized && !AttendanceMinutes.isVectorApiAvailable()) {
+            throw new IllegalStateException("Run with -Pvector,benchmark");
+        }
+        Random random = new Random(25);
+        logInMinutes = new short[ROWS];
+        logOutMinutes = new short[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            logInMinutes[i] = (short) (7 * 60 + 30 + random.nextInt(90));
+            logOutMinutes[i] = (short) (16 * 60 + 30 + random.nextInt(180));
+        }
+    }
+
+    @Benchmark
+    public AttendanceMinutes calculate() {
+        return AttendanceMinutes.calculate(logInMinutes, logOutMinutes, ROWS, vectorized);
+    }
+}
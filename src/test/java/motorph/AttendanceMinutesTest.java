@@ -0,0 +1,105 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class AttendanceMinutesTest {
+
+    private static int[] workedMinutes(AttendanceMinutes minutes) {
+        int[] workedMinutes = new int[minutes.size()];
+        for (int i = 0; i < workedMinutes.length; i++) {
+            workedMinutes[i] = minutes.workedMinutes(i);
+        }
+        return workedMinutes;
+    }
+
+    private static int[] overtimeHours(AttendanceMinutes minutes) {
+        int[] overtimeHours = new int[minutes.size()];
+        for (int i = 0; i < overtimeHours.length; i++) {
+            overtimeHours[i] = minutes.overtimeHours(i);
+        }
+        return overtimeHours;
+    }
+
+    private static boolean[] late(AttendanceMinutes minutes) {
+        boolean[] late = new boolean[minutes.size()];
+        for (int i = 0; i < late.length; i++) {
+            late[i] = minutes.isLate(i);
+        }
+        return late;
+    }
+
+    @Test
+    public void matchesTheWorkingHoursAndOvertimeOfEachRecord() {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        AttendanceMinutes minutes = EmployeeDatabaseService.calculateAttendanceMinutes();
+
+        assertEquals(attendanceRecords.size(), minutes.size());
+        BigDecimal hourlyRate = BigDecimal.ONE;
+        long totalWorkedMinutes = 0;
+        for (int i = 0; i < attendanceRecords.size(); i++) {
+            AttendanceRecord attendanceRecord = attendanceRecords.get(i);
+            int logInMinute = attendanceRecord.logIn.getHour() * 60 + attendanceRecord.logIn.getMinute();
+            int logOutMinute = attendanceRecord.logOut.getHour() * 60 + attendanceRecord.logOut.getMinute();
+            assertEquals(EmployeeDatabaseService.calculateEmployeeWorkingDuration(logInMinute, logOutMinute),
+                    minutes.workedMinutes(i) / 60.0);
+            assertEquals(0, EmployeeDatabaseService.calculateEmployeeOvertimePay(hourlyRate, logInMinute, logOutMinute)
+                    .compareTo(BigDecimal.valueOf(minutes.overtimeHours(i) * 1.25)));
+            assertEquals(logInMinute > EmployeeDatabaseService.OVERTIME_CUTOFF_MINUTE, minutes.isLate(i));
+            totalWorkedMinutes += minutes.workedMinutes(i);
+        }
+        assertEquals(totalWorkedMinutes, minutes.totalWorkedMinutes());
+    }
+
+    @Test
+    public void calculatesTheRecordsOfOneEmployeeInThePayrollMonths() {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAttendanceRecords(10001,
+                EmployeeDatabaseService.firstPayrollMonth.atDay(1),
+                EmployeeDatabaseService.lastPayrollMonth.atEndOfMonth());
+        AttendanceMinutes minutes = EmployeeDatabaseService.calculateAttendanceMinutes(10001);
+
+        assertEquals(attendanceRecords.size(), minutes.size());
+        for (int i = 0; i < attendanceRecords.size(); i++) {
+            AttendanceRecord attendanceRecord = attendanceRecords.get(i);
+            int logInMinute = attendanceRecord.logIn.getHour() * 60 + attendanceRecord.logIn.getMinute();
+            int logOutMinute = attendanceRecord.logOut.getHour() * 60 + attendanceRecord.logOut.getMinute();
+            assertEquals(logOutMinute - logInMinute - 60, minutes.workedMinutes(i));
+        }
+    }
+
+    @Test
+    public void vectorizedCalculationMatchesTheScalarOne() {
+        assumeTrue(AttendanceMinutes.isVectorApiAvailable());
+        // Every log in and log out minute pair, so every quotient by 60 and
+        // both signs, with a length that leaves a tail for the scalar loop.
+        int length = 1440 * 1440 + 7;
+        short[] logInMinutes = new short[length];
+        short[] logOutMinutes = new short[length];
+        for (int i = 0; i < 1440 * 1440; i++) {
+            logInMinutes[i] = (short) (i / 1440);
+            logOutMinutes[i] = (short) (i % 1440);
+        }
+        Random random = new Random(25);
+        for (int i = 1440 * 1440; i < length; i++) {
+            logInMinutes[i] = (short) random.nextInt(1440);
+            logOutMinutes[i] = (short) random.nextInt(1440);
+        }
+
+        AttendanceMinutes scalar = AttendanceMinutes.calculate(logInMinutes, logOutMinutes, length, false);
+        AttendanceMinutes vectorized = AttendanceMinutes.calculate(logInMinutes, logOutMinutes, length, true);
+
+        assertArrayEquals(workedMinutes(scalar), workedMinutes(vectorized));
+        assertArrayEquals(overtimeHours(scalar), overtimeHours(vectorized));
+        assertArrayEquals(late(scalar), late(vectorized));
+        assertEquals(scalar.totalWorkedMinutes(), vectorized.totalWorkedMinutes());
+        assertEquals(scalar.totalOvertimeHours(), vectorized.totalOvertimeHours());
+        assertEquals(scalar.lateRows(), vectorized.lateRows());
+    }
+}
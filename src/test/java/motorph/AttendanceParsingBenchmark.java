@@ -0,0 +1,81 @@
+package motorph;
+
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+/**
+ * Compares parsing a multi-million-row attendance file written by
+ * {@link DatasetGenerator} with OpenCSV bean binding against the
+ * {@link FastAttendanceParser}. 7,000 employees punch about a million times
+ * over the bundled period and 27,000 about four million times.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AttendanceParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AttendanceParsingBenchmark {
+    @Param({ "7000", "27000" })
+    public int employees;
+
+    private Path attendanceFile;
+
+    @Setup
+    public void writeAttendanceFile() throws IOException {
+        attendanceFile = Files.createTempFile("attendance-record", ".csv");
+        DatasetGenerator.ofBundledPeriod(employees).writeAttendanceRecords(attendanceFile);
+    }
+
+    @TearDown
+    public void deleteAttendanceFile() throws IOException {
+        Files.deleteIfExists(attendanceFile);
+    }
+
+    @Benchmark
+    public void openCsv(Blackhole blackhole) throws IOException {
+        try (Reader reader = new FileReader(attendanceFile.toFile())) {
+            Iterator<AttendanceRecord> records = new CsvToBeanBuilder<AttendanceRecord>(reader)
+                    .withType(AttendanceRecord.class)
+                    .build()
+                    .iterator();
+            while (records.hasNext()) {
+                blackhole.consume(records.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void fastParser(Blackhole blackhole) throws IOException {
+        try (InputStream in = new FileInputStream(attendanceFile.toFile())) {
+            new FastAttendanceParser().parse(in, blackhole::consume);
+        }
+    }
+}
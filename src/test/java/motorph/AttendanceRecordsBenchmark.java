@@ -0,0 +1,96 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Month;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the attendance CSV file with
+ * {@link EmployeeDatabaseService#getAllAttendanceRecords()} and reading an
+ * employee's weeks with
+ * {@link EmployeeDatabaseService#getAttendanceRecordsByWeek(int, Month)}, on
+ * punches of June to December 2024 written by {@link DatasetGenerator}. At
+ * 100,000 employees the file holds about 15 million punches; 1,000,000
+ * employees can be run with {@code -p employees=1000000} given some 7 GB of
+ * disk and a larger heap.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AttendanceRecordsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class AttendanceRecordsBenchmark {
+    @Param({ "10000", "100000" })
+    public int employees;
+
+    @Param({ "false", "true" })
+    public boolean fastAttendanceParsing;
+
+    private Path attendanceRecordsFile;
+    private int[] lookupIds;
+    private Month[] lookupMonths;
+    private int nextLookup;
+
+    @Setup
+    public void writeAttendanceRecordsFile() throws IOException {
+        attendanceRecordsFile = Files.createTempFile("attendance-record", ".csv");
+        DatasetGenerator.ofBundledPeriod(employees).writeAttendanceRecords(attendanceRecordsFile);
+        EmployeeDatabaseService.attendanceRecordsFile = attendanceRecordsFile;
+        EmployeeDatabaseService.fastAttendanceParsing = fastAttendanceParsing;
+        EmployeeDatabaseService.snapshotCaching = false;
+        EmployeeDatabaseService.attendanceRecords = null;
+        EmployeeDatabaseService.getAllAttendanceRecords();
+
+        SplittableRandom random = new SplittableRandom(employees);
+        lookupIds = new int[1024];
+        lookupMonths = new Month[lookupIds.length];
+        for (int i = 0; i < lookupIds.length; i++) {
+            lookupIds[i] = 10001 + random.nextInt(employees);
+            lookupMonths[i] = Month.of(random.nextInt(6, 13));
+        }
+    }
+
+    @TearDown
+    public void deleteAttendanceRecordsFile() throws IOException {
+        EmployeeDatabaseService.attendanceRecordsFile = Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE);
+        EmployeeDatabaseService.attendanceRecords = null;
+        Files.deleteIfExists(attendanceRecordsFile);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<AttendanceRecord> loadAttendanceRecords() {
+        EmployeeDatabaseService.attendanceRecords = null;
+        return EmployeeDatabaseService.getAllAttendanceRecords();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Map<Integer, List<AttendanceRecord>> getAttendanceRecordsByWeek() {
+        int lookup = nextLookup++ & (lookupIds.length - 1);
+        return EmployeeDatabaseService.getAttendanceRecordsByWeek(lookupIds[lookup], lookupMonths[lookup]);
+    }
+}
@@ -0,0 +1,143 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+public class AttendanceStoreTest {
+
+    @Test
+    public void storeHandsBackTheRecordsItWasBuiltFrom() throws IOException {
+        List<AttendanceRecord> expectedRecords = new CsvToBeanBuilder<AttendanceRecord>(
+                new FileReader(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE))
+                .withType(AttendanceRecord.class)
+                .build()
+                .parse();
+        AttendanceStore store = AttendanceStore.of(expectedRecords);
+
+        assertEquals(expectedRecords.size(), store.size());
+        assertEquals(expectedRecords.toString(), store.asList().toString());
+        for (int row = 0; row < store.size(); row++) {
+            AttendanceRecord expectedRecord = expectedRecords.get(row);
+            assertEquals(expectedRecord.employeeId, store.employeeId(row));
+            assertEquals(expectedRecord.date.toEpochDay(), store.epochDay(row));
+            assertEquals(AttendanceStore.toMinuteOfDay(expectedRecord.logIn), store.logInMinute(row));
+            assertEquals(AttendanceStore.toMinuteOfDay(expectedRecord.logOut), store.logOutMinute(row));
+        }
+    }
+
+    @Test
+    public void builderConcatenatesStoresAndKeepsNamesOncePerEmployee() {
+        AttendanceStore first = AttendanceStore.of(List.of(
+                record(10001, "Manuel III", "Garcia", "08:59", "18:31")));
+        AttendanceStore second = AttendanceStore.of(List.of(
+                record(10002, "Antonio", "Lim", "10:35", "19:44"),
+                record(10001, "Manny", "Garcia", "07:30", "17:00")));
+        AttendanceStore.Builder builder = new AttendanceStore.Builder(1);
+        builder.addAll(first);
+        builder.addAll(second);
+        AttendanceStore store = builder.build();
+
+        assertEquals(3, store.size());
+        assertEquals(List.of(10001, 10002, 10001),
+                store.asList().stream().map(record -> record.employeeId).toList());
+        assertEquals("Manuel III", store.get(2).firstName);
+        assertEquals(List.of(store.get(2), store.get(0)).toString(), store.asList(new int[] { 2, 0 }).toString());
+        assertThrows(UnsupportedOperationException.class, () -> store.asList().remove(0));
+    }
+
+    @Test
+    public void appendingSharesFullChunksAndMatchesABuiltStore() {
+        List<AttendanceRecord> attendanceRecords = new ArrayList<>();
+        for (int i = 0; i < AttendanceStore.CHUNK_SIZE * 2 + 100; i++) {
+            attendanceRecords.add(new AttendanceRecord(10001 + i % 7, "First" + i % 7, "Last",
+                    LocalDate.of(2024, 6, 1).plusDays(i / 7), LocalTime.of(8, i % 60), LocalTime.of(17, i % 60)));
+        }
+        AttendanceStore store = AttendanceStore.of(attendanceRecords.subList(0, 10));
+        int from = 10;
+        for (int batch : new int[] { 1, AttendanceStore.CHUNK_SIZE - 11, 1, AttendanceStore.CHUNK_SIZE + 50 }) {
+            AttendanceStore previous = store;
+            store = store.append(attendanceRecords.subList(from, from + batch));
+            from += batch;
+
+            assertEquals(from - batch, previous.size());
+            assertEquals(attendanceRecords.subList(0, from - batch).toString(), previous.asList().toString());
+        }
+        store = store.append(attendanceRecords.subList(from, attendanceRecords.size()));
+
+        assertEquals(attendanceRecords.toString(), store.asList().toString());
+        assertEquals(3, store.chunkCount());
+        assertEquals(100, store.chunkLength(2));
+    }
+
+    @Test
+    public void appendedIndexMatchesARebuiltIndex() {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        int split = attendanceRecords.size() / 2;
+        List<AttendanceRecord> newRecords = new ArrayList<>(attendanceRecords.subList(split, attendanceRecords.size()));
+        // A late punch dated before the employee's last record.
+        newRecords.add(new AttendanceRecord(10001, "Manuel III", "Garcia", LocalDate.of(2024, 6, 3),
+                LocalTime.of(7, 0), LocalTime.of(16, 0)));
+        AttendanceIndex index = new AttendanceIndex(AttendanceStore.of(attendanceRecords.subList(0, split)));
+        AttendanceStore appended = index.getStore().append(newRecords);
+        AttendanceIndex appendedIndex = index.append(appended);
+        AttendanceIndex rebuiltIndex = new AttendanceIndex(appended);
+
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            assertArrayEquals(rebuiltIndex.getRows(employee.employeeId), appendedIndex.getRows(employee.employeeId));
+            assertEquals(rebuiltIndex.getRecordsByMonth(employee.employeeId).toString(),
+                    appendedIndex.getRecordsByMonth(employee.employeeId).toString());
+            for (Month month : Month.values()) {
+                assertEquals(rebuiltIndex.getRecordsByWeek(employee.employeeId, month).toString(),
+                        appendedIndex.getRecordsByWeek(employee.employeeId, month).toString());
+            }
+        }
+        assertEquals(split, index.getStore().size());
+    }
+
+    @Test
+    public void storeDropsSecondsOfLogTimes() {
+        AttendanceRecord record = record(10001, "Manuel III", "Garcia", "08:59", "18:31");
+        record.logIn = LocalTime.of(8, 59, 45);
+
+        assertEquals(LocalTime.of(8, 59), AttendanceStore.of(List.of(record)).get(0).logIn);
+    }
+
+    @Test
+    public void minuteCalculationsMatchLocalTimeCalculations() {
+        BigDecimal hourlyRate = new BigDecimal("535.71");
+        for (int logInMinute = 0; logInMinute < 24 * 60; logInMinute += 7) {
+            for (int logOutMinute = 0; logOutMinute < 24 * 60; logOutMinute += 5) {
+                AttendanceRecord record = new AttendanceRecord(10001, "Manuel III", "Garcia",
+                        LocalDate.of(2024, 6, 3), LocalTime.of(logInMinute / 60, logInMinute % 60),
+                        LocalTime.of(logOutMinute / 60, logOutMinute % 60));
+
+                assertEquals(EmployeeDatabaseService.calculateEmployeeWorkingHours(record.logIn, record.logOut),
+                        EmployeeDatabaseService.calculateEmployeeWorkingHours(logInMinute, logOutMinute));
+                assertEquals(EmployeeDatabaseService.calculateEmployeeWorkingDuration(record.logIn, record.logOut),
+                        EmployeeDatabaseService.calculateEmployeeWorkingDuration(logInMinute, logOutMinute));
+                assertEquals(EmployeeDatabaseService.calculateEmployeeOvertimePay(record),
+                        EmployeeDatabaseService.calculateEmployeeOvertimePay(hourlyRate, logInMinute, logOutMinute));
+            }
+        }
+    }
+
+    private static AttendanceRecord record(int employeeId, String firstName, String lastName, String logIn,
+            String logOut) {
+        return new AttendanceRecord(employeeId, firstName, lastName, LocalDate.of(2024, 6, 3),
+                LocalTime.parse(logIn), LocalTime.parse(logOut));
+    }
+}
@@ -0,0 +1,122 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CentavoPayrollEngineTest {
+
+    @Test
+    public void centavoPayslipsMatchBigDecimalPayslipsRoundedToCentavos() {
+        List<PayrollResult> bigDecimalResults = calculateAllPayrolls(false);
+        List<PayrollResult> centavoResults = calculateAllPayrolls(true);
+
+        assertEquals(bigDecimalResults.size(), centavoResults.size());
+        for (int i = 0; i < bigDecimalResults.size(); i++) {
+            List<WeeklyPayslip> expectedPayslips = bigDecimalResults.get(i).weeklyPayslips();
+            List<WeeklyPayslip> payslips = centavoResults.get(i).weeklyPayslips();
+            assertSame(bigDecimalResults.get(i).employee(), centavoResults.get(i).employee());
+            assertEquals(expectedPayslips.size(), payslips.size());
+            for (int week = 0; week < payslips.size(); week++) {
+                assertSamePayslip(expectedPayslips.get(week), payslips.get(week));
+            }
+        }
+    }
+
+    @Test
+    public void deductionsMatchSalaryDeductionServiceRoundedToCentavos() {
+        for (long pesos = 0; pesos <= 1_000_000; pesos += pesos < 100_000 ? 7 : 997) {
+            for (BigDecimal salary : List.of(BigDecimal.valueOf(pesos), BigDecimal.valueOf(pesos * 100 + 37, 2))) {
+                long salaryCentavos = Centavos.fromPesos(salary);
+                assertEquals(centavos(SalaryDeductionService.calculateWithholdingTax(salary)),
+                        Centavos.round(CentavoPayrollEngine.withholdingTax(salaryCentavos)), salary::toPlainString);
+                assertEquals(centavos(SalaryDeductionService.calculatePhilhealthContribution(salary)),
+                        Centavos.round(CentavoPayrollEngine.philhealthContribution(salaryCentavos)));
+                assertEquals(centavos(SalaryDeductionService.calculatePagIbigContribution(salary)),
+                        Centavos.round(CentavoPayrollEngine.pagIbigContribution(salaryCentavos)));
+                assertEquals(centavos(SalaryDeductionService.calculateSocialSecuritySystemContribution(salary)),
+                        Centavos.round(CentavoPayrollEngine.socialSecuritySystemContribution(salaryCentavos)));
+            }
+        }
+    }
+
+    @Test
+    public void roundRoundsHalfAwayFromZero() {
+        long half = Centavos.FRACTIONS_PER_CENTAVO / 2;
+        assertEquals(1, Centavos.round(half));
+        assertEquals(0, Centavos.round(half - 1));
+        assertEquals(-1, Centavos.round(-half));
+        assertEquals(0, Centavos.round(-half + 1));
+        assertEquals(12, Centavos.round(12 * Centavos.FRACTIONS_PER_CENTAVO));
+        assertEquals(123457, Centavos.fromPesos(new BigDecimal("1234.565")));
+        assertEquals(new BigDecimal("1234.57"), Centavos.toPesos(123457));
+    }
+
+    private static List<PayrollResult> calculateAllPayrolls(boolean centavoArithmetic) {
+        boolean previous = EmployeeDatabaseService.centavoArithmetic;
+        EmployeeDatabaseService.centavoArithmetic = centavoArithmetic;
+        try {
+            List<PayrollResult> payrollResults = new ArrayList<>();
+            for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+                payrollResults.add(EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId));
+            }
+            return payrollResults;
+        } finally {
+            EmployeeDatabaseService.centavoArithmetic = previous;
+        }
+    }
+
+    private static void assertSamePayslip(WeeklyPayslip expected, WeeklyPayslip actual) {
+        assertEquals(expected.employeeId(), actual.employeeId());
+        assertEquals(expected.month(), actual.month());
+        assertEquals(expected.weekNumber(), actual.weekNumber());
+        assertEquals(expected.hoursWorked(), actual.hoursWorked(), 1e-9);
+        assertRoundedFromExactHours(expected.grossWeeklySalary(), actual.grossWeeklySalary());
+        assertEquals(expected.isDeductionWeek(), actual.isDeductionWeek());
+        if (!expected.isDeductionWeek()) {
+            assertNull(actual.deductions());
+            return;
+        }
+        PayrollDeductions expectedDeductions = expected.deductions();
+        PayrollDeductions deductions = actual.deductions();
+        assertEquals(rounded(expectedDeductions.socialSecuritySystemContribution()),
+                deductions.socialSecuritySystemContribution());
+        assertEquals(rounded(expectedDeductions.withholdingTax()), deductions.withholdingTax());
+        assertEquals(rounded(expectedDeductions.philhealthContribution()), deductions.philhealthContribution());
+        assertEquals(rounded(expectedDeductions.pagIbigContribution()), deductions.pagIbigContribution());
+        assertEquals(rounded(expected.deMinimisBenefits()), actual.deMinimisBenefits());
+        assertRoundedFromExactHours(expected.netWeeklySalary(), actual.netWeeklySalary());
+    }
+
+    /**
+     * The original salaries are calculated from sums of {@code double} hours,
+     * which carry a tiny error. That error only matters where the exact salary is
+     * half a centavo, where it can tip the rounding either way; the centavo engine
+     * then rounds the exact value.
+     */
+    private static void assertRoundedFromExactHours(BigDecimal expected, BigDecimal actual) {
+        if (rounded(expected).equals(actual)) {
+            return;
+        }
+        BigDecimal halfCentavo = new BigDecimal("0.005");
+        BigDecimal distanceFromHalfCentavo = expected.subtract(actual.subtract(halfCentavo)).abs()
+                .min(expected.subtract(actual.add(halfCentavo)).abs());
+        assertEquals(-1, distanceFromHalfCentavo.compareTo(new BigDecimal("1E-8")),
+                () -> expected + " does not round to " + actual);
+    }
+
+    private static BigDecimal rounded(BigDecimal pesos) {
+        return pesos.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static long centavos(BigDecimal pesos) {
+        return rounded(pesos).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,61 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+public class ChunkedAttendanceLoaderTest {
+    static List<AttendanceRecord> expectedRecords;
+
+    @BeforeAll
+    public static void parseAttendanceRecordsWithOpenCsv() throws IOException {
+        expectedRecords = new CsvToBeanBuilder<AttendanceRecord>(
+                new FileReader(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE))
+                .withType(AttendanceRecord.class)
+                .build()
+                .parse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 8, 64, 1000 })
+    public void loadMatchesOpenCsvForAnyNumberOfThreads(int threads) throws IOException {
+        List<AttendanceRecord> records = ChunkedAttendanceLoader
+                .load(Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE), threads);
+
+        assertEquals(expectedRecords.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            FastAttendanceParserTest.assertSameRecord(expectedRecords.get(i), records.get(i));
+        }
+    }
+
+    @Test
+    public void loadHandlesFilesWithoutData(@TempDir Path directory) throws IOException {
+        Path emptyFile = Files.writeString(directory.resolve("empty.csv"), "");
+        Path headerOnlyFile = Files.writeString(directory.resolve("header.csv"), FastAttendanceParser.HEADER);
+
+        assertTrue(ChunkedAttendanceLoader.load(emptyFile, 4).isEmpty());
+        assertTrue(ChunkedAttendanceLoader.load(headerOnlyFile, 4).isEmpty());
+    }
+
+    @Test
+    public void loadRejectsMalformedLines(@TempDir Path directory) throws IOException {
+        Path malformedFile = Files.writeString(directory.resolve("malformed.csv"),
+                FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,06/03/2024,8:59\n");
+
+        assertThrows(IllegalArgumentException.class, () -> ChunkedAttendanceLoader.load(malformedFile, 2));
+    }
+}
@@ -0,0 +1,90 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DatasetGeneratorTest {
+
+    @Test
+    public void sameSeedGivesIdenticalFiles(@TempDir Path directory) throws IOException {
+        LocalDate firstDay = LocalDate.of(2024, 6, 1);
+        LocalDate lastDay = LocalDate.of(2024, 6, 30);
+        new DatasetGenerator(7, 50, firstDay, lastDay).write(directory.resolve("a"));
+        new DatasetGenerator(7, 50, firstDay, lastDay).write(directory.resolve("b"));
+        new DatasetGenerator(8, 50, firstDay, lastDay).write(directory.resolve("c"));
+
+        for (String file : List.of("employee-details.csv", "attendance-record.csv")) {
+            byte[] a = Files.readAllBytes(directory.resolve("a").resolve(file));
+            assertArrayEquals(a, Files.readAllBytes(directory.resolve("b").resolve(file)));
+            assertFalse(Arrays.equals(a, Files.readAllBytes(directory.resolve("c").resolve(file))));
+        }
+    }
+
+    @Test
+    public void generatedFilesLoadWithTheBundledSchemas(@TempDir Path directory) throws IOException {
+        new DatasetGenerator(1, 250, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31)).write(directory);
+
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try {
+            EmployeeDatabaseService.employeeDetailsFile = directory.resolve("employee-details.csv");
+            EmployeeDatabaseService.attendanceRecordsFile = directory.resolve("attendance-record.csv");
+            EmployeeDatabaseService.employees = null;
+            EmployeeDatabaseService.attendanceRecords = null;
+
+            List<Employee> generatedEmployees = EmployeeDatabaseService.getAllEmployeeDetails();
+            assertEquals(250, generatedEmployees.size());
+            for (Employee employee : generatedEmployees) {
+                assertEquals(employee.basicSalary.divide(BigDecimal.valueOf(168), 2, RoundingMode.HALF_UP),
+                        employee.hourlyRate);
+                assertTrue(employee.basicSalary.compareTo(BigDecimal.valueOf(22_500)) >= 0);
+            }
+
+            List<AttendanceRecord> generatedRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+            int lateRecords = 0;
+            int overtimeRecords = 0;
+            for (AttendanceRecord attendanceRecord : generatedRecords) {
+                DayOfWeek dayOfWeek = attendanceRecord.date.getDayOfWeek();
+                assertTrue(dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY);
+                assertTrue(attendanceRecord.logOut.isAfter(attendanceRecord.logIn));
+                lateRecords += attendanceRecord.logIn.isAfter(LocalTime.of(8, 11)) ? 1 : 0;
+                overtimeRecords += attendanceRecord.hasOvertimeHours() ? 1 : 0;
+            }
+            // 153 weekdays less about 3% absences.
+            assertEquals(250 * 153 * 0.97, generatedRecords.size(), 250 * 153 * 0.01);
+            assertEquals(0.2, (double) lateRecords / generatedRecords.size(), 0.1);
+            assertEquals(0.15, (double) overtimeRecords / generatedRecords.size(), 0.1);
+
+            PayrollResult payrollResult = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10250);
+            assertEquals(7, payrollResult.weeklyPayslips().stream().filter(WeeklyPayslip::isDeductionWeek).count());
+        } finally {
+            EmployeeDatabaseService.employeeDetailsFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+            EmployeeDatabaseService.attendanceRecordsFile = Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE);
+            EmployeeDatabaseService.employees = employees;
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+    }
+
+    @Test
+    public void rejectsAnEmptyDateRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DatasetGenerator(1, 10, LocalDate.of(2024, 6, 2), LocalDate.of(2024, 6, 1)));
+    }
+}
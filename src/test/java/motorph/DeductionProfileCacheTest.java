@@ -0,0 +1,69 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DeductionProfileCacheTest {
+
+    @Test
+    public void payrollRunReadsProfilesCalculatedAtLoad() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10028).get();
+        DeductionProfileCache cache = EmployeeDatabaseService.getDeductionProfileCache();
+        EmployeeDatabaseService.PAYSLIP_CACHE.clear();
+        long hits = cache.hits();
+        long misses = cache.misses();
+
+        PayrollResult payrollResult = EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId);
+
+        long deductionWeeks = payrollResult.weeklyPayslips().stream().filter(WeeklyPayslip::isDeductionWeek).count();
+        assertEquals(hits + deductionWeeks, cache.hits());
+        assertEquals(misses, cache.misses());
+        for (WeeklyPayslip payslip : payrollResult.weeklyPayslips()) {
+            if (payslip.isDeductionWeek()) {
+                assertEquals(PayrollDeductions.of(employee.basicSalary), payslip.deductions());
+            }
+        }
+    }
+
+    @Test
+    public void profileIsRecalculatedWhenTheSalaryChanges() {
+        Employee employee = new Employee();
+        employee.employeeId = 1;
+        employee.basicSalary = new BigDecimal("22500");
+        DeductionProfileCache cache = new DeductionProfileCache(List.of(employee));
+
+        DeductionProfile profile = cache.get(employee);
+        assertSame(profile, cache.get(employee));
+        assertEquals(2, cache.hits());
+        assertEquals(0, cache.misses());
+
+        employee.basicSalary = new BigDecimal("90000");
+        DeductionProfile raisedProfile = cache.get(employee);
+        assertEquals(PayrollDeductions.of(employee.basicSalary), raisedProfile.deductions());
+        assertSame(raisedProfile, cache.get(employee));
+        assertEquals(1, cache.misses());
+
+        cache.invalidate(employee.employeeId);
+        cache.get(employee);
+        assertEquals(2, cache.misses());
+        assertEquals(3, cache.hits());
+    }
+
+    @Test
+    public void centavoDeductionsAreRoundedExactDeductions() {
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            DeductionProfile profile = DeductionProfile.of(employee.basicSalary);
+            PayrollDeductions exact = profile.deductions();
+            PayrollDeductions rounded = profile.centavoDeductions();
+            assertEquals(0, exact.total().compareTo(BigDecimal.valueOf(profile.totalFractions())
+                    .divide(BigDecimal.valueOf(Centavos.FRACTIONS_PER_CENTAVO * Centavos.PER_PESO))));
+            assertEquals(exact.withholdingTax().setScale(2, RoundingMode.HALF_UP), rounded.withholdingTax());
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package motorph;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.temporal.WeekFields;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class EmployeeDatabaseServiceTest {
     static Employee lizethVillegas;
@@ -26,6 +39,36 @@ public class EmployeeDatabaseServiceTest {
                 .getAttendanceRecordsByEmployeeId(lizethVillegas.employeeId);
     }
 
+    @Test
+    public void getEmployeeDetailsByEmployeeId() {
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            assertSame(employee, EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(employee.employeeId).get());
+        }
+        assertTrue(EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10000).isEmpty());
+        assertTrue(EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10035).isEmpty());
+    }
+
+    @Test
+    public void getAttendanceRecordsByWeek() {
+        WeekFields weekFields = WeekFields.of(Locale.US);
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            List<AttendanceRecord> employeeRecords = EmployeeDatabaseService.getAllAttendanceRecords().stream()
+                    .filter(record -> record.employeeId == employee.employeeId)
+                    .collect(Collectors.toList());
+            assertEquals(employeeRecords.toString(),
+                    EmployeeDatabaseService.getAttendanceRecordsByEmployeeId(employee.employeeId).toString());
+
+            for (Month month : Month.values()) {
+                Map<Integer, List<AttendanceRecord>> expectedWeeks = employeeRecords.stream()
+                        .filter(record -> record.getMonth() == month)
+                        .collect(Collectors.groupingBy(record -> record.date.get(weekFields.weekOfMonth()),
+                                TreeMap::new, Collectors.toList()));
+                assertEquals(expectedWeeks.toString(),
+                        EmployeeDatabaseService.getAttendanceRecordsByWeek(employee.employeeId, month).toString());
+            }
+        }
+    }
+
     @Test
     public void calculateEmployeeWorkingHours() {
         int lizethVillegasWorkingHoursOnJun3 = 7;
@@ -83,4 +126,54 @@ public class EmployeeDatabaseServiceTest {
 
         assertEquals(overtimePay, result);
     }
+
+    @Test
+    public void calculateEmployeeWeeklySalary() {
+        PayrollResult payrollResult = EmployeeDatabaseService.calculateEmployeeWeeklySalary(lizethVillegas.employeeId);
+        List<WeeklyPayslip> deductionWeeks = payrollResult.weeklyPayslips().stream()
+                .filter(WeeklyPayslip::isDeductionWeek)
+                .collect(Collectors.toList());
+
+        assertSame(lizethVillegas, payrollResult.employee());
+        assertEquals(7, deductionWeeks.size());
+        for (WeeklyPayslip payslip : deductionWeeks) {
+            BigDecimal expectedNetWeeklySalary = payslip.grossWeeklySalary()
+                    .subtract(payslip.deductions().total())
+                    .add(payslip.deMinimisBenefits());
+            assertEquals(0, expectedNetWeeklySalary.compareTo(payslip.netWeeklySalary()));
+        }
+    }
+
+    @Test
+    public void loadsTheConfiguredDataFiles(@TempDir Path directory) throws IOException {
+        DatasetGenerator.ofBundledPeriod(68).write(directory);
+        Path employeeDetailsFile = directory.resolve(DatasetGenerator.EMPLOYEE_DETAILS_FILE_NAME);
+        Path attendanceRecordsFile = directory.resolve(DatasetGenerator.ATTENDANCE_RECORDS_FILE_NAME);
+
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try {
+            EmployeeDatabaseService.employeeDetailsFile = employeeDetailsFile;
+            EmployeeDatabaseService.attendanceRecordsFile = attendanceRecordsFile;
+            EmployeeDatabaseService.employees = null;
+            EmployeeDatabaseService.attendanceRecords = null;
+
+            assertEquals(68, EmployeeDatabaseService.getAllEmployeeDetails().size());
+            // Every line but the header is a punch.
+            assertEquals(Files.readAllLines(attendanceRecordsFile).size() - 1,
+                    EmployeeDatabaseService.getAllAttendanceRecords().size());
+            assertTrue(EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10068).isPresent());
+            List<AttendanceRecord> lastEmployeeRecords = EmployeeDatabaseService
+                    .getAttendanceRecordsByEmployeeId(10068);
+            assertFalse(lastEmployeeRecords.isEmpty());
+            for (AttendanceRecord attendanceRecord : lastEmployeeRecords) {
+                assertEquals(10068, attendanceRecord.employeeId);
+            }
+        } finally {
+            EmployeeDatabaseService.employeeDetailsFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+            EmployeeDatabaseService.attendanceRecordsFile = Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE);
+            EmployeeDatabaseService.employees = employees;
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+    }
 }
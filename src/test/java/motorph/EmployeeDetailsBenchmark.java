@@ -0,0 +1,86 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the employee details CSV file with
+ * {@link EmployeeDatabaseService#getAllEmployeeDetails()} and looking employees
+ * up with {@link EmployeeDatabaseService#getEmployeeDetailsByEmployeeId(int)},
+ * on employees written by {@link DatasetGenerator}.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EmployeeDetailsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeDetailsBenchmark {
+    @Param({ "10000", "100000", "1000000" })
+    public int employees;
+
+    @Param({ "false", "true" })
+    public boolean snapshotCaching;
+
+    private Path employeeDetailsFile;
+    private int[] lookupIds;
+    private int nextLookup;
+
+    @Setup
+    public void writeEmployeeDetailsFile() throws IOException {
+        employeeDetailsFile = Files.createTempFile("employee-details", ".csv");
+        DatasetGenerator.ofBundledPeriod(employees).writeEmployeeDetails(employeeDetailsFile);
+        EmployeeDatabaseService.employeeDetailsFile = employeeDetailsFile;
+        EmployeeDatabaseService.snapshotCaching = snapshotCaching;
+        EmployeeDatabaseService.employees = null;
+        EmployeeDatabaseService.getAllEmployeeDetails();
+
+        SplittableRandom random = new SplittableRandom(employees);
+        lookupIds = new int[1024];
+        for (int i = 0; i < lookupIds.length; i++) {
+            lookupIds[i] = 10001 + random.nextInt(employees);
+        }
+    }
+
+    @TearDown
+    public void deleteEmployeeDetailsFile() throws IOException {
+        EmployeeDatabaseService.employeeDetailsFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+        EmployeeDatabaseService.employees = null;
+        Files.deleteIfExists(employeeDetailsFile);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<Employee> loadEmployeeDetails() {
+        EmployeeDatabaseService.employees = null;
+        return EmployeeDatabaseService.getAllEmployeeDetails();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Employee> getEmployeeDetailsByEmployeeId() {
+        return EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(lookupIds[nextLookup++ & (lookupIds.length - 1)]);
+    }
+}
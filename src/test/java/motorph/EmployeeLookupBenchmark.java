@@ -0,0 +1,77 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the indexed {@link EmployeeDatabaseService#getEmployeeDetailsByEmployeeId(int)}
+ * lookup against the linear stream scan it replaced, for growing headcounts.
+ * The indexed lookup should stay flat while the scan grows with the headcount.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EmployeeLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeLookupBenchmark {
+    @Param({ "34", "1000", "40000" })
+    public int headcount;
+
+    @Param({ "dense", "sparse" })
+    public String employeeIdLayout;
+
+    private List<Employee> employees;
+    private int[] lookupIds;
+    private int nextLookup;
+
+    @Setup
+    public void createEmployees() {
+        SplittableRandom random = new SplittableRandom(headcount);
+        employees = new ArrayList<>(headcount);
+        for (int i = 0; i < headcount; i++) {
+            Employee employee = new Employee();
+            employee.employeeId = employeeIdLayout.equals("dense") ? 10001 + i : 10001 + i * 97;
+            employees.add(employee);
+        }
+        lookupIds = new int[1024];
+        for (int i = 0; i < lookupIds.length; i++) {
+            lookupIds[i] = employees.get(random.nextInt(headcount)).employeeId;
+        }
+        EmployeeDatabaseService.employees = employees;
+    }
+
+    @Benchmark
+    public Optional<Employee> indexedLookup() {
+        return EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(nextLookupId());
+    }
+
+    @Benchmark
+    public Optional<Employee> linearScan() {
+        int employeeId = nextLookupId();
+        return employees.stream().filter(employee -> employee.employeeId == employeeId).findFirst();
+    }
+
+    private int nextLookupId() {
+        return lookupIds[nextLookup++ & (lookupIds.length - 1)];
+    }
+}
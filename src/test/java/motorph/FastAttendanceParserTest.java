@@ -0,0 +1,90 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+public class FastAttendanceParserTest {
+
+    @Test
+    public void parseMatchesOpenCsvOnBundledAttendanceFile() throws IOException {
+        List<AttendanceRecord> expectedRecords = new CsvToBeanBuilder<AttendanceRecord>(
+                new FileReader(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE))
+                .withType(AttendanceRecord.class)
+                .build()
+                .parse();
+        List<AttendanceRecord> records = new ArrayList<>();
+        try (InputStream in = new FileInputStream(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE)) {
+            new FastAttendanceParser().parse(in, records::add);
+        }
+
+        assertEquals(expectedRecords.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertSameRecord(expectedRecords.get(i), records.get(i));
+        }
+    }
+
+    @Test
+    public void parseHandlesQuotedNamesCarriageReturnsAndMissingFinalLineBreak() throws IOException {
+        List<AttendanceRecord> records = parse(FastAttendanceParser.HEADER + "\r\n"
+                + "10001,\"Garcia, Jr.\",\"Manuel \"\"Manny\"\"\",06/03/2024,08:05,17:30\r\n"
+                + "\r\n"
+                + "10001,\"Garcia, Jr.\",\"Manuel \"\"Manny\"\"\",06/04/2024,9:00,0:00");
+
+        assertEquals(2, records.size());
+        assertSameRecord(new AttendanceRecord(10001, "Manuel \"Manny\"", "Garcia, Jr.", LocalDate.of(2024, 6, 3),
+                LocalTime.of(8, 5), LocalTime.of(17, 30)), records.get(0));
+        assertSameRecord(new AttendanceRecord(10001, "Manuel \"Manny\"", "Garcia, Jr.", LocalDate.of(2024, 6, 4),
+                LocalTime.of(9, 0), LocalTime.of(0, 0)), records.get(1));
+        assertSame(records.get(0).firstName, records.get(1).firstName);
+    }
+
+    @Test
+    public void parseRejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("Employee #,Date\n10001,06/03/2024\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,6/3/2024,8:59,18:31\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,06/03/2024,8:5,18:31\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,06/03/2024,24:00,18:31\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,06/03/2024,8:59\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,02/30/2024,8:59,18:31\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse(FastAttendanceParser.HEADER + "\n10001,Garcia,Manuel III,13/03/2024,8:59,18:31\n"));
+    }
+
+    private static List<AttendanceRecord> parse(String csv) throws IOException {
+        List<AttendanceRecord> records = new ArrayList<>();
+        new FastAttendanceParser().parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                records::add);
+        return records;
+    }
+
+    static void assertSameRecord(AttendanceRecord expected, AttendanceRecord actual) {
+        assertEquals(expected.employeeId, actual.employeeId);
+        assertEquals(expected.firstName, actual.firstName);
+        assertEquals(expected.lastName, actual.lastName);
+        assertEquals(expected.date, actual.date);
+        assertEquals(expected.logIn, actual.logIn);
+        assertEquals(expected.logOut, actual.logOut);
+    }
+}
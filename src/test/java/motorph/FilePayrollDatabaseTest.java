@@ -0,0 +1,148 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FilePayrollDatabaseTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 6, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+
+    @Test
+    public void rangeQueriesMatchTheInMemoryIndex(@TempDir Path directory) throws IOException {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try (FilePayrollDatabase database = FilePayrollDatabase.open(directory, 1000)) {
+            database.addAttendanceRecords(attendanceRecords.subList(0, 2000));
+            database.addAttendanceRecords(attendanceRecords.subList(2000, attendanceRecords.size()));
+            assertEquals(attendanceRecords.size(), database.getAttendanceRecordCount());
+
+            LocalDate from = LocalDate.of(2024, 7, 10);
+            LocalDate to = LocalDate.of(2024, 9, 3);
+            for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+                assertEquals(EmployeeDatabaseService.getAttendanceRecords(employee.employeeId, from, to).toString(),
+                        database.findAttendanceRecords(employee.employeeId, from, to).asList().toString());
+                assertEquals(EmployeeDatabaseService.getAttendanceRecordsByEmployeeId(employee.employeeId).toString(),
+                        database.findAttendanceRecords(employee.employeeId, LocalDate.MIN, LocalDate.MAX).asList()
+                                .toString());
+            }
+            assertEquals(0, database.findAttendanceRecords(99999, FIRST_DAY, LAST_DAY).size());
+            assertEquals(0, database.findAttendanceRecords(10001, LAST_DAY, FIRST_DAY).size());
+        }
+    }
+
+    @Test
+    public void keepsEverythingAcrossReopens(@TempDir Path directory) throws IOException {
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try (FilePayrollDatabase database = FilePayrollDatabase.open(directory)) {
+            database.addEmployees(employees);
+            database.addAttendanceRecords(attendanceRecords.subList(0, 3000));
+        }
+        AttendanceRecord sameDay = new AttendanceRecord(10001, "Manuel III", "Garcia", LocalDate.of(2024, 6, 3),
+                LocalTime.of(20, 0), LocalTime.of(22, 30));
+        FilePayrollDatabase unclosed = FilePayrollDatabase.open(directory);
+        unclosed.addAttendanceRecords(attendanceRecords.subList(3000, attendanceRecords.size()));
+        unclosed.addAttendanceRecords(List.of(sameDay));
+        Employee raised = unclosed.findEmployee(10002).orElseThrow();
+        raised.basicSalary = new BigDecimal("99000");
+        unclosed.addEmployees(List.of(raised));
+
+        // Rows added without a checkpoint are read back from the log.
+        try (FilePayrollDatabase database = FilePayrollDatabase.open(directory)) {
+            assertEquals(attendanceRecords.size() + 1, database.getAttendanceRecordCount());
+            List<Employee> storedEmployees = database.getAllEmployees();
+            assertEquals(employees.size(), storedEmployees.size());
+            assertEquals(10002, storedEmployees.get(1).employeeId);
+            assertEquals(new BigDecimal("99000"), storedEmployees.get(1).basicSalary);
+            assertEquals(employees.get(5).toString(), storedEmployees.get(5).toString());
+            assertEquals(employees.get(5).hourlyRate, storedEmployees.get(5).hourlyRate);
+
+            List<AttendanceRecord> firstDay = database.findAttendanceRecords(10001, sameDay.date, sameDay.date)
+                    .asList();
+            assertEquals(2, firstDay.size());
+            assertEquals(sameDay.toString(), firstDay.get(1).toString());
+
+            List<AttendanceRecord> storedRecords = new ArrayList<>();
+            database.forEachAttendanceRecord(storedRecords::add);
+            assertEquals(attendanceRecords.toString(), storedRecords.subList(0, attendanceRecords.size()).toString());
+        } finally {
+            unclosed.close();
+        }
+    }
+
+    @Test
+    public void cutsOffIncompleteEntriesAndRebuildsAStaleIndex(@TempDir Path directory) throws IOException {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try (FilePayrollDatabase database = FilePayrollDatabase.open(directory)) {
+            database.addEmployees(EmployeeDatabaseService.getAllEmployeeDetails());
+            database.addAttendanceRecords(attendanceRecords);
+        }
+        Files.write(directory.resolve(FilePayrollDatabase.ATTENDANCE_FILE), new byte[7], StandardOpenOption.APPEND);
+        Files.write(directory.resolve(FilePayrollDatabase.EMPLOYEES_FILE), new byte[] { 0, 0, 1, 0, 42 },
+                StandardOpenOption.APPEND);
+        Files.write(directory.resolve(FilePayrollDatabase.INDEX_FILE), new byte[3], StandardOpenOption.APPEND);
+
+        try (FilePayrollDatabase database = FilePayrollDatabase.open(directory)) {
+            assertEquals(attendanceRecords.size(), database.getAttendanceRecordCount());
+            assertEquals(EmployeeDatabaseService.getAllEmployeeDetails().size(), database.getAllEmployees().size());
+            assertEquals(EmployeeDatabaseService.getAttendanceRecords(10010, FIRST_DAY, LAST_DAY).toString(),
+                    database.findAttendanceRecords(10010, FIRST_DAY, LAST_DAY).asList().toString());
+        }
+
+        Files.writeString(directory.resolve(FilePayrollDatabase.EMPLOYEES_FILE), "Employee #,Last Name");
+        assertThrows(IOException.class, () -> FilePayrollDatabase.open(directory));
+    }
+
+    @Test
+    public void payrollFromTheDatabaseMatchesTheInMemoryPayroll(@TempDir Path directory) throws IOException {
+        List<PayrollResult> inMemoryResults;
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(4)) {
+            inMemoryResults = payrollRunner.run();
+        }
+        Map<Integer, List<AttendanceRecord>> inMemoryWeeks = EmployeeDatabaseService
+                .getAttendanceRecordsByWeek(10001, Month.JUNE);
+        Map<Month, List<AttendanceRecord>> inMemoryMonths = EmployeeDatabaseService.getAttendanceRecordsByMonth(10001);
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.getAllAttendanceRecords();
+        try {
+            EmployeeDatabaseService.databaseDirectory = directory;
+            EmployeeDatabaseService.employees = null;
+            EmployeeDatabaseService.attendanceRecords = null;
+
+            List<PayrollResult> databaseResults;
+            try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(4)) {
+                databaseResults = payrollRunner.run();
+            }
+            assertEquals(inMemoryResults.toString(), databaseResults.toString());
+            assertTrue(EmployeeDatabaseService.attendanceRecords == null);
+            assertEquals(attendanceRecords.size(), EmployeeDatabaseService.database.getAttendanceRecordCount());
+            assertEquals(inMemoryWeeks.toString(),
+                    EmployeeDatabaseService.getAttendanceRecordsByWeek(10001, Month.JUNE).toString());
+            assertEquals(inMemoryMonths.toString(),
+                    EmployeeDatabaseService.getAttendanceRecordsByMonth(10001).toString());
+        } finally {
+            if (EmployeeDatabaseService.database != null) {
+                EmployeeDatabaseService.database.close();
+            }
+            EmployeeDatabaseService.database = null;
+            EmployeeDatabaseService.databaseDirectory = null;
+            EmployeeDatabaseService.employees = employees;
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class IncrementalPayrollTest {
+
+    @Test
+    public void loadedAttendanceGivesTheFullPayroll() {
+        IncrementalPayroll incrementalPayroll = IncrementalPayroll.ofLoadedAttendance();
+
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            assertEquals(EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId),
+                    incrementalPayroll.getPayrollResult(employee.employeeId));
+        }
+        assertTrue(incrementalPayroll.getDirtyEmployeeIds().isEmpty());
+    }
+
+    @Test
+    public void appendedRecordsOnlyRecalculateTheirWeeks() {
+        LocalDate cutoff = LocalDate.of(2024, 10, 16);
+        List<AttendanceRecord> history = new ArrayList<>();
+        List<AttendanceRecord> newRecords = new ArrayList<>();
+        for (AttendanceRecord attendanceRecord : EmployeeDatabaseService.getAllAttendanceRecords()) {
+            (attendanceRecord.date.isBefore(cutoff) ? history : newRecords).add(attendanceRecord);
+        }
+        IncrementalPayroll incrementalPayroll = new IncrementalPayroll();
+        incrementalPayroll.appendAll(history);
+        incrementalPayroll.recalculate();
+
+        for (AttendanceRecord attendanceRecord : newRecords) {
+            long recalculatedPayslips = incrementalPayroll.getRecalculatedPayslips();
+            incrementalPayroll.append(attendanceRecord);
+            assertEquals(Set.of(attendanceRecord.employeeId), incrementalPayroll.getDirtyEmployeeIds());
+
+            incrementalPayroll.recalculate();
+            // The record's week, plus the old and new deduction weeks if it started a week.
+            assertTrue(incrementalPayroll.getRecalculatedPayslips() - recalculatedPayslips <= 3);
+        }
+
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            assertEquals(EmployeeDatabaseService.calculateEmployeeWeeklySalary(employee.employeeId),
+                    incrementalPayroll.getPayrollResult(employee.employeeId));
+        }
+    }
+
+    @Test
+    public void servicePayrollFollowsAppendedAttendance() {
+        LocalDate cutoff = LocalDate.of(2024, 10, 16);
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.attendanceRecords;
+        List<AttendanceRecord> history = new ArrayList<>();
+        List<AttendanceRecord> newRecords = new ArrayList<>();
+        for (AttendanceRecord attendanceRecord : EmployeeDatabaseService.getAllAttendanceRecords()) {
+            (attendanceRecord.date.isBefore(cutoff) ? history : newRecords).add(attendanceRecord);
+        }
+        try {
+            EmployeeDatabaseService.attendanceRecords = history;
+            IncrementalPayroll incrementalPayroll = EmployeeDatabaseService.getIncrementalPayroll();
+            incrementalPayroll.recalculate();
+            assertSame(incrementalPayroll, EmployeeDatabaseService.getIncrementalPayroll());
+
+            EmployeeDatabaseService.appendAttendanceRecords(newRecords);
+            Set<Integer> employeeIds = new LinkedHashSet<>();
+            for (AttendanceRecord attendanceRecord : newRecords) {
+                employeeIds.add(attendanceRecord.employeeId);
+            }
+            assertEquals(employeeIds, incrementalPayroll.getDirtyEmployeeIds());
+            for (PayrollResult payrollResult : incrementalPayroll.recalculate()) {
+                assertEquals(EmployeeDatabaseService.calculateEmployeeWeeklySalary(payrollResult.employee().employeeId),
+                        payrollResult);
+            }
+        } finally {
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+    }
+
+    @Test
+    public void markDirtyPicksUpSalaryChanges() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10005).get();
+        IncrementalPayroll incrementalPayroll = new IncrementalPayroll();
+        incrementalPayroll.appendAll(EmployeeDatabaseService.getAttendanceRecordsByEmployeeId(10005));
+        PayrollResult before = incrementalPayroll.getPayrollResult(10005);
+
+        BigDecimal basicSalary = employee.basicSalary;
+        try {
+            employee.basicSalary = basicSalary.add(BigDecimal.valueOf(10000));
+            assertEquals(before, incrementalPayroll.getPayrollResult(10005));
+
+            incrementalPayroll.markDirty(10005);
+            assertEquals(EmployeeDatabaseService.calculateEmployeeWeeklySalary(10005),
+                    incrementalPayroll.getPayrollResult(10005));
+        } finally {
+            employee.basicSalary = basicSalary;
+        }
+    }
+}
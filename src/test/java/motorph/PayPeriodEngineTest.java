@@ -0,0 +1,158 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PayPeriodEngineTest {
+
+    @Test
+    public void weeklyScheduleMatchesTheWeeklyPayroll() {
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            List<WeeklyPayslip> weeklyPayslips = EmployeeDatabaseService
+                    .calculateEmployeeWeeklySalary(employee.employeeId).weeklyPayslips();
+            List<PeriodPayslip> periodPayslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.WEEKLY,
+                    LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31));
+
+            assertEquals(weeklyPayslips.size(), periodPayslips.size());
+            for (int i = 0; i < weeklyPayslips.size(); i++) {
+                WeeklyPayslip weeklyPayslip = weeklyPayslips.get(i);
+                PeriodPayslip periodPayslip = periodPayslips.get(i);
+                assertEquals(weeklyPayslip.yearMonth(), periodPayslip.period().yearMonth());
+                assertEquals(weeklyPayslip.weekNumber(), periodPayslip.period().number());
+                assertEquals(weeklyPayslip.hoursWorked(), periodPayslip.hoursWorked());
+                assertEquals(weeklyPayslip.grossWeeklySalary(), periodPayslip.grossSalary());
+                assertEquals(weeklyPayslip.deductions(), periodPayslip.deductions());
+                assertEquals(weeklyPayslip.netWeeklySalary(), periodPayslip.netSalary());
+            }
+        }
+    }
+
+    @Test
+    public void semiMonthlyPeriodsArePaidTheSemiMonthlyRate() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10001).get();
+        List<PeriodPayslip> payslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.SEMI_MONTHLY,
+                LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31));
+
+        assertEquals(14, payslips.size());
+        for (PeriodPayslip payslip : payslips) {
+            PayPeriod period = payslip.period();
+            assertEquals(period.number() == 1 ? 1 : 16, period.start().getDayOfMonth());
+            assertEquals(period.number() == 1 ? 15 : period.start().lengthOfMonth(), period.end().getDayOfMonth());
+            assertTrue(payslip.grossSalary().compareTo(employee.grossSemimonthlyRate) >= 0);
+            assertEquals(period.number() == 2, payslip.isDeductionPeriod());
+        }
+    }
+
+    @Test
+    public void periodsAreClippedToTheRequestedRange() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10001).get();
+        List<PeriodPayslip> payslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.WEEKLY,
+                LocalDate.of(2024, 7, 10), LocalDate.of(2024, 7, 20));
+
+        assertEquals(2, payslips.size());
+        assertEquals(new PayPeriod(LocalDate.of(2024, 7, 10), LocalDate.of(2024, 7, 13), 2),
+                payslips.get(0).period());
+        assertEquals(new PayPeriod(LocalDate.of(2024, 7, 14), LocalDate.of(2024, 7, 20), 3),
+                payslips.get(1).period());
+        // July's deductions fall in its second to last week, July 21 to 27.
+        assertFalse(payslips.get(0).isDeductionPeriod());
+        assertFalse(payslips.get(1).isDeductionPeriod());
+    }
+
+    @Test
+    public void splitMonthIsDeductedOnceInTheWholeMonthsPeriod() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10001).get();
+        WeeklyPayslip julyDeductionWeek = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001)
+                .weeklyPayslips().stream()
+                .filter(payslip -> payslip.month() == Month.JULY && payslip.isDeductionWeek())
+                .findFirst().get();
+
+        for (PaySchedule schedule : List.of(PaySchedule.WEEKLY, PaySchedule.SEMI_MONTHLY, PaySchedule.MONTHLY)) {
+            List<PeriodPayslip> payslips = new ArrayList<>();
+            payslips.addAll(PayPeriodEngine.calculatePayslips(employee, schedule, LocalDate.of(2024, 7, 1),
+                    LocalDate.of(2024, 7, 15)));
+            payslips.addAll(PayPeriodEngine.calculatePayslips(employee, schedule, LocalDate.of(2024, 7, 16),
+                    LocalDate.of(2024, 7, 31)));
+
+            List<PeriodPayslip> deductionPeriods = payslips.stream().filter(PeriodPayslip::isDeductionPeriod)
+                    .toList();
+            assertEquals(1, deductionPeriods.size(), schedule.name());
+            if (schedule == PaySchedule.WEEKLY) {
+                assertEquals(julyDeductionWeek.weekNumber(), deductionPeriods.getFirst().period().number());
+                assertEquals(julyDeductionWeek.netWeeklySalary(), deductionPeriods.getFirst().netSalary());
+            }
+        }
+    }
+
+    @Test
+    public void clippedSalariedPeriodsArePaidTheirShareOfTheRate() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10001).get();
+        List<PeriodPayslip> payslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.MONTHLY,
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 15));
+        List<PeriodPayslip> wholeMonth = PayPeriodEngine.calculatePayslips(employee, PaySchedule.MONTHLY,
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31));
+
+        PayPeriod firstHalf = new PayPeriod(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 15), 1);
+        assertEquals(firstHalf, payslips.getFirst().period());
+        assertEquals(employee.basicSalary.multiply(BigDecimal.valueOf(15)).divide(BigDecimal.valueOf(31), 2,
+                RoundingMode.HALF_UP), PaySchedule.MONTHLY.basicPay(employee, 0, firstHalf));
+        assertEquals(employee.basicSalary, PaySchedule.MONTHLY.basicPay(employee, 0, wholeMonth.getFirst().period()));
+        assertTrue(payslips.getFirst().grossSalary().compareTo(employee.basicSalary) < 0);
+        assertTrue(wholeMonth.getFirst().grossSalary().compareTo(employee.basicSalary) >= 0);
+    }
+
+    @Test
+    public void dateRangeIsOnePeriodAcrossYears() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10002).get();
+        LocalDate from = LocalDate.of(2024, 11, 15);
+        LocalDate to = LocalDate.of(2025, 2, 28);
+        List<PeriodPayslip> payslips = PayPeriodEngine.calculatePayslips(employee, PaySchedule.DATE_RANGE, from,
+                to);
+
+        double hoursWorked = 0;
+        for (AttendanceRecord attendanceRecord : EmployeeDatabaseService
+                .getAttendanceRecordsByEmployeeId(employee.employeeId)) {
+            if (!attendanceRecord.date.isBefore(from) && !attendanceRecord.date.isAfter(to)) {
+                hoursWorked += EmployeeDatabaseService.calculateEmployeeWorkingDuration(attendanceRecord.logIn,
+                        attendanceRecord.logOut);
+            }
+        }
+        assertEquals(1, payslips.size());
+        assertEquals(new PayPeriod(from, to, 1), payslips.getFirst().period());
+        assertEquals(hoursWorked, payslips.getFirst().hoursWorked());
+        assertTrue(payslips.getFirst().isDeductionPeriod());
+        assertThrows(IllegalArgumentException.class,
+                () -> PayPeriodEngine.calculatePayslips(employee, PaySchedule.MONTHLY, to, from));
+    }
+
+    @Test
+    public void payrollMonthsAreConfigurable() {
+        YearMonth firstPayrollMonth = EmployeeDatabaseService.firstPayrollMonth;
+        YearMonth lastPayrollMonth = EmployeeDatabaseService.lastPayrollMonth;
+        try {
+            EmployeeDatabaseService.firstPayrollMonth = YearMonth.of(2024, Month.AUGUST);
+            EmployeeDatabaseService.lastPayrollMonth = YearMonth.of(2024, Month.SEPTEMBER);
+            List<WeeklyPayslip> weeklyPayslips = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001)
+                    .weeklyPayslips();
+
+            assertTrue(weeklyPayslips.stream().allMatch(payslip -> payslip.month() == Month.AUGUST
+                    || payslip.month() == Month.SEPTEMBER));
+            assertEquals(Month.SEPTEMBER, weeklyPayslips.getLast().month());
+        } finally {
+            EmployeeDatabaseService.firstPayrollMonth = firstPayrollMonth;
+            EmployeeDatabaseService.lastPayrollMonth = lastPayrollMonth;
+        }
+    }
+}
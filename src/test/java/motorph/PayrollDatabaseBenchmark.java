@@ -0,0 +1,108 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures range queries against a {@link FilePayrollDatabase} filled from
+ * data written by {@link DatasetGenerator}: one month of a random
+ * employee's attendance, and the weekly payroll of a random employee read
+ * from the database. The query time should stay flat as the number of
+ * employees, and so the size of the index, grows.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PayrollDatabaseBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollDatabaseBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 9, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 9, 30);
+
+    @Param({ "34", "10000", "100000" })
+    public int employees;
+
+    private Path dataDirectory;
+    private Path databaseDirectory;
+    private int[] employeeIds;
+    private int nextEmployee;
+
+    @Setup(Level.Trial)
+    public void fillDatabase() throws IOException {
+        dataDirectory = Files.createTempDirectory("motorph-" + employees);
+        DatasetGenerator.ofBundledPeriod(employees).write(dataDirectory);
+        databaseDirectory = Files.createTempDirectory("motorph-database");
+        EmployeeDatabaseService.employeeDetailsFile = dataDirectory
+                .resolve(DatasetGenerator.EMPLOYEE_DETAILS_FILE_NAME);
+        EmployeeDatabaseService.attendanceRecordsFile = dataDirectory
+                .resolve(DatasetGenerator.ATTENDANCE_RECORDS_FILE_NAME);
+        EmployeeDatabaseService.fastAttendanceParsing = true;
+        EmployeeDatabaseService.databaseDirectory = databaseDirectory;
+        EmployeeDatabaseService.payslipCaching = false;
+        EmployeeDatabaseService.getAllEmployeeDetails();
+
+        SplittableRandom random = new SplittableRandom(employees);
+        employeeIds = new int[1024];
+        for (int i = 0; i < employeeIds.length; i++) {
+            employeeIds[i] = 10001 + random.nextInt(employees);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() throws IOException {
+        EmployeeDatabaseService.database.close();
+        EmployeeDatabaseService.database = null;
+        EmployeeDatabaseService.databaseDirectory = null;
+        EmployeeDatabaseService.payslipCaching = true;
+        EmployeeDatabaseService.employees = null;
+        EmployeeDatabaseService.employeeDetailsFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+        EmployeeDatabaseService.attendanceRecordsFile = Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE);
+        for (Path directory : List.of(dataDirectory, databaseDirectory)) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<AttendanceRecord> monthQuery() {
+        return EmployeeDatabaseService.getAttendanceRecords(nextEmployeeId(), FIRST_DAY, LAST_DAY);
+    }
+
+    @Benchmark
+    public PayrollResult weeklyPayroll() {
+        return EmployeeDatabaseService.calculateEmployeeWeeklySalary(nextEmployeeId());
+    }
+
+    private int nextEmployeeId() {
+        return employeeIds[nextEmployee++ & (employeeIds.length - 1)];
+    }
+}
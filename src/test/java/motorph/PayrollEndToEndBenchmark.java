@@ -0,0 +1,88 @@
+package motorph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a whole run of {@link App#main(String[])}: loading both CSV files,
+ * calculating every employee's payslips and printing them, with the console
+ * output discarded, on data of June to December 2024 written by
+ * {@link DatasetGenerator}; 34 employees is the size of the bundled data set.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PayrollEndToEndBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class PayrollEndToEndBenchmark {
+    @Param({ "34", "10000", "100000" })
+    public int employees;
+
+    @Param({ "false", "true" })
+    public boolean snapshotCaching;
+
+    private Path dataDirectory;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void writeDataFiles() throws IOException {
+        dataDirectory = Files.createTempDirectory("motorph-" + employees);
+        DatasetGenerator.ofBundledPeriod(employees).write(dataDirectory);
+        EmployeeDatabaseService.employeeDetailsFile = dataDirectory
+                .resolve(DatasetGenerator.EMPLOYEE_DETAILS_FILE_NAME);
+        EmployeeDatabaseService.attendanceRecordsFile = dataDirectory
+                .resolve(DatasetGenerator.ATTENDANCE_RECORDS_FILE_NAME);
+        EmployeeDatabaseService.snapshotCaching = snapshotCaching;
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Setup(Level.Invocation)
+    public void unloadData() {
+        EmployeeDatabaseService.employees = null;
+        EmployeeDatabaseService.attendanceRecords = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDataFiles() throws IOException {
+        System.setOut(console);
+        EmployeeDatabaseService.employeeDetailsFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+        EmployeeDatabaseService.attendanceRecordsFile = Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE);
+        unloadData();
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void runPayroll() {
+        App.main(new String[0]);
+    }
+}
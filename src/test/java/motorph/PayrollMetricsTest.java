@@ -0,0 +1,123 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PayrollMetricsTest {
+
+    @BeforeEach
+    public void resetMetrics() {
+        EmployeeDatabaseService.getAllEmployeeDetails();
+        EmployeeDatabaseService.getAllAttendanceRecords();
+        PayrollMetrics.resetAll();
+    }
+
+    @AfterEach
+    public void disableMetrics() {
+        PayrollMetrics.enabled = false;
+        PayrollMetrics.resetAll();
+    }
+
+    @Test
+    public void recordsThePayrollOfEveryEmployee() {
+        PayrollMetrics.enabled = true;
+        int payslips = 0;
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(4)) {
+            for (PayrollResult payrollResult : payrollRunner.run()) {
+                payslips += payrollResult.weeklyPayslips().size();
+            }
+        }
+
+        PayrollMetrics metrics = PayrollMetrics.getInstance();
+        int employees = EmployeeDatabaseService.getAllEmployeeDetails().size();
+        assertEquals(employees, metrics.getEmployeesCalculated());
+        assertEquals(payslips, metrics.getPayslipsCalculated());
+        assertTrue(metrics.getEmployeeLookups() >= employees);
+        assertTrue(metrics.getEmployeeCalculationP50Micros() <= metrics.getEmployeeCalculationP99Micros());
+        assertTrue(metrics.getEmployeeCalculationP99Micros() <= metrics.getEmployeeCalculationMaxMicros());
+    }
+
+    @Test
+    public void recordsNothingWhenDisabled() {
+        PayrollMetrics.enabled = false;
+        long startNanos = PayrollMetrics.startTimer();
+        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+        SalaryDeductionService.calculateWithholdingTax(BigDecimal.valueOf(50_000));
+        PayrollMetrics.recordStage(PayrollMetrics.Stage.REPORTING, startNanos);
+
+        PayrollMetrics metrics = PayrollMetrics.getInstance();
+        assertEquals(0, startNanos);
+        assertEquals(0, metrics.getEmployeesCalculated());
+        assertEquals(0, metrics.getEmployeeLookups());
+        assertEquals(0, PayrollMetrics.getDeductionCalculations(PayrollMetrics.Deduction.WITHHOLDING_TAX));
+        assertEquals(0, PayrollMetrics.getStageNanos(PayrollMetrics.Stage.REPORTING));
+    }
+
+    @Test
+    public void countsEachDeduction() {
+        PayrollMetrics.enabled = true;
+        SalaryDeductionService.calculateSocialSecuritySystemContribution(BigDecimal.valueOf(20_000));
+        SalaryDeductionService.calculatePagIbigContribution(BigDecimal.valueOf(20_000));
+        SalaryDeductionService.calculatePagIbigContribution(BigDecimal.valueOf(30_000));
+
+        assertEquals(1, PayrollMetrics.getDeductionCalculations(PayrollMetrics.Deduction.SOCIAL_SECURITY_SYSTEM));
+        assertEquals(2, PayrollMetrics.getDeductionCalculations(PayrollMetrics.Deduction.PAG_IBIG));
+        assertEquals(0, PayrollMetrics.getDeductionCalculations(PayrollMetrics.Deduction.PHILHEALTH));
+    }
+
+    @Test
+    public void readingDeductionProfileCountsDoesNotBuildTheCache() {
+        DeductionProfileCache deductionProfileCache = EmployeeDatabaseService.deductionProfileCache;
+        try {
+            EmployeeDatabaseService.deductionProfileCache = null;
+            PayrollMetrics metrics = PayrollMetrics.getInstance();
+
+            assertEquals(0, metrics.getDeductionProfileHits());
+            assertEquals(0, metrics.getDeductionProfileMisses());
+            assertNull(EmployeeDatabaseService.deductionProfileCache);
+        } finally {
+            EmployeeDatabaseService.deductionProfileCache = deductionProfileCache;
+        }
+    }
+
+    @Test
+    public void summaryIsAJsonObjectOfAllMetrics() throws IOException {
+        PayrollMetrics.enabled = true;
+        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+        StringBuilder summary = new StringBuilder();
+        PayrollMetrics.writeSummary(summary);
+
+        String json = summary.toString();
+        assertTrue(json.startsWith("{\n") && json.endsWith("}\n"));
+        assertTrue(json.contains("\"employeesCalculated\": 1,"));
+        assertTrue(json.contains("\"payrollCalculation\": {\"runs\": 0, \"millis\": 0.000}"));
+        assertTrue(json.contains("\"deductionCalculations\": {\"socialSecuritySystem\": 0,"));
+    }
+
+    @Test
+    public void isReadableOverJmx() throws JMException {
+        PayrollMetrics.registerMBean();
+        PayrollMetrics.registerMBean();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(PayrollMetrics.OBJECT_NAME);
+
+        mBeanServer.setAttribute(objectName, new Attribute("Enabled", true));
+        assertTrue(PayrollMetrics.enabled);
+        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "EmployeesCalculated"));
+    }
+}
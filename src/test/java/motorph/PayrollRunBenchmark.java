@@ -0,0 +1,67 @@
+package motorph;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures whole-company payroll throughput of {@link PayrollRunner} for a
+ * single worker against several workers and against virtual threads, with
+ * {@link java.math.BigDecimal} and with fixed-point
+ * {@link CentavoPayrollEngine} arithmetic.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PayrollRunBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayrollRunBenchmark {
+    @Param({ "1", "2", "4", "8", "virtual" })
+    public String workers;
+
+    @Param({ "false", "true" })
+    public boolean centavoArithmetic;
+
+    private PayrollRunner payrollRunner;
+
+    @Setup(Level.Trial)
+    public void createPayrollRunner() {
+        EmployeeDatabaseService.getAllEmployeeDetails();
+        EmployeeDatabaseService.getAllAttendanceRecords();
+        EmployeeDatabaseService.centavoArithmetic = centavoArithmetic;
+        // Measure the calculation, not the payslip cache.
+        EmployeeDatabaseService.payslipCaching = false;
+        payrollRunner = workers.equals("virtual")
+                ? PayrollRunner.withVirtualThreads()
+                : PayrollRunner.withWorkers(Integer.parseInt(workers));
+    }
+
+    @TearDown(Level.Trial)
+    public void closePayrollRunner() {
+        payrollRunner.close();
+        EmployeeDatabaseService.payslipCaching = true;
+    }
+
+    @Benchmark
+    public List<PayrollResult> runPayroll() {
+        return payrollRunner.run();
+    }
+}
@@ -0,0 +1,74 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PayrollRunnerTest {
+
+    @Test
+    public void runProducesOneResultPerEmployeeInEmployeeOrder() {
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        List<PayrollResult> payrollResults;
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(4)) {
+            payrollResults = payrollRunner.run();
+        }
+
+        assertEquals(employees.size(), payrollResults.size());
+        for (int i = 0; i < employees.size(); i++) {
+            assertSame(employees.get(i), payrollResults.get(i).employee());
+        }
+    }
+
+    @Test
+    public void runIsIndependentOfTheNumberOfWorkers() {
+        List<PayrollResult> sequentialResults;
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(1)) {
+            sequentialResults = payrollRunner.run();
+        }
+        List<PayrollResult> virtualThreadResults;
+        try (PayrollRunner payrollRunner = PayrollRunner.withVirtualThreads()) {
+            virtualThreadResults = payrollRunner.run();
+        }
+
+        assertEquals(sequentialResults, virtualThreadResults);
+    }
+
+    @Test
+    public void streamingPayrollMatchesInMemoryRun() {
+        List<PayrollResult> inMemoryResults;
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(1)) {
+            inMemoryResults = payrollRunner.run();
+        }
+
+        assertEquals(inMemoryResults, StreamingPayroll.run());
+    }
+
+    @Test
+    public void accumulatorSkipsUnknownEmployeesAndMonthsOutsideThePayroll() {
+        LocalDate payrollDay = EmployeeDatabaseService.firstPayrollMonth.atDay(3);
+        LocalDate earlierDay = EmployeeDatabaseService.firstPayrollMonth.minusMonths(1).atDay(3);
+        AttendanceAccumulator attendanceAccumulator = new AttendanceAccumulator();
+
+        assertFalse(attendanceAccumulator.add(new AttendanceRecord(99999, "Unknown", "Employee", payrollDay,
+                LocalTime.of(8, 0), LocalTime.of(17, 0))));
+        assertFalse(attendanceAccumulator.add(new AttendanceRecord(10001, "Manuel III", "Garcia", earlierDay,
+                LocalTime.of(8, 0), LocalTime.of(17, 0))));
+        assertTrue(attendanceAccumulator.add(new AttendanceRecord(10001, "Manuel III", "Garcia", payrollDay,
+                LocalTime.of(8, 0), LocalTime.of(17, 0))));
+
+        assertEquals(3, attendanceAccumulator.getAcceptedRecords());
+        assertEquals(2, attendanceAccumulator.getSkippedRecords());
+        assertTrue(attendanceAccumulator.getWeeklyTotals(99999, YearMonth.from(payrollDay)).isEmpty());
+        assertTrue(attendanceAccumulator.getWeeklyTotals(10001, YearMonth.from(earlierDay)).isEmpty());
+        assertEquals(1, attendanceAccumulator.getWeeklyTotals(10001, YearMonth.from(payrollDay)).size());
+    }
+}
@@ -0,0 +1,83 @@
+package motorph;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a {@link PayrollServer} with thousands of concurrent clients and
+ * reports the latency percentiles of their requests.
+ * <p>
+ * Every client runs on its own virtual thread and sends requests one after
+ * the other, each for a random employee and a random one of the payslip,
+ * monthly payslip, attendance and deduction endpoints, until the total number
+ * of requests has been sent. The latency of each request is recorded in a
+ * {@link LatencyHistogram}, so the reported percentiles are at most 25% above
+ * the true values. Without a URL an in-process server is started on a free
+ * port.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:exec -DloadTest="[clients [requests [url]]]"
+ * mvn -Pload-test test-compile exec:exec -DloadTest="2000 100000"
+ * </pre>
+ */
+public class PayrollServerLoadHarness {
+    private static final String[] ENDPOINTS = { "/payslips", "/payslips?month=2024-06", "/attendance",
+            "/deductions" };
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        PayrollServer payrollServer = args.length > 2 ? null : PayrollServer.start(0);
+        String url = args.length > 2 ? args[2] : "http://localhost:" + payrollServer.getPort();
+        int employees = EmployeeDatabaseService.getAllEmployeeDetails().size();
+        int firstEmployeeId = EmployeeDatabaseService.getAllEmployeeDetails().getFirst().employeeId;
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        AtomicInteger sent = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                SplittableRandom random = new SplittableRandom(client);
+                clientThreads.submit(() -> {
+                    while (sent.getAndIncrement() < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(url + PayrollServer.EMPLOYEES_PATH
+                                + (firstEmployeeId + random.nextInt(employees))
+                                + ENDPOINTS[random.nextInt(ENDPOINTS.length)])).build();
+                        long requestStartNanos = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.increment();
+                            }
+                        } catch (Exception exception) {
+                            failures.increment();
+                        }
+                        latencies.record(System.nanoTime() - requestStartNanos);
+                    }
+                });
+            }
+        } finally {
+            if (payrollServer != null) {
+                payrollServer.close();
+            }
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.printf("%d requests from %d concurrent clients in %.2f s: %.0f requests/s, %d failed%n",
+                latencies.count(), clients, seconds, latencies.count() / seconds, failures.sum());
+        System.out.printf("latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                latencies.percentile(50) / 1e6, latencies.percentile(90) / 1e6, latencies.percentile(99) / 1e6,
+                latencies.percentile(99.9) / 1e6, latencies.max() / 1e6);
+    }
+}
@@ -0,0 +1,114 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PayrollServerTest {
+    static PayrollServer payrollServer;
+    static HttpClient httpClient;
+
+    @BeforeAll
+    public static void startServer() {
+        payrollServer = PayrollServer.start(0);
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        httpClient.close();
+        payrollServer.close();
+    }
+
+    static HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + payrollServer.getPort() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    static int count(String body, String name) {
+        return body.split("\"" + name + "\"", -1).length - 1;
+    }
+
+    @Test
+    public void servesPayslipsOfTheWholeRunOrOfOneMonthOrWeek() throws Exception {
+        PayrollResult payrollResult = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+        HttpResponse<String> response = get("/employees/10001/payslips");
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").get());
+        assertEquals(payrollResult.weeklyPayslips().size(), count(response.body(), "week"));
+
+        WeeklyPayslip deductionWeek = payrollResult.weeklyPayslips().stream().filter(WeeklyPayslip::isDeductionWeek)
+                .findFirst().get();
+        YearMonth month = deductionWeek.yearMonth();
+        String monthBody = get("/employees/10001/payslips?month=" + month).body();
+        assertEquals(payrollResult.weeklyPayslips().stream().filter(payslip -> payslip.yearMonth().equals(month))
+                .count(), count(monthBody, "week"));
+        assertEquals(1, count(monthBody, "netSalary"));
+
+        String weekBody = get("/employees/10001/payslips?month=" + month + "&week=" + deductionWeek.weekNumber())
+                .body();
+        assertTrue(weekBody.contains("\"netSalary\":" + deductionWeek.netWeeklySalary().toPlainString()), weekBody);
+        assertTrue(weekBody.contains("\"grossSalary\":" + deductionWeek.grossWeeklySalary().toPlainString()),
+                weekBody);
+    }
+
+    @Test
+    public void servesAttendanceAndDeductions() throws Exception {
+        LocalDate from = LocalDate.of(2024, 6, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        String attendance = get("/employees/10002/attendance?from=" + from + "&to=" + to).body();
+        assertEquals(EmployeeDatabaseService.getAttendanceRecords(10002, from, to).size(), count(attendance, "date"));
+
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10002).get();
+        String deductions = get("/employees/10002/deductions").body();
+        assertTrue(deductions.contains("\"totalDeductions\":"
+                + EmployeeDatabaseService.getDeductionProfile(employee).deductions().total().toPlainString()),
+                deductions);
+    }
+
+    @Test
+    public void answersBadRequestsWithJsonErrors() throws Exception {
+        assertEquals(404, get("/employees/99999/payslips").statusCode());
+        assertEquals(404, get("/employees/10001/salary").statusCode());
+        assertEquals(404, get("/employees/abc/payslips").statusCode());
+        HttpResponse<String> badMonth = get("/employees/10001/payslips?month=June");
+        assertEquals(400, badMonth.statusCode());
+        assertTrue(badMonth.body().startsWith("{\"error\":\""), badMonth.body());
+        assertEquals(400, get("/employees/10001/payslips?week=2").statusCode());
+
+        HttpResponse<String> post = httpClient.send(HttpRequest
+                .newBuilder(URI.create("http://localhost:" + payrollServer.getPort() + "/employees/10001/payslips"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+    }
+
+    @Test
+    public void answersManyConcurrentRequests() throws Exception {
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                String path = "/employees/" + (10001 + i % 34) + (i % 2 == 0 ? "/payslips" : "/deductions");
+                statuses.add(clients.submit(() -> get(path).statusCode()));
+            }
+        }
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get());
+        }
+    }
+}
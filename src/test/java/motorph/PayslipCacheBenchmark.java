@@ -0,0 +1,55 @@
+package motorph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a repeated payslip query for one employee with and without the
+ * {@link PayslipCache}, as the {@link PayrollServer} answers it.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PayslipCacheBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayslipCacheBenchmark {
+    @Param({ "false", "true" })
+    public boolean payslipCaching;
+
+    private int nextEmployee;
+
+    @Setup(Level.Trial)
+    public void loadData() {
+        EmployeeDatabaseService.getAllEmployeeDetails();
+        EmployeeDatabaseService.getAllAttendanceRecords();
+        EmployeeDatabaseService.payslipCaching = payslipCaching;
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreCaching() {
+        EmployeeDatabaseService.payslipCaching = true;
+    }
+
+    @Benchmark
+    public PayrollResult payslipQuery() {
+        return EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001 + nextEmployee++ % 34);
+    }
+}
@@ -0,0 +1,140 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PayslipCacheTest {
+    private static final YearMonth JUNE = YearMonth.of(2024, 6);
+    private static final YearMonth DECEMBER = YearMonth.of(2024, 12);
+
+    private static Employee employee(int employeeId) {
+        Employee employee = new Employee();
+        employee.employeeId = employeeId;
+        employee.basicSalary = new BigDecimal("90000");
+        employee.hourlyRate = new BigDecimal("535.71");
+        return employee;
+    }
+
+    private static PayrollResult put(PayslipCache cache, Employee employee) {
+        PayrollResult payrollResult = new PayrollResult(employee, List.of());
+        cache.put(employee, JUNE, DECEMBER, false, payrollResult, cache.version(employee.employeeId));
+        return payrollResult;
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedResult() {
+        PayslipCache cache = new PayslipCache(2);
+        Employee first = employee(1);
+        Employee second = employee(2);
+        PayrollResult firstResult = put(cache, first);
+        put(cache, second);
+        assertSame(firstResult, cache.get(first, JUNE, DECEMBER, false));
+        put(cache, employee(3));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertNull(cache.get(second, JUNE, DECEMBER, false));
+        assertNotNull(cache.get(first, JUNE, DECEMBER, false));
+        assertNull(cache.get(first, JUNE, DECEMBER, true));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0.5, cache.hitRate());
+        assertThrows(IllegalArgumentException.class, () -> new PayslipCache(-1));
+    }
+
+    @Test
+    public void discardsResultsWhenTheEmployeeRatesChange() {
+        PayslipCache cache = new PayslipCache(16);
+        Employee employee = employee(1);
+        put(cache, employee);
+
+        Employee reloaded = employee(1);
+        PayrollResult payrollResult = cache.get(reloaded, JUNE, DECEMBER, false);
+        assertSame(reloaded, payrollResult.employee());
+
+        reloaded.basicSalary = new BigDecimal("95000");
+        assertNull(cache.get(reloaded, JUNE, DECEMBER, false));
+        assertEquals(1, cache.invalidations());
+    }
+
+    @Test
+    public void attendanceChangesDiscardOnlyThePeriodsCoveringTheirDate() {
+        PayslipCache cache = new PayslipCache(16);
+        Employee employee = employee(1);
+        Employee other = employee(2);
+        put(cache, employee);
+        put(cache, other);
+        cache.put(employee, YearMonth.of(2025, 1), YearMonth.of(2025, 1), false,
+                new PayrollResult(employee, List.of()), cache.version(1));
+
+        cache.invalidate(1, LocalDate.of(2024, 5, 31));
+        assertEquals(3, cache.size());
+        cache.invalidate(1, LocalDate.of(2024, 6, 3));
+        assertNull(cache.get(employee, JUNE, DECEMBER, false));
+        assertNotNull(cache.get(employee, YearMonth.of(2025, 1), YearMonth.of(2025, 1), false));
+        assertNotNull(cache.get(other, JUNE, DECEMBER, false));
+        assertEquals(1, cache.invalidations());
+
+        cache.invalidate(2);
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.invalidations());
+    }
+
+    @Test
+    public void doesNotStoreResultsCalculatedWhileTheDataChanged() {
+        PayslipCache cache = new PayslipCache(16);
+        Employee employee = employee(1);
+        Employee other = employee(7);
+        long version = cache.version(1);
+        long otherVersion = cache.version(7);
+        cache.invalidate(1, LocalDate.of(2024, 6, 3));
+        cache.put(employee, JUNE, DECEMBER, false, new PayrollResult(employee, List.of()), version);
+        assertEquals(0, cache.size());
+
+        // Other employees' results are still stored.
+        cache.put(other, JUNE, DECEMBER, false, new PayrollResult(other, List.of()), otherVersion);
+        assertEquals(1, cache.size());
+        cache.clear();
+        cache.put(other, JUNE, DECEMBER, false, new PayrollResult(other, List.of()), otherVersion);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void serviceRecalculatesOnlyEmployeesWhoseAttendanceChanged() {
+        List<AttendanceRecord> attendanceRecords = EmployeeDatabaseService.attendanceRecords;
+        PayslipCache cache = EmployeeDatabaseService.PAYSLIP_CACHE;
+        try {
+            EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+            PayrollResult unchanged = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10002);
+            PayrollResult before = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+            long hits = cache.hits();
+            assertSame(before, EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001));
+            assertEquals(hits + 1, cache.hits());
+
+            EmployeeDatabaseService.appendAttendanceRecords(List.of(new AttendanceRecord(10001, "Manuel III",
+                    "Garcia", LocalDate.of(2024, 6, 8), LocalTime.of(8, 0), LocalTime.of(17, 0))));
+            PayrollResult after = EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+            assertNotEquals(before.weeklyPayslips(), after.weeklyPayslips());
+            assertSame(unchanged, EmployeeDatabaseService.calculateEmployeeWeeklySalary(10002));
+        } finally {
+            EmployeeDatabaseService.attendanceRecords = attendanceRecords;
+        }
+        // The original records are noticed and the cache cleared.
+        EmployeeDatabaseService.calculateEmployeeWeeklySalary(10001);
+        assertEquals(1, cache.size());
+    }
+}
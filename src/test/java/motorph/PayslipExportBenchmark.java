@@ -0,0 +1,76 @@
+package motorph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast a {@link PayslipExporter} writes payroll results to disk.
+ * One operation exports the payslips of one bundled employee, who has 34
+ * weekly payslips, so the score times 34 is the number of payslips exported
+ * per second. Every iteration writes a new file.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PayslipExportBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayslipExportBenchmark {
+    @Param({ "CSV", "BINARY" })
+    public PayslipExporter.Format format;
+
+    private List<PayrollResult> payrollResults;
+    private Path exportFile;
+    private PayslipExporter payslipExporter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void calculatePayroll() throws IOException {
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(1)) {
+            payrollResults = payrollRunner.run();
+        }
+        exportFile = Files.createTempFile("motorph-payslips", ".export");
+    }
+
+    @Setup(Level.Iteration)
+    public void openExporter() throws IOException {
+        payslipExporter = PayslipExporter.open(exportFile, format);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeExporter() throws IOException {
+        payslipExporter.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteExportFile() throws IOException {
+        Files.deleteIfExists(exportFile);
+    }
+
+    @Benchmark
+    public void exportEmployee() {
+        payslipExporter.export(payrollResults.get(next));
+        next = next + 1 == payrollResults.size() ? 0 : next + 1;
+    }
+}
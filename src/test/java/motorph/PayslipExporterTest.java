@@ -0,0 +1,133 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PayslipExporterTest {
+    private static List<PayrollResult> payrollResults;
+    private static List<WeeklyPayslip> payslips;
+
+    @BeforeAll
+    public static void calculatePayroll() {
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(1)) {
+            payrollResults = payrollRunner.run();
+        }
+        payslips = new ArrayList<>();
+        for (PayrollResult payrollResult : payrollResults) {
+            payslips.addAll(payrollResult.weeklyPayslips());
+        }
+    }
+
+    @Test
+    public void csvHasOneLinePerPayslip(@TempDir Path directory) throws IOException {
+        Path exportFile = directory.resolve("payslips.csv");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(exportFile)) {
+            payrollResults.forEach(payslipExporter);
+            assertEquals(payslips.size(), payslipExporter.getPayslipsExported());
+        }
+
+        String[] lines = Files.readString(exportFile, StandardCharsets.US_ASCII).split("\r\n");
+        assertEquals(CsvPayslipExporter.HEADER, lines[0]);
+        assertEquals(payslips.size() + 1, lines.length);
+        for (int i = 0; i < payslips.size(); i++) {
+            WeeklyPayslip payslip = payslips.get(i);
+            String[] fields = lines[i + 1].split(",", -1);
+            assertEquals(11, fields.length);
+            assertEquals(Integer.toString(payslip.employeeId()), fields[0]);
+            assertEquals(payslip.yearMonth().toString(), fields[1]);
+            assertEquals(payslip.hoursWorked(), Double.parseDouble(fields[3]));
+            assertEquals(0, payslip.grossWeeklySalary().compareTo(new BigDecimal(fields[4])));
+            if (payslip.isDeductionWeek()) {
+                assertEquals(payslip.netWeeklySalary().toPlainString(), fields[10]);
+            } else {
+                assertEquals("", fields[5] + fields[10]);
+            }
+        }
+    }
+
+    @Test
+    public void binaryReadsBackTheExportedPayslips(@TempDir Path directory) throws IOException {
+        Path exportFile = directory.resolve("payslips.bin");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(exportFile)) {
+            payrollResults.forEach(payslipExporter);
+        }
+
+        List<WeeklyPayslip> readPayslips = new ArrayList<>();
+        BinaryPayslipExporter.read(exportFile, readPayslips::add);
+        assertEquals(payslips, readPayslips);
+    }
+
+    @Test
+    public void binaryKeepsAmountsOfAnySize(@TempDir Path directory) throws IOException {
+        PayrollDeductions deductions = new PayrollDeductions(new BigDecimal("-1E+3"),
+                new BigDecimal("0"), new BigDecimal("-128.5"),
+                new BigDecimal("123456789012345678901234567890.123456789"));
+        List<WeeklyPayslip> unusualPayslips = List.of(
+                new WeeklyPayslip(1, YearMonth.of(1999, 12), 5, 0.1,
+                        new BigDecimal("9223372036854775807"), deductions,
+                        new BigDecimal("-9223372036854775808"), new BigDecimal("0.01")));
+        Path exportFile = directory.resolve("payslips.bin");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(exportFile)) {
+            payslipExporter.export(new PayrollResult(payrollResults.getFirst().employee(), unusualPayslips));
+        }
+
+        List<WeeklyPayslip> readPayslips = new ArrayList<>();
+        BinaryPayslipExporter.read(exportFile, readPayslips::add);
+        assertEquals(unusualPayslips, readPayslips);
+    }
+
+    @Test
+    public void binaryRejectsTruncatedAndForeignFiles(@TempDir Path directory) throws IOException {
+        Path exportFile = directory.resolve("payslips.bin");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(exportFile)) {
+            payslipExporter.export(payrollResults.getFirst());
+        }
+        byte[] contents = Files.readAllBytes(exportFile);
+        Files.write(exportFile, Arrays.copyOf(contents, contents.length - 1));
+        assertThrows(IOException.class, () -> BinaryPayslipExporter.read(exportFile, payslip -> {
+        }));
+
+        Path csvFile = directory.resolve("payslips.csv");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(csvFile)) {
+            payslipExporter.export(payrollResults.getFirst());
+        }
+        assertThrows(IOException.class, () -> BinaryPayslipExporter.read(csvFile, payslip -> {
+        }));
+    }
+
+    @Test
+    public void exportsResultsAsTheyAreCalculated(@TempDir Path directory) throws IOException {
+        Path runnerFile = directory.resolve("runner.bin");
+        try (PayrollRunner payrollRunner = PayrollRunner.withWorkers(4);
+                PayslipExporter payslipExporter = PayslipExporter.open(runnerFile)) {
+            payrollRunner.run(payslipExporter);
+        }
+        Path streamingFile = directory.resolve("streaming.bin");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(streamingFile)) {
+            StreamingPayroll.run(payslipExporter);
+        }
+        Path exportFile = directory.resolve("payslips.bin");
+        try (PayslipExporter payslipExporter = PayslipExporter.open(exportFile)) {
+            payrollResults.forEach(payslipExporter);
+        }
+
+        byte[] expected = Files.readAllBytes(exportFile);
+        assertArrayEquals(expected, Files.readAllBytes(runnerFile));
+        assertArrayEquals(expected, Files.readAllBytes(streamingFile));
+    }
+}
@@ -0,0 +1,69 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each statutory deduction of {@link SalaryDeductionService} over
+ * monthly salaries spread across all contribution brackets and tax brackets.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SalaryDeductionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryDeductionBenchmark {
+    private BigDecimal[] monthlySalaries;
+    private int nextMonthlySalary;
+
+    @Setup
+    public void createMonthlySalaries() {
+        SplittableRandom random = new SplittableRandom(42);
+        monthlySalaries = new BigDecimal[1024];
+        for (int i = 0; i < monthlySalaries.length; i++) {
+            monthlySalaries[i] = BigDecimal.valueOf(random.nextLong(0, 15_000_000), 2);
+        }
+        SalaryDeductionService.calculateSocialSecuritySystemContribution(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public BigDecimal socialSecuritySystemContribution() {
+        return SalaryDeductionService.calculateSocialSecuritySystemContribution(nextMonthlySalary());
+    }
+
+    @Benchmark
+    public BigDecimal withholdingTax() {
+        return SalaryDeductionService.calculateWithholdingTax(nextMonthlySalary());
+    }
+
+    @Benchmark
+    public BigDecimal philhealthContribution() {
+        return SalaryDeductionService.calculatePhilhealthContribution(nextMonthlySalary());
+    }
+
+    @Benchmark
+    public BigDecimal pagIbigContribution() {
+        return SalaryDeductionService.calculatePagIbigContribution(nextMonthlySalary());
+    }
+
+    private BigDecimal nextMonthlySalary() {
+        return monthlySalaries[nextMonthlySalary++ & (monthlySalaries.length - 1)];
+    }
+}
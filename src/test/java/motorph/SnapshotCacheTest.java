@@ -0,0 +1,122 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SnapshotCacheTest {
+    @TempDir
+    Path directory;
+
+    Path attendanceFile;
+    SnapshotCache snapshotCache;
+    AttendanceStore store;
+
+    @BeforeEach
+    public void writeAttendanceSnapshot() throws IOException {
+        attendanceFile = Files.copy(Path.of(EmployeeDatabaseService.ATTENDANCE_RECORDS_FILE),
+                directory.resolve("attendance-record.csv"));
+        snapshotCache = new SnapshotCache(directory.resolve("snapshots"));
+        store = ChunkedAttendanceLoader.loadStore(attendanceFile, 1);
+        snapshotCache.writeAttendanceStore(attendanceFile, SnapshotCache.Fingerprint.of(attendanceFile), store);
+    }
+
+    @Test
+    public void attendanceSnapshotRoundTrips() {
+        AttendanceStore snapshot = snapshotCache.readAttendanceStore(attendanceFile).orElseThrow();
+
+        assertEquals(store.size(), snapshot.size());
+        assertEquals(store.asList().toString(), snapshot.asList().toString());
+    }
+
+    @Test
+    public void employeeSnapshotRoundTrips() throws IOException {
+        Path employeeFile = Path.of(EmployeeDatabaseService.EMPLOYEE_DETAILS_FILE);
+        List<Employee> employees = EmployeeDatabaseService.getAllEmployeeDetails();
+        snapshotCache.writeEmployees(employeeFile, SnapshotCache.Fingerprint.of(employeeFile), employees);
+        List<Employee> snapshot = snapshotCache.readEmployees(employeeFile).orElseThrow();
+
+        assertEquals(employees.size(), snapshot.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee expected = employees.get(i);
+            Employee actual = snapshot.get(i);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.address, actual.address);
+            assertEquals(expected.employmentStatus, actual.employmentStatus);
+            assertEquals(expected.immediateSupervisor, actual.immediateSupervisor);
+            assertEquals(expected.basicSalary, actual.basicSalary);
+            assertEquals(expected.grossSemimonthlyRate, actual.grossSemimonthlyRate);
+            assertEquals(expected.hourlyRate, actual.hourlyRate);
+        }
+    }
+
+    @Test
+    public void snapshotSurvivesTouchWithoutChange() throws IOException {
+        Files.setLastModifiedTime(attendanceFile, FileTime.fromMillis(0));
+
+        assertTrue(snapshotCache.readAttendanceStore(attendanceFile).isPresent());
+    }
+
+    @Test
+    public void snapshotIsStaleWhenSourceChanges() throws IOException {
+        Files.writeString(attendanceFile, "\n10001,Garcia,Manuel III,12/31/2024,8:00,17:00",
+                StandardOpenOption.APPEND);
+
+        assertTrue(snapshotCache.readAttendanceStore(attendanceFile).isEmpty());
+    }
+
+    @Test
+    public void snapshotIsStaleWhenSourceChangesInPlace() throws IOException {
+        byte[] contents = Files.readAllBytes(attendanceFile);
+        FileTime lastModified = Files.getLastModifiedTime(attendanceFile);
+        contents[contents.length - 1] = (byte) (contents[contents.length - 1] == '0' ? '1' : '0');
+        Files.write(attendanceFile, contents);
+        Files.setLastModifiedTime(attendanceFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+        assertTrue(snapshotCache.readAttendanceStore(attendanceFile).isEmpty());
+    }
+
+    @Test
+    public void corruptSnapshotIsIgnored() throws IOException {
+        Path snapshot = snapshotCache.snapshotOf(attendanceFile);
+        byte[] contents = Files.readAllBytes(snapshot);
+        contents[SnapshotCache.HEADER_SIZE + 10] ^= 1;
+        Files.write(snapshot, contents);
+
+        assertTrue(snapshotCache.readAttendanceStore(attendanceFile).isEmpty());
+        assertTrue(snapshotCache.readEmployees(attendanceFile).isEmpty());
+    }
+
+    @Test
+    public void snapshotCoversTheStartOfAnAppendedFile() throws IOException {
+        long length = Files.size(attendanceFile);
+        Files.writeString(attendanceFile, "\n10001,Garcia,Manuel III,12/31/2024,8:00,17:00",
+                StandardOpenOption.APPEND);
+
+        SnapshotCache.AttendancePrefix prefix = snapshotCache.readAttendancePrefix(attendanceFile).orElseThrow();
+        assertEquals(length, prefix.length());
+        assertEquals(SnapshotCache.Fingerprint.of(attendanceFile), prefix.source());
+        assertEquals(store.asList().toString(), prefix.store().asList().toString());
+    }
+
+    @Test
+    public void snapshotDoesNotCoverAChangedStart() throws IOException {
+        byte[] contents = Files.readAllBytes(attendanceFile);
+        contents[contents.length - 1] = (byte) (contents[contents.length - 1] == '0' ? '1' : '0');
+        Files.write(attendanceFile, contents);
+        Files.writeString(attendanceFile, "\n10001,Garcia,Manuel III,12/31/2024,8:00,17:00",
+                StandardOpenOption.APPEND);
+
+        assertTrue(snapshotCache.readAttendancePrefix(attendanceFile).isEmpty());
+    }
+}
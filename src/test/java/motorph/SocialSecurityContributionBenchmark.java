@@ -0,0 +1,61 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the table-driven
+ * {@link SalaryDeductionService#calculateSocialSecuritySystemContribution(BigDecimal)}
+ * against the hard-coded linear scan it replaced, which built its 44 brackets of
+ * {@link BigDecimal}s on every call.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SocialSecurityContributionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SocialSecurityContributionBenchmark {
+    private BigDecimal[] compensations;
+    private int nextCompensation;
+
+    @Setup
+    public void createCompensations() {
+        SplittableRandom random = new SplittableRandom(42);
+        compensations = new BigDecimal[1024];
+        for (int i = 0; i < compensations.length; i++) {
+            compensations[i] = BigDecimal.valueOf(random.nextLong(0, 3_000_000), 2);
+        }
+        SalaryDeductionService.calculateSocialSecuritySystemContribution(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public BigDecimal tableLookup() {
+        return SalaryDeductionService.calculateSocialSecuritySystemContribution(nextCompensation());
+    }
+
+    @Benchmark
+    public BigDecimal linearScan() {
+        return SocialSecurityContributionTableTest.linearSocialSecuritySystemContribution(nextCompensation());
+    }
+
+    private BigDecimal nextCompensation() {
+        return compensations[nextCompensation++ & (compensations.length - 1)];
+    }
+}
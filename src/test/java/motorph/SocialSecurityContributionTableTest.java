@@ -0,0 +1,123 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SocialSecurityContributionTableTest {
+
+    @Test
+    public void tableMatchesHardCodedBracketsForWholeCentavos() {
+        for (long centavos = -100; centavos <= 3_000_000; centavos += 37) {
+            BigDecimal compensation = BigDecimal.valueOf(centavos, 2);
+            assertEquals(linearSocialSecuritySystemContribution(compensation),
+                    SalaryDeductionService.calculateSocialSecuritySystemContribution(compensation),
+                    compensation::toPlainString);
+        }
+        for (long pesos = 3250; pesos <= 25250; pesos += 500) {
+            for (BigDecimal compensation : List.of(BigDecimal.valueOf(pesos), BigDecimal.valueOf(pesos * 100 - 1, 2))) {
+                assertEquals(linearSocialSecuritySystemContribution(compensation),
+                        SalaryDeductionService.calculateSocialSecuritySystemContribution(compensation),
+                        compensation::toPlainString);
+            }
+        }
+        assertEquals(BigDecimal.valueOf(1125.00),
+                SalaryDeductionService.calculateSocialSecuritySystemContribution(new BigDecimal("1E+30")));
+    }
+
+    @Test
+    public void loadReadsScheduleWithHeaderAndThousandSeparators(@TempDir Path directory) throws IOException {
+        Path schedule = Files.writeString(directory.resolve("schedule.csv"), """
+                MinCompensation,MaxCompensation,Contribution
+                "2,000","3,000",100.00
+                "1,000","2,000",50.00
+                "4,000","5,000",200.00
+                """);
+        SocialSecurityContributionTable table = SocialSecurityContributionTable.load(schedule, BigDecimal.ONE);
+
+        assertEquals(3, table.size());
+        assertEquals(BigDecimal.ONE, table.lookup(new BigDecimal("999.99")));
+        assertEquals(BigDecimal.valueOf(50.00), table.lookup(new BigDecimal("1000")));
+        assertEquals(BigDecimal.valueOf(50.00), table.lookup(new BigDecimal("1999.999")));
+        assertEquals(BigDecimal.valueOf(100.00), table.lookup(new BigDecimal("2000")));
+        assertEquals(BigDecimal.ONE, table.lookup(new BigDecimal("3500")));
+        assertEquals(BigDecimal.valueOf(200.00), table.lookup(new BigDecimal("1000000")));
+    }
+
+    @Test
+    public void loadRejectsMalformedSchedules() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SocialSecurityContributionTable.of(List.of(), BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> SocialSecurityContributionTable.of(
+                List.<String[]>of(new String[] { "1,000", "2,000", "ten" }), BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> SocialSecurityContributionTable.of(List.of(
+                new String[] { "1,000", "2,000", "10" }, new String[] { "1,500", "2,500", "20" }), BigDecimal.ONE));
+    }
+
+    /**
+     * The SSS contribution lookup as it was before the schedule file was used.
+     */
+    static BigDecimal linearSocialSecuritySystemContribution(BigDecimal compensation) {
+        BigDecimal[][] brackets = {
+                { BigDecimal.valueOf(3250), BigDecimal.valueOf(3749.99), BigDecimal.valueOf(157.50) },
+                { BigDecimal.valueOf(3750), BigDecimal.valueOf(4249.99), BigDecimal.valueOf(180.00) },
+                { BigDecimal.valueOf(4250), BigDecimal.valueOf(4749.99), BigDecimal.valueOf(202.50) },
+                { BigDecimal.valueOf(4750), BigDecimal.valueOf(5249.99), BigDecimal.valueOf(225.00) },
+                { BigDecimal.valueOf(5250), BigDecimal.valueOf(5749.99), BigDecimal.valueOf(247.50) },
+                { BigDecimal.valueOf(5750), BigDecimal.valueOf(6249.99), BigDecimal.valueOf(270.00) },
+                { BigDecimal.valueOf(6250), BigDecimal.valueOf(6749.99), BigDecimal.valueOf(292.50) },
+                { BigDecimal.valueOf(6750), BigDecimal.valueOf(7249.99), BigDecimal.valueOf(315.00) },
+                { BigDecimal.valueOf(7250), BigDecimal.valueOf(7749.99), BigDecimal.valueOf(337.50) },
+                { BigDecimal.valueOf(7750), BigDecimal.valueOf(8249.99), BigDecimal.valueOf(360.00) },
+                { BigDecimal.valueOf(8250), BigDecimal.valueOf(8749.99), BigDecimal.valueOf(382.50) },
+                { BigDecimal.valueOf(8750), BigDecimal.valueOf(9249.99), BigDecimal.valueOf(405.00) },
+                { BigDecimal.valueOf(9250), BigDecimal.valueOf(9749.99), BigDecimal.valueOf(427.50) },
+                { BigDecimal.valueOf(9750), BigDecimal.valueOf(10249.99), BigDecimal.valueOf(450.00) },
+                { BigDecimal.valueOf(10250), BigDecimal.valueOf(10749.99), BigDecimal.valueOf(472.50) },
+                { BigDecimal.valueOf(10750), BigDecimal.valueOf(11249.99), BigDecimal.valueOf(495.00) },
+                { BigDecimal.valueOf(11250), BigDecimal.valueOf(11749.99), BigDecimal.valueOf(517.50) },
+                { BigDecimal.valueOf(11750), BigDecimal.valueOf(12249.99), BigDecimal.valueOf(540.00) },
+                { BigDecimal.valueOf(12250), BigDecimal.valueOf(12749.99), BigDecimal.valueOf(562.50) },
+                { BigDecimal.valueOf(12750), BigDecimal.valueOf(13249.99), BigDecimal.valueOf(585.00) },
+                { BigDecimal.valueOf(13250), BigDecimal.valueOf(13749.99), BigDecimal.valueOf(607.50) },
+                { BigDecimal.valueOf(13750), BigDecimal.valueOf(14249.99), BigDecimal.valueOf(630.00) },
+                { BigDecimal.valueOf(14250), BigDecimal.valueOf(14749.99), BigDecimal.valueOf(652.50) },
+                { BigDecimal.valueOf(14750), BigDecimal.valueOf(15249.99), BigDecimal.valueOf(675.00) },
+                { BigDecimal.valueOf(15250), BigDecimal.valueOf(15749.99), BigDecimal.valueOf(697.50) },
+                { BigDecimal.valueOf(15750), BigDecimal.valueOf(16249.99), BigDecimal.valueOf(720.00) },
+                { BigDecimal.valueOf(16250), BigDecimal.valueOf(16749.99), BigDecimal.valueOf(742.50) },
+                { BigDecimal.valueOf(16750), BigDecimal.valueOf(17249.99), BigDecimal.valueOf(765.00) },
+                { BigDecimal.valueOf(17250), BigDecimal.valueOf(17749.99), BigDecimal.valueOf(787.50) },
+                { BigDecimal.valueOf(17750), BigDecimal.valueOf(18249.99), BigDecimal.valueOf(810.00) },
+                { BigDecimal.valueOf(18250), BigDecimal.valueOf(18749.99), BigDecimal.valueOf(832.50) },
+                { BigDecimal.valueOf(18750), BigDecimal.valueOf(19249.99), BigDecimal.valueOf(855.00) },
+                { BigDecimal.valueOf(19250), BigDecimal.valueOf(19749.99), BigDecimal.valueOf(877.50) },
+                { BigDecimal.valueOf(19750), BigDecimal.valueOf(20249.99), BigDecimal.valueOf(900.00) },
+                { BigDecimal.valueOf(20250), BigDecimal.valueOf(20749.99), BigDecimal.valueOf(922.50) },
+                { BigDecimal.valueOf(20750), BigDecimal.valueOf(21249.99), BigDecimal.valueOf(945.00) },
+                { BigDecimal.valueOf(21250), BigDecimal.valueOf(21749.99), BigDecimal.valueOf(967.50) },
+                { BigDecimal.valueOf(21750), BigDecimal.valueOf(22249.99), BigDecimal.valueOf(990.00) },
+                { BigDecimal.valueOf(22250), BigDecimal.valueOf(22749.99), BigDecimal.valueOf(1012.50) },
+                { BigDecimal.valueOf(22750), BigDecimal.valueOf(23249.99), BigDecimal.valueOf(1035.00) },
+                { BigDecimal.valueOf(23250), BigDecimal.valueOf(23749.99), BigDecimal.valueOf(1057.50) },
+                { BigDecimal.valueOf(23750), BigDecimal.valueOf(24249.99), BigDecimal.valueOf(1080.00) },
+                { BigDecimal.valueOf(24250), BigDecimal.valueOf(24749.99), BigDecimal.valueOf(1102.50) },
+                { BigDecimal.valueOf(24750), BigDecimal.valueOf(Double.MAX_VALUE), BigDecimal.valueOf(1125.00) }
+        };
+
+        for (BigDecimal[] bracket : brackets) {
+            if (compensation.compareTo(bracket[0]) >= 0 && compensation.compareTo(bracket[1]) <= 0) {
+                return bracket[2];
+            }
+        }
+        return BigDecimal.valueOf(135.00);
+    }
+}
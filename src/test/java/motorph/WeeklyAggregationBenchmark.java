@@ -0,0 +1,112 @@
+package motorph;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares aggregating employee-weeks of attendance into
+ * {@link WeeklyAttendanceTotals} record by record through
+ * {@link java.time.Duration}s, row by row from the store columns, and with the
+ * single-pass {@link WeeklyAttendanceTotals#addAll(AttendanceStore, int[], BigDecimal)}
+ * kernel.
+ * <p>
+ * The bundled attendance rows are repeated {@code scale} times, each copy
+ * moved a whole number of 52-week years later so every copy keeps its
+ * weekdays, and grouped into weeks by {@link PayPeriodEngine}.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=WeeklyAggregationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WeeklyAggregationBenchmark {
+    @Param({ "1000" })
+    public int scale;
+
+    private AttendanceStore store;
+    private final List<int[]> weeks = new ArrayList<>();
+    private final List<BigDecimal> hourlyRates = new ArrayList<>();
+
+    @Setup
+    public void groupScaledAttendance() {
+        AttendanceStore bundled = EmployeeDatabaseService.getAttendanceIndex().getStore();
+        AttendanceStore.Builder builder = new AttendanceStore.Builder(bundled.size() * scale);
+        for (int copy = 0; copy < scale; copy++) {
+            for (int row = 0; row < bundled.size(); row++) {
+                AttendanceRecord attendanceRecord = bundled.get(row);
+                attendanceRecord.date = attendanceRecord.date.plusWeeks(52L * copy);
+                builder.accept(attendanceRecord);
+            }
+        }
+        store = builder.build();
+
+        AttendanceIndex index = new AttendanceIndex(store);
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            PayPeriodEngine.forEachMonth(store, index.getRows(employee.employeeId), PaySchedule.WEEKLY,
+                    LocalDate.MIN, LocalDate.MAX, (month, periods) -> {
+                        for (PayPeriodEngine.PeriodRows period : periods) {
+                            weeks.add(period.rows());
+                            hourlyRates.add(employee.hourlyRate);
+                        }
+                    });
+        }
+    }
+
+    @Benchmark
+    public void perRecord(Blackhole blackhole) {
+        for (int[] week : weeks) {
+            double hoursWorked = 0;
+            BigDecimal overtimePay = BigDecimal.ZERO;
+            for (int row : week) {
+                AttendanceRecord attendanceRecord = store.get(row);
+                hoursWorked += EmployeeDatabaseService.calculateEmployeeWorkingDuration(attendanceRecord.logIn,
+                        attendanceRecord.logOut);
+                overtimePay = overtimePay.add(EmployeeDatabaseService.calculateEmployeeOvertimePay(attendanceRecord));
+            }
+            blackhole.consume(hoursWorked);
+            blackhole.consume(overtimePay);
+        }
+    }
+
+    @Benchmark
+    public void perRow(Blackhole blackhole) {
+        for (int week = 0; week < weeks.size(); week++) {
+            WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(null);
+            BigDecimal hourlyRate = hourlyRates.get(week);
+            for (int row : weeks.get(week)) {
+                totals.add(store, row, hourlyRate);
+            }
+            blackhole.consume(totals);
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (int week = 0; week < weeks.size(); week++) {
+            WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(null);
+            totals.addAll(store, weeks.get(week), hourlyRates.get(week));
+            blackhole.consume(totals);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class WeeklyAttendanceTotalsTest {
+
+    @Test
+    public void addAllMatchesAddingEveryRow() {
+        AttendanceIndex index = EmployeeDatabaseService.getAttendanceIndex();
+        AttendanceStore store = index.getStore();
+        for (Employee employee : EmployeeDatabaseService.getAllEmployeeDetails()) {
+            PayPeriodEngine.forEachMonth(store, index.getRows(employee.employeeId), PaySchedule.WEEKLY,
+                    LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31), (month, weeks) -> {
+                        for (PayPeriodEngine.PeriodRows week : weeks) {
+                            WeeklyAttendanceTotals expected = new WeeklyAttendanceTotals(month);
+                            for (int row : week.rows()) {
+                                expected.add(store, row, employee.hourlyRate);
+                            }
+                            WeeklyAttendanceTotals actual = new WeeklyAttendanceTotals(month);
+                            actual.addAll(store, week.rows(), employee.hourlyRate);
+
+                            assertEquals(expected.hoursWorked(), actual.hoursWorked());
+                            assertEquals(expected.overtimePay(), actual.overtimePay());
+                        }
+                    });
+        }
+    }
+
+    @Test
+    public void addAllPricesEveryNumberOfOvertimeHours() {
+        Employee employee = EmployeeDatabaseService.getEmployeeDetailsByEmployeeId(10001).get();
+        List<AttendanceRecord> attendanceRecords = new ArrayList<>();
+        LocalDate date = LocalDate.of(2024, 6, 3);
+        for (int logInMinute : new int[] { 6 * 60, 8 * 60 + 11, 8 * 60 + 12 }) {
+            for (int shiftMinutes = 0; logInMinute + shiftMinutes < 24 * 60; shiftMinutes += 37) {
+                attendanceRecords.add(new AttendanceRecord(employee.employeeId, employee.firstName,
+                        employee.lastName, date, LocalTime.of(logInMinute / 60, logInMinute % 60),
+                        LocalTime.of((logInMinute + shiftMinutes) / 60, (logInMinute + shiftMinutes) % 60)));
+            }
+        }
+        AttendanceStore store = AttendanceStore.of(attendanceRecords);
+        int[] rows = IntStream.range(0, store.size()).toArray();
+
+        double hoursWorked = 0;
+        BigDecimal overtimePay = BigDecimal.ZERO;
+        for (AttendanceRecord attendanceRecord : attendanceRecords) {
+            hoursWorked += EmployeeDatabaseService.calculateEmployeeWorkingDuration(attendanceRecord.logIn,
+                    attendanceRecord.logOut);
+            overtimePay = overtimePay.add(EmployeeDatabaseService.calculateEmployeeOvertimePay(attendanceRecord));
+        }
+        WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(YearMonth.from(date));
+        totals.addAll(store, rows, employee.hourlyRate);
+
+        assertEquals(hoursWorked, totals.hoursWorked());
+        assertEquals(overtimePay, totals.overtimePay());
+    }
+
+    @Test
+    public void addingNoRowsLeavesTheTotalsEmpty() {
+        WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(YearMonth.of(2024, 6));
+        totals.addAll(EmployeeDatabaseService.getAttendanceIndex().getStore(), new int[0], BigDecimal.TEN);
+
+        assertEquals(0.0, totals.hoursWorked());
+        assertEquals(BigDecimal.ZERO, totals.overtimePay());
+    }
+
+    @Test
+    public void recordsWithSecondsAreAddedLikeBefore() {
+        AttendanceRecord attendanceRecord = new AttendanceRecord(10001, "Manuel III", "Garcia",
+                LocalDate.of(2024, 6, 3), LocalTime.of(8, 10, 59), LocalTime.of(19, 10, 30));
+        WeeklyAttendanceTotals totals = new WeeklyAttendanceTotals(YearMonth.of(2024, 6));
+        totals.add(attendanceRecord);
+
+        assertEquals(EmployeeDatabaseService.calculateEmployeeWorkingDuration(attendanceRecord.logIn,
+                attendanceRecord.logOut), totals.hoursWorked());
+        assertEquals(EmployeeDatabaseService.calculateEmployeeOvertimePay(attendanceRecord), totals.overtimePay());
+    }
+}